@@ -0,0 +1,39 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.dto.response.BarVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BarRankingAlgorithm.rankBars 基准：对 size 个酒吧计算距离、质量分并排序
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BarRankingBenchmark {
+
+    private static final double LATITUDE = 31.23;
+    private static final double LONGITUDE = 121.47;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private List<BarVO> bars;
+    private BarRankingAlgorithm.UserLocation userLocation;
+
+    @Setup
+    public void setUp() {
+        bars = SyntheticData.bars(size, LATITUDE, LONGITUDE);
+        userLocation = new BarRankingAlgorithm.UserLocation(LATITUDE, LONGITUDE);
+    }
+
+    @Benchmark
+    public List<BarRankingAlgorithm.BarRecommendationResult> rankBars() {
+        return BarRankingAlgorithm.rankBars(bars, userLocation, null);
+    }
+}
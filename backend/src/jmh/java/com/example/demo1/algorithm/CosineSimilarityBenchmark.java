@@ -0,0 +1,79 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.common.enums.NeighborSearchStrategy;
+import com.example.demo1.mapper.UserBehaviorMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 余弦相似度基准
+ * - contentBased: 用户标签画像与 size 条动态的标签稀疏向量逐一计算余弦相似度
+ * - collaborativeFiltering: 在 size 个用户的互动矩阵上暴力查找 Top-10 相似用户
+ * 数据库访问全部用 Mockito 替换，只测算法本身。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CosineSimilarityBenchmark {
+
+    private static final int TAG_VOCABULARY = 2000;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private SparseVector userTagVector;
+    private List<SparseVector> postTagVectors;
+
+    private CollaborativeFilteringRecommender collaborativeFilteringRecommender;
+    private long[] queryUserIds;
+    private int queryIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SyntheticData.SEED);
+        userTagVector = SyntheticData.tagVector(random, 30, TAG_VOCABULARY);
+        postTagVectors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            postTagVectors.add(SyntheticData.tagVector(random, 1 + random.nextInt(5), TAG_VOCABULARY));
+        }
+
+        UserBehaviorMapper userBehaviorMapper = mock(UserBehaviorMapper.class);
+        when(userBehaviorMapper.selectList(any())).thenReturn(SyntheticData.postBehaviors(size));
+        UserInteractionMatrix matrix = new UserInteractionMatrix(userBehaviorMapper);
+        matrix.rebuild();
+        collaborativeFilteringRecommender = new CollaborativeFilteringRecommender(
+            userBehaviorMapper, matrix, mock(UserNeighborStore.class), mock(SeenPostStore.class));
+
+        queryUserIds = new long[64];
+        for (int i = 0; i < queryUserIds.length; i++) {
+            queryUserIds[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public void contentBased(Blackhole blackhole) {
+        for (SparseVector postTagVector : postTagVectors) {
+            blackhole.consume(SparseVector.cosine(userTagVector, postTagVector));
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Double> collaborativeFiltering() {
+        long userId = queryUserIds[queryIndex++ & (queryUserIds.length - 1)];
+        return collaborativeFilteringRecommender.computeNeighbors(
+            userId, CollaborativeFilteringRecommender.NEIGHBOR_LIMIT, NeighborSearchStrategy.BRUTE_FORCE);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.entity.SharePost;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HotScoreCalculator.rankByHotScore 基准：对 size 条动态打分并取 Top-20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotScoreBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private final HotScoreCalculator calculator = new HotScoreCalculator();
+    private List<SharePost> posts;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        posts = SyntheticData.posts(size, now);
+    }
+
+    @Benchmark
+    public List<Long> rankByHotScore() {
+        return calculator.rankByHotScore(posts, now, 20);
+    }
+}
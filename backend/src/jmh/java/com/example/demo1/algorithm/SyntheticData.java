@@ -0,0 +1,105 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.common.enums.BehaviorType;
+import com.example.demo1.common.enums.TargetType;
+import com.example.demo1.dto.response.BarVO;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.entity.UserBehavior;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试用的合成数据
+ * 固定随机种子，保证每次运行、每个 fork 的数据一致，结果可对比。
+ */
+final class SyntheticData {
+
+    static final long SEED = 20240601L;
+
+    private static final BehaviorType[] BEHAVIOR_TYPES = BehaviorType.values();
+
+    private SyntheticData() {
+    }
+
+    /**
+     * 最近30天内发布、互动数长尾分布的动态
+     */
+    static List<SharePost> posts(int count, LocalDateTime now) {
+        Random random = new Random(SEED);
+        List<SharePost> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SharePost post = new SharePost();
+            post.setId((long) i + 1);
+            post.setViewCount(longTail(random, 5000));
+            post.setLikeCount(longTail(random, 500));
+            post.setFavoriteCount(longTail(random, 200));
+            post.setCommentCount(longTail(random, 300));
+            post.setCreatedAt(now.minusMinutes(random.nextInt(30 * 24 * 60)));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    /**
+     * 分布在用户周围约100公里范围内的酒吧
+     */
+    static List<BarVO> bars(int count, double latitude, double longitude) {
+        Random random = new Random(SEED);
+        List<BarVO> bars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bars.add(BarVO.builder()
+                .id((long) i + 1)
+                .latitude(latitude + (random.nextDouble() - 0.5))
+                .longitude(longitude + (random.nextDouble() - 0.5))
+                .avgRating(random.nextInt(51) / 10.0)
+                .reviewCount(longTail(random, 300))
+                .build());
+        }
+        return bars;
+    }
+
+    /**
+     * 带权标签向量，标签ID取自大小为 vocabulary 的词表（热门标签出现更频繁）
+     */
+    static SparseVector tagVector(Random random, int tagCount, int vocabulary) {
+        SparseVector.Builder builder = new SparseVector.Builder();
+        for (int i = 0; i < tagCount; i++) {
+            int tag = (int) (vocabulary * Math.pow(random.nextDouble(), 2));
+            builder.add(tag, 0.5f + random.nextFloat());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 用户对动态的行为记录：用户分属若干兴趣簇，每人主要与本簇动态互动
+     */
+    static List<UserBehavior> postBehaviors(int userCount) {
+        Random random = new Random(SEED);
+        int clusterCount = Math.max(1, userCount / 200);
+        int postsPerCluster = 300;
+        List<UserBehavior> behaviors = new ArrayList<>(userCount * 25);
+        for (long userId = 1; userId <= userCount; userId++) {
+            int cluster = random.nextInt(clusterCount);
+            int interactions = 5 + random.nextInt(40);
+            for (int i = 0; i < interactions; i++) {
+                long postId = random.nextDouble() < 0.85
+                    ? (long) cluster * postsPerCluster + (int) (postsPerCluster * Math.pow(random.nextDouble(), 2))
+                    : random.nextInt(clusterCount * postsPerCluster);
+                UserBehavior behavior = new UserBehavior();
+                behavior.setUserId(userId);
+                behavior.setTargetType(TargetType.POST);
+                behavior.setTargetId(postId);
+                behavior.setBehaviorType(BEHAVIOR_TYPES[random.nextInt(BEHAVIOR_TYPES.length)]);
+                behaviors.add(behavior);
+            }
+        }
+        return behaviors;
+    }
+
+    private static int longTail(Random random, int max) {
+        return (int) (max * Math.pow(random.nextDouble(), 4));
+    }
+}
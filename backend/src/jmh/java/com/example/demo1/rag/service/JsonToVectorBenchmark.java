@@ -0,0 +1,48 @@
+package com.example.demo1.rag.service;
+
+import com.example.demo1.rag.client.AliyunEmbeddingClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * EmbeddingService.jsonToVector 基准：解析 size 维向量的 JSON 字符串
+ * 嵌入客户端用 Mockito 替换，不发起网络请求。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonToVectorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private EmbeddingService embeddingService;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        embeddingService = new EmbeddingService(mock(AliyunEmbeddingClient.class));
+        Random random = new Random(20240601L);
+        StringBuilder sb = new StringBuilder(size * 12).append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append((float) random.nextGaussian());
+        }
+        json = sb.append(']').toString();
+    }
+
+    @Benchmark
+    public List<Float> jsonToVector() {
+        return embeddingService.jsonToVector(json);
+    }
+}
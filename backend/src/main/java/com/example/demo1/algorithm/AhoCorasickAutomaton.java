@@ -0,0 +1,229 @@
+package com.example.demo1.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho–Corasick 多模式匹配自动机（忽略大小写）
+ * 所有关键词建成一棵字典树并补上失败指针，扫描文本一遍即可找出全部出现的关键词，
+ * 耗时与文本长度加命中数成正比，与关键词数量无关。
+ *
+ * 构建后不可变，可被多个线程同时使用；词典变化时整体重建再替换引用。
+ * 每个节点的出边按字符排序存成数组，查找时二分。
+ */
+public final class AhoCorasickAutomaton<V> {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // 节点本身对应的关键词下标，-1 表示不是关键词结尾
+    private final int[] output;
+    // 沿失败链最近的一个关键词结尾节点，-1 表示没有
+    private final int[] outputLink;
+    // 关键词原文（去除首尾空白，保留大小写）与匹配用的小写长度
+    private final List<String> keywords;
+    private final int[] lengths;
+    private final List<V> values;
+
+    private AhoCorasickAutomaton(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[] output,
+                                 int[] outputLink, List<String> keywords, int[] lengths, List<V> values) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.keywords = keywords;
+        this.lengths = lengths;
+        this.values = values;
+    }
+
+    /**
+     * 构建自动机，按小写匹配，空白关键词忽略，只有大小写不同的重复关键词保留先出现的
+     */
+    public static <V> AhoCorasickAutomaton<V> build(Map<String, V> dictionary) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(-1);
+        List<String> keywords = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        List<V> values = new ArrayList<>();
+
+        for (Map.Entry<String, V> entry : dictionary.entrySet()) {
+            if (entry.getKey() == null || entry.getKey().isBlank()) {
+                continue;
+            }
+            String original = entry.getKey().trim();
+            String keyword = original.toLowerCase(Locale.ROOT);
+            int node = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char ch = keyword.charAt(i);
+                Integer next = trie.get(node).get(ch);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    terminal.add(-1);
+                    trie.get(node).put(ch, next);
+                }
+                node = next;
+            }
+            if (terminal.get(node) < 0) {
+                terminal.set(node, keywords.size());
+                keywords.add(original);
+                lengths.add(keyword.length());
+                values.add(entry.getValue());
+            }
+        }
+
+        int size = trie.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        int[] output = new int[size];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            if (edges.isEmpty()) {
+                edgeChars[node] = NO_CHARS;
+                edgeTargets[node] = NO_TARGETS;
+            } else {
+                edgeChars[node] = new char[edges.size()];
+                edgeTargets[node] = new int[edges.size()];
+                int k = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    edgeChars[node][k] = edge.getKey();
+                    edgeTargets[node][k] = edge.getValue();
+                    k++;
+                }
+            }
+            output[node] = terminal.get(node);
+        }
+
+        // 广度优先计算失败指针：子节点的失败指针 = 父节点失败链上第一个有同字符出边的节点的子节点
+        int[] fail = new int[size];
+        int[] outputLink = new int[size];
+        outputLink[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            fail[child] = 0;
+            outputLink[child] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int k = 0; k < edgeChars[node].length; k++) {
+                char ch = edgeChars[node][k];
+                int child = edgeTargets[node][k];
+                int f = fail[node];
+                int target = next(edgeChars, edgeTargets, f, ch);
+                while (target < 0 && f != 0) {
+                    f = fail[f];
+                    target = next(edgeChars, edgeTargets, f, ch);
+                }
+                fail[child] = target < 0 ? 0 : target;
+                outputLink[child] = output[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new AhoCorasickAutomaton<>(edgeChars, edgeTargets, fail, output, outputLink, keywords,
+            lengths.stream().mapToInt(Integer::intValue).toArray(), values);
+    }
+
+    /**
+     * 找出文本中出现的全部关键词（含重叠、重复出现）
+     */
+    public List<Match<V>> findAll(String text) {
+        List<Match<V>> matches = new ArrayList<>();
+        scan(text, (end, keywordIndex) -> matches.add(new Match<>(keywords.get(keywordIndex),
+            values.get(keywordIndex), end - lengths[keywordIndex] + 1)));
+        return matches;
+    }
+
+    /**
+     * 找出文本中出现过的不同关键词及其值，按首次出现的位置排序
+     */
+    public Map<String, V> findDistinct(String text) {
+        Map<String, V> found = new LinkedHashMap<>();
+        scan(text, (end, keywordIndex) -> found.putIfAbsent(keywords.get(keywordIndex), values.get(keywordIndex)));
+        return found;
+    }
+
+    public int size() {
+        return keywords.size();
+    }
+
+    private void scan(String text, MatchVisitor visitor) {
+        if (text == null || keywords.isEmpty()) {
+            return;
+        }
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = Character.toLowerCase(text.charAt(i));
+            int target = next(edgeChars, edgeTargets, node, ch);
+            while (target < 0 && node != 0) {
+                node = fail[node];
+                target = next(edgeChars, edgeTargets, node, ch);
+            }
+            node = target < 0 ? 0 : target;
+            for (int hit = output[node] >= 0 ? node : outputLink[node]; hit >= 0; hit = outputLink[hit]) {
+                visitor.visit(i, output[hit]);
+            }
+        }
+    }
+
+    private static int next(char[][] edgeChars, int[][] edgeTargets, int node, char ch) {
+        char[] chars = edgeChars[node];
+        int low = 0;
+        int high = chars.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chars[mid] < ch) {
+                low = mid + 1;
+            } else if (chars[mid] > ch) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[node][mid];
+            }
+        }
+        return -1;
+    }
+
+    @FunctionalInterface
+    private interface MatchVisitor {
+        void visit(int end, int keywordIndex);
+    }
+
+    /**
+     * 一次命中：关键词原文、对应的值与在文本中的起始位置
+     */
+    public static final class Match<V> {
+        private final String keyword;
+        private final V value;
+        private final int start;
+
+        Match(String keyword, V value, int start) {
+            this.keyword = keyword;
+            this.value = value;
+            this.start = start;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public int getStart() {
+            return start;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo1.algorithm;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.example.demo1.common.enums.BehaviorType;
+import com.example.demo1.common.enums.NeighborSearchStrategy;
 import com.example.demo1.common.enums.TargetType;
 import com.example.demo1.dto.response.RecommendationResult;
 import com.example.demo1.entity.SharePost;
@@ -9,10 +10,11 @@ import com.example.demo1.entity.UserBehavior;
 import com.example.demo1.mapper.UserBehaviorMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +27,15 @@ import java.util.stream.Collectors;
 public class CollaborativeFilteringRecommender {
 
     private final UserBehaviorMapper userBehaviorMapper;
+    private final UserInteractionMatrix userInteractionMatrix;
+    private final UserNeighborStore userNeighborStore;
+    private final SeenPostStore seenPostStore;
+
+    // 相似用户数量(Top-K)
+    public static final int NEIGHBOR_LIMIT = 10;
+
+    @Value("${recommend.cf.neighbor-strategy:BRUTE_FORCE}")
+    private NeighborSearchStrategy neighborStrategy = NeighborSearchStrategy.BRUTE_FORCE;
 
     // 行为权重配置
     private static final double VIEW_WEIGHT = 1.0;
@@ -42,34 +53,48 @@ public class CollaborativeFilteringRecommender {
      * @return 推荐结果列表
      */
     public List<RecommendationResult> recommend(Long userId, List<SharePost> candidatePosts, int limit) {
-        // 1. 找到相似用户(Top-K)
-        List<Long> similarUserIds = findSimilarUsers(userId, 10);
+        // 1. 找到相似用户(Top-K)及相似度
+        Map<Long, Double> userSimilarityMap = resolveNeighbors(userId);
+        List<Long> similarUserIds = new ArrayList<>(userSimilarityMap.keySet());
         
         if (similarUserIds.isEmpty()) {
             log.debug("用户{}没有找到相似用户，无法进行协同过滤推荐", userId);
             return Collections.emptyList();
         }
 
-        // 2. 获取相似用户喜欢的动态
-        Set<Long> similarUserLikedPostIds = getSimilarUserLikedPosts(similarUserIds, userId);
-        
-        if (similarUserLikedPostIds.isEmpty()) {
-            log.debug("相似用户没有喜欢的动态", userId);
+        if (candidatePosts.isEmpty()) {
             return Collections.emptyList();
         }
 
-        // 3. 计算用户相似度映射
-        Map<Long, Double> userSimilarityMap = calculateUserSimilarities(userId, similarUserIds);
+        // 2. 一次查询取出相似用户对所有候选动态的正向行为（点赞、收藏、评论）
+        List<Long> candidatePostIds = candidatePosts.stream()
+            .map(SharePost::getId)
+            .collect(Collectors.toList());
+        List<UserBehavior> neighborBehaviors = getNeighborBehaviors(similarUserIds, candidatePostIds);
+
+        if (neighborBehaviors.isEmpty()) {
+            log.debug("相似用户没有喜欢的候选动态, 用户{}", userId);
+            return Collections.emptyList();
+        }
+
+        // 3. 过滤掉当前用户已看过的动态
+        LongPredicate seen = seenPostStore.seenFilter(userId);
+
+        // 4. 单次遍历，按相似度加权累加每个候选动态的分数
+        Map<Long, Double> postScores = new HashMap<>();
+        for (UserBehavior behavior : neighborBehaviors) {
+            Long postId = behavior.getTargetId();
+            if (seen.test(postId)) {
+                continue;
+            }
+            double similarity = userSimilarityMap.getOrDefault(behavior.getUserId(), 0.0);
+            double behaviorWeight = getBehaviorWeight(behavior.getBehaviorType());
+            postScores.merge(postId, similarity * behaviorWeight, Double::sum);
+        }
 
-        // 4. 过滤候选动态，只保留相似用户喜欢的
-        // 5. 按相似度加权排序
-        List<RecommendationResult> results = candidatePosts.stream()
-            .filter(post -> similarUserLikedPostIds.contains(post.getId()))
-            .map(post -> {
-                double score = calculateCollaborativeScore(post, similarUserIds, userSimilarityMap);
-                return new RecommendationResult(post.getId(), score, "相似用户喜欢");
-            })
-            .filter(r -> r.getScore() > 0)
+        List<RecommendationResult> results = postScores.entrySet().stream()
+            .filter(e -> e.getValue() > 0)
+            .map(e -> new RecommendationResult(e.getKey(), e.getValue(), "相似用户喜欢"))
             .sorted(Comparator.comparingDouble(RecommendationResult::getScore).reversed())
             .limit(limit)
             .collect(Collectors.toList());
@@ -78,6 +103,18 @@ public class CollaborativeFilteringRecommender {
         return results;
     }
 
+    /**
+     * 获取相似用户及相似度
+     * 优先读取离线预计算结果，尚未计算过的冷用户实时计算
+     */
+    private Map<Long, Double> resolveNeighbors(Long userId) {
+        Map<Long, Double> precomputed = userNeighborStore.get(userId);
+        if (precomputed != null) {
+            return precomputed;
+        }
+        return computeNeighbors(userId, NEIGHBOR_LIMIT);
+    }
+
     /**
      * 查找相似用户（Top-K）
      * 
@@ -86,118 +123,97 @@ public class CollaborativeFilteringRecommender {
      * @return 相似用户ID列表
      */
     public List<Long> findSimilarUsers(Long userId, int limit) {
-        // 获取所有有行为的用户ID（排除当前用户）
-        Set<Long> allUserIds = userBehaviorMapper.selectList(
-            new LambdaQueryWrapper<UserBehavior>()
-                .eq(UserBehavior::getTargetType, TargetType.POST)
-                .ge(UserBehavior::getCreatedAt, LocalDateTime.now().minusDays(30))
-                .select(UserBehavior::getUserId)
-        ).stream()
-        .map(UserBehavior::getUserId)
-        .filter(id -> !id.equals(userId))
-        .collect(Collectors.toSet());
-
-        if (allUserIds.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // 计算与所有用户的相似度
-        List<UserSimilarity> similarities = allUserIds.stream()
-            .map(otherUserId -> {
-                double similarity = calculateUserSimilarity(userId, otherUserId);
-                return new UserSimilarity(otherUserId, similarity);
-            })
-            .filter(us -> us.similarity > 0)
-            .sorted(Comparator.comparingDouble((UserSimilarity us) -> us.similarity).reversed())
-            .limit(limit)
-            .collect(Collectors.toList());
-
-        return similarities.stream()
-            .map(us -> us.userId)
-            .collect(Collectors.toList());
+        return new ArrayList<>(computeNeighbors(userId, limit).keySet());
     }
 
     /**
-     * 计算用户相似度（余弦相似度）
+     * 实时计算相似用户及相似度（Top-K），使用配置的查找策略
      * 
-     * @param user1Id 用户1 ID
-     * @param user2Id 用户2 ID
-     * @return 相似度分数（0-1之间）
+     * @param userId 用户ID
+     * @param limit 返回的相似用户数量
+     * @return 相似用户ID -> 相似度，按相似度降序
      */
-    public double calculateUserSimilarity(Long user1Id, Long user2Id) {
-        // 获取用户互动向量
-        Map<Long, Double> vector1 = getUserInteractionVector(user1Id);
-        Map<Long, Double> vector2 = getUserInteractionVector(user2Id);
-
-        if (vector1.isEmpty() || vector2.isEmpty()) {
-            return 0.0;
-        }
-
-        // 计算余弦相似度
-        Set<Long> commonPostIds = new HashSet<>(vector1.keySet());
-        commonPostIds.retainAll(vector2.keySet());
+    public Map<Long, Double> computeNeighbors(Long userId, int limit) {
+        return computeNeighbors(userId, limit, neighborStrategy);
+    }
 
-        if (commonPostIds.isEmpty()) {
-            return 0.0;
+    /**
+     * 实时计算相似用户及相似度（Top-K）
+     * 在常驻内存的互动矩阵上计算，不访问数据库：
+     * - BRUTE_FORCE: 扫描所有用户
+     * - LSH: 只对 MinHash 分桶碰撞的候选用户计算余弦相似度，索引不可用时退回暴力扫描
+     * 
+     * @param userId 用户ID
+     * @param limit 返回的相似用户数量
+     * @param strategy 查找策略
+     * @return 相似用户ID -> 相似度，按相似度降序
+     */
+    public Map<Long, Double> computeNeighbors(Long userId, int limit, NeighborSearchStrategy strategy) {
+        UserInteractionMatrix.Row target = userInteractionMatrix.getRow(userId);
+        if (target == null || limit <= 0) {
+            return Collections.emptyMap();
         }
 
-        // 计算点积
-        double dotProduct = 0.0;
-        for (Long postId : commonPostIds) {
-            double v1 = vector1.get(postId);
-            double v2 = vector2.get(postId);
-            dotProduct += v1 * v2;
+        // 小顶堆保留相似度最高的K个用户
+        PriorityQueue<UserSimilarity> topK = new PriorityQueue<>(
+            Comparator.comparingDouble((UserSimilarity us) -> us.similarity));
+        Set<Long> candidates = strategy == NeighborSearchStrategy.LSH
+            ? userInteractionMatrix.lshCandidates(userId)
+            : null;
+        if (candidates != null) {
+            for (Long candidateId : candidates) {
+                offer(topK, limit, candidateId, UserInteractionMatrix.cosine(
+                    target, userInteractionMatrix.getRow(candidateId)));
+            }
+        } else {
+            userInteractionMatrix.forEachRow((otherUserId, row) -> {
+                if (!otherUserId.equals(userId)) {
+                    offer(topK, limit, otherUserId, UserInteractionMatrix.cosine(target, row));
+                }
+            });
         }
 
-        // 计算向量范数
-        double norm1 = 0.0;
-        for (Double value : vector1.values()) {
-            norm1 += value * value;
-        }
-        norm1 = Math.sqrt(norm1);
+        Map<Long, Double> result = new LinkedHashMap<>();
+        topK.stream()
+            .sorted(Comparator.comparingDouble((UserSimilarity us) -> us.similarity).reversed())
+            .forEach(us -> result.put(us.userId, us.similarity));
+        return result;
+    }
 
-        double norm2 = 0.0;
-        for (Double value : vector2.values()) {
-            norm2 += value * value;
+    private static void offer(PriorityQueue<UserSimilarity> topK, int limit, Long userId, double similarity) {
+        if (similarity <= 0) {
+            return;
         }
-        norm2 = Math.sqrt(norm2);
-
-        if (norm1 == 0.0 || norm2 == 0.0) {
-            return 0.0;
+        if (topK.size() < limit) {
+            topK.offer(new UserSimilarity(userId, similarity));
+        } else if (similarity > topK.peek().similarity) {
+            topK.poll();
+            topK.offer(new UserSimilarity(userId, similarity));
         }
-
-        return dotProduct / (norm1 * norm2);
     }
 
     /**
-     * 获取用户互动向量
-     * 浏览: 权重1.0, 点赞: 权重2.0, 收藏: 权重3.0, 评论: 权重1.5
+     * 计算用户相似度（余弦相似度）
      * 
-     * @param userId 用户ID
-     * @return 动态ID -> 互动权重的映射
+     * @param user1Id 用户1 ID
+     * @param user2Id 用户2 ID
+     * @return 相似度分数（0-1之间）
      */
-    private Map<Long, Double> getUserInteractionVector(Long userId) {
-        List<UserBehavior> behaviors = userBehaviorMapper.selectList(
-            new LambdaQueryWrapper<UserBehavior>()
-                .eq(UserBehavior::getUserId, userId)
-                .eq(UserBehavior::getTargetType, TargetType.POST)
-                .ge(UserBehavior::getCreatedAt, LocalDateTime.now().minusDays(30))
+    public double calculateUserSimilarity(Long user1Id, Long user2Id) {
+        return UserInteractionMatrix.cosine(
+            userInteractionMatrix.getRow(user1Id),
+            userInteractionMatrix.getRow(user2Id)
         );
-
-        Map<Long, Double> vector = new HashMap<>();
-        for (UserBehavior behavior : behaviors) {
-            Long postId = behavior.getTargetId();
-            double weight = getBehaviorWeight(behavior.getBehaviorType());
-            vector.put(postId, vector.getOrDefault(postId, 0.0) + weight);
-        }
-
-        return vector;
     }
 
     /**
      * 获取行为权重
+     * 浏览: 权重1.0, 点赞: 权重2.0, 收藏: 权重3.0, 评论: 权重1.5
      */
-    private double getBehaviorWeight(BehaviorType behaviorType) {
+    static double getBehaviorWeight(BehaviorType behaviorType) {
+        if (behaviorType == null) {
+            return 1.0;
+        }
         switch (behaviorType) {
             case VIEW:
                 return VIEW_WEIGHT;
@@ -215,72 +231,19 @@ public class CollaborativeFilteringRecommender {
     }
 
     /**
-     * 计算用户相似度映射
+     * 批量获取相似用户对候选动态的正向行为（点赞、收藏、评论）
+     * 整个候选集只查询一次
      */
-    private Map<Long, Double> calculateUserSimilarities(Long userId, List<Long> similarUserIds) {
-        Map<Long, Double> similarityMap = new HashMap<>();
-        for (Long similarUserId : similarUserIds) {
-            double similarity = calculateUserSimilarity(userId, similarUserId);
-            similarityMap.put(similarUserId, similarity);
-        }
-        return similarityMap;
-    }
-
-    /**
-     * 获取相似用户喜欢的动态
-     * 过滤掉当前用户已看过的动态
-     */
-    private Set<Long> getSimilarUserLikedPosts(List<Long> similarUserIds, Long currentUserId) {
-        // 获取当前用户已看过的动态
-        Set<Long> currentUserViewedPosts = userBehaviorMapper.selectList(
-            new LambdaQueryWrapper<UserBehavior>()
-                .eq(UserBehavior::getUserId, currentUserId)
-                .eq(UserBehavior::getTargetType, TargetType.POST)
-                .select(UserBehavior::getTargetId)
-        ).stream()
-        .map(UserBehavior::getTargetId)
-        .collect(Collectors.toSet());
-
-        // 获取相似用户喜欢的动态（点赞、收藏、评论）
-        Set<Long> likedPostIds = userBehaviorMapper.selectList(
+    private List<UserBehavior> getNeighborBehaviors(List<Long> similarUserIds, List<Long> candidatePostIds) {
+        return userBehaviorMapper.selectList(
             new LambdaQueryWrapper<UserBehavior>()
                 .in(UserBehavior::getUserId, similarUserIds)
                 .eq(UserBehavior::getTargetType, TargetType.POST)
-                .in(UserBehavior::getBehaviorType, 
-                    Arrays.asList(BehaviorType.LIKE, BehaviorType.FAVORITE, BehaviorType.COMMENT))
-        ).stream()
-        .map(UserBehavior::getTargetId)
-        .filter(postId -> !currentUserViewedPosts.contains(postId))
-        .collect(Collectors.toSet());
-
-        return likedPostIds;
-    }
-
-    /**
-     * 计算协同过滤推荐分数
-     * 按相似度加权求和相似用户对该动态的行为权重
-     */
-    private double calculateCollaborativeScore(SharePost post, List<Long> similarUserIds, Map<Long, Double> userSimilarityMap) {
-        // 统计有多少相似用户喜欢这个动态
-        List<UserBehavior> behaviors = userBehaviorMapper.selectList(
-            new LambdaQueryWrapper<UserBehavior>()
-                .in(UserBehavior::getUserId, similarUserIds)
-                .eq(UserBehavior::getTargetType, TargetType.POST)
-                .eq(UserBehavior::getTargetId, post.getId())
+                .in(UserBehavior::getTargetId, candidatePostIds)
                 .in(UserBehavior::getBehaviorType,
                     Arrays.asList(BehaviorType.LIKE, BehaviorType.FAVORITE, BehaviorType.COMMENT))
+                .select(UserBehavior::getUserId, UserBehavior::getTargetId, UserBehavior::getBehaviorType)
         );
-
-        // 按相似度加权求和
-        double score = 0.0;
-        for (UserBehavior behavior : behaviors) {
-            Long similarUserId = behavior.getUserId();
-            double similarity = userSimilarityMap.getOrDefault(similarUserId, 0.0);
-            double behaviorWeight = getBehaviorWeight(behavior.getBehaviorType());
-            score += similarity * behaviorWeight;
-        }
-
-        return score;
     }
 
     /**
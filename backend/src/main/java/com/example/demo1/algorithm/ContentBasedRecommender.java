@@ -4,10 +4,8 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.example.demo1.common.enums.BehaviorType;
 import com.example.demo1.common.enums.TargetType;
 import com.example.demo1.dto.response.RecommendationResult;
-import com.example.demo1.entity.PostTag;
 import com.example.demo1.entity.SharePost;
 import com.example.demo1.entity.UserBehavior;
-import com.example.demo1.mapper.PostTagMapper;
 import com.example.demo1.mapper.SharePostMapper;
 import com.example.demo1.mapper.UserBehaviorMapper;
 import lombok.RequiredArgsConstructor;
@@ -28,7 +26,7 @@ import java.util.stream.Collectors;
 public class ContentBasedRecommender {
 
     private final UserBehaviorMapper userBehaviorMapper;
-    private final PostTagMapper postTagMapper;
+    private final PostTagIndex postTagIndex;
     private final SharePostMapper sharePostMapper;
 
     // 行为权重配置
@@ -91,28 +89,10 @@ public class ContentBasedRecommender {
 
     /**
      * 计算标签匹配分数（余弦相似度）
+     * 用户画像和动态都是按标签ID排序的稀疏向量，范数已预先计算，只需一次有序归并
      */
     private double calculateTagScore(UserProfile userProfile, SharePost post) {
-        // 获取动态的标签
-        List<PostTag> postTags = postTagMapper.selectList(
-            new LambdaQueryWrapper<PostTag>()
-                .eq(PostTag::getPostId, post.getId())
-        );
-
-        if (postTags.isEmpty() || userProfile.tagWeights.isEmpty()) {
-            return 0.0;
-        }
-
-        // 构建动态标签向量（每个标签权重相等）
-        Map<String, Double> postTagWeights = postTags.stream()
-            .collect(Collectors.toMap(
-                PostTag::getTagName,
-                tag -> 1.0 / postTags.size(),  // 每个标签权重相等
-                (v1, v2) -> v1
-            ));
-
-        // 计算余弦相似度
-        return calculateCosineSimilarity(userProfile.tagWeights, postTagWeights);
+        return SparseVector.cosine(userProfile.tagVector, postTagIndex.getTagVector(post.getId()));
     }
 
     /**
@@ -135,41 +115,6 @@ public class ContentBasedRecommender {
         return locationWeight;
     }
 
-    /**
-     * 计算余弦相似度
-     * similarity = Σ(userWeight[tag] * postWeight[tag]) / (||userVector|| * ||postVector||)
-     */
-    private double calculateCosineSimilarity(Map<String, Double> userWeights, Map<String, Double> postWeights) {
-        // 计算点积
-        double dotProduct = 0.0;
-        Set<String> commonTags = new HashSet<>(userWeights.keySet());
-        commonTags.retainAll(postWeights.keySet());
-
-        for (String tag : commonTags) {
-            dotProduct += userWeights.get(tag) * postWeights.get(tag);
-        }
-
-        // 计算用户向量范数
-        double userNorm = 0.0;
-        for (Double weight : userWeights.values()) {
-            userNorm += weight * weight;
-        }
-        userNorm = Math.sqrt(userNorm);
-
-        // 计算动态向量范数
-        double postNorm = 0.0;
-        for (Double weight : postWeights.values()) {
-            postNorm += weight * weight;
-        }
-        postNorm = Math.sqrt(postNorm);
-
-        if (userNorm == 0.0 || postNorm == 0.0) {
-            return 0.0;
-        }
-
-        return dotProduct / (userNorm * postNorm);
-    }
-
     /**
      * 构建用户偏好画像
      */
@@ -191,12 +136,6 @@ public class ContentBasedRecommender {
             .map(UserBehavior::getTargetId)
             .collect(Collectors.toSet());
 
-        // 获取这些动态的标签
-        List<PostTag> tags = postTagMapper.selectList(
-            new LambdaQueryWrapper<PostTag>()
-                .in(PostTag::getPostId, postIds)
-        );
-
         // 计算每个动态的行为权重
         Map<Long, Double> postBehaviorWeights = behaviors.stream()
             .collect(Collectors.toMap(
@@ -205,13 +144,14 @@ public class ContentBasedRecommender {
                 Double::sum
             ));
 
-        // 构建标签权重映射
-        Map<String, Double> tagWeights = new HashMap<>();
-        for (PostTag tag : tags) {
-            Long postId = tag.getPostId();
-            double behaviorWeight = postBehaviorWeights.getOrDefault(postId, 1.0);
-            String tagName = tag.getTagName();
-            tagWeights.put(tagName, tagWeights.getOrDefault(tagName, 0.0) + behaviorWeight);
+        // 构建标签向量（动态的标签取自内存索引）
+        SparseVector.Builder tagVector = new SparseVector.Builder();
+        for (Long postId : postIds) {
+            float behaviorWeight = postBehaviorWeights.getOrDefault(postId, 1.0).floatValue();
+            SparseVector postTags = postTagIndex.getTagVector(postId);
+            for (int i = 0; i < postTags.size(); i++) {
+                tagVector.add(postTags.idAt(i), behaviorWeight);
+            }
         }
 
         // 构建地点权重映射
@@ -231,11 +171,7 @@ public class ContentBasedRecommender {
             }
         }
 
-        // 归一化标签权重
-        double totalTagWeight = tagWeights.values().stream().mapToDouble(Double::doubleValue).sum();
-        if (totalTagWeight > 0) {
-            tagWeights.replaceAll((k, v) -> v / totalTagWeight);
-        }
+        // 标签向量只用于余弦相似度，与尺度无关，无需归一化
 
         // 归一化地点权重
         double totalLocationWeight = locationWeights.values().stream().mapToDouble(Double::doubleValue).sum();
@@ -243,7 +179,7 @@ public class ContentBasedRecommender {
             locationWeights.replaceAll((k, v) -> v / totalLocationWeight);
         }
 
-        return new UserProfile(tagWeights, locationWeights);
+        return new UserProfile(tagVector.build(), locationWeights);
     }
 
     /**
@@ -270,22 +206,20 @@ public class ContentBasedRecommender {
      * 用户偏好画像内部类
      */
     private static class UserProfile {
-        final Map<String, Double> tagWeights;
+        final SparseVector tagVector;
         final Map<String, Double> locationWeights;
 
         UserProfile() {
-            this.tagWeights = Collections.emptyMap();
-            this.locationWeights = Collections.emptyMap();
+            this(SparseVector.EMPTY, Collections.emptyMap());
         }
 
-        UserProfile(Map<String, Double> tagWeights, Map<String, Double> locationWeights) {
-            this.tagWeights = tagWeights;
+        UserProfile(SparseVector tagVector, Map<String, Double> locationWeights) {
+            this.tagVector = tagVector;
             this.locationWeights = locationWeights;
         }
 
         boolean isEmpty() {
-            return tagWeights.isEmpty() && locationWeights.isEmpty();
+            return tagVector.isEmpty() && locationWeights.isEmpty();
         }
     }
 }
-
@@ -0,0 +1,162 @@
+package com.example.demo1.algorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Count-Min 频次草图
+ * depth 行、每行 width 个计数器，元素在每行各落一个计数器，估计值取各行最小值：
+ * 只会高估不会低估，高估量约为 总数 * e / width（概率 1 - e^-depth 内）。
+ *
+ * 草图是线性的：同样尺寸的两个草图可以逐格相加、相减，滑动窗口用它合并和淘汰时间桶。
+ * 非线程安全，由调用方加锁。
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width 和 depth 必须为正数");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new int[width * depth];
+    }
+
+    public void add(String item, int count) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + index(h1, h2, row)] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * 频次估计（不低于真实值）
+     */
+    public int estimate(String item) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + index(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * 逐格加上另一个同尺寸的草图
+     */
+    public void addAll(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * 逐格减去另一个同尺寸的草图（other 必须是之前加进来的）
+     */
+    public void subtract(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+        total -= other.total;
+    }
+
+    public void clear() {
+        if (total != 0) {
+            Arrays.fill(counters, 0);
+            total = 0;
+        }
+    }
+
+    /**
+     * 累计加入的总次数
+     */
+    public long total() {
+        return total;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(depth);
+        out.writeLong(total);
+        // 大多数时间桶是空的或很稀疏，只写非零计数器
+        int nonZero = 0;
+        for (int counter : counters) {
+            if (counter != 0) {
+                nonZero++;
+            }
+        }
+        out.writeInt(nonZero);
+        for (int i = 0; i < counters.length; i++) {
+            if (counters[i] != 0) {
+                out.writeInt(i);
+                out.writeInt(counters[i]);
+            }
+        }
+    }
+
+    public static CountMinSketch readFrom(DataInputStream in) throws IOException {
+        CountMinSketch sketch = new CountMinSketch(in.readInt(), in.readInt());
+        sketch.total = in.readLong();
+        int nonZero = in.readInt();
+        for (int i = 0; i < nonZero; i++) {
+            int index = in.readInt();
+            if (index < 0 || index >= sketch.counters.length) {
+                throw new IOException("计数器下标越界: " + index);
+            }
+            sketch.counters[index] = in.readInt();
+        }
+        return sketch;
+    }
+
+    private void checkShape(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("草图尺寸不一致");
+        }
+    }
+
+    /**
+     * 双重哈希：第 row 行的位置为 h1 + row * h2
+     */
+    private int index(int h1, int h2, int row) {
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    /**
+     * 64 位 FNV-1a 再混合一次，高低 32 位分别作为两个哈希
+     */
+    private static long hash(String item) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            h ^= item.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        // h2 为奇数，保证各行位置不同
+        return h | (1L << 32);
+    }
+}
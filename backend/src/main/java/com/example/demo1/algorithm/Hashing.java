@@ -0,0 +1,19 @@
+package com.example.demo1.algorithm;
+
+/**
+ * 概率数据结构共用的哈希工具
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * SplitMix64 混淆函数，把输入的每一位均匀扩散到输出的全部 64 位
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
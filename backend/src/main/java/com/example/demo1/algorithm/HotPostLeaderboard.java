@@ -0,0 +1,248 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.common.enums.TimeDimension;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.mapper.SharePostMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 热门动态排行榜（常驻内存，按时间维度各维护一份）
+ * 使用 HotScoreCalculator 的对数热度分排序：时间衰减体现在发布时间上，分数与当前时间无关，
+ * 因此点赞、收藏、评论、浏览变化时只需把该动态在跳表中重新定位一次（O(log n)），
+ * 不必每次请求都把时间窗口内的所有动态查出来重新打分排序。
+ * 
+ * 超出时间窗口的动态在读取时跳过，并由定时任务从榜单中清理；
+ * 每天全量重建一次，修正事务回滚等原因造成的偏差。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotPostLeaderboard {
+
+    private final SharePostMapper sharePostMapper;
+    private final HotScoreCalculator hotScoreCalculator;
+
+    private volatile Boards boards = new Boards();
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("热门动态排行榜初始化失败", e);
+        }
+    }
+
+    /**
+     * 从数据库全量重建排行榜
+     * 重建期间的增量更新可能被新榜单覆盖，下一次重建时会补回
+     */
+    @Scheduled(cron = "${ranking.hot.rebuild-cron:0 15 4 * * *}", zone = "Asia/Shanghai")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<SharePost> posts = sharePostMapper.selectList(
+            new LambdaQueryWrapper<SharePost>()
+                .select(SharePost::getId, SharePost::getViewCount, SharePost::getUniqueViewCount,
+                    SharePost::getLikeCount, SharePost::getFavoriteCount, SharePost::getCommentCount,
+                    SharePost::getCreatedAt)
+        );
+        Boards rebuilt = new Boards();
+        for (SharePost post : posts) {
+            rebuilt.update(post.getId(), hotScoreCalculator.calculateLogHotScore(post), createdMillis(post));
+        }
+        boards = rebuilt;
+        log.info("热门动态排行榜重建完成: 动态数{}, 耗时{}ms", posts.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 清理超出时间窗口的动态
+     */
+    @Scheduled(fixedDelayString = "${ranking.hot.prune-interval-ms:3600000}")
+    public void prune() {
+        boards.prune();
+    }
+
+    /**
+     * 动态新增或互动数变化后更新排名
+     * post 需带有最新的互动数和发布时间
+     */
+    public void update(SharePost post) {
+        if (post == null || post.getId() == null) {
+            return;
+        }
+        boards.update(post.getId(), hotScoreCalculator.calculateLogHotScore(post), createdMillis(post));
+    }
+
+    /**
+     * 动态删除后移出排行榜
+     */
+    public void remove(Long postId) {
+        if (postId != null) {
+            boards.remove(postId);
+        }
+    }
+
+    /**
+     * 按热度降序分页读取动态ID
+     */
+    public List<Long> page(TimeDimension timeDimension, int offset, int limit) {
+        return boards.page(timeDimension, Math.max(0, offset), limit);
+    }
+
+    /**
+     * 热度最高的若干动态ID
+     */
+    public List<Long> top(TimeDimension timeDimension, int limit) {
+        return page(timeDimension, 0, limit);
+    }
+
+    /**
+     * 榜单中的动态数（尚未清理的过期动态也计算在内）
+     */
+    public int size(TimeDimension timeDimension) {
+        return boards.size(timeDimension);
+    }
+
+    private static long createdMillis(SharePost post) {
+        LocalDateTime createdAt = post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now();
+        return createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long windowStart(TimeDimension timeDimension) {
+        if (timeDimension == TimeDimension.ALL) {
+            return Long.MIN_VALUE;
+        }
+        return LocalDateTime.now().minusDays(timeDimension.getDays()).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * 一组按时间维度划分的榜单
+     */
+    private static final class Boards {
+        // 动态ID -> 当前条目，同一动态的更新在 compute 中串行执行
+        private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<TimeDimension, Board> byDimension = new EnumMap<>(TimeDimension.class);
+
+        Boards() {
+            for (TimeDimension timeDimension : TimeDimension.values()) {
+                byDimension.put(timeDimension, new Board());
+            }
+        }
+
+        void update(long postId, double score, long createdMillis) {
+            Entry entry = new Entry(postId, score, createdMillis);
+            entries.compute(postId, (id, old) -> {
+                byDimension.forEach((timeDimension, board) -> {
+                    if (old != null) {
+                        board.remove(old);
+                    }
+                    if (createdMillis >= windowStart(timeDimension)) {
+                        board.add(entry);
+                    }
+                });
+                return entry;
+            });
+        }
+
+        void remove(long postId) {
+            entries.computeIfPresent(postId, (id, old) -> {
+                byDimension.values().forEach(board -> board.remove(old));
+                return null;
+            });
+        }
+
+        List<Long> page(TimeDimension timeDimension, int offset, int limit) {
+            long since = windowStart(timeDimension);
+            List<Long> result = new ArrayList<>(Math.max(0, limit));
+            int skipped = 0;
+            for (Entry entry : byDimension.get(timeDimension).entries) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (entry.createdMillis < since) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(entry.postId);
+            }
+            return result;
+        }
+
+        int size(TimeDimension timeDimension) {
+            return byDimension.get(timeDimension).size.get();
+        }
+
+        void prune() {
+            byDimension.forEach((timeDimension, board) -> {
+                if (timeDimension == TimeDimension.ALL) {
+                    return;
+                }
+                long since = windowStart(timeDimension);
+                Iterator<Entry> iterator = board.entries.iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (entry.createdMillis < since) {
+                        board.remove(entry);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 单个时间维度的榜单：按分数降序的跳表，外加计数（跳表的 size() 是 O(n)）
+     */
+    private static final class Board {
+        final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(Entry.ORDER);
+        final AtomicInteger size = new AtomicInteger();
+
+        void add(Entry entry) {
+            if (entries.add(entry)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(Entry entry) {
+            if (entries.remove(entry)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Entry {
+        // 分数降序，同分时新动态在前
+        static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble((Entry e) -> e.score).reversed()
+            .thenComparing(Comparator.comparingLong((Entry e) -> e.postId).reversed());
+
+        final long postId;
+        final double score;
+        final long createdMillis;
+
+        Entry(long postId, double score, long createdMillis) {
+            this.postId = postId;
+            this.score = score;
+            this.createdMillis = createdMillis;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,6 +25,10 @@ public class HotScoreCalculator {
     private static final double FAVORITE_WEIGHT = 3.0;
     private static final double COMMENT_WEIGHT = 1.5;
 
+    // 排行榜对数热度分：热度半衰期（小时）与基础分下限（避免 ln(0)）
+    private static final double HALF_LIFE_HOURS = 24.0;
+    private static final double MIN_BASE_SCORE = 0.01;
+
     /**
      * 计算动态的热度分数
      * 
@@ -37,16 +42,8 @@ public class HotScoreCalculator {
      * @return 热度分数
      */
     public double calculateHotScore(SharePost post, LocalDateTime now) {
-        int viewCount = post.getViewCount() != null ? post.getViewCount() : 0;
-        int likeCount = post.getLikeCount() != null ? post.getLikeCount() : 0;
-        int favoriteCount = post.getFavoriteCount() != null ? post.getFavoriteCount() : 0;
-        int commentCount = post.getCommentCount() != null ? post.getCommentCount() : 0;
-
         // 计算基础分
-        double baseScore = viewCount * VIEW_WEIGHT + 
-                          likeCount * LIKE_WEIGHT + 
-                          favoriteCount * FAVORITE_WEIGHT + 
-                          commentCount * COMMENT_WEIGHT;
+        double baseScore = calculateBaseScore(post);
 
         // 计算时间衰减
         double timeDecay = calculateTimeDecay(post.getCreatedAt(), now);
@@ -55,6 +52,44 @@ public class HotScoreCalculator {
         return baseScore * timeDecay;
     }
 
+    /**
+     * 计算排行榜使用的对数热度分
+     * 
+     * 公式: 对数热度分 = ln(基础分) + 发布时间(小时) × ln2 / 24
+     * 
+     * 等价于按24小时半衰期做指数衰减后取对数，但衰减只体现在发布时间一项上，
+     * 与当前时间无关：两条动态的先后顺序不会随时间推移而改变，
+     * 只有互动数变化时才需要更新分数，排行榜可以增量维护。
+     * 
+     * @param post 动态对象
+     * @return 对数热度分
+     */
+    public double calculateLogHotScore(SharePost post) {
+        double baseScore = Math.max(calculateBaseScore(post), MIN_BASE_SCORE);
+        LocalDateTime createdAt = post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now();
+        double createdHours = createdAt.toEpochSecond(ZoneOffset.UTC) / 3600.0;
+        return Math.log(baseScore) + createdHours * Math.log(2) / HALF_LIFE_HOURS;
+    }
+
+    /**
+     * 基础分 = viewCount×0.1 + likeCount×2 + favoriteCount×3 + commentCount×1.5
+     * 浏览数使用去重浏览人数，同一用户反复刷新不会抬高热度；
+     * 尚未统计过去重人数的历史动态退回使用原始浏览数
+     */
+    private double calculateBaseScore(SharePost post) {
+        int viewCount = post.getUniqueViewCount() != null && post.getUniqueViewCount() > 0
+            ? post.getUniqueViewCount()
+            : (post.getViewCount() != null ? post.getViewCount() : 0);
+        int likeCount = post.getLikeCount() != null ? post.getLikeCount() : 0;
+        int favoriteCount = post.getFavoriteCount() != null ? post.getFavoriteCount() : 0;
+        int commentCount = post.getCommentCount() != null ? post.getCommentCount() : 0;
+
+        return viewCount * VIEW_WEIGHT + 
+               likeCount * LIKE_WEIGHT + 
+               favoriteCount * FAVORITE_WEIGHT + 
+               commentCount * COMMENT_WEIGHT;
+    }
+
     /**
      * 计算时间衰减系数
      * 
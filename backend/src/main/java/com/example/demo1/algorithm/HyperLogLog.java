@@ -0,0 +1,157 @@
+package com.example.demo1.algorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog 基数估计（用于统计去重浏览人数）
+ * 精度 p = 12，即 4096 个寄存器，标准误差约 1.6%。
+ * 基数较小时使用稀疏模式：直接保存元素哈希值的有序数组，计数精确；
+ * 超过 SPARSE_LIMIT 个元素后转为稠密寄存器，内存固定为 4KB。
+ * 非线程安全，由调用方加锁。
+ */
+public class HyperLogLog {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int PRECISION = 12;
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+    // 稀疏数组的字节数达到稠密寄存器大小时转换
+    private static final int SPARSE_LIMIT = REGISTER_COUNT / 8;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    // 稀疏模式：有序且去重的哈希值，sparseSize 之后的元素无效
+    private long[] sparse = new long[8];
+    private int sparseSize;
+    // 稠密模式：每个寄存器保存前导零个数 + 1
+    private byte[] registers;
+
+    /**
+     * 添加元素
+     *
+     * @return 估计值可能发生变化时返回 true（稀疏模式下即为新元素）
+     */
+    public boolean offer(long value) {
+        long hash = Hashing.mix64(value);
+        if (registers != null) {
+            return offerDense(hash);
+        }
+        int index = Arrays.binarySearch(sparse, 0, sparseSize, hash);
+        if (index >= 0) {
+            return false;
+        }
+        if (sparseSize >= SPARSE_LIMIT) {
+            toDense();
+            return offerDense(hash);
+        }
+        int insertAt = -index - 1;
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = hash;
+        sparseSize++;
+        return true;
+    }
+
+    /**
+     * 估计的去重元素个数
+     */
+    public long cardinality() {
+        if (registers == null) {
+            return sparseSize;
+        }
+        double sum = 0.0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            // 小基数时使用线性计数修正
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isSparse() {
+        return registers == null;
+    }
+
+    /**
+     * 序列化为字节数组（用于持久化）
+     */
+    public byte[] toBytes() {
+        if (registers == null) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 + 4 + sparseSize * 8);
+            buffer.put(FORMAT_VERSION).put((byte) 0).putInt(sparseSize);
+            for (int i = 0; i < sparseSize; i++) {
+                buffer.putLong(sparse[i]);
+            }
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + REGISTER_COUNT);
+        buffer.put(FORMAT_VERSION).put((byte) 1).put(registers);
+        return buffer.array();
+    }
+
+    /**
+     * 从 toBytes 的结果恢复
+     */
+    public static HyperLogLog fromBytes(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的 HyperLogLog 格式版本: " + version);
+        }
+        HyperLogLog hll = new HyperLogLog();
+        if (buffer.get() == 0) {
+            int size = buffer.getInt();
+            hll.sparse = new long[Math.max(8, size)];
+            for (int i = 0; i < size; i++) {
+                hll.sparse[i] = buffer.getLong();
+            }
+            hll.sparseSize = size;
+        } else {
+            hll.registers = new byte[REGISTER_COUNT];
+            buffer.get(hll.registers);
+            hll.sparse = null;
+        }
+        return hll;
+    }
+
+    /**
+     * 字符串的 64 位哈希（FNV-1a），用于把 IP 等字符串标识转成 offer 的参数
+     */
+    public static long hashString(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private boolean offerDense(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // 剩余 52 位的前导零个数 + 1，末尾补 1 保证最大值有界
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    private void toDense() {
+        registers = new byte[REGISTER_COUNT];
+        for (int i = 0; i < sparseSize; i++) {
+            offerDense(sparse[i]);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+}
@@ -0,0 +1,473 @@
+package com.example.demo1.algorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存倒排索引（BM25 打分）
+ * 每个词一条倒排表，按文档ID升序存储 (ID差值, 词频) 的变长整数编码，
+ * 文档ID递增写入时直接追加，乱序写入时解码后重新编码。
+ * 删除只记墓碑，查询时跳过，墓碑积累到一定比例后统一压缩倒排表。
+ * 查询为 AND 语义：文档需包含查询的全部词项。
+ * 读写锁保护，可多线程并发查询。
+ */
+public class InvertedIndex {
+
+    private static final int MAGIC = 0x49445831;
+    private static final int FORMAT_VERSION = 1;
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    // 墓碑数超过存活文档数的该比例时压缩
+    private static final double COMPACT_RATIO = 0.1;
+    private static final int COMPACT_MIN_TOMBSTONES = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // 已删除但仍留在倒排表中的文档 -> 其词项
+    private final Map<Long, String[]> tombstones = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * 添加或替换文档
+     *
+     * @param timestamp 文档时间（毫秒），用于按时间排序
+     */
+    public void add(long docId, String text, long timestamp) {
+        List<String> tokens = TextTokenizer.tokenizeForIndex(text);
+        Map<String, Integer> termFrequencies = new LinkedHashMap<>();
+        for (String token : tokens) {
+            termFrequencies.merge(token, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            // 替换已有文档：旧条目立即从倒排表中清掉，不留墓碑
+            removeInternal(docId);
+            String[] previousTerms = tombstones.remove(docId);
+            if (previousTerms != null) {
+                purge(Map.of(docId, previousTerms));
+            }
+            String[] terms = new String[termFrequencies.size()];
+            int n = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                PostingList list = postings.computeIfAbsent(entry.getKey(), k -> new PostingList());
+                list.add(docId, entry.getValue());
+                terms[n++] = entry.getKey();
+            }
+            docs.put(docId, new Doc(tokens.size(), timestamp, terms));
+            totalLength += tokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档
+     */
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            if (tombstones.size() >= COMPACT_MIN_TOMBSTONES && tombstones.size() > docs.size() * COMPACT_RATIO) {
+                compactInternal();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 立即清理墓碑
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compactInternal();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long docId) {
+        lock.readLock().lock();
+        try {
+            return docs.containsKey(docId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 当前最大的文档ID，空索引返回 0
+     */
+    public long maxDocId() {
+        lock.readLock().lock();
+        try {
+            long max = 0;
+            for (Long docId : docs.keySet()) {
+                max = Math.max(max, docId);
+            }
+            return max;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 所有文档ID
+     */
+    public Set<Long> docIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(docs.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 检索包含全部查询词项的文档，按 BM25 得分降序（同分按ID降序）
+     */
+    public List<Hit> search(String query) {
+        List<String> terms = new ArrayList<>(new HashSet<>(TextTokenizer.tokenizeForQuery(query)));
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            int docCount = docs.size();
+            if (docCount == 0) {
+                return new ArrayList<>();
+            }
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(list);
+            }
+            // 从最短的倒排表开始，候选集只会越来越小
+            lists.sort((a, b) -> Integer.compare(a.docCount, b.docCount));
+            double avgLength = (double) totalLength / docCount;
+
+            Map<Long, double[]> candidates = null;
+            for (PostingList list : lists) {
+                // 一次遍历同时统计存活文档频率（跳过墓碑）和候选文档的词频部分，idf 最后乘上
+                Map<Long, double[]> next = new HashMap<>();
+                Map<Long, double[]> previous = candidates;
+                int[] liveFrequency = new int[1];
+                list.forEach((docId, tf) -> {
+                    Doc doc = docs.get(docId);
+                    if (doc == null) {
+                        return;
+                    }
+                    liveFrequency[0]++;
+                    double[] score = previous == null ? new double[2] : previous.get(docId);
+                    if (score == null) {
+                        return;
+                    }
+                    double norm = tf + K1 * (1 - B + B * doc.length / avgLength);
+                    score[1] = tf * (K1 + 1) / norm;
+                    next.put(docId, score);
+                });
+                double idf = idf(docCount, liveFrequency[0]);
+                for (double[] score : next.values()) {
+                    score[0] += idf * score[1];
+                }
+                candidates = next;
+                if (candidates.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(candidates.size());
+            for (Map.Entry<Long, double[]> entry : candidates.entrySet()) {
+                Doc doc = docs.get(entry.getKey());
+                hits.add(new Hit(entry.getKey(), entry.getValue()[0], doc.timestamp));
+            }
+            hits.sort((a, b) -> a.score != b.score
+                ? Double.compare(b.score, a.score)
+                : Long.compare(b.docId, a.docId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 写出快照（会先压缩墓碑）
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.writeLock().lock();
+        try {
+            compactInternal();
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                PostingList list = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(list.docCount);
+                out.writeLong(list.lastDocId);
+                out.writeInt(list.length);
+                out.write(list.data, 0, list.length);
+            }
+            out.writeInt(docs.size());
+            for (Map.Entry<Long, Doc> entry : docs.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.writeLong(entry.getValue().timestamp);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从快照恢复，文档的词项由倒排表反推
+     */
+    public static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("索引快照格式不匹配");
+        }
+        InvertedIndex index = new InvertedIndex();
+        int termCount = in.readInt();
+        Map<Long, List<String>> termsByDoc = new HashMap<>();
+        for (int i = 0; i < termCount; i++) {
+            String term = in.readUTF();
+            PostingList list = new PostingList();
+            list.docCount = in.readInt();
+            list.lastDocId = in.readLong();
+            list.length = in.readInt();
+            list.data = new byte[Math.max(8, list.length)];
+            in.readFully(list.data, 0, list.length);
+            index.postings.put(term, list);
+            list.forEach((docId, tf) -> termsByDoc.computeIfAbsent(docId, k -> new ArrayList<>()).add(term));
+        }
+        int docCount = in.readInt();
+        for (int i = 0; i < docCount; i++) {
+            long docId = in.readLong();
+            int length = in.readInt();
+            long timestamp = in.readLong();
+            List<String> terms = termsByDoc.getOrDefault(docId, List.of());
+            index.docs.put(docId, new Doc(length, timestamp, terms.toArray(new String[0])));
+            index.totalLength += length;
+        }
+        return index;
+    }
+
+    private void removeInternal(long docId) {
+        Doc doc = docs.remove(docId);
+        if (doc == null) {
+            return;
+        }
+        totalLength -= doc.length;
+        tombstones.put(docId, doc.terms);
+    }
+
+    private void compactInternal() {
+        if (tombstones.isEmpty()) {
+            return;
+        }
+        purge(tombstones);
+        tombstones.clear();
+    }
+
+    /**
+     * 把指定文档从其词项的倒排表中物理删除
+     */
+    private void purge(Map<Long, String[]> removed) {
+        Map<String, Set<Long>> byTerm = new HashMap<>();
+        removed.forEach((docId, terms) -> {
+            for (String term : terms) {
+                byTerm.computeIfAbsent(term, k -> new HashSet<>()).add(docId);
+            }
+        });
+        byTerm.forEach((term, docIds) -> {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return;
+            }
+            list.removeAll(docIds);
+            if (list.docCount == 0) {
+                postings.remove(term);
+            }
+        });
+    }
+
+    static double idf(int docCount, int docFrequency) {
+        int df = Math.max(0, docFrequency);
+        return Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+    }
+
+    /**
+     * 检索命中
+     */
+    public static final class Hit {
+        private final long docId;
+        private final double score;
+        private final long timestamp;
+
+        Hit(long docId, double score, long timestamp) {
+            this.docId = docId;
+            this.score = score;
+            this.timestamp = timestamp;
+        }
+
+        public long getDocId() {
+            return docId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+
+    private static final class Doc {
+        final int length;
+        final long timestamp;
+        final String[] terms;
+
+        Doc(int length, long timestamp, String[] terms) {
+            this.length = length;
+            this.timestamp = timestamp;
+            this.terms = terms;
+        }
+    }
+
+    @FunctionalInterface
+    interface PostingVisitor {
+        void visit(long docId, int termFrequency);
+    }
+
+    /**
+     * 压缩倒排表：(ID差值, 词频) 依次以变长整数编码
+     */
+    static final class PostingList {
+        byte[] data = new byte[8];
+        int length;
+        int docCount;
+        long lastDocId;
+
+        void add(long docId, int termFrequency) {
+            if (docId > lastDocId) {
+                writeVarLong(docId - lastDocId);
+                writeVarLong(termFrequency);
+                lastDocId = docId;
+                docCount++;
+                return;
+            }
+            // 乱序写入：解码后插入（或替换）再重新编码
+            long[] ids = new long[docCount + 1];
+            int[] tfs = new int[docCount + 1];
+            int[] n = new int[1];
+            forEach((id, tf) -> {
+                ids[n[0]] = id;
+                tfs[n[0]] = tf;
+                n[0]++;
+            });
+            int pos = Arrays.binarySearch(ids, 0, n[0], docId);
+            if (pos >= 0) {
+                tfs[pos] = termFrequency;
+            } else {
+                int insertAt = -pos - 1;
+                System.arraycopy(ids, insertAt, ids, insertAt + 1, n[0] - insertAt);
+                System.arraycopy(tfs, insertAt, tfs, insertAt + 1, n[0] - insertAt);
+                ids[insertAt] = docId;
+                tfs[insertAt] = termFrequency;
+                n[0]++;
+            }
+            rewrite(ids, tfs, n[0]);
+        }
+
+        void removeAll(Collection<Long> docIds) {
+            long[] ids = new long[docCount];
+            int[] tfs = new int[docCount];
+            int[] n = new int[1];
+            forEach((id, tf) -> {
+                if (!docIds.contains(id)) {
+                    ids[n[0]] = id;
+                    tfs[n[0]] = tf;
+                    n[0]++;
+                }
+            });
+            rewrite(ids, tfs, n[0]);
+        }
+
+        void forEach(PostingVisitor visitor) {
+            int pos = 0;
+            long docId = 0;
+            while (pos < length) {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[pos++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                long tf = 0;
+                shift = 0;
+                do {
+                    b = data[pos++];
+                    tf |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                docId += delta;
+                visitor.visit(docId, (int) tf);
+            }
+        }
+
+        private void rewrite(long[] ids, int[] tfs, int count) {
+            data = new byte[Math.max(8, count * 3)];
+            length = 0;
+            docCount = 0;
+            lastDocId = 0;
+            for (int i = 0; i < count; i++) {
+                writeVarLong(ids[i] - lastDocId);
+                writeVarLong(tfs[i]);
+                lastDocId = ids[i];
+                docCount++;
+            }
+        }
+
+        private void writeVarLong(long value) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo1.algorithm;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash + LSH 分桶索引
+ * 对每个用户互动过的动态ID集合计算 MinHash 签名，签名按 band 切分后哈希到桶中，
+ * 同桶用户即为候选相似用户（Jaccard 相似度越高越容易碰撞）。
+ * 候选集需再用精确余弦相似度重新打分。
+ * 新增互动只会让签名中的最小值变小，因此支持流式增量更新。
+ */
+public class MinHashLshIndex {
+
+    private final int bands;
+    private final int rowsPerBand;
+    private final long[] hashSeeds;
+
+    // 用户ID -> MinHash 签名
+    private final Map<Long, long[]> signatures = new HashMap<>();
+    // 用户ID -> 各 band 所在的桶
+    private final Map<Long, long[]> userBucketKeys = new HashMap<>();
+    // 桶 -> 用户ID
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+    /**
+     * @param bands band 数量，越多召回越高
+     * @param rowsPerBand 每个 band 的行数，越多候选越精确
+     * @param seed 哈希函数随机种子
+     */
+    public MinHashLshIndex(int bands, int rowsPerBand, long seed) {
+        if (bands <= 0 || rowsPerBand <= 0) {
+            throw new IllegalArgumentException("bands 和 rowsPerBand 必须为正数");
+        }
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.hashSeeds = new long[bands * rowsPerBand];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < hashSeeds.length; i++) {
+            hashSeeds[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * 用户新增一个互动过的动态
+     */
+    public synchronized void add(long userId, long postId) {
+        long[] signature = signatures.get(userId);
+        boolean changed = false;
+        if (signature == null) {
+            signature = new long[hashSeeds.length];
+            Arrays.fill(signature, Long.MAX_VALUE);
+            signatures.put(userId, signature);
+            changed = true;
+        }
+        for (int i = 0; i < hashSeeds.length; i++) {
+            long h = hash(postId, hashSeeds[i]);
+            if (h < signature[i]) {
+                signature[i] = h;
+                changed = true;
+            }
+        }
+        if (changed) {
+            rebucket(userId, signature);
+        }
+    }
+
+    /**
+     * 用一组动态ID整体设置用户签名（全量构建时使用）
+     */
+    public synchronized void put(long userId, long[] postIds) {
+        long[] signature = new long[hashSeeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long postId : postIds) {
+            for (int i = 0; i < hashSeeds.length; i++) {
+                long h = hash(postId, hashSeeds[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        signatures.put(userId, signature);
+        rebucket(userId, signature);
+    }
+
+    /**
+     * 获取与用户至少在一个 band 上碰撞的候选用户（不含自身）
+     */
+    public synchronized Set<Long> candidates(long userId) {
+        long[] keys = userBucketKeys.get(userId);
+        if (keys == null) {
+            return Collections.emptySet();
+        }
+        Set<Long> result = new HashSet<>();
+        for (long key : keys) {
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                result.addAll(bucket);
+            }
+        }
+        result.remove(userId);
+        return result;
+    }
+
+    public synchronized int size() {
+        return signatures.size();
+    }
+
+    private void rebucket(long userId, long[] signature) {
+        long[] oldKeys = userBucketKeys.get(userId);
+        long[] newKeys = new long[bands];
+        for (int b = 0; b < bands; b++) {
+            long key = b;
+            for (int r = 0; r < rowsPerBand; r++) {
+                key = key * 0x9E3779B97F4A7C15L + signature[b * rowsPerBand + r];
+            }
+            newKeys[b] = Hashing.mix64(key);
+        }
+        if (oldKeys != null) {
+            for (int b = 0; b < bands; b++) {
+                if (oldKeys[b] == newKeys[b]) {
+                    continue;
+                }
+                Set<Long> bucket = buckets.get(oldKeys[b]);
+                if (bucket != null) {
+                    bucket.remove(userId);
+                    if (bucket.isEmpty()) {
+                        buckets.remove(oldKeys[b]);
+                    }
+                }
+            }
+        }
+        for (long key : newKeys) {
+            buckets.computeIfAbsent(key, k -> new HashSet<>()).add(userId);
+        }
+        userBucketKeys.put(userId, newKeys);
+    }
+
+    private static long hash(long value, long seed) {
+        return Hashing.mix64(value ^ seed) & Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo1.algorithm;
+
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * 汉字拼音首字母
+ * GB2312 一级汉字按拼音排序，按编码区间即可得到首字母，不需要拼音词典。
+ * 二级汉字（按部首排序）和 GB2312 以外的字无法确定首字母，含有这类字的文本返回 null；
+ * 多音字取编码所在区间对应的读音。字母数字原样保留（转小写），其余字符忽略。
+ */
+public final class PinyinInitials {
+
+    private static final Charset GB2312 = Charset.forName("GB2312");
+
+    // 一级汉字区间：0xB0A1 - 0xD7F9
+    private static final int LEVEL1_START = 0xB0A1;
+    private static final int LEVEL1_END = 0xD7F9;
+
+    // 各首字母在 GB2312 中的起始编码（没有以 i、u、v 开头的拼音）
+    private static final int[] BOUNDARIES = {
+        0xB0A1, 0xB0C5, 0xB2C1, 0xB4EE, 0xB6EA, 0xB7A2, 0xB8C1, 0xB9FE, 0xBBF7, 0xBFA6, 0xC0AC, 0xC2E8,
+        0xC4C3, 0xC5B6, 0xC5BE, 0xC6DA, 0xC8BB, 0xC8F6, 0xCBFA, 0xCDDA, 0xCEF4, 0xD1B9, 0xD4D1
+    };
+    private static final String LETTERS = "abcdefghjklmnopqrstwxyz";
+
+    // 基本区汉字 -> 首字母，类加载时按编码区间算好，0 表示无法确定
+    private static final char[] TABLE = buildTable();
+
+    private PinyinInitials() {
+    }
+
+    /**
+     * 文本的拼音首字母串，如 "威士忌" -> "wsj"
+     *
+     * @return 不含汉字或含有无法识别的汉字时返回 null
+     */
+    public static String of(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        StringBuilder initials = new StringBuilder(text.length());
+        boolean hasHan = false;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (Character.UnicodeScript.of(ch) == Character.UnicodeScript.HAN) {
+                char initial = initialOf(ch);
+                if (initial == 0) {
+                    return null;
+                }
+                initials.append(initial);
+                hasHan = true;
+            } else if (Character.isLetterOrDigit(ch)) {
+                initials.append(Character.toLowerCase(ch));
+            }
+        }
+        return hasHan ? initials.toString().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * 单个汉字的首字母，无法确定时返回 0
+     */
+    static char initialOf(char ch) {
+        return ch >= 0x4E00 && ch <= 0x9FFF ? TABLE[ch - 0x4E00] : 0;
+    }
+
+    private static char[] buildTable() {
+        char[] table = new char[0x9FFF - 0x4E00 + 1];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = lookup((char) (0x4E00 + i));
+        }
+        return table;
+    }
+
+    private static char lookup(char ch) {
+        byte[] bytes = String.valueOf(ch).getBytes(GB2312);
+        if (bytes.length != 2) {
+            return 0;
+        }
+        int code = ((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF);
+        if (code < LEVEL1_START || code > LEVEL1_END) {
+            return 0;
+        }
+        for (int i = BOUNDARIES.length - 1; i >= 0; i--) {
+            if (code >= BOUNDARIES[i]) {
+                return LETTERS.charAt(i);
+            }
+        }
+        return 0;
+    }
+}
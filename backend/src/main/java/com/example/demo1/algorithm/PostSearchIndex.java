@@ -0,0 +1,192 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.mapper.SharePostMapper;
+import com.example.demo1.util.SnapshotFiles;
+import com.example.demo1.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 动态全文检索索引
+ * 启动时加载磁盘快照，再补齐快照之后新发布的动态、剔除已删除的动态，不必每次全量重建；
+ * 发布、删除、屏蔽动态时在事务提交后增量更新，有变化时定时写快照，关闭时再写一次。
+ * 索引内容为动态正文加标签。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostSearchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final SharePostMapper sharePostMapper;
+
+    @Value("${search.index.snapshot-path:search-index/post-search.idx}")
+    private String snapshotPath;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean dirty;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        try {
+            long start = System.currentTimeMillis();
+            InvertedIndex loaded = loadSnapshot();
+            int added = catchUp(loaded);
+            int removed = dropDeleted(loaded);
+            index = loaded;
+            ready = true;
+            dirty = added > 0 || removed > 0;
+            log.info("动态全文索引就绪: 文档数{}, 补齐{}, 剔除{}, 耗时{}ms",
+                loaded.size(), added, removed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("动态全文索引初始化失败，搜索将回退到数据库查询", e);
+        }
+    }
+
+    /**
+     * 索引是否可用（初始化失败时调用方应回退到数据库查询）
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 检索，结果按 BM25 得分降序
+     */
+    public List<InvertedIndex.Hit> search(String keyword) {
+        return index.search(keyword);
+    }
+
+    /**
+     * 索引新发布的动态（事务提交后生效）
+     */
+    public void index(SharePost post) {
+        if (post == null || post.getId() == null) {
+            return;
+        }
+        String text = documentText(post);
+        long timestamp = createdMillis(post);
+        TransactionUtils.afterCommit(() -> {
+            index.add(post.getId(), text, timestamp);
+            dirty = true;
+        });
+    }
+
+    /**
+     * 移除已删除的动态（事务提交后生效）
+     */
+    public void remove(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            index.remove(postId);
+            dirty = true;
+        });
+    }
+
+    /**
+     * 有变化时写快照
+     */
+    @Scheduled(fixedDelayString = "${search.index.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!ready || !dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            SnapshotFiles.writeAtomically(Paths.get(snapshotPath), index::writeTo);
+        } catch (Exception e) {
+            dirty = true;
+            log.warn("动态全文索引快照写入失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private InvertedIndex loadSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(path)) {
+            return new InvertedIndex();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return InvertedIndex.readFrom(in);
+        } catch (Exception e) {
+            log.warn("动态全文索引快照损坏，将从数据库重建: {}", path, e);
+            return new InvertedIndex();
+        }
+    }
+
+    /**
+     * 按ID递增分批补齐快照之后的新动态
+     */
+    private int catchUp(InvertedIndex target) {
+        long lastId = target.maxDocId();
+        int added = 0;
+        while (true) {
+            List<SharePost> posts = sharePostMapper.selectList(new LambdaQueryWrapper<SharePost>()
+                .select(SharePost::getId, SharePost::getContent, SharePost::getTags, SharePost::getCreatedAt)
+                .gt(SharePost::getId, lastId)
+                .orderByAsc(SharePost::getId)
+                .last("limit " + LOAD_BATCH_SIZE));
+            for (SharePost post : posts) {
+                target.add(post.getId(), documentText(post), createdMillis(post));
+                lastId = post.getId();
+            }
+            added += posts.size();
+            if (posts.size() < LOAD_BATCH_SIZE) {
+                return added;
+            }
+        }
+    }
+
+    /**
+     * 剔除快照中已在数据库删除的动态（如服务停止期间的删除）
+     */
+    private int dropDeleted(InvertedIndex target) {
+        Set<Long> existing = new HashSet<>();
+        sharePostMapper.selectList(new LambdaQueryWrapper<SharePost>().select(SharePost::getId))
+            .forEach(post -> existing.add(post.getId()));
+        int removed = 0;
+        for (Long docId : target.docIds()) {
+            if (!existing.contains(docId)) {
+                target.remove(docId);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static String documentText(SharePost post) {
+        String content = post.getContent() != null ? post.getContent() : "";
+        return post.getTags() != null ? content + " " + post.getTags() : content;
+    }
+
+    private static long createdMillis(SharePost post) {
+        LocalDateTime createdAt = post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now();
+        return createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.entity.PostTag;
+import com.example.demo1.mapper.PostTagMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 动态标签倒排索引（常驻内存）
+ * - 正排：动态ID -> 标签向量（标签ID升序、权重相等，已预先计算范数）
+ * - 倒排：标签ID -> 动态ID集合
+ * 标签ID来自全局 TagDictionary。启动时从 post_tag 全量加载，
+ * 之后由 TagExtractionService 在保存/删除标签时同步维护，推荐打分不再逐条查询 post_tag。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostTagIndex {
+
+    private final PostTagMapper postTagMapper;
+    private final TagDictionary tagDictionary;
+
+    private final ConcurrentHashMap<Long, SparseVector> postTags = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            long start = System.currentTimeMillis();
+            List<PostTag> records = postTagMapper.selectList(
+                new LambdaQueryWrapper<PostTag>()
+                    .select(PostTag::getPostId, PostTag::getTagName)
+            );
+            Map<Long, List<String>> grouped = new HashMap<>();
+            for (PostTag record : records) {
+                if (record.getPostId() != null && record.getTagName() != null) {
+                    grouped.computeIfAbsent(record.getPostId(), k -> new ArrayList<>()).add(record.getTagName());
+                }
+            }
+            grouped.forEach(this::addTags);
+            log.info("动态标签索引加载完成: 动态数{}, 标签数{}, 耗时{}ms",
+                postTags.size(), tagDictionary.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("动态标签索引加载失败", e);
+        }
+    }
+
+    /**
+     * 为动态追加标签（已存在的标签忽略）
+     */
+    public void addTags(Long postId, Collection<String> names) {
+        if (postId == null || names == null || names.isEmpty()) {
+            return;
+        }
+        int[] added = new int[names.size()];
+        int n = 0;
+        for (String name : names) {
+            if (name != null) {
+                added[n++] = tagDictionary.intern(name);
+            }
+        }
+        int[] addedIds = Arrays.copyOf(added, n);
+        postTags.merge(postId, SparseVector.uniform(addedIds), PostTagIndex::union);
+        for (int tagId : addedIds) {
+            postings.computeIfAbsent(tagId, k -> ConcurrentHashMap.newKeySet()).add(postId);
+        }
+    }
+
+    /**
+     * 移除动态的全部标签
+     */
+    public void removePost(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        SparseVector removed = postTags.remove(postId);
+        if (removed == null) {
+            return;
+        }
+        for (int i = 0; i < removed.size(); i++) {
+            Set<Long> posts = postings.get(removed.idAt(i));
+            if (posts != null) {
+                posts.remove(postId);
+            }
+        }
+    }
+
+    /**
+     * 动态的标签向量（每个标签权重相等），没有标签时返回空向量
+     */
+    public SparseVector getTagVector(Long postId) {
+        SparseVector vector = postId == null ? null : postTags.get(postId);
+        return vector == null ? SparseVector.EMPTY : vector;
+    }
+
+    /**
+     * 包含指定标签的动态ID，未知标签返回空集合
+     */
+    public Set<Long> getPostIds(String tagName) {
+        int tagId = tagDictionary.idOf(tagName);
+        Set<Long> posts = tagId < 0 ? null : postings.get(tagId);
+        return posts == null ? Collections.emptySet() : Collections.unmodifiableSet(posts);
+    }
+
+    public int postCount() {
+        return postTags.size();
+    }
+
+    private static SparseVector union(SparseVector a, SparseVector b) {
+        int[] merged = new int[a.size() + b.size()];
+        for (int i = 0; i < a.size(); i++) {
+            merged[i] = a.idAt(i);
+        }
+        for (int i = 0; i < b.size(); i++) {
+            merged[a.size() + i] = b.idAt(i);
+        }
+        return SparseVector.uniform(merged);
+    }
+}
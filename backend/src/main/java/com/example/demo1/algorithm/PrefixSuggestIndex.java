@@ -0,0 +1,357 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.common.enums.SuggestType;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 搜索联想前缀索引
+ * 每个条目（酒饮、标签、酒吧、用户名等）以"归一化名称"和"拼音首字母"两个键放入排序数组，
+ * 前缀查询二分定位后顺序扫描，按热度权重取前 N；1~2 个字符的短前缀命中范围大，构建时预先算好前 N。
+ *
+ * 主体索引构建后不可变，新增、修改、删除先记入增量表，查询时与主体合并；
+ * 增量超过阈值时在内存中合并出新的主体索引，定时全量重建时丢弃重建开始前的增量。
+ */
+public class PrefixSuggestIndex {
+
+    static final int CACHED_PREFIX_LENGTH = 2;
+    static final int CACHED_TOP_K = 20;
+
+    // 长前缀单次最多扫描的键数，防止极端数据拖慢查询
+    private static final int MAX_SCAN = 10000;
+
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingDouble(Entry::getWeight).reversed()
+        .thenComparingInt(e -> e.text.length())
+        .thenComparing(Entry::getText);
+
+    private final int compactThreshold;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<String, Delta> deltas = new ConcurrentHashMap<>();
+    private final Object compactLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    public PrefixSuggestIndex(int compactThreshold) {
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * 当前增量序号，全量重建前记录，重建完成后只丢弃此序号之前的增量
+     */
+    public long mark() {
+        return sequence.get();
+    }
+
+    /**
+     * 用全量数据替换主体索引
+     *
+     * @param mark 读取全量数据之前调用 mark() 的返回值
+     */
+    public void rebuild(Collection<Entry> entries, long mark) {
+        Snapshot rebuilt = new Snapshot(entries);
+        synchronized (compactLock) {
+            snapshot = rebuilt;
+            deltas.values().removeIf(delta -> delta.sequence <= mark);
+        }
+    }
+
+    /**
+     * 新增或替换条目
+     */
+    public void upsert(Entry entry) {
+        deltas.put(entry.key(), new Delta(entry, sequence.incrementAndGet()));
+        compactIfNeeded();
+    }
+
+    /**
+     * 删除条目
+     */
+    public void remove(SuggestType type, long id) {
+        deltas.put(key(type, id), new Delta(null, sequence.incrementAndGet()));
+        compactIfNeeded();
+    }
+
+    public int size() {
+        return snapshot.entries.length;
+    }
+
+    /**
+     * 前缀联想，按权重降序
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String query = normalize(prefix);
+        if (query.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Map<String, Delta> pending = new HashMap<>(deltas);
+        Snapshot current = snapshot;
+        Map<String, Entry> merged = new LinkedHashMap<>();
+        // 主体中被增量覆盖的条目在取前 N 时直接跳过，由增量中的新版本参与合并
+        for (Entry entry : current.topMatches(query, limit, pending.keySet())) {
+            merged.put(entry.key(), entry);
+        }
+        for (Delta delta : pending.values()) {
+            if (delta.entry != null && delta.entry.matches(query)) {
+                merged.put(delta.entry.key(), delta.entry);
+            }
+        }
+        List<Entry> results = new ArrayList<>(merged.values());
+        results.sort(BY_WEIGHT);
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    private void compactIfNeeded() {
+        if (deltas.size() < compactThreshold) {
+            return;
+        }
+        synchronized (compactLock) {
+            if (deltas.size() < compactThreshold) {
+                return;
+            }
+            long mark = sequence.get();
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            for (Entry entry : snapshot.entries) {
+                entries.put(entry.key(), entry);
+            }
+            for (Map.Entry<String, Delta> e : deltas.entrySet()) {
+                if (e.getValue().entry == null) {
+                    entries.remove(e.getKey());
+                } else {
+                    entries.put(e.getKey(), e.getValue().entry);
+                }
+            }
+            snapshot = new Snapshot(entries.values());
+            deltas.values().removeIf(delta -> delta.sequence <= mark);
+        }
+    }
+
+    /**
+     * 归一化：全角转半角、转小写、去掉空白
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char ch = normalized.charAt(i);
+            if (!Character.isWhitespace(ch)) {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String key(SuggestType type, long id) {
+        return type.name() + ":" + id;
+    }
+
+    /**
+     * 联想条目
+     */
+    public static final class Entry {
+        private final SuggestType type;
+        private final long id;
+        private final String text;
+        private final double weight;
+        private final String[] prefixKeys;
+
+        public Entry(SuggestType type, long id, String text, double weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+            String name = normalize(text);
+            String initials = PinyinInitials.of(text);
+            this.prefixKeys = initials == null || initials.equals(name)
+                ? new String[]{name}
+                : new String[]{name, initials};
+        }
+
+        public SuggestType getType() {
+            return type;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        String key() {
+            return PrefixSuggestIndex.key(type, id);
+        }
+
+        boolean matches(String query) {
+            for (String prefixKey : prefixKeys) {
+                if (prefixKey.startsWith(query)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Delta {
+        final Entry entry;
+        final long sequence;
+
+        Delta(Entry entry, long sequence) {
+            this.entry = entry;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * 不可变的主体索引：排序的键数组 + 每个键所属条目的下标
+     */
+    private static final class Snapshot {
+        final Entry[] entries;
+        final String[] keys;
+        final int[] owners;
+        final Map<String, int[]> shortPrefixTop = new HashMap<>();
+
+        Snapshot(Collection<Entry> source) {
+            entries = source.toArray(new Entry[0]);
+            Arrays.sort(entries, BY_WEIGHT);
+            int keyCount = 0;
+            for (Entry entry : entries) {
+                keyCount += entry.prefixKeys.length;
+            }
+            Integer[] order = new Integer[keyCount];
+            String[] rawKeys = new String[keyCount];
+            int[] rawOwners = new int[keyCount];
+            int n = 0;
+            for (int i = 0; i < entries.length; i++) {
+                for (String prefixKey : entries[i].prefixKeys) {
+                    rawKeys[n] = prefixKey;
+                    rawOwners[n] = i;
+                    order[n] = n;
+                    n++;
+                }
+            }
+            Arrays.sort(order, Comparator.comparing((Integer k) -> rawKeys[k]));
+            keys = new String[keyCount];
+            owners = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = rawKeys[order[i]];
+                owners[i] = rawOwners[order[i]];
+            }
+            buildShortPrefixTop();
+        }
+
+        /**
+         * 条目已按权重降序排列，下标越小越靠前；按下标顺序遍历即可得到每个短前缀的前 K 个条目
+         */
+        private void buildShortPrefixTop() {
+            Map<String, List<Integer>> top = new HashMap<>();
+            for (int i = 0; i < entries.length; i++) {
+                Set<String> prefixes = new HashSet<>();
+                for (String prefixKey : entries[i].prefixKeys) {
+                    for (int len = 1; len <= Math.min(CACHED_PREFIX_LENGTH, prefixKey.length()); len++) {
+                        prefixes.add(prefixKey.substring(0, len));
+                    }
+                }
+                for (String prefix : prefixes) {
+                    List<Integer> list = top.computeIfAbsent(prefix, k -> new ArrayList<>());
+                    if (list.size() < CACHED_TOP_K) {
+                        list.add(i);
+                    }
+                }
+            }
+            top.forEach((prefix, list) -> shortPrefixTop.put(prefix, list.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        /**
+         * 主体中匹配前缀、且键不在 excluded 中的前 limit 个条目
+         */
+        List<Entry> topMatches(String query, int limit, Set<String> excluded) {
+            List<Entry> results = new ArrayList<>();
+            if (query.length() <= CACHED_PREFIX_LENGTH) {
+                int[] cached = shortPrefixTop.get(query);
+                if (cached == null) {
+                    return results;
+                }
+                for (int index : cached) {
+                    if (!excluded.contains(entries[index].key())) {
+                        results.add(entries[index]);
+                        if (results.size() == limit) {
+                            return results;
+                        }
+                    }
+                }
+                if (cached.length < CACHED_TOP_K) {
+                    // 缓存已包含全部匹配的条目
+                    return results;
+                }
+                // 缓存的前 K 个不够用（limit 较大或部分被增量覆盖）：条目已按权重降序排列，顺序检查直到取满
+                results.clear();
+                for (Entry entry : entries) {
+                    if (entry.matches(query) && !excluded.contains(entry.key())) {
+                        results.add(entry);
+                        if (results.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                return results;
+            }
+            // 下标越小权重越高，保留最小的 limit 个下标
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Comparator.reverseOrder());
+            Set<Integer> seen = new HashSet<>();
+            int scanned = 0;
+            for (int i = lowerBound(query); i < keys.length && keys[i].startsWith(query) && scanned < MAX_SCAN;
+                 i++, scanned++) {
+                int owner = owners[i];
+                if (!seen.add(owner) || excluded.contains(entries[owner].key())) {
+                    continue;
+                }
+                heap.offer(owner);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<Integer> indexes = new ArrayList<>(heap);
+            indexes.sort(null);
+            for (int index : indexes) {
+                results.add(entries[index]);
+            }
+            return results;
+        }
+
+        private int lowerBound(String query) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(query) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
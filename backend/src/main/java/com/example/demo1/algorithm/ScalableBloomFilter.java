@@ -0,0 +1,185 @@
+package com.example.demo1.algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 可扩容布隆过滤器（Scalable Bloom Filter）
+ * 由一串子过滤器组成：当前子过滤器写满后追加一个容量翻倍、误判率减半的新子过滤器，
+ * 总误判率收敛于 fpp / (1 - TIGHTENING_RATIO) = 2 * fpp，元素数量不需要预先知道。
+ * 只会误判"已存在"，不会漏判。
+ * 非线程安全，由调用方加锁。
+ */
+public class ScalableBloomFilter {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double fpp;
+    private final List<Slice> slices = new ArrayList<>();
+
+    /**
+     * @param initialCapacity 第一个子过滤器的容量
+     * @param fpp 第一个子过滤器的误判率
+     */
+    public ScalableBloomFilter(int initialCapacity, double fpp) {
+        if (initialCapacity <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("initialCapacity 必须为正数，fpp 必须在 (0, 1) 之间");
+        }
+        this.fpp = fpp;
+        slices.add(new Slice(initialCapacity, fpp));
+    }
+
+    private ScalableBloomFilter(double fpp) {
+        this.fpp = fpp;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @return 元素此前可能不存在（即本次确实写入了新的位）时返回 true
+     */
+    public boolean put(long value) {
+        long h1 = Hashing.mix64(value);
+        long h2 = Hashing.mix64(h1 ^ 0x9E3779B97F4A7C15L);
+        if (mightContain(h1, h2)) {
+            return false;
+        }
+        Slice current = slices.get(slices.size() - 1);
+        if (current.count >= current.capacity) {
+            current = new Slice(current.capacity * GROWTH_FACTOR,
+                fpp * Math.pow(TIGHTENING_RATIO, slices.size()));
+            slices.add(current);
+        }
+        current.put(h1, h2);
+        return true;
+    }
+
+    public boolean mightContain(long value) {
+        long h1 = Hashing.mix64(value);
+        return mightContain(h1, Hashing.mix64(h1 ^ 0x9E3779B97F4A7C15L));
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        for (Slice slice : slices) {
+            if (slice.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 已添加的元素数（不含被判重的元素）
+     */
+    public long count() {
+        long total = 0;
+        for (Slice slice : slices) {
+            total += slice.count;
+        }
+        return total;
+    }
+
+    public int sliceCount() {
+        return slices.size();
+    }
+
+    /**
+     * 序列化为字节数组（用于持久化）
+     */
+    public byte[] toBytes() {
+        int size = 1 + 8 + 4;
+        for (Slice slice : slices) {
+            size += 4 * 4 + slice.bits.length * 8;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(FORMAT_VERSION);
+        buffer.putDouble(fpp);
+        buffer.putInt(slices.size());
+        for (Slice slice : slices) {
+            buffer.putInt(slice.capacity);
+            buffer.putInt(slice.count);
+            buffer.putInt(slice.hashCount);
+            buffer.putInt(slice.bits.length);
+            for (long word : slice.bits) {
+                buffer.putLong(word);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 从 toBytes 的结果恢复
+     */
+    public static ScalableBloomFilter fromBytes(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的布隆过滤器格式版本: " + version);
+        }
+        ScalableBloomFilter filter = new ScalableBloomFilter(buffer.getDouble());
+        int sliceCount = buffer.getInt();
+        for (int i = 0; i < sliceCount; i++) {
+            int capacity = buffer.getInt();
+            int count = buffer.getInt();
+            int hashCount = buffer.getInt();
+            long[] bits = new long[buffer.getInt()];
+            for (int j = 0; j < bits.length; j++) {
+                bits[j] = buffer.getLong();
+            }
+            filter.slices.add(new Slice(capacity, count, hashCount, bits));
+        }
+        if (filter.slices.isEmpty()) {
+            throw new IllegalArgumentException("布隆过滤器数据为空");
+        }
+        return filter;
+    }
+
+    /**
+     * 固定容量的子过滤器，使用双重哈希 h1 + i * h2 生成 k 个位置
+     */
+    private static final class Slice {
+        final int capacity;
+        final int hashCount;
+        final long[] bits;
+        final long bitSize;
+        int count;
+
+        Slice(int capacity, double fpp) {
+            this.capacity = capacity;
+            // m = -n * ln(p) / (ln2)^2, k = m / n * ln2
+            long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.bits = new long[(int) Math.max(1, (m + 63) / 64)];
+            this.bitSize = bits.length * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+        }
+
+        Slice(int capacity, int count, int hashCount, long[] bits) {
+            this.capacity = capacity;
+            this.count = count;
+            this.hashCount = hashCount;
+            this.bits = bits;
+            this.bitSize = bits.length * 64L;
+        }
+
+        void put(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(h1 + i * h2, bitSize);
+                bits[(int) (index >>> 6)] |= 1L << index;
+            }
+            count++;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(h1 + i * h2, bitSize);
+                if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo1.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 综合搜索结果合并
+ * 各来源给出 [0, 1] 上的绝对分数（文本匹配度本身在该区间，BM25 等无上界的分数先用 saturate 映射），
+ * 合并时不再按来源内最高分放大，来源的最佳结果很弱时不会被抬到与其他来源的强结果同分。
+ * 统一按分数降序合并；每种类型最多占 perTypeQuota 条，避免单一来源占满结果。
+ * 同分时按来源顺序、来源内原有顺序排列。
+ */
+public final class SearchResultMerger {
+
+    private SearchResultMerger() {
+    }
+
+    /**
+     * 合并多个来源的结果
+     *
+     * @param sources      各来源的候选（来源内已按原始分数降序，分数在 [0, 1] 上）
+     * @param perTypeQuota 每种类型的最大条数
+     * @param limit        合并后的总条数
+     */
+    public static <K, T> List<Candidate<K, T>> merge(List<List<Candidate<K, T>>> sources, int perTypeQuota, int limit) {
+        List<Candidate<K, T>> all = new ArrayList<>();
+        for (List<Candidate<K, T>> source : sources) {
+            double max = 0;
+            for (Candidate<K, T> candidate : source) {
+                max = Math.max(max, candidate.rawScore);
+            }
+            for (int rank = 0; rank < source.size(); rank++) {
+                Candidate<K, T> candidate = source.get(rank);
+                // 来源没有给出有效分数时按名次折算
+                candidate.score = max > 0 ? Math.min(1.0, Math.max(0, candidate.rawScore)) : 1.0 / (rank + 1);
+                all.add(candidate);
+            }
+        }
+        // List.sort 是稳定排序，同分保持来源顺序
+        all.sort((a, b) -> Double.compare(b.score, a.score));
+
+        Map<K, Integer> taken = new HashMap<>();
+        List<Candidate<K, T>> merged = new ArrayList<>();
+        for (Candidate<K, T> candidate : all) {
+            if (merged.size() >= limit) {
+                break;
+            }
+            int count = taken.getOrDefault(candidate.type, 0);
+            if (count >= perTypeQuota) {
+                continue;
+            }
+            taken.put(candidate.type, count + 1);
+            merged.add(candidate);
+        }
+        return merged;
+    }
+
+    /**
+     * 把无上界的非负分数（如 BM25）映射到 [0, 1)：score / (score + halfScore)，
+     * 分数等于 halfScore 时为 0.5，映射与本次结果中的最高分无关
+     */
+    public static double saturate(double score, double halfScore) {
+        return score <= 0 ? 0 : score / (score + halfScore);
+    }
+
+    /**
+     * 关键字与字段的文本匹配度：完全相同 1.0，前缀 0.75，包含 0.5，否则 0（忽略大小写）
+     */
+    public static double textMatchScore(String keyword, String field) {
+        if (keyword == null || field == null || keyword.isEmpty()) {
+            return 0;
+        }
+        String k = keyword.toLowerCase(Locale.ROOT);
+        String f = field.toLowerCase(Locale.ROOT);
+        if (f.equals(k)) {
+            return 1.0;
+        }
+        if (f.startsWith(k)) {
+            return 0.75;
+        }
+        return f.contains(k) ? 0.5 : 0;
+    }
+
+    /**
+     * 合并候选：类型、原始分数与结果对象
+     */
+    public static final class Candidate<K, T> {
+        private final K type;
+        private final double rawScore;
+        private final T item;
+        private double score;
+
+        public Candidate(K type, double rawScore, T item) {
+            this.type = type;
+            this.rawScore = rawScore;
+            this.item = item;
+        }
+
+        public K getType() {
+            return type;
+        }
+
+        public double getRawScore() {
+            return rawScore;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * 参与合并排序的分数，合并后才有值
+         */
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.common.enums.TargetType;
+import com.example.demo1.entity.UserBehavior;
+import com.example.demo1.entity.UserSeenPostFilter;
+import com.example.demo1.mapper.UserBehaviorMapper;
+import com.example.demo1.mapper.UserSeenPostFilterMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * 用户已看动态存储
+ * 每个用户一个可扩容布隆过滤器，替代"查出全部历史行为再 NOT IN"的做法：
+ * 候选动态按时间倒序扫描，在内存中过滤掉已看过的。
+ * 
+ * 过滤器按需从 user_seen_post_filter 表加载（首次使用时由历史行为回填），
+ * UserBehaviorService 记录行为时同步更新，定时批量写回数据库，长时间未访问的用户从内存中淘汰。
+ * 布隆过滤器只会把少量未看过的动态误判为已看过，不会漏掉已看过的动态。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeenPostStore extends WriteBehindStore<Long, ScalableBloomFilter, UserSeenPostFilter> {
+
+    private final UserSeenPostFilterMapper userSeenPostFilterMapper;
+    private final UserBehaviorMapper userBehaviorMapper;
+
+    @Value("${recommend.seen.initial-capacity:256}")
+    private int initialCapacity;
+
+    @Value("${recommend.seen.fpp:0.01}")
+    private double fpp;
+
+    @Value("${recommend.seen.idle-seconds:1800}")
+    private long idleSeconds;
+
+    /**
+     * 用户已看动态的判定函数，匿名用户视为什么都没看过
+     */
+    public LongPredicate seenFilter(Long userId) {
+        if (userId == null) {
+            return postId -> false;
+        }
+        return postId -> read(userId, filter -> filter.mightContain(postId));
+    }
+
+    /**
+     * 标记用户看过某条动态
+     */
+    public void markSeen(Long userId, Long postId) {
+        if (userId == null || postId == null) {
+            return;
+        }
+        update(userId, filter -> filter.put(postId));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${recommend.seen.flush-interval-ms:60000}")
+    public void flush() {
+        super.flush();
+    }
+
+    @Override
+    protected Entry<ScalableBloomFilter> load(Long userId) {
+        UserSeenPostFilter record = userSeenPostFilterMapper.selectOne(
+            new LambdaQueryWrapper<UserSeenPostFilter>()
+                .eq(UserSeenPostFilter::getUserId, userId)
+        );
+        if (record != null && record.getFilterData() != null) {
+            try {
+                return new Entry<>(record.getId(), ScalableBloomFilter.fromBytes(record.getFilterData()), false);
+            } catch (Exception e) {
+                log.warn("已看动态过滤器数据损坏，将从行为记录重建，userId={}", userId, e);
+            }
+        }
+
+        // 首次使用：从历史行为回填（每个用户只发生一次）
+        ScalableBloomFilter filter = new ScalableBloomFilter(initialCapacity, fpp);
+        List<UserBehavior> behaviors = userBehaviorMapper.selectList(
+            new LambdaQueryWrapper<UserBehavior>()
+                .eq(UserBehavior::getUserId, userId)
+                .eq(UserBehavior::getTargetType, TargetType.POST)
+                .select(UserBehavior::getTargetId)
+        );
+        for (UserBehavior behavior : behaviors) {
+            if (behavior.getTargetId() != null) {
+                filter.put(behavior.getTargetId());
+            }
+        }
+        return new Entry<>(record != null ? record.getId() : null, filter, true);
+    }
+
+    @Override
+    protected UserSeenPostFilter snapshot(ScalableBloomFilter filter) {
+        UserSeenPostFilter record = new UserSeenPostFilter();
+        record.setFilterData(filter.toBytes());
+        record.setItemCount(filter.count());
+        return record;
+    }
+
+    @Override
+    protected Long persist(Long userId, Long recordId, UserSeenPostFilter record) {
+        record.setUserId(userId);
+        if (recordId == null) {
+            userSeenPostFilterMapper.insert(record);
+        } else {
+            record.setId(recordId);
+            userSeenPostFilterMapper.updateById(record);
+        }
+        return record.getId();
+    }
+
+    @Override
+    protected long idleMillis() {
+        return idleSeconds * 1000;
+    }
+
+    @Override
+    protected String description() {
+        return "已看动态过滤器";
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.demo1.algorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 滑动时间窗口内的高频元素（流式，内存固定）
+ * 窗口切成 bucketCount 个时间桶，每个桶一个 Count-Min 草图，另维护窗口内所有桶之和的汇总草图：
+ * 新事件加进当前桶和汇总草图；桶滑出窗口时从汇总草图中减去再清空，窗口频次随时可按汇总草图估计。
+ *
+ * 高频候选最多保留 capacity 个，按估计频次有序，新元素的估计值超过最小候选时替换之；
+ * 桶滑出后按汇总草图重新估计全部候选并剔除归零的。排好序的结果缓存到下次变化，
+ * 查询耗时与事件总数、标签总数无关。
+ *
+ * 窗口按桶滑动，实际覆盖最近 bucketCount - 1 个完整桶加上当前桶已过去的部分。
+ * 非线程安全，由调用方加锁。
+ */
+public class SlidingWindowTopK {
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingInt((Counter c) -> c.count)
+        .thenComparing(c -> c.item);
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int capacity;
+    private final CountMinSketch[] buckets;
+    // 每个槽位当前存放的桶序号（时间 / bucketMillis），-1 表示空
+    private final long[] bucketIds;
+    private final CountMinSketch window;
+    private long currentBucket = Long.MIN_VALUE;
+
+    private final Map<String, Counter> candidates = new HashMap<>();
+    private final TreeSet<Counter> ranking = new TreeSet<>(BY_COUNT);
+    private List<Item> sorted;
+
+    public SlidingWindowTopK(long bucketMillis, int bucketCount, int sketchWidth, int sketchDepth, int capacity) {
+        if (bucketMillis <= 0 || bucketCount <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("bucketMillis、bucketCount、capacity 必须为正数");
+        }
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.capacity = capacity;
+        this.buckets = new CountMinSketch[bucketCount];
+        this.bucketIds = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(sketchWidth, sketchDepth);
+            bucketIds[i] = -1;
+        }
+        this.window = new CountMinSketch(sketchWidth, sketchDepth);
+    }
+
+    /**
+     * 记录一次事件；早于窗口的事件忽略，较晚到达但仍在窗口内的事件计入对应的桶
+     */
+    public void add(String item, int count, long timeMillis) {
+        if (item == null || count <= 0) {
+            return;
+        }
+        long bucket = Math.floorDiv(timeMillis, bucketMillis);
+        if (bucket > currentBucket) {
+            advance(timeMillis);
+        } else if (bucket <= currentBucket - bucketCount) {
+            return;
+        }
+        int slot = slot(bucket);
+        if (bucketIds[slot] != bucket) {
+            // 窗口内但还没写入过的桶
+            expire(slot);
+            bucketIds[slot] = bucket;
+        }
+        buckets[slot].add(item, count);
+        window.add(item, count);
+        offer(item, window.estimate(item));
+    }
+
+    /**
+     * 把窗口推进到指定时间，淘汰滑出窗口的桶
+     */
+    public void advance(long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, bucketMillis);
+        if (bucket <= currentBucket) {
+            return;
+        }
+        boolean expired = false;
+        if (currentBucket == Long.MIN_VALUE || bucket - currentBucket >= bucketCount) {
+            for (int slot = 0; slot < bucketCount; slot++) {
+                expired |= expire(slot);
+            }
+        } else {
+            for (long b = currentBucket + 1; b <= bucket; b++) {
+                expired |= expire(slot(b));
+            }
+        }
+        currentBucket = bucket;
+        if (expired) {
+            rescore();
+        }
+    }
+
+    /**
+     * 窗口内频次最高的 k 个元素，按估计频次降序
+     */
+    public List<Item> top(int k, long nowMillis) {
+        advance(nowMillis);
+        if (sorted == null) {
+            List<Item> items = new ArrayList<>(ranking.size());
+            for (Counter counter : ranking.descendingSet()) {
+                items.add(new Item(counter.item, counter.count));
+            }
+            sorted = Collections.unmodifiableList(items);
+        }
+        return sorted.size() > k ? sorted.subList(0, Math.max(0, k)) : sorted;
+    }
+
+    /**
+     * 窗口内某个元素的估计频次
+     */
+    public int estimate(String item, long nowMillis) {
+        advance(nowMillis);
+        return window.estimate(item);
+    }
+
+    /**
+     * 窗口内的事件总数
+     */
+    public long total(long nowMillis) {
+        advance(nowMillis);
+        return window.total();
+    }
+
+    /**
+     * 与给定参数是否一致（加载快照时判断配置是否改过）
+     */
+    public boolean hasShape(long bucketMillis, int bucketCount, int sketchWidth, int sketchDepth, int capacity) {
+        return this.bucketMillis == bucketMillis && this.bucketCount == bucketCount && this.capacity == capacity
+            && window.width() == sketchWidth && window.depth() == sketchDepth;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(bucketMillis);
+        out.writeInt(bucketCount);
+        out.writeInt(window.width());
+        out.writeInt(window.depth());
+        out.writeInt(capacity);
+        out.writeLong(currentBucket);
+        for (int slot = 0; slot < bucketCount; slot++) {
+            out.writeLong(bucketIds[slot]);
+            if (bucketIds[slot] >= 0) {
+                buckets[slot].writeTo(out);
+            }
+        }
+        out.writeInt(candidates.size());
+        for (String item : candidates.keySet()) {
+            out.writeUTF(item);
+        }
+    }
+
+    /**
+     * 从快照恢复；汇总草图由各桶相加得到，候选频次按汇总草图重新估计
+     */
+    public static SlidingWindowTopK readFrom(DataInputStream in) throws IOException {
+        long bucketMillis = in.readLong();
+        int bucketCount = in.readInt();
+        int width = in.readInt();
+        int depth = in.readInt();
+        int capacity = in.readInt();
+        SlidingWindowTopK restored = new SlidingWindowTopK(bucketMillis, bucketCount, width, depth, capacity);
+        restored.currentBucket = in.readLong();
+        for (int slot = 0; slot < bucketCount; slot++) {
+            long bucketId = in.readLong();
+            if (bucketId >= 0) {
+                CountMinSketch sketch = CountMinSketch.readFrom(in);
+                if (sketch.width() != width || sketch.depth() != depth) {
+                    throw new IOException("时间桶草图尺寸不一致");
+                }
+                restored.buckets[slot] = sketch;
+                restored.bucketIds[slot] = bucketId;
+                restored.window.addAll(sketch);
+            }
+        }
+        int candidateCount = in.readInt();
+        for (int i = 0; i < candidateCount; i++) {
+            String item = in.readUTF();
+            restored.offer(item, restored.window.estimate(item));
+        }
+        return restored;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) bucketCount);
+    }
+
+    /**
+     * 清空槽位，返回是否有计数被移出窗口
+     */
+    private boolean expire(int slot) {
+        if (bucketIds[slot] < 0) {
+            return false;
+        }
+        boolean nonEmpty = buckets[slot].total() != 0;
+        if (nonEmpty) {
+            window.subtract(buckets[slot]);
+            buckets[slot].clear();
+        }
+        bucketIds[slot] = -1;
+        return nonEmpty;
+    }
+
+    private void rescore() {
+        List<Counter> counters = new ArrayList<>(candidates.values());
+        candidates.clear();
+        ranking.clear();
+        for (Counter counter : counters) {
+            int estimate = window.estimate(counter.item);
+            if (estimate > 0) {
+                Counter updated = new Counter(counter.item, estimate);
+                candidates.put(updated.item, updated);
+                ranking.add(updated);
+            }
+        }
+        sorted = null;
+    }
+
+    private void offer(String item, int estimate) {
+        Counter existing = candidates.get(item);
+        if (existing != null) {
+            if (existing.count == estimate) {
+                return;
+            }
+            ranking.remove(existing);
+        } else if (candidates.size() >= capacity) {
+            Counter weakest = ranking.first();
+            if (estimate <= weakest.count) {
+                return;
+            }
+            ranking.pollFirst();
+            candidates.remove(weakest.item);
+        }
+        Counter updated = new Counter(item, estimate);
+        candidates.put(item, updated);
+        ranking.add(updated);
+        sorted = null;
+    }
+
+    private static final class Counter {
+        final String item;
+        final int count;
+
+        Counter(String item, int count) {
+            this.item = item;
+            this.count = count;
+        }
+    }
+
+    /**
+     * 高频元素及其窗口内估计频次
+     */
+    public static final class Item {
+        private final String item;
+        private final int count;
+
+        Item(String item, int count) {
+            this.item = item;
+            this.count = count;
+        }
+
+        public String getItem() {
+            return item;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo1.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * 稀疏向量：按维度ID升序排列的 int[] + float[]，构造时预先计算范数
+ * 不可变，可在线程间共享。余弦相似度通过有序归并求点积，不产生额外对象。
+ */
+public final class SparseVector {
+
+    public static final SparseVector EMPTY = new SparseVector(new int[0], new float[0]);
+
+    final int[] ids;
+    final float[] weights;
+    final double norm;
+
+    private SparseVector(int[] ids, float[] weights) {
+        this.ids = ids;
+        this.weights = weights;
+        double sum = 0.0;
+        for (float w : weights) {
+            sum += (double) w * w;
+        }
+        this.norm = Math.sqrt(sum);
+    }
+
+    /**
+     * 每个维度权重相同的向量（用于动态的标签向量）
+     *
+     * @param ids 维度ID，可无序、可重复
+     */
+    public static SparseVector uniform(int[] ids) {
+        int[] sorted = Arrays.stream(ids).sorted().distinct().toArray();
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+        float[] weights = new float[sorted.length];
+        Arrays.fill(weights, 1.0f / sorted.length);
+        return new SparseVector(sorted, weights);
+    }
+
+    /**
+     * 两个向量的余弦相似度
+     */
+    public static double cosine(SparseVector a, SparseVector b) {
+        if (a == null || b == null || a.norm == 0.0 || b.norm == 0.0) {
+            return 0.0;
+        }
+        double dotProduct = dot(a, b);
+        if (dotProduct == 0.0) {
+            return 0.0;
+        }
+        return dotProduct / (a.norm * b.norm);
+    }
+
+    /**
+     * 两个向量的点积（有序归并）
+     */
+    public static double dot(SparseVector a, SparseVector b) {
+        int[] ids1 = a.ids;
+        int[] ids2 = b.ids;
+        int i = 0;
+        int j = 0;
+        double dotProduct = 0.0;
+        while (i < ids1.length && j < ids2.length) {
+            int id1 = ids1[i];
+            int id2 = ids2[j];
+            if (id1 == id2) {
+                dotProduct += (double) a.weights[i] * b.weights[j];
+                i++;
+                j++;
+            } else if (id1 < id2) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return dotProduct;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    public float weightAt(int index) {
+        return weights[index];
+    }
+
+    public double getNorm() {
+        return norm;
+    }
+
+    /**
+     * 累加式构建器：同一维度多次 add 的权重相加
+     */
+    public static final class Builder {
+        private int[] ids = new int[16];
+        private float[] weights = new float[16];
+        private int size;
+
+        public Builder add(int id, float weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size] = weight;
+            size++;
+            return this;
+        }
+
+        public SparseVector build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            // 按ID排序（对下标排序后重排），合并重复维度
+            long[] keyed = new long[size];
+            for (int i = 0; i < size; i++) {
+                keyed[i] = ((long) ids[i] << 32) | i;
+            }
+            Arrays.sort(keyed);
+            int[] outIds = new int[size];
+            float[] outWeights = new float[size];
+            int n = 0;
+            for (long key : keyed) {
+                int id = (int) (key >> 32);
+                int index = (int) key;
+                if (n > 0 && outIds[n - 1] == id) {
+                    outWeights[n - 1] += weights[index];
+                } else {
+                    outIds[n] = id;
+                    outWeights[n] = weights[index];
+                    n++;
+                }
+            }
+            return new SparseVector(Arrays.copyOf(outIds, n), Arrays.copyOf(outWeights, n));
+        }
+    }
+}
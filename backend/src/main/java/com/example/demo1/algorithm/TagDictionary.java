@@ -0,0 +1,56 @@
+package com.example.demo1.algorithm;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 全局标签字典
+ * 把标签名映射为从0开始的连续整数ID，标签索引、用户画像和动态标签向量都使用同一套ID，
+ * 比较时只需比较整数，不再使用字符串作为键。ID 一经分配不再变化（进程内）。
+ */
+@Component
+public class TagDictionary {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * 获取标签ID，不存在时分配新ID
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            return ids.computeIfAbsent(name, k -> {
+                names.add(k);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * 获取标签ID，不存在时返回 -1
+     */
+    public int idOf(String name) {
+        Integer id = name == null ? null : ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 标签ID对应的标签名
+     */
+    public String name(int id) {
+        synchronized (names) {
+            return names.get(id);
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
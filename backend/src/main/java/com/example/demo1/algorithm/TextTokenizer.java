@@ -0,0 +1,96 @@
+package com.example.demo1.algorithm;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 全文检索分词器
+ * 先做 NFKC 归一化（全角转半角）并转小写；
+ * 连续的中日韩字符切成二元组（bigram），拉丁字母和数字按单词切分，其余字符作为分隔符。
+ * 建索引时额外输出中日韩单字，使单字查询也能命中；查询时只有单独出现的汉字才按单字检索。
+ */
+public final class TextTokenizer {
+
+    // 超长的字母数字串（链接、乱码等）不入索引
+    private static final int MAX_WORD_LENGTH = 32;
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * 建索引用分词：二元组 + 单字 + 单词
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查询用分词：二元组 + 单词，孤立的汉字按单字
+     */
+    public static List<String> tokenizeForQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = normalized.codePointAt(i);
+            if (isCjk(codePoint)) {
+                List<String> run = new ArrayList<>();
+                while (i < length) {
+                    int cp = normalized.codePointAt(i);
+                    if (!isCjk(cp)) {
+                        break;
+                    }
+                    run.add(new String(Character.toChars(cp)));
+                    i += Character.charCount(cp);
+                }
+                emitCjkRun(run, withUnigrams, tokens);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int start = i;
+                while (i < length) {
+                    int cp = normalized.codePointAt(i);
+                    if (isCjk(cp) || !Character.isLetterOrDigit(cp)) {
+                        break;
+                    }
+                    i += Character.charCount(cp);
+                }
+                if (i - start <= MAX_WORD_LENGTH) {
+                    tokens.add(normalized.substring(start, i));
+                }
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return tokens;
+    }
+
+    private static void emitCjkRun(List<String> run, boolean withUnigrams, List<String> tokens) {
+        if (run.size() == 1) {
+            tokens.add(run.get(0));
+            return;
+        }
+        if (withUnigrams) {
+            tokens.addAll(run);
+        }
+        for (int k = 0; k + 1 < run.size(); k++) {
+            tokens.add(run.get(k) + run.get(k + 1));
+        }
+    }
+
+    static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+}
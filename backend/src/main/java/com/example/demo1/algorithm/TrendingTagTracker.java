@@ -0,0 +1,239 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.common.enums.TrendingWindow;
+import com.example.demo1.entity.PostTag;
+import com.example.demo1.mapper.PostTagMapper;
+import com.example.demo1.util.SnapshotFiles;
+import com.example.demo1.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 趋势标签统计
+ * 近一小时、一天、一周各一个 SlidingWindowTopK（分桶 Count-Min 草图 + 有界高频候选），
+ * 提取标签时在事务提交后计入，查询直接取缓存的排序结果，不再扫描 post_tag 表。
+ *
+ * 窗口状态定时保存到快照文件、关闭时再保存一次；启动时加载快照，再从 post_tag 补齐快照之后创建的标签，
+ * 没有快照时从 post_tag 回放最近一周。删除动态不会扣减已计入的次数。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingTagTracker {
+
+    private static final int SNAPSHOT_MAGIC = 0x54524E44;
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final PostTagMapper postTagMapper;
+
+    @Value("${trending.tags.snapshot-path:trending/trending-tags.snap}")
+    private String snapshotPath;
+
+    // Count-Min 草图每行计数器数与行数
+    @Value("${trending.tags.sketch-width:2048}")
+    private int sketchWidth;
+
+    @Value("${trending.tags.sketch-depth:4}")
+    private int sketchDepth;
+
+    // 每个窗口保留的高频候选数
+    @Value("${trending.tags.capacity:1000}")
+    private int capacity;
+
+    private final Map<TrendingWindow, SlidingWindowTopK> windows = new EnumMap<>(TrendingWindow.class);
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void init() {
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, newWindow(window));
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long since = loadSnapshot();
+            int replayed = catchUp(since);
+            dirty = replayed > 0;
+            log.info("趋势标签统计就绪: 补齐标签{}, 耗时{}ms", replayed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("趋势标签统计初始化失败，将只统计此后新增的标签", e);
+        }
+    }
+
+    /**
+     * 计入一次标签使用（事务提交后生效）
+     */
+    public void record(Collection<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return;
+        }
+        List<String> names = new ArrayList<>(tagNames);
+        TransactionUtils.afterCommit(() -> {
+            long now = nowMillis();
+            for (SlidingWindowTopK topK : windows.values()) {
+                synchronized (topK) {
+                    for (String name : names) {
+                        topK.add(name, 1, now);
+                    }
+                }
+            }
+            dirty = true;
+        });
+    }
+
+    /**
+     * 时间窗口内使用次数最多的标签，按估计次数降序
+     */
+    public List<SlidingWindowTopK.Item> top(TrendingWindow window, int limit) {
+        SlidingWindowTopK topK = windows.get(window);
+        synchronized (topK) {
+            return topK.top(limit, nowMillis());
+        }
+    }
+
+    /**
+     * 定时保存三个时间窗口，自上次保存以来没有新计数时跳过
+     */
+    @Scheduled(fixedDelayString = "${trending.tags.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            writeSnapshot();
+        } catch (Exception e) {
+            dirty = true;
+            log.warn("趋势标签快照写入失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private SlidingWindowTopK newWindow(TrendingWindow window) {
+        return new SlidingWindowTopK(window.getBucketMillis(), window.getBucketCount(),
+            sketchWidth, sketchDepth, capacity);
+    }
+
+    /**
+     * 加载快照，返回快照的写入时间；没有可用快照时返回最长窗口的起点
+     */
+    private long loadSnapshot() {
+        long weekAgo = nowMillis() - TrendingWindow.WEEK.getBucketMillis() * TrendingWindow.WEEK.getBucketCount();
+        Path path = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(path)) {
+            return weekAgo;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("不是趋势标签快照");
+            }
+            long savedAt = in.readLong();
+            int count = in.readInt();
+            Map<TrendingWindow, SlidingWindowTopK> loaded = new EnumMap<>(TrendingWindow.class);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                SlidingWindowTopK topK = SlidingWindowTopK.readFrom(in);
+                for (TrendingWindow window : TrendingWindow.values()) {
+                    if (window.name().equals(name) && topK.hasShape(window.getBucketMillis(),
+                            window.getBucketCount(), sketchWidth, sketchDepth, capacity)) {
+                        loaded.put(window, topK);
+                    }
+                }
+            }
+            if (loaded.size() != TrendingWindow.values().length) {
+                // 窗口或草图配置改过，旧快照不能直接用，整体从数据库回放
+                log.warn("趋势标签快照与当前配置不一致，将从数据库回放最近一周");
+                return weekAgo;
+            }
+            windows.putAll(loaded);
+            return savedAt;
+        } catch (Exception e) {
+            log.warn("趋势标签快照损坏，将从数据库回放最近一周: {}", path, e);
+            return weekAgo;
+        }
+    }
+
+    /**
+     * 先在内存中序列化，每个窗口只短暂加锁，不在锁内做文件 IO
+     */
+    private void writeSnapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(SNAPSHOT_MAGIC);
+        data.writeLong(nowMillis());
+        data.writeInt(windows.size());
+        for (Map.Entry<TrendingWindow, SlidingWindowTopK> entry : windows.entrySet()) {
+            data.writeUTF(entry.getKey().name());
+            synchronized (entry.getValue()) {
+                entry.getValue().writeTo(data);
+            }
+        }
+        data.flush();
+        SnapshotFiles.writeAtomically(Paths.get(snapshotPath), bytes::writeTo);
+    }
+
+    /**
+     * 按ID递增分批回放 since 之后创建的标签
+     */
+    private int catchUp(long since) {
+        LocalDateTime sinceTime = LocalDateTime.ofEpochSecond(Math.floorDiv(since, 1000L), 0, ZoneOffset.UTC);
+        long lastId = 0;
+        int replayed = 0;
+        while (true) {
+            List<PostTag> rows = postTagMapper.selectList(new LambdaQueryWrapper<PostTag>()
+                .select(PostTag::getId, PostTag::getTagName, PostTag::getCreatedAt)
+                .gt(PostTag::getId, lastId)
+                .gt(PostTag::getCreatedAt, sinceTime)
+                .orderByAsc(PostTag::getId)
+                .last("limit " + LOAD_BATCH_SIZE));
+            for (PostTag row : rows) {
+                lastId = row.getId();
+                if (row.getTagName() == null || row.getCreatedAt() == null) {
+                    continue;
+                }
+                long createdMillis = row.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+                for (SlidingWindowTopK topK : windows.values()) {
+                    synchronized (topK) {
+                        topK.add(row.getTagName(), 1, createdMillis);
+                    }
+                }
+                replayed++;
+            }
+            if (rows.size() < LOAD_BATCH_SIZE) {
+                return replayed;
+            }
+        }
+    }
+
+    /**
+     * 与 created_at 的换算保持一致：本地时间按 UTC 折算成毫秒
+     */
+    private static long nowMillis() {
+        return LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
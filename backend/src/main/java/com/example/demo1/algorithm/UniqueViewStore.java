@@ -0,0 +1,121 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.entity.SharePostViewSketch;
+import com.example.demo1.mapper.SharePostMapper;
+import com.example.demo1.mapper.SharePostViewSketchMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 动态去重浏览人数存储
+ * 每条被浏览过的动态一个 HyperLogLog，登录用户按用户ID、匿名访客按IP去重。
+ * 
+ * HyperLogLog 按需从 share_post_view_sketch 表加载，浏览时在内存中更新，
+ * 定时把有变化的写回数据库，并把估计值写入 share_post.unique_view_count 供热度计算使用；
+ * 长时间未被浏览的动态从内存中淘汰。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UniqueViewStore extends WriteBehindStore<Long, HyperLogLog, UniqueViewStore.Snapshot> {
+
+    private final SharePostViewSketchMapper sharePostViewSketchMapper;
+    private final SharePostMapper sharePostMapper;
+
+    @Value("${post.unique-view.idle-seconds:1800}")
+    private long idleSeconds;
+
+    /**
+     * 记录一次浏览
+     *
+     * @param userId 登录用户ID，未登录为 null
+     * @param clientIp 匿名访客的IP，登录用户可为 null
+     */
+    public void recordView(Long postId, Long userId, String clientIp) {
+        if (postId == null || (userId == null && clientIp == null)) {
+            return;
+        }
+        long viewer = userId != null ? userId : HyperLogLog.hashString("ip:" + clientIp);
+        update(postId, hll -> hll.offer(viewer));
+    }
+
+    /**
+     * 内存中的去重浏览人数估计值，未加载时返回 null（调用方使用 share_post.unique_view_count）
+     */
+    public Integer estimate(Long postId) {
+        return peek(postId, hll -> (int) Math.min(Integer.MAX_VALUE, hll.cardinality()));
+    }
+
+    /**
+     * 动态删除后丢弃内存中的 HyperLogLog（数据库中的记录随动态级联删除）
+     */
+    public void remove(Long postId) {
+        discard(postId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${post.unique-view.flush-interval-ms:60000}")
+    public void flush() {
+        super.flush();
+    }
+
+    @Override
+    protected Entry<HyperLogLog> load(Long postId) {
+        SharePostViewSketch record = sharePostViewSketchMapper.selectOne(
+            new LambdaQueryWrapper<SharePostViewSketch>()
+                .eq(SharePostViewSketch::getPostId, postId)
+        );
+        if (record != null && record.getSketchData() != null) {
+            try {
+                return new Entry<>(record.getId(), HyperLogLog.fromBytes(record.getSketchData()), false);
+            } catch (Exception e) {
+                log.warn("动态去重浏览人数数据损坏，将重新统计，postId={}", postId, e);
+            }
+        }
+        return new Entry<>(record != null ? record.getId() : null, new HyperLogLog(), false);
+    }
+
+    @Override
+    protected Snapshot snapshot(HyperLogLog hll) {
+        return new Snapshot(hll.toBytes(), hll.cardinality());
+    }
+
+    @Override
+    protected Long persist(Long postId, Long recordId, Snapshot snapshot) {
+        SharePostViewSketch record = new SharePostViewSketch();
+        record.setPostId(postId);
+        record.setSketchData(snapshot.data());
+        if (recordId == null) {
+            sharePostViewSketchMapper.insert(record);
+        } else {
+            record.setId(recordId);
+            sharePostViewSketchMapper.updateById(record);
+        }
+        sharePostMapper.update(null, new LambdaUpdateWrapper<SharePost>()
+            .eq(SharePost::getId, postId)
+            .set(SharePost::getUniqueViewCount, (int) Math.min(Integer.MAX_VALUE, snapshot.cardinality())));
+        return record.getId();
+    }
+
+    @Override
+    protected long idleMillis() {
+        return idleSeconds * 1000;
+    }
+
+    @Override
+    protected String description() {
+        return "动态去重浏览人数";
+    }
+
+    /**
+     * 序列化后的 HyperLogLog 及其估计值
+     */
+    record Snapshot(byte[] data, long cardinality) {
+    }
+}
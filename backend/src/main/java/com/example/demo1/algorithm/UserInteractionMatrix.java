@@ -0,0 +1,305 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.common.enums.BehaviorType;
+import com.example.demo1.common.enums.NeighborSearchStrategy;
+import com.example.demo1.common.enums.TargetType;
+import com.example.demo1.entity.UserBehavior;
+import com.example.demo1.mapper.UserBehaviorMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 用户-动态互动矩阵（常驻内存）
+ * 每个用户一行稀疏向量：按动态ID升序排列的 long[] + float[]，并预先计算好范数，
+ * 启动时从最近30天的 user_behavior 构建，之后由 UserBehaviorService 增量更新。
+ * 每天定时全量重建一次，以淘汰超出时间窗口的行为。
+ * 同时记录向量发生变化的用户，供相似用户离线刷新任务增量处理；全量重建时只记录与重建前不同的用户。
+ * 使用 LSH 策略时，一并维护 MinHash 分桶索引。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserInteractionMatrix {
+
+    // 互动向量的时间窗口（天）
+    static final int WINDOW_DAYS = 30;
+
+    private static final long LSH_SEED = 20240601L;
+
+    private final UserBehaviorMapper userBehaviorMapper;
+
+    @Value("${recommend.cf.neighbor-strategy:BRUTE_FORCE}")
+    private NeighborSearchStrategy neighborStrategy;
+
+    @Value("${recommend.cf.lsh.bands:32}")
+    private int lshBands;
+
+    @Value("${recommend.cf.lsh.rows-per-band:1}")
+    private int lshRowsPerBand;
+
+    private volatile ConcurrentHashMap<Long, Row> rows = new ConcurrentHashMap<>();
+
+    // 自上次刷新相似用户以来向量发生变化的用户
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    // MinHash/LSH 候选索引，仅在 LSH 策略下维护
+    private volatile MinHashLshIndex lshIndex;
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("用户互动矩阵初始化失败", e);
+        }
+    }
+
+    /**
+     * 从数据库全量重建矩阵
+     * 重建期间的增量写入可能被新矩阵覆盖，下一次重建时会补回
+     */
+    @Scheduled(cron = "${recommend.cf.matrix-rebuild-cron:0 30 3 * * *}", zone = "Asia/Shanghai")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<UserBehavior> behaviors = userBehaviorMapper.selectList(
+            new LambdaQueryWrapper<UserBehavior>()
+                .eq(UserBehavior::getTargetType, TargetType.POST)
+                .ge(UserBehavior::getCreatedAt, LocalDateTime.now().minusDays(WINDOW_DAYS))
+                .select(UserBehavior::getUserId, UserBehavior::getTargetId, UserBehavior::getBehaviorType)
+        );
+
+        Map<Long, Map<Long, Float>> grouped = new HashMap<>();
+        for (UserBehavior behavior : behaviors) {
+            if (behavior.getUserId() == null || behavior.getTargetId() == null) {
+                continue;
+            }
+            float weight = (float) CollaborativeFilteringRecommender.getBehaviorWeight(behavior.getBehaviorType());
+            grouped.computeIfAbsent(behavior.getUserId(), k -> new HashMap<>())
+                .merge(behavior.getTargetId(), weight, Float::sum);
+        }
+
+        ConcurrentHashMap<Long, Row> rebuilt = new ConcurrentHashMap<>(Math.max(16, grouped.size() * 2));
+        grouped.forEach((userId, vector) -> rebuilt.put(userId, Row.of(vector)));
+        Map<Long, Row> previous = rows;
+        rows = rebuilt;
+        if (neighborStrategy == NeighborSearchStrategy.LSH) {
+            MinHashLshIndex index = new MinHashLshIndex(lshBands, lshRowsPerBand, LSH_SEED);
+            rebuilt.forEach((userId, row) -> index.put(userId, row.postIds));
+            lshIndex = index;
+        }
+        // 只有窗口外行为被淘汰（或重建前的增量丢失）的用户向量会变化；
+        // 重建前不在矩阵中的用户（如启动时）由刷新任务按是否已有相似用户记录补算，移出矩阵的用户由刷新任务清理
+        int changed = 0;
+        for (Map.Entry<Long, Row> entry : rebuilt.entrySet()) {
+            Row before = previous.get(entry.getKey());
+            if (before != null && !before.approximatelyEquals(entry.getValue())) {
+                dirtyUsers.add(entry.getKey());
+                changed++;
+            }
+        }
+        dirtyUsers.removeIf(userId -> !rebuilt.containsKey(userId));
+
+        log.info("用户互动矩阵重建完成: 用户数{}, 行为数{}, 向量变化{}, 耗时{}ms",
+            rebuilt.size(), behaviors.size(), changed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 增量记录一次互动
+     */
+    public void record(Long userId, Long postId, BehaviorType behaviorType) {
+        if (userId == null || postId == null || behaviorType == null) {
+            return;
+        }
+        float weight = (float) CollaborativeFilteringRecommender.getBehaviorWeight(behaviorType);
+        rows.compute(userId, (k, row) -> row == null ? Row.single(postId, weight) : row.plus(postId, weight));
+        dirtyUsers.add(userId);
+        MinHashLshIndex index = lshIndex;
+        if (index != null) {
+            index.add(userId, postId);
+        }
+    }
+
+    /**
+     * LSH 候选相似用户，未启用 LSH 策略时返回 null
+     */
+    public Set<Long> lshCandidates(Long userId) {
+        MinHashLshIndex index = lshIndex;
+        if (index == null || userId == null) {
+            return null;
+        }
+        return index.candidates(userId);
+    }
+
+    /**
+     * 取出并清空向量发生变化的用户集合
+     */
+    public Set<Long> drainDirtyUsers() {
+        Set<Long> drained = new HashSet<>();
+        Iterator<Long> iterator = dirtyUsers.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * 获取用户的互动向量，没有互动时返回 null
+     */
+    public Row getRow(Long userId) {
+        return userId == null ? null : rows.get(userId);
+    }
+
+    /**
+     * 遍历所有用户行
+     */
+    public void forEachRow(BiConsumer<Long, Row> action) {
+        rows.forEach(action);
+    }
+
+    /**
+     * 当前有互动的用户ID
+     */
+    public Set<Long> userIds() {
+        return Collections.unmodifiableSet(rows.keySet());
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * 两个用户行的余弦相似度（有序归并求点积，无额外分配）
+     */
+    public static double cosine(Row a, Row b) {
+        if (a == null || b == null || a.norm == 0.0 || b.norm == 0.0) {
+            return 0.0;
+        }
+        long[] ids1 = a.postIds;
+        long[] ids2 = b.postIds;
+        int i = 0;
+        int j = 0;
+        double dotProduct = 0.0;
+        while (i < ids1.length && j < ids2.length) {
+            long id1 = ids1[i];
+            long id2 = ids2[j];
+            if (id1 == id2) {
+                dotProduct += (double) a.weights[i] * b.weights[j];
+                i++;
+                j++;
+            } else if (id1 < id2) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        if (dotProduct == 0.0) {
+            return 0.0;
+        }
+        return dotProduct / (a.norm * b.norm);
+    }
+
+    /**
+     * 稀疏行：不可变，更新时复制出新行替换
+     */
+    public static final class Row {
+        final long[] postIds;
+        final float[] weights;
+        final double norm;
+
+        private Row(long[] postIds, float[] weights) {
+            this.postIds = postIds;
+            this.weights = weights;
+            double sum = 0.0;
+            for (float w : weights) {
+                sum += (double) w * w;
+            }
+            this.norm = Math.sqrt(sum);
+        }
+
+        static Row single(long postId, float weight) {
+            return new Row(new long[]{postId}, new float[]{weight});
+        }
+
+        static Row of(Map<Long, Float> vector) {
+            long[] ids = new long[vector.size()];
+            int n = 0;
+            for (Long id : vector.keySet()) {
+                ids[n++] = id;
+            }
+            Arrays.sort(ids);
+            float[] ws = new float[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ws[i] = vector.get(ids[i]);
+            }
+            return new Row(ids, ws);
+        }
+
+        Row plus(long postId, float weight) {
+            int idx = Arrays.binarySearch(postIds, postId);
+            if (idx >= 0) {
+                float[] ws = weights.clone();
+                ws[idx] += weight;
+                return new Row(postIds, ws);
+            }
+            int insertAt = -idx - 1;
+            long[] ids = new long[postIds.length + 1];
+            float[] ws = new float[weights.length + 1];
+            System.arraycopy(postIds, 0, ids, 0, insertAt);
+            System.arraycopy(weights, 0, ws, 0, insertAt);
+            ids[insertAt] = postId;
+            ws[insertAt] = weight;
+            System.arraycopy(postIds, insertAt, ids, insertAt + 1, postIds.length - insertAt);
+            System.arraycopy(weights, insertAt, ws, insertAt + 1, weights.length - insertAt);
+            return new Row(ids, ws);
+        }
+
+        /**
+         * 动态相同且权重近似相等（增量累加与全量重建的浮点求和顺序不同）
+         */
+        boolean approximatelyEquals(Row other) {
+            if (!Arrays.equals(postIds, other.postIds)) {
+                return false;
+            }
+            for (int i = 0; i < weights.length; i++) {
+                if (Math.abs(weights[i] - other.weights[i]) > 1e-4f * Math.max(1f, Math.abs(weights[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean contains(long postId) {
+            return Arrays.binarySearch(postIds, postId) >= 0;
+        }
+
+        public int size() {
+            return postIds.length;
+        }
+
+        public long postIdAt(int index) {
+            return postIds[index];
+        }
+
+        public double getNorm() {
+            return norm;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo1.algorithm;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.example.demo1.entity.UserNeighbor;
+import com.example.demo1.entity.UserNeighborState;
+import com.example.demo1.mapper.UserNeighborMapper;
+import com.example.demo1.mapper.UserNeighborStateMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 相似用户存储
+ * 持久化在 user_neighbor 表中，启动时加载到内存，推荐时直接读取，
+ * 由 UserNeighborRefreshScheduler 增量刷新。
+ * 计算过的用户另记入 user_neighbor_state，相似用户为空的用户重启后也不会被当作未计算而重复计算。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserNeighborStore {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final UserNeighborMapper userNeighborMapper;
+    private final UserNeighborStateMapper userNeighborStateMapper;
+
+    // 用户ID -> 相似用户ID -> 相似度（按相似度降序）
+    private final ConcurrentHashMap<Long, Map<Long, Double>> neighbors = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            List<UserNeighbor> records = userNeighborMapper.selectList(null);
+            Map<Long, List<UserNeighbor>> grouped = new HashMap<>();
+            for (UserNeighbor record : records) {
+                grouped.computeIfAbsent(record.getUserId(), k -> new ArrayList<>()).add(record);
+            }
+            grouped.forEach((userId, list) -> {
+                Map<Long, Double> ordered = new LinkedHashMap<>();
+                list.stream()
+                    .sorted(Comparator.comparingDouble(UserNeighbor::getSimilarity).reversed())
+                    .forEach(n -> ordered.put(n.getNeighborId(), n.getSimilarity()));
+                neighbors.put(userId, Collections.unmodifiableMap(ordered));
+            });
+            // 计算过但没有相似用户的用户
+            for (UserNeighborState state : userNeighborStateMapper.selectList(null)) {
+                neighbors.putIfAbsent(state.getUserId(), Collections.emptyMap());
+            }
+            log.info("相似用户表加载完成: 用户数{}", neighbors.size());
+        } catch (Exception e) {
+            log.error("相似用户表加载失败", e);
+        }
+    }
+
+    /**
+     * 获取用户预计算的相似用户
+     *
+     * @return 相似用户ID -> 相似度（按相似度降序），尚未计算过的冷用户返回 null
+     */
+    public Map<Long, Double> get(Long userId) {
+        return userId == null ? null : neighbors.get(userId);
+    }
+
+    /**
+     * 已计算过相似用户的用户ID（含结果为空的）
+     */
+    public Set<Long> userIds() {
+        return Collections.unmodifiableSet(neighbors.keySet());
+    }
+
+    /**
+     * 覆盖保存用户的相似用户
+     */
+    @Transactional
+    public void save(Long userId, Map<Long, Double> similarUsers) {
+        userNeighborMapper.delete(new LambdaQueryWrapper<UserNeighbor>()
+            .eq(UserNeighbor::getUserId, userId));
+        List<UserNeighbor> records = new ArrayList<>(similarUsers.size());
+        for (Map.Entry<Long, Double> entry : similarUsers.entrySet()) {
+            UserNeighbor record = new UserNeighbor();
+            record.setUserId(userId);
+            record.setNeighborId(entry.getKey());
+            record.setSimilarity(entry.getValue());
+            records.add(record);
+        }
+        if (!records.isEmpty()) {
+            Db.saveBatch(records, BATCH_SIZE);
+        }
+        userNeighborStateMapper.delete(new LambdaQueryWrapper<UserNeighborState>()
+            .eq(UserNeighborState::getUserId, userId));
+        UserNeighborState state = new UserNeighborState();
+        state.setUserId(userId);
+        userNeighborStateMapper.insert(state);
+        neighbors.put(userId, Collections.unmodifiableMap(new LinkedHashMap<>(similarUsers)));
+    }
+
+    /**
+     * 删除已不在互动矩阵中的用户：既删除他们自己的相似用户，也把他们从其他用户的相似用户中移除
+     */
+    @Transactional
+    public void remove(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE));
+            userNeighborMapper.delete(new LambdaQueryWrapper<UserNeighbor>()
+                .in(UserNeighbor::getUserId, batch)
+                .or()
+                .in(UserNeighbor::getNeighborId, batch));
+            userNeighborStateMapper.delete(new LambdaQueryWrapper<UserNeighborState>()
+                .in(UserNeighborState::getUserId, batch));
+        }
+        Set<Long> removed = new HashSet<>(ids);
+        removed.forEach(neighbors::remove);
+        neighbors.replaceAll((userId, similar) -> {
+            if (similar.keySet().stream().noneMatch(removed::contains)) {
+                return similar;
+            }
+            Map<Long, Double> filtered = new LinkedHashMap<>(similar);
+            filtered.keySet().removeAll(removed);
+            return Collections.unmodifiableMap(filtered);
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo1.algorithm;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 按键缓存、定时写回数据库的内存存储
+ * 值按需加载，修改只在内存中进行并标记为有变化，flush 时批量写回，
+ * 长时间未访问且已写回的键从内存中淘汰。子类负责加载和写库，并在 flush 上配置定时任务。
+ *
+ * 值本身非线程安全，所有读写都在所属条目的锁内进行。淘汰时在条目锁内判断并以 remove(key, entry)
+ * 移除，同时把条目标记为已淘汰；修改时拿到已淘汰的条目会重新加载，避免修改落在已移出缓存的条目上而丢失。
+ *
+ * @param <K> 键
+ * @param <V> 内存中的值
+ * @param <S> 写回数据库的快照，在锁内生成、锁外写库
+ */
+@Slf4j
+public abstract class WriteBehindStore<K, V, S> {
+
+    private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 从数据库加载，或在没有记录时新建
+     */
+    protected abstract Entry<V> load(K key);
+
+    /**
+     * 在条目锁内生成写回快照
+     */
+    protected abstract S snapshot(V value);
+
+    /**
+     * 把快照写入数据库，返回记录ID
+     *
+     * @param recordId 已有记录的ID，尚未写入过时为 null
+     */
+    protected abstract Long persist(K key, Long recordId, S snapshot);
+
+    /**
+     * 未访问多久后从内存中淘汰
+     */
+    protected abstract long idleMillis();
+
+    /**
+     * 日志中使用的名称
+     */
+    protected abstract String description();
+
+    /**
+     * 在锁内读取值，未加载时先加载
+     */
+    protected <R> R read(K key, Function<V, R> reader) {
+        Entry<V> entry = entry(key);
+        synchronized (entry) {
+            return reader.apply(entry.value);
+        }
+    }
+
+    /**
+     * 在锁内读取已在内存中的值，未加载时返回 null
+     */
+    protected <R> R peek(K key, Function<V, R> reader) {
+        Entry<V> entry = key == null ? null : cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return reader.apply(entry.value);
+        }
+    }
+
+    /**
+     * 在锁内修改值，mutation 返回 true 表示有变化、需要写回
+     */
+    protected void update(K key, Predicate<V> mutation) {
+        while (true) {
+            Entry<V> entry = entry(key);
+            synchronized (entry) {
+                if (entry.evicted) {
+                    continue;
+                }
+                if (mutation.test(entry.value)) {
+                    entry.dirty = true;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 丢弃内存中的值，未写回的变化一并丢弃
+     */
+    protected void discard(K key) {
+        Entry<V> entry = key == null ? null : cache.remove(key);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.evicted = true;
+            }
+        }
+    }
+
+    /**
+     * 把有变化的值写回数据库，并淘汰长时间未访问的键
+     */
+    public synchronized void flush() {
+        long idleBefore = System.currentTimeMillis() - idleMillis();
+        int saved = 0;
+        for (Map.Entry<K, Entry<V>> e : cache.entrySet()) {
+            K key = e.getKey();
+            Entry<V> entry = e.getValue();
+            if (entry.dirty) {
+                try {
+                    save(key, entry);
+                    saved++;
+                } catch (Exception ex) {
+                    log.warn("保存{}失败，key={}", description(), key, ex);
+                    continue;
+                }
+            }
+            synchronized (entry) {
+                if (!entry.dirty && entry.lastAccess < idleBefore && cache.remove(key, entry)) {
+                    entry.evicted = true;
+                }
+            }
+        }
+        if (saved > 0) {
+            log.debug("{}写回: {}个, 内存中{}个", description(), saved, cache.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Entry<V> entry(K key) {
+        Entry<V> entry = cache.get(key);
+        if (entry == null) {
+            // 在锁外加载，避免数据库访问阻塞 ConcurrentHashMap 的桶
+            Entry<V> loaded = load(key);
+            entry = cache.putIfAbsent(key, loaded);
+            if (entry == null) {
+                entry = loaded;
+            }
+        }
+        entry.lastAccess = System.currentTimeMillis();
+        return entry;
+    }
+
+    private void save(K key, Entry<V> entry) {
+        S snapshot;
+        synchronized (entry) {
+            snapshot = snapshot(entry.value);
+            entry.dirty = false;
+        }
+        try {
+            entry.recordId = persist(key, entry.recordId, snapshot);
+        } catch (RuntimeException e) {
+            // 下次 flush 重试
+            entry.dirty = true;
+            throw e;
+        }
+    }
+
+    protected static final class Entry<V> {
+        final V value;
+        volatile Long recordId;
+        volatile boolean dirty;
+        volatile boolean evicted;
+        volatile long lastAccess;
+
+        /**
+         * @param dirty 加载时就需要写回（例如由历史数据回填）
+         */
+        protected Entry(Long recordId, V value, boolean dirty) {
+            this.recordId = recordId;
+            this.value = value;
+            this.dirty = dirty;
+        }
+    }
+}
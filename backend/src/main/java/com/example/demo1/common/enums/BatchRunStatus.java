@@ -0,0 +1,21 @@
+package com.example.demo1.common.enums;
+
+/**
+ * 离线批处理任务状态枚举
+ */
+public enum BatchRunStatus {
+    /**
+     * 运行中（节点重启后会从断点继续）
+     */
+    RUNNING,
+
+    /**
+     * 已完成
+     */
+    FINISHED,
+
+    /**
+     * 失败
+     */
+    FAILED
+}
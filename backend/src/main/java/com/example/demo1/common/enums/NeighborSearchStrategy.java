@@ -0,0 +1,17 @@
+package com.example.demo1.common.enums;
+
+/**
+ * 相似用户查找策略枚举
+ * 用于协同过滤推荐的 Top-K 相似用户计算
+ */
+public enum NeighborSearchStrategy {
+    /**
+     * 暴力扫描：与所有用户逐一计算余弦相似度
+     */
+    BRUTE_FORCE,
+
+    /**
+     * MinHash/LSH：先按分桶取候选用户，再用余弦相似度精确打分
+     */
+    LSH
+}
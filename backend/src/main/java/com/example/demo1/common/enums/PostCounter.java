@@ -0,0 +1,23 @@
+package com.example.demo1.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 动态计数器枚举
+ * 对应 share_post 表中的各个计数列
+ */
+@Getter
+public enum PostCounter {
+    VIEW("view_count", "浏览数"),
+    LIKE("like_count", "点赞数"),
+    FAVORITE("favorite_count", "收藏数"),
+    COMMENT("comment_count", "评论数");
+
+    private final String column;
+    private final String description;
+
+    PostCounter(String column, String description) {
+        this.column = column;
+        this.description = description;
+    }
+}
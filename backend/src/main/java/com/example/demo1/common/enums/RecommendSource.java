@@ -0,0 +1,21 @@
+package com.example.demo1.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 推荐来源枚举
+ * 标识混合推荐结果由哪些推荐算法贡献
+ */
+@Getter
+public enum RecommendSource {
+    CONTENT_BASED("基于内容"),
+    COLLABORATIVE_FILTERING("协同过滤"),
+    HOT_RANKING("热度排行"),
+    PRECOMPUTED("离线预计算");
+
+    private final String description;
+
+    RecommendSource(String description) {
+        this.description = description;
+    }
+}
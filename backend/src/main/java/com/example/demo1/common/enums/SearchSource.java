@@ -0,0 +1,21 @@
+package com.example.demo1.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 搜索来源枚举
+ * 综合搜索并行查询的各个数据源
+ */
+@Getter
+public enum SearchSource {
+    POST("动态"),
+    USER("用户"),
+    BEVERAGE("酒饮"),
+    WIKI("维基");
+
+    private final String description;
+
+    SearchSource(String description) {
+        this.description = description;
+    }
+}
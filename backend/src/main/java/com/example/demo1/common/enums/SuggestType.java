@@ -0,0 +1,21 @@
+package com.example.demo1.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 搜索联想词类型
+ */
+@Getter
+public enum SuggestType {
+    BEVERAGE("酒饮"),
+    ALCOHOL("酒类"),
+    TAG("话题标签"),
+    BAR("酒吧"),
+    USER("用户");
+
+    private final String description;
+
+    SuggestType(String description) {
+        this.description = description;
+    }
+}
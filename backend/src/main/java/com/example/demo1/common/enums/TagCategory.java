@@ -48,5 +48,22 @@ public enum TagCategory {
      * 氛围相关
      * 注：数据库中会存储为SCENE
      */
-    ATMOSPHERE
+    ATMOSPHERE;
+
+    /**
+     * 写入数据库时使用的分类
+     * 数据库只支持: BEVERAGE_TYPE, TASTE, SCENE, LOCATION, OTHER
+     */
+    public TagCategory toDatabaseCategory() {
+        switch (this) {
+            case BEVERAGE:
+                return BEVERAGE_TYPE;
+            case ATMOSPHERE:
+                return SCENE;
+            case TOPIC:
+                return OTHER;
+            default:
+                return this;
+        }
+    }
 }
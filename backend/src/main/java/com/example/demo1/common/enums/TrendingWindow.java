@@ -0,0 +1,33 @@
+package com.example.demo1.common.enums;
+
+/**
+ * 趋势标签时间窗口
+ * 窗口按桶滑动，桶越细窗口边界越准，内存占用也越大
+ */
+public enum TrendingWindow {
+    HOUR(5 * 60 * 1000L, 12, "近一小时"),
+    DAY(60 * 60 * 1000L, 24, "近一天"),
+    WEEK(6 * 60 * 60 * 1000L, 28, "近一周");
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final String description;
+
+    TrendingWindow(long bucketMillis, int bucketCount, String description) {
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.description = description;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo1.common.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 不统计总数，翻页时把 nextCursor 原样传回即可
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResult<T> {
+    private Integer pageSize;
+    private List<T> items;
+
+    /**
+     * 下一页游标，没有更多时为 null
+     */
+    private String nextCursor;
+
+    private Boolean hasMore;
+}
@@ -0,0 +1,88 @@
+package com.example.demo1.config;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.example.demo1.entity.SharePostComment;
+import com.example.demo1.mapper.SharePostCommentMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 为引入 root_id 之前的历史回复补齐所属一级评论ID
+ * 只处理 root_id 为空的回复，补齐后再次启动即无事可做。
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentRootIdInitializer implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentRootIdInitializer.class);
+
+    private final SharePostCommentMapper sharePostCommentMapper;
+
+    @Override
+    public void run(String... args) {
+        try {
+            Set<Long> postIds = sharePostCommentMapper.selectList(new LambdaQueryWrapper<SharePostComment>()
+                    .isNotNull(SharePostComment::getParentId)
+                    .isNull(SharePostComment::getRootId)
+                    .select(SharePostComment::getPostId))
+                .stream()
+                .map(SharePostComment::getPostId)
+                .collect(Collectors.toSet());
+            int updated = 0;
+            for (Long postId : postIds) {
+                updated += backfillPost(postId);
+            }
+            if (updated > 0) {
+                log.info("历史评论 root_id 补齐完成: 动态数{}, 回复数{}", postIds.size(), updated);
+            }
+        } catch (Exception e) {
+            log.error("历史评论 root_id 补齐失败", e);
+        }
+    }
+
+    private int backfillPost(Long postId) {
+        List<SharePostComment> comments = sharePostCommentMapper.selectList(new LambdaQueryWrapper<SharePostComment>()
+            .eq(SharePostComment::getPostId, postId)
+            .select(SharePostComment::getId, SharePostComment::getParentId, SharePostComment::getRootId));
+        Map<Long, Long> parentOf = new HashMap<>();
+        comments.forEach(c -> parentOf.put(c.getId(), c.getParentId()));
+
+        Map<Long, List<Long>> byRoot = new HashMap<>();
+        for (SharePostComment comment : comments) {
+            if (comment.getParentId() == null || comment.getRootId() != null) {
+                continue;
+            }
+            // 沿父评论链找到一级评论，防御环状或断链的异常数据
+            Long current = comment.getId();
+            Set<Long> visited = new HashSet<>();
+            while (parentOf.get(current) != null && parentOf.containsKey(parentOf.get(current))
+                    && visited.add(current)) {
+                current = parentOf.get(current);
+            }
+            if (parentOf.get(current) != null) {
+                continue;
+            }
+            byRoot.computeIfAbsent(current, k -> new ArrayList<>()).add(comment.getId());
+        }
+
+        int updated = 0;
+        for (Map.Entry<Long, List<Long>> entry : byRoot.entrySet()) {
+            updated += sharePostCommentMapper.update(null, new LambdaUpdateWrapper<SharePostComment>()
+                .in(SharePostComment::getId, entry.getValue())
+                .set(SharePostComment::getRootId, entry.getKey()));
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo1.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 业务线程池
+ * 均为固定大小、有界队列、守护线程；注入时按 bean 名称加 @Qualifier 区分
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 推荐算法线程池，队列满时直接拒绝，由调用方把该路推荐视为超时丢弃
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService recommendExecutor(
+            @Value("${recommend.parallel.pool-size:8}") int poolSize,
+            @Value("${recommend.parallel.queue-capacity:200}") int queueCapacity) {
+        return boundedPool("recommend", poolSize, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 关注时间线写扩散线程池，队列满时由提交线程自己执行，写扩散任务不丢弃
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService timelineExecutor(
+            @Value("${feed.timeline.pool-size:2}") int poolSize,
+            @Value("${feed.timeline.queue-capacity:1000}") int queueCapacity) {
+        return boundedPool("timeline", poolSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 综合搜索线程池，队列满时直接拒绝，由调用方把该来源视为跳过
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService searchExecutor(
+            @Value("${search.federated.pool-size:8}") int poolSize,
+            @Value("${search.federated.queue-capacity:200}") int queueCapacity) {
+        return boundedPool("search", poolSize, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ExecutorService boundedPool(String name, int poolSize, int queueCapacity,
+                                               RejectedExecutionHandler rejectedHandler) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory, rejectedHandler);
+    }
+}
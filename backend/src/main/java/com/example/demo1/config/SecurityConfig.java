@@ -40,6 +40,7 @@ public class SecurityConfig {
                     "/circle/posts/**",
                     "/circle/nearby",
                     "/circle/nearby/**",
+                    "/circle/comments/*/replies",
                     "/wiki/pages/**", 
                     "/search",
                     "/search/**", 
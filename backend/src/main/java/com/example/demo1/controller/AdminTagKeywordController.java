@@ -0,0 +1,80 @@
+package com.example.demo1.controller;
+
+import com.example.demo1.common.enums.UserRole;
+import com.example.demo1.common.exception.BusinessException;
+import com.example.demo1.common.response.Result;
+import com.example.demo1.dto.request.TagKeywordRequest;
+import com.example.demo1.entity.TagKeyword;
+import com.example.demo1.security.UserPrincipal;
+import com.example.demo1.service.TagKeywordService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 管理员自动标签关键词控制器
+ * 维护 tag_keyword 词典表，修改后本实例立即重建匹配自动机
+ */
+@RestController
+@RequestMapping("/admin/tag-keywords")
+@RequiredArgsConstructor
+public class AdminTagKeywordController {
+
+    private final TagKeywordService tagKeywordService;
+
+    /**
+     * 验证管理员权限
+     */
+    private void checkAdminPermission(UserPrincipal principal) {
+        if (principal == null) {
+            throw new BusinessException(401, "请先登录");
+        }
+        if (!UserRole.ADMIN.equals(principal.getRole())) {
+            throw new BusinessException(403, "需要管理员权限");
+        }
+    }
+
+    /**
+     * 获取词典表中的词条
+     */
+    @GetMapping
+    public Result<List<TagKeyword>> listKeywords(@AuthenticationPrincipal UserPrincipal principal) {
+        checkAdminPermission(principal);
+        return Result.success(tagKeywordService.listKeywords());
+    }
+
+    /**
+     * 新增或重新启用词条
+     */
+    @PostMapping
+    public Result<TagKeyword> addKeyword(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @Valid @RequestBody TagKeywordRequest request) {
+        checkAdminPermission(principal);
+        return Result.success(tagKeywordService.addKeyword(request));
+    }
+
+    /**
+     * 停用词条
+     */
+    @PostMapping("/{id}/deactivate")
+    public Result<Void> deactivateKeyword(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable Long id) {
+        checkAdminPermission(principal);
+        tagKeywordService.deactivateKeyword(id);
+        return Result.success();
+    }
+
+    /**
+     * 立即重新加载词典，返回关键词数量
+     */
+    @PostMapping("/reload")
+    public Result<Integer> reload(@AuthenticationPrincipal UserPrincipal principal) {
+        checkAdminPermission(principal);
+        return Result.success(tagKeywordService.reload());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo1.controller;
 
 import com.example.demo1.common.enums.UserRole;
 import com.example.demo1.common.exception.BusinessException;
+import com.example.demo1.common.response.CursorPageResult;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.common.response.Result;
 import com.example.demo1.dto.request.SharePostCommentRequest;
@@ -54,6 +55,17 @@ public class CircleController {
         return Result.success(sharePostService.listPosts(page, pageSize, currentUserId));
     }
 
+    /**
+     * 游标分页：翻页时传回上一页的 nextCursor，不统计总数
+     */
+    @GetMapping("/posts/cursor")
+    public Result<CursorPageResult<SharePostVO>> listByCursor(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        Long currentUserId = principal != null ? principal.getId() : null;
+        return Result.success(sharePostService.listPostsByCursor(cursor, pageSize, currentUserId));
+    }
+
     @GetMapping("/feed")
     public Result<PageResult<SharePostVO>> feed(@AuthenticationPrincipal UserPrincipal principal,
             @RequestParam(defaultValue = "1") Integer page,
@@ -64,6 +76,16 @@ public class CircleController {
         return Result.success(sharePostService.listFollowingPosts(principal.getId(), page, pageSize));
     }
 
+    @GetMapping("/feed/cursor")
+    public Result<CursorPageResult<SharePostVO>> feedByCursor(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        if (principal == null) {
+            throw new BusinessException(401, "请先登录");
+        }
+        return Result.success(sharePostService.listFollowingPostsByCursor(principal.getId(), cursor, pageSize));
+    }
+
     @GetMapping("/nearby")
     public Result<PageResult<SharePostVO>> nearby(@AuthenticationPrincipal UserPrincipal principal,
             @RequestParam String city,
@@ -73,6 +95,15 @@ public class CircleController {
         return Result.success(sharePostService.listPostsByCity(city, page, pageSize, currentUserId));
     }
 
+    @GetMapping("/nearby/cursor")
+    public Result<CursorPageResult<SharePostVO>> nearbyByCursor(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam String city,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") Integer pageSize) {
+        Long currentUserId = principal != null ? principal.getId() : null;
+        return Result.success(sharePostService.listPostsByCityByCursor(city, cursor, pageSize, currentUserId));
+    }
+
     @GetMapping("/users/{userId}/posts")
     public Result<PageResult<SharePostVO>> userPosts(@AuthenticationPrincipal UserPrincipal principal,
             @PathVariable Long userId,
@@ -82,11 +113,22 @@ public class CircleController {
         return Result.success(sharePostService.listPostsByUser(userId, page, pageSize, currentUserId));
     }
 
+    @GetMapping("/users/{userId}/posts/cursor")
+    public Result<CursorPageResult<SharePostVO>> userPostsByCursor(@AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        Long currentUserId = principal != null ? principal.getId() : null;
+        return Result.success(sharePostService.listPostsByUserByCursor(userId, cursor, pageSize, currentUserId));
+    }
+
     @GetMapping("/posts/{id}")
     public Result<SharePostVO> getPost(@PathVariable Long id,
-            @AuthenticationPrincipal UserPrincipal principal) {
+            @AuthenticationPrincipal UserPrincipal principal,
+            HttpServletRequest servletRequest) {
         Long currentUserId = principal != null ? principal.getId() : null;
-        return Result.success(sharePostService.getPostById(id, currentUserId, true));
+        return Result.success(sharePostService.getPostById(id, currentUserId, true,
+            IpUtils.getClientIp(servletRequest)));
     }
 
     @PostMapping("/posts/{id}/like")
@@ -112,6 +154,27 @@ public class CircleController {
         return Result.success(sharePostService.listComments(id));
     }
 
+    /**
+     * 分页获取一级评论，每条内联前 replyPreview 条回复
+     */
+    @GetMapping("/posts/{id}/comments/cursor")
+    public Result<CursorPageResult<SharePostCommentVO>> listCommentsByCursor(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer pageSize,
+            @RequestParam(defaultValue = "3") Integer replyPreview) {
+        return Result.success(sharePostService.listRootComments(id, cursor, pageSize, replyPreview));
+    }
+
+    /**
+     * 分页获取一级评论下的更多回复
+     */
+    @GetMapping("/comments/{id}/replies")
+    public Result<CursorPageResult<SharePostCommentVO>> listReplies(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer pageSize) {
+        return Result.success(sharePostService.listReplies(id, cursor, pageSize));
+    }
+
     @PostMapping("/posts/{id}/comments")
     public Result<SharePostCommentVO> createComment(@PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal principal,
@@ -1,11 +1,13 @@
 package com.example.demo1.controller;
 
 import com.example.demo1.common.enums.TimeDimension;
+import com.example.demo1.common.enums.TrendingWindow;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.common.response.Result;
 import com.example.demo1.dto.response.SharePostVO;
 import com.example.demo1.security.UserPrincipal;
 import com.example.demo1.service.SharePostService;
+import com.example.demo1.service.TagExtractionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +15,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 排行榜控制器
- * 提供热门动态排行榜等功能
+ * 提供热门动态排行榜、趋势标签等功能
  */
 @RestController
 @RequestMapping("/ranking")
@@ -23,6 +28,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class RankingController {
 
     private final SharePostService sharePostService;
+    private final TagExtractionService tagExtractionService;
 
     /**
      * 获取热门动态排行榜
@@ -53,5 +59,27 @@ public class RankingController {
         
         return Result.success(result);
     }
-}
 
+    /**
+     * 获取趋势标签
+     * 
+     * @param window 时间窗口（HOUR/DAY/WEEK），默认DAY
+     * @param limit 返回数量，默认20，最多100
+     * @return 标签及窗口内使用次数（估计值），按次数降序
+     */
+    @GetMapping("/tags")
+    public Result<List<Map<String, Object>>> getTrendingTags(
+            @RequestParam(defaultValue = "DAY") String window,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        
+        TrendingWindow trendingWindow;
+        try {
+            trendingWindow = TrendingWindow.valueOf(window.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            trendingWindow = TrendingWindow.DAY;
+        }
+        
+        int size = Math.max(1, Math.min(limit, 100));
+        return Result.success(tagExtractionService.getTrendingTags(trendingWindow, size));
+    }
+}
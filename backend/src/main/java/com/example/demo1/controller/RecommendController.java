@@ -1,8 +1,10 @@
 package com.example.demo1.controller;
 
+import com.example.demo1.common.enums.BatchRunStatus;
 import com.example.demo1.common.enums.UserRole;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.common.response.Result;
+import com.example.demo1.dto.response.RecommendPageResult;
 import com.example.demo1.dto.response.RecommendedUserVO;
 import com.example.demo1.dto.rag.RAGQueryRequest;
 import com.example.demo1.dto.rag.RAGRecommendationResponse;
@@ -10,12 +12,14 @@ import com.example.demo1.dto.response.SharePostVO;
 import com.example.demo1.rag.service.KnowledgeBaseService;
 import com.example.demo1.rag.service.RAGRecommendationService;
 import com.example.demo1.security.UserPrincipal;
+import com.example.demo1.service.RecommendationBatchService;
 import com.example.demo1.service.RecommendationService;
 import com.example.demo1.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +33,7 @@ import java.util.Map;
 public class RecommendController {
 
     private final RecommendationService recommendationService;
+    private final RecommendationBatchService recommendationBatchService;
     private final UserService userService;
     private final RAGRecommendationService ragRecommendationService;
     private final KnowledgeBaseService knowledgeBaseService;
@@ -38,31 +43,16 @@ public class RecommendController {
      * 基于协同过滤算法，结合用户行为偏好和标签匹配
      */
     @GetMapping("/posts")
-    public Result<PageResult<SharePostVO>> getRecommendedPosts(
+    public Result<RecommendPageResult<SharePostVO>> getRecommendedPosts(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal UserPrincipal principal) {
         
         Long currentUserId = principal != null ? principal.getId() : null;
         
-        // 基于协同过滤算法的推荐
-        List<SharePostVO> recommendedPosts = recommendationService.getRecommendedPosts(currentUserId, size);
-        
-        // 手动分页
-        int start = (page - 1) * size;
-        int end = Math.min(start + size, recommendedPosts.size());
-        List<SharePostVO> pagedPosts = start < recommendedPosts.size() 
-            ? recommendedPosts.subList(start, end)
-            : List.of();
-        
-        PageResult<SharePostVO> result = new PageResult<>(
-            (long) recommendedPosts.size(), 
-            page, 
-            size, 
-            pagedPosts
-        );
-        
-        return Result.success(result);
+        // 推荐列表按会话缓存，翻页（游标或页码）不会重新计算
+        return Result.success(recommendationService.getRecommendedPosts(currentUserId, cursor, page, size));
     }
 
     /**
@@ -188,6 +178,47 @@ public class RecommendController {
         ));
     }
 
+    /**
+     * 获取离线推荐批次进度
+     */
+    @GetMapping("/admin/batch/status")
+    public Result<Map<String, Object>> getBatchStatus(
+            @AuthenticationPrincipal UserPrincipal principal) {
+        
+        if (principal == null || principal.getRole() != UserRole.ADMIN) {
+            return Result.error(403, "需要管理员权限");
+        }
+        
+        return Result.success(recommendationBatchService.getProgress());
+    }
+
+    /**
+     * 手动触发今天的离线推荐批次（已完成的用户会被跳过，当天批次已完成时直接返回完成状态）
+     */
+    @PostMapping("/admin/batch/run")
+    public Result<Map<String, Object>> runBatch(
+            @AuthenticationPrincipal UserPrincipal principal) {
+        
+        if (principal == null || principal.getRole() != UserRole.ADMIN) {
+            return Result.error(403, "需要管理员权限");
+        }
+        
+        LocalDate today = LocalDate.now(RecommendationBatchService.ZONE_ID);
+        if (recommendationBatchService.getRunStatus(today) == BatchRunStatus.FINISHED) {
+            return Result.success(Map.of(
+                    "message", "今天的离线推荐批次已完成",
+                    "status", BatchRunStatus.FINISHED
+            ));
+        }
+        if (!recommendationBatchService.startBatch(today)) {
+            return Result.error(409, "已有批次正在运行");
+        }
+        return Result.success(Map.of(
+                "message", "离线推荐批次已启动",
+                "status", BatchRunStatus.RUNNING
+        ));
+    }
+
     /**
      * 获取相似动态
      * 基于标签相似度推荐
@@ -1,14 +1,14 @@
 package com.example.demo1.controller;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.common.enums.SearchSource;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.common.response.Result;
-import com.example.demo1.dto.response.BeverageSummaryVO;
 import com.example.demo1.dto.response.SearchResultVO;
 import com.example.demo1.dto.response.SharePostVO;
 import com.example.demo1.dto.response.SimpleUserVO;
-import com.example.demo1.entity.Beverage;
-import com.example.demo1.mapper.BeverageMapper;
+import com.example.demo1.dto.response.SuggestionVO;
+import com.example.demo1.service.FederatedSearchService;
+import com.example.demo1.service.SearchSuggestService;
 import com.example.demo1.service.SharePostService;
 import com.example.demo1.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -18,8 +18,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/search")
@@ -28,30 +29,41 @@ public class SearchController {
 
     private final SharePostService sharePostService;
     private final UserService userService;
-    private final BeverageMapper beverageMapper;
+    private final FederatedSearchService federatedSearchService;
+    private final SearchSuggestService searchSuggestService;
 
     /**
-     * 搜索接口（兼容旧版本，返回简单列表）
+     * 综合搜索：各来源并行查询，返回分类型列表、合并排序结果与各来源耗时
      */
     @GetMapping
     public Result<SearchResultVO> search(@RequestParam String keyword,
                                          @RequestParam(required = false, defaultValue = "all") String type) {
-        SearchResultVO.SearchResultVOBuilder builder = SearchResultVO.builder();
         String normalized = keyword == null ? "" : keyword.trim();
 
         // 支持前端的type值：post/circle（动态）、wiki（维基）、user（用户）、beverage（酒饮）
+        Set<SearchSource> sources = EnumSet.noneOf(SearchSource.class);
         if ("all".equalsIgnoreCase(type) || "circle".equalsIgnoreCase(type) || "post".equalsIgnoreCase(type)) {
-            List<SharePostVO> posts = sharePostService.search(normalized, 10);
-            builder.posts(posts);
+            sources.add(SearchSource.POST);
         }
         if ("all".equalsIgnoreCase(type) || "beverage".equalsIgnoreCase(type)) {
-            builder.beverages(searchBeverages(normalized));
+            sources.add(SearchSource.BEVERAGE);
         }
         if ("all".equalsIgnoreCase(type) || "user".equalsIgnoreCase(type)) {
-            List<SimpleUserVO> users = userService.searchUsers(normalized, 10);
-            builder.users(users);
+            sources.add(SearchSource.USER);
         }
-        return Result.success(builder.build());
+        if ("all".equalsIgnoreCase(type) || "wiki".equalsIgnoreCase(type)) {
+            sources.add(SearchSource.WIKI);
+        }
+        return Result.success(federatedSearchService.search(normalized, sources));
+    }
+
+    /**
+     * 搜索框联想：酒饮、酒类、标签、酒吧、用户名前缀匹配（支持拼音首字母），按热度排序
+     */
+    @GetMapping("/suggest")
+    public Result<List<SuggestionVO>> suggest(@RequestParam(required = false) String q,
+                                              @RequestParam(defaultValue = "10") Integer limit) {
+        return Result.success(searchSuggestService.suggest(q, limit));
     }
 
     /**
@@ -81,27 +93,4 @@ public class SearchController {
         PageResult<SimpleUserVO> result = userService.searchUsers(normalized, page, pageSize, sortBy);
         return Result.success(result);
     }
-
-    private List<BeverageSummaryVO> searchBeverages(String keyword) {
-        LambdaQueryWrapper<Beverage> wrapper = new LambdaQueryWrapper<>();
-        if (StringUtils.isBlank(keyword)) {
-            wrapper.orderByDesc(Beverage::getCreatedAt);
-        } else {
-            wrapper.like(Beverage::getName, keyword)
-                .or()
-                .like(Beverage::getType, keyword);
-        }
-        wrapper.last("limit 10");
-        return beverageMapper.selectList(wrapper).stream()
-            .map(beverage -> BeverageSummaryVO.builder()
-                .id(beverage.getId())
-                .name(beverage.getName())
-                .type(beverage.getType())
-                .origin(beverage.getOrigin())
-                .coverImageId(beverage.getCoverImageId())
-                .rating(beverage.getRating())
-                .build())
-            .collect(Collectors.toList());
-    }
 }
-
@@ -1,5 +1,6 @@
 package com.example.demo1.controller;
 
+import com.example.demo1.common.enums.UserRole;
 import com.example.demo1.common.exception.BusinessException;
 import com.example.demo1.common.response.Result;
 import com.example.demo1.dto.request.ChangePasswordRequest;
@@ -25,6 +26,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @RestController
@@ -92,9 +95,11 @@ public class UserController {
         if (principal == null) {
             throw new BusinessException(401, "请先登录");
         }
-        List<User> followees = userService.getFollowees(principal.getId());
-        List<SimpleUserVO> result = followees.stream()
-                .map(userService::buildSimpleUser)
+        List<Long> followeeIds = userService.getFolloweeIds(principal.getId());
+        Map<Long, SimpleUserVO> users = userService.buildSimpleUsers(followeeIds);
+        List<SimpleUserVO> result = followeeIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
         return Result.success(result);
     }
@@ -121,5 +126,15 @@ public class UserController {
         userService.blockRecommendedUser(principal.getId(), id);
         return Result.success();
     }
-}
 
+    /**
+     * 用户摘要缓存命中统计（管理员）
+     */
+    @GetMapping("/summary-cache/stats")
+    public Result<Map<String, Object>> summaryCacheStats(@AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null || principal.getRole() != UserRole.ADMIN) {
+            return Result.error(403, "需要管理员权限");
+        }
+        return Result.success(userService.getSummaryCacheStats());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo1.controller;
 
 import com.example.demo1.common.enums.UserRole;
 import com.example.demo1.common.exception.BusinessException;
+import com.example.demo1.common.response.CursorPageResult;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.common.response.Result;
 import com.example.demo1.dto.request.ReviewWikiPageRequest;
@@ -43,6 +44,18 @@ public class WikiController {
         return Result.success(wikiService.listPages(keyword, page, pageSize, currentUserId));
     }
 
+    /**
+     * 游标分页列出页面，不统计总数
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPageResult<WikiPageVO>> listByCursor(@AuthenticationPrincipal UserPrincipal principal,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "10") Integer pageSize,
+                                                             @RequestParam(required = false) String keyword) {
+        Long currentUserId = principal != null ? principal.getId() : null;
+        return Result.success(wikiService.listPagesByCursor(keyword, cursor, pageSize, currentUserId));
+    }
+
     @GetMapping("/{slug}")
     public Result<WikiPageVO> detail(@PathVariable String slug,
                                      @AuthenticationPrincipal UserPrincipal principal) {
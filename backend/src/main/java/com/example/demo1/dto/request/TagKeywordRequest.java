@@ -0,0 +1,25 @@
+package com.example.demo1.dto.request;
+
+import com.example.demo1.common.enums.TagCategory;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * 新增自动标签关键词请求DTO（管理员使用）
+ */
+@Data
+public class TagKeywordRequest {
+
+    @NotBlank(message = "关键词不能为空")
+    @Size(max = 50, message = "关键词不能超过50字")
+    private String keyword;
+
+    /**
+     * 标签分类：BEVERAGE_TYPE, TASTE, SCENE, LOCATION, OTHER；
+     * TOPIC、BEVERAGE、ATMOSPHERE 按 TagCategory.toDatabaseCategory 存为对应的数据库分类
+     */
+    @NotNull(message = "标签分类不能为空")
+    private TagCategory tagCategory;
+}
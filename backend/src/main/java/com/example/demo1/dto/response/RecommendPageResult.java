@@ -0,0 +1,41 @@
+package com.example.demo1.dto.response;
+
+import com.example.demo1.common.enums.RecommendSource;
+import com.example.demo1.common.response.PageResult;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 推荐分页结果
+ * 在普通分页结果上附带推荐来源和下一页游标
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class RecommendPageResult<T> extends PageResult<T> {
+
+    /**
+     * 参与本次推荐的来源
+     */
+    private List<RecommendSource> sources;
+
+    /**
+     * 下一页游标，没有更多时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 请求的游标已过期：本页是重新计算后的第一页，客户端应替换而不是追加已有列表
+     */
+    private boolean cursorExpired;
+
+    public RecommendPageResult(Long total, Integer page, Integer pageSize, List<T> items,
+                               List<RecommendSource> sources, String nextCursor) {
+        super(total, page, pageSize, items);
+        this.sources = sources;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo1.dto.response;
+
+import com.example.demo1.common.enums.RecommendSource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 推荐动态排序结果
+ * 附带本次参与合并的推荐来源
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationFeed {
+    /**
+     * 按推荐分数排序的动态ID
+     */
+    private List<Long> postIds;
+
+    /**
+     * 在截止时间内返回结果的推荐来源
+     */
+    private List<RecommendSource> sources;
+}
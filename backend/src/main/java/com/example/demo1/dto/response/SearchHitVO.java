@@ -0,0 +1,23 @@
+package com.example.demo1.dto.response;
+
+import com.example.demo1.common.enums.SearchSource;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 综合搜索的单条合并结果
+ * data 为对应类型的VO（SharePostVO、SimpleUserVO、BeverageSummaryVO、WikiPageVO）
+ */
+@Data
+@Builder
+public class SearchHitVO {
+    private SearchSource type;
+    private Long id;
+
+    /**
+     * 来源内归一化后的相关度，范围 [0, 1]
+     */
+    private Double score;
+
+    private Object data;
+}
@@ -17,5 +17,21 @@ public class SearchResultVO {
 
     @Builder.Default
     private List<SimpleUserVO> users = Collections.emptyList();
-}
 
+    @Builder.Default
+    private List<WikiPageVO> wikiPages = Collections.emptyList();
+
+    /**
+     * 各类型按归一化分数合并排序后的结果（每种类型有条数上限）
+     */
+    @Builder.Default
+    private List<SearchHitVO> items = Collections.emptyList();
+
+    /**
+     * 各来源的耗时与状态
+     */
+    @Builder.Default
+    private List<SearchSourceStatVO> sources = Collections.emptyList();
+
+    private Long tookMs;
+}
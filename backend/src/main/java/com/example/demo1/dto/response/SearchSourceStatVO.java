@@ -0,0 +1,22 @@
+package com.example.demo1.dto.response;
+
+import com.example.demo1.common.enums.SearchSource;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 综合搜索中单个来源的执行情况
+ */
+@Data
+@Builder
+public class SearchSourceStatVO {
+    private SearchSource source;
+
+    /**
+     * OK、TIMEOUT（超时未参与合并）、ERROR、REJECTED（线程池已满）
+     */
+    private String status;
+
+    private Long tookMs;
+    private Integer count;
+}
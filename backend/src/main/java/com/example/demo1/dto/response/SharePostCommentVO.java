@@ -18,6 +18,17 @@ public class SharePostCommentVO {
     private SimpleUserVO replyToUser; // 被回复的用户信息
     private List<SharePostCommentVO> replies;
 
+    /**
+     * 一级评论的回复总数（分页接口返回）
+     */
+    private Long replyCount;
+
+    /**
+     * 继续加载回复的游标（分页接口返回）
+     * replyCount 大于已内联的回复数时才需要继续加载，游标为 null 表示从第一条回复开始
+     */
+    private String repliesCursor;
+
     public List<SharePostCommentVO> safeReplies() {
         if (replies == null) {
             replies = new ArrayList<>();
@@ -18,6 +18,7 @@ public class SharePostVO {
     private String ipAddressMasked;
     private String ipRegion;
     private Integer viewCount;
+    private Integer uniqueViewCount;
     private Integer likeCount;
     private Integer favoriteCount;
     private Integer commentCount;
@@ -0,0 +1,18 @@
+package com.example.demo1.dto.response;
+
+import com.example.demo1.common.enums.SuggestType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索联想词
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionVO {
+    private SuggestType type;
+    private Long id;
+    private String text;
+}
@@ -0,0 +1,50 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 离线预计算推荐实体
+ * 每晚为近期活跃用户计算的 Top-N 推荐动态
+ */
+@Data
+@TableName("precomputed_recommendation")
+public class PrecomputedRecommendation {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 推荐动态ID
+     */
+    private Long postId;
+
+    /**
+     * 混合推荐分数
+     */
+    private Double score;
+
+    /**
+     * 排名（从0开始）
+     */
+    private Integer rankNo;
+
+    /**
+     * 所属批次日期
+     */
+    private LocalDate batchDate;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
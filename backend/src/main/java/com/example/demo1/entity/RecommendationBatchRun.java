@@ -0,0 +1,52 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.example.demo1.common.enums.BatchRunStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 推荐离线批处理运行记录
+ * 用于展示进度以及节点重启后断点续跑
+ */
+@Data
+@TableName("recommendation_batch_run")
+public class RecommendationBatchRun {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 批次日期
+     */
+    private LocalDate batchDate;
+
+    /**
+     * 运行状态
+     */
+    private BatchRunStatus status;
+
+    /**
+     * 需要计算的活跃用户数
+     */
+    private Integer totalUsers;
+
+    /**
+     * 已完成的用户数（含之前中断前完成的）
+     */
+    private Integer processedUsers;
+
+    /**
+     * 计算失败的用户数
+     */
+    private Integer failedUsers;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 离线推荐批次已完成用户实体
+ * 用户在某批次中计算完成（无论结果是否为空）即写入一行，用于断点续跑时跳过
+ */
+@Data
+@TableName("recommendation_batch_user")
+public class RecommendationBatchUser {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 批次日期
+     */
+    private LocalDate batchDate;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 完成时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
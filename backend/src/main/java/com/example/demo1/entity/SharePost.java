@@ -22,6 +22,7 @@ public class SharePost {
     private String ipRegion;
     private String tags;
     private Integer viewCount;
+    private Integer uniqueViewCount;
     private Integer likeCount;
     private Integer favoriteCount;
     private Integer commentCount;
@@ -18,6 +18,11 @@ public class SharePostComment {
     private Long postId;
     private Long userId;
     private Long parentId;
+
+    /**
+     * 所属一级评论ID，一级评论为 null
+     */
+    private Long rootId;
     private String content;
     private Integer likeCount;
 
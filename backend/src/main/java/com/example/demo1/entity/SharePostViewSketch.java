@@ -0,0 +1,31 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 动态去重浏览人数 HyperLogLog 实体
+ * 每条动态一行，保存序列化后的 HyperLogLog，估计值同步写入 share_post.unique_view_count
+ */
+@Data
+@TableName("share_post_view_sketch")
+public class SharePostViewSketch {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 动态ID
+     */
+    private Long postId;
+
+    /**
+     * 序列化后的 HyperLogLog
+     */
+    private byte[] sketchData;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
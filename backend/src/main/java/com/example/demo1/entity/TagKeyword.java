@@ -0,0 +1,40 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.example.demo1.common.enums.TagCategory;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 自动标签关键词实体
+ */
+@Data
+@TableName("tag_keyword")
+public class TagKeyword {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 关键词（匹配时忽略大小写，生成的标签名保留原文）
+     */
+    private String keyword;
+
+    /**
+     * 命中后生成标签的分类
+     * 注意：数据库中只支持 BEVERAGE_TYPE, TASTE, SCENE, LOCATION, OTHER
+     */
+    private TagCategory tagCategory;
+
+    /**
+     * 是否启用，停用的同名词条会屏蔽内置关键词
+     */
+    private Boolean isActive = true;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,39 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 相似用户实体
+ * 协同过滤离线计算出的 Top-K 相似用户
+ */
+@Data
+@TableName("user_neighbor")
+public class UserNeighbor {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 相似用户ID
+     */
+    private Long neighborId;
+
+    /**
+     * 余弦相似度
+     */
+    private Double similarity;
+
+    /**
+     * 计算时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
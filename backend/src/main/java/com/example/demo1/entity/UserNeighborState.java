@@ -0,0 +1,29 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 相似用户计算状态实体
+ * 每个用户一行，存在即表示已计算过相似用户（结果可能为空，此时 user_neighbor 中没有该用户的记录）
+ */
+@Data
+@TableName("user_neighbor_state")
+public class UserNeighborState {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 最近一次计算时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户已看动态布隆过滤器实体
+ * 每个用户一行，保存序列化后的可扩容布隆过滤器
+ */
+@Data
+@TableName("user_seen_post_filter")
+public class UserSeenPostFilter {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 序列化后的布隆过滤器
+     */
+    private byte[] filterData;
+
+    /**
+     * 已记录的动态数（近似值）
+     */
+    private Long itemCount;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 关注动态时间线条目实体
+ * 作者发布动态后写入每个粉丝的收件箱，读关注流时按发布时间倒序分页
+ */
+@Data
+@TableName("user_timeline")
+public class UserTimeline {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 收件箱所属用户ID
+     */
+    private Long userId;
+
+    private Long postId;
+
+    /**
+     * 动态作者ID，取消关注时按作者清理
+     */
+    private Long authorId;
+
+    /**
+     * 动态发布时间，冗余存储用于排序
+     */
+    private LocalDateTime postCreatedAt;
+}
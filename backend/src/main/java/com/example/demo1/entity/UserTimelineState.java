@@ -0,0 +1,29 @@
+package com.example.demo1.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 关注动态时间线状态实体
+ * 每个用户一行，存在即表示收件箱已用关注者的近期动态初始化过
+ */
+@Data
+@TableName("user_timeline_state")
+public class UserTimelineState {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 收件箱初始化完成时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.PrecomputedRecommendation;
+
+/**
+ * 离线预计算推荐Mapper
+ */
+public interface PrecomputedRecommendationMapper extends BaseMapper<PrecomputedRecommendation> {
+}
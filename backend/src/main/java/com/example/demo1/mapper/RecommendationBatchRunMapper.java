@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.RecommendationBatchRun;
+
+/**
+ * 推荐批处理运行记录Mapper
+ */
+public interface RecommendationBatchRunMapper extends BaseMapper<RecommendationBatchRun> {
+}
@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.RecommendationBatchUser;
+
+/**
+ * 离线推荐批次已完成用户Mapper
+ */
+public interface RecommendationBatchUserMapper extends BaseMapper<RecommendationBatchUser> {
+}
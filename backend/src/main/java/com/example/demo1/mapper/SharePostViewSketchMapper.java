@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.SharePostViewSketch;
+
+/**
+ * 动态去重浏览人数Mapper
+ */
+public interface SharePostViewSketchMapper extends BaseMapper<SharePostViewSketch> {
+}
@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.TagKeyword;
+
+/**
+ * 自动标签关键词Mapper
+ */
+public interface TagKeywordMapper extends BaseMapper<TagKeyword> {
+}
@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.UserNeighbor;
+
+/**
+ * 相似用户Mapper
+ */
+public interface UserNeighborMapper extends BaseMapper<UserNeighbor> {
+}
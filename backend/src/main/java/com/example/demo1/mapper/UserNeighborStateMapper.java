@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.UserNeighborState;
+
+/**
+ * 相似用户计算状态Mapper
+ */
+public interface UserNeighborStateMapper extends BaseMapper<UserNeighborState> {
+}
@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.UserSeenPostFilter;
+
+/**
+ * 用户已看动态布隆过滤器Mapper
+ */
+public interface UserSeenPostFilterMapper extends BaseMapper<UserSeenPostFilter> {
+}
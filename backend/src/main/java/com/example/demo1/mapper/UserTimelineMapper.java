@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.UserTimeline;
+
+/**
+ * 关注动态时间线Mapper
+ */
+public interface UserTimelineMapper extends BaseMapper<UserTimeline> {
+}
@@ -0,0 +1,10 @@
+package com.example.demo1.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demo1.entity.UserTimelineState;
+
+/**
+ * 关注动态时间线状态Mapper
+ */
+public interface UserTimelineStateMapper extends BaseMapper<UserTimelineState> {
+}
@@ -0,0 +1,36 @@
+package com.example.demo1.scheduler;
+
+import com.example.demo1.service.RecommendationBatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "recommend.batch.enabled", havingValue = "true", matchIfMissing = true)
+public class RecommendationBatchScheduler {
+
+    private final RecommendationBatchService recommendationBatchService;
+
+    @Scheduled(cron = "${recommend.batch.cron:0 0 2 * * *}", zone = "Asia/Shanghai")
+    public void precomputeRecommendations() {
+        LocalDate today = LocalDate.now(RecommendationBatchService.ZONE_ID);
+        recommendationBatchService.runBatch(today);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedBatch() {
+        try {
+            recommendationBatchService.resumeUnfinished();
+        } catch (Exception e) {
+            log.warn("推荐批次续跑失败", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo1.scheduler;
+
+import com.example.demo1.algorithm.CollaborativeFilteringRecommender;
+import com.example.demo1.algorithm.UserInteractionMatrix;
+import com.example.demo1.algorithm.UserNeighborStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 相似用户离线刷新任务
+ * 只重新计算互动向量发生变化的用户与还没有计算过相似用户的用户，结果写入 user_neighbor 表；
+ * 已移出互动矩阵（时间窗口内没有互动）的用户，其相似用户记录一并清理
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserNeighborRefreshScheduler {
+
+    private final UserInteractionMatrix userInteractionMatrix;
+    private final UserNeighborStore userNeighborStore;
+    private final CollaborativeFilteringRecommender collaborativeFilteringRecommender;
+
+    @Scheduled(fixedDelayString = "${recommend.cf.neighbor-refresh-interval-ms:600000}",
+        initialDelayString = "${recommend.cf.neighbor-refresh-interval-ms:600000}")
+    public void refreshChangedUsers() {
+        long start = System.currentTimeMillis();
+        Set<Long> dirtyUsers = userInteractionMatrix.drainDirtyUsers();
+        Set<Long> matrixUsers = userInteractionMatrix.userIds();
+        int purged = 0;
+        // 矩阵为空多半是加载失败，不据此清理
+        if (!matrixUsers.isEmpty()) {
+            Set<Long> staleUsers = new HashSet<>(userNeighborStore.userIds());
+            staleUsers.removeAll(matrixUsers);
+            try {
+                userNeighborStore.remove(staleUsers);
+                purged = staleUsers.size();
+            } catch (Exception e) {
+                log.warn("清理已移出互动矩阵的相似用户记录失败", e);
+            }
+        }
+        for (Long userId : matrixUsers) {
+            if (userNeighborStore.get(userId) == null) {
+                dirtyUsers.add(userId);
+            }
+        }
+        if (dirtyUsers.isEmpty()) {
+            return;
+        }
+        int refreshed = 0;
+        for (Long userId : dirtyUsers) {
+            try {
+                userNeighborStore.save(userId, collaborativeFilteringRecommender.computeNeighbors(
+                    userId, CollaborativeFilteringRecommender.NEIGHBOR_LIMIT));
+                refreshed++;
+            } catch (Exception e) {
+                log.warn("刷新相似用户失败，userId={}", userId, e);
+            }
+        }
+        log.info("相似用户刷新完成: 待刷新{}, 成功{}, 清理{}, 耗时{}ms",
+            dirtyUsers.size(), refreshed, purged, System.currentTimeMillis() - start);
+    }
+}
@@ -45,6 +45,7 @@ public class BarService {
     private final AlcoholMapper alcoholMapper;
     private final ContentModerationService contentModerationService;
     private final GeocodingService geocodingService;
+    private final SearchSuggestService searchSuggestService;
 
     /**
      * 注册酒吧（提交申请）
@@ -331,6 +332,7 @@ public class BarService {
             }
 
             barMapper.insert(bar);
+            searchSuggestService.onBarCreated(bar);
             
             // 检查申请者角色，如果是 USER 则提升为 SELLER
             User applicant = userMapper.selectById(application.getApplicantId());
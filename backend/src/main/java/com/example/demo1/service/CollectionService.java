@@ -2,7 +2,9 @@ package com.example.demo1.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.demo1.algorithm.HotPostLeaderboard;
 import com.example.demo1.common.enums.CollectionTargetType;
+import com.example.demo1.common.enums.PostCounter;
 import com.example.demo1.common.exception.BusinessException;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.dto.response.CollectionItemVO;
@@ -17,6 +19,7 @@ import com.example.demo1.mapper.SharePostMapper;
 import com.example.demo1.mapper.UserCollectionMapper;
 import com.example.demo1.mapper.WikiPageMapper;
 import com.example.demo1.util.FileUrlResolver;
+import com.example.demo1.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -35,6 +38,8 @@ public class CollectionService {
     private final SharePostImageMapper sharePostImageMapper;
     private final ImageMapper imageMapper;
     private final FileUrlResolver fileUrlResolver;
+    private final HotPostLeaderboard hotPostLeaderboard;
+    private final PostCounterService postCounterService;
 
     @Transactional
     public boolean togglePostFavorite(Long userId, SharePost post) {
@@ -45,11 +50,9 @@ public class CollectionService {
             .eq(UserCollection::getUserId, userId)
             .eq(UserCollection::getTargetType, CollectionTargetType.POST)
             .eq(UserCollection::getTargetId, post.getId()));
-        int favoriteCount = post.getFavoriteCount() == null ? 0 : post.getFavoriteCount();
         if (existing != null) {
             userCollectionMapper.deleteById(existing.getId());
-            post.setFavoriteCount(Math.max(0, favoriteCount - 1));
-            sharePostMapper.updateById(post);
+            incrementFavoritesAfterCommit(post, -1);
             return false;
         }
         UserCollection collection = new UserCollection();
@@ -57,11 +60,20 @@ public class CollectionService {
         collection.setTargetType(CollectionTargetType.POST);
         collection.setTargetId(post.getId());
         userCollectionMapper.insert(collection);
-        post.setFavoriteCount(favoriteCount + 1);
-        sharePostMapper.updateById(post);
+        incrementFavoritesAfterCommit(post, 1);
         return true;
     }
 
+    /**
+     * 收藏数在事务提交后才计入，回滚的收藏不会留下内存增量
+     */
+    private void incrementFavoritesAfterCommit(SharePost post, long delta) {
+        TransactionUtils.afterCommit(() -> {
+            postCounterService.increment(post.getId(), PostCounter.FAVORITE, delta);
+            hotPostLeaderboard.update(postCounterService.withPending(post));
+        });
+    }
+
     @Transactional
     public boolean toggleWikiFavorite(Long userId, WikiPage page) {
         if (page == null) {
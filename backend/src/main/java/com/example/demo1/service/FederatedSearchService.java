@@ -0,0 +1,283 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.algorithm.InvertedIndex;
+import com.example.demo1.algorithm.PostSearchIndex;
+import com.example.demo1.algorithm.SearchResultMerger;
+import com.example.demo1.algorithm.SearchResultMerger.Candidate;
+import com.example.demo1.algorithm.TextTokenizer;
+import com.example.demo1.common.enums.SearchSource;
+import com.example.demo1.dto.response.BeverageSummaryVO;
+import com.example.demo1.dto.response.SearchHitVO;
+import com.example.demo1.dto.response.SearchResultVO;
+import com.example.demo1.dto.response.SearchSourceStatVO;
+import com.example.demo1.dto.response.SharePostVO;
+import com.example.demo1.dto.response.SimpleUserVO;
+import com.example.demo1.dto.response.WikiPageVO;
+import com.example.demo1.entity.Beverage;
+import com.example.demo1.mapper.BeverageMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 综合搜索
+ * 动态、用户、酒饮、维基四个来源并行查询，各自有独立的超时时间，超时或失败的来源不参与合并；
+ * 各来源分数统一到 [0, 1] 后合并为一个排序列表（每种类型有条数上限），同时保留分类型的结果列表，
+ * 并在返回值中给出每个来源的耗时与状态，便于定位慢来源。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FederatedSearchService {
+
+    private final SharePostService sharePostService;
+    private final PostSearchIndex postSearchIndex;
+    private final UserService userService;
+    private final WikiService wikiService;
+    private final BeverageMapper beverageMapper;
+    @Qualifier("searchExecutor")
+    private final ExecutorService searchExecutor;
+
+    // 每个来源最多取的条数
+    @Value("${search.federated.source-limit:10}")
+    private int sourceLimit;
+
+    // 合并结果中每种类型的条数上限与总条数
+    @Value("${search.federated.per-type-quota:5}")
+    private int perTypeQuota;
+
+    @Value("${search.federated.limit:20}")
+    private int mergedLimit;
+
+    // BM25 分数映射到 [0, 1] 时得 0.5 分对应的原始分数
+    @Value("${search.federated.bm25-half-score:5.0}")
+    private double bm25HalfScore;
+
+    @Value("${search.federated.post-timeout-ms:500}")
+    private long postTimeoutMs;
+
+    @Value("${search.federated.user-timeout-ms:300}")
+    private long userTimeoutMs;
+
+    @Value("${search.federated.beverage-timeout-ms:300}")
+    private long beverageTimeoutMs;
+
+    @Value("${search.federated.wiki-timeout-ms:300}")
+    private long wikiTimeoutMs;
+
+    /**
+     * 综合搜索
+     *
+     * @param keyword 关键字（已去除首尾空白）
+     * @param sources 要查询的来源
+     */
+    public SearchResultVO search(String keyword, Set<SearchSource> sources) {
+        long start = System.nanoTime();
+        Map<SearchSource, Future<SourceResult>> futures = new EnumMap<>(SearchSource.class);
+        Map<SearchSource, String> rejected = new EnumMap<>(SearchSource.class);
+        for (SearchSource source : sources) {
+            try {
+                futures.put(source, searchExecutor.submit(task(source, keyword)));
+            } catch (RejectedExecutionException e) {
+                log.warn("搜索线程池已满，跳过{}搜索", source.getDescription());
+                rejected.put(source, "REJECTED");
+            }
+        }
+
+        Map<SearchSource, List<Candidate<SearchSource, Object>>> results = new EnumMap<>(SearchSource.class);
+        List<SearchSourceStatVO> stats = new ArrayList<>();
+        for (SearchSource source : sources) {
+            Future<SourceResult> future = futures.get(source);
+            String status = rejected.getOrDefault(source, "OK");
+            List<Candidate<SearchSource, Object>> candidates = Collections.emptyList();
+            long tookMs = 0;
+            if (future != null) {
+                // 各来源同时开始，截止时间都从请求开始计算
+                long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs(source));
+                try {
+                    SourceResult result = future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    candidates = result.candidates();
+                    tookMs = result.tookMs();
+                } catch (TimeoutException e) {
+                    tookMs = timeoutMs(source);
+                    future.cancel(true);
+                    status = "TIMEOUT";
+                    log.warn("{}搜索超过{}ms，本次不参与合并", source.getDescription(), timeoutMs(source));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                    status = "TIMEOUT";
+                } catch (ExecutionException e) {
+                    tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    status = "ERROR";
+                    log.warn("{}搜索执行失败", source.getDescription(), e.getCause());
+                }
+            }
+            results.put(source, candidates);
+            stats.add(SearchSourceStatVO.builder()
+                .source(source)
+                .status(status)
+                .tookMs(tookMs)
+                .count(candidates.size())
+                .build());
+        }
+
+        List<Candidate<SearchSource, Object>> merged = SearchResultMerger.merge(
+            new ArrayList<>(results.values()), perTypeQuota, mergedLimit);
+        return SearchResultVO.builder()
+            .posts(items(results.get(SearchSource.POST), SharePostVO.class))
+            .users(items(results.get(SearchSource.USER), SimpleUserVO.class))
+            .beverages(items(results.get(SearchSource.BEVERAGE), BeverageSummaryVO.class))
+            .wikiPages(items(results.get(SearchSource.WIKI), WikiPageVO.class))
+            .items(merged.stream().map(this::toHit).collect(Collectors.toList()))
+            .sources(stats)
+            .tookMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+            .build();
+    }
+
+    /**
+     * 来源查询任务，耗时在任务内部计量（不含排队等待）
+     */
+    private Callable<SourceResult> task(SearchSource source, String keyword) {
+        return () -> {
+            long begin = System.nanoTime();
+            List<Candidate<SearchSource, Object>> candidates = switch (source) {
+                case POST -> searchPosts(keyword);
+                case USER -> searchUsers(keyword);
+                case BEVERAGE -> searchBeverages(keyword);
+                case WIKI -> searchWiki(keyword);
+            };
+            return new SourceResult(candidates, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        };
+    }
+
+    private long timeoutMs(SearchSource source) {
+        return switch (source) {
+            case POST -> postTimeoutMs;
+            case USER -> userTimeoutMs;
+            case BEVERAGE -> beverageTimeoutMs;
+            case WIKI -> wikiTimeoutMs;
+        };
+    }
+
+    /**
+     * 动态：全文索引可用时用 BM25 分数（映射到 [0, 1]），否则回退到数据库查询（按名次折算分数）
+     */
+    private List<Candidate<SearchSource, Object>> searchPosts(String keyword) {
+        if (StringUtils.isNotBlank(keyword) && postSearchIndex.isReady()
+                && !TextTokenizer.tokenizeForQuery(keyword).isEmpty()) {
+            List<InvertedIndex.Hit> hits = postSearchIndex.search(keyword);
+            List<InvertedIndex.Hit> top = hits.subList(0, Math.min(sourceLimit, hits.size()));
+            Map<Long, Double> scores = top.stream()
+                .collect(Collectors.toMap(InvertedIndex.Hit::getDocId,
+                    hit -> SearchResultMerger.saturate(hit.getScore(), bm25HalfScore)));
+            List<SharePostVO> posts = sharePostService.getPostsByIds(
+                top.stream().map(InvertedIndex.Hit::getDocId).collect(Collectors.toList()), null);
+            return posts.stream()
+                .map(post -> candidate(SearchSource.POST, scores.getOrDefault(post.getId(), 0.0), post))
+                .collect(Collectors.toList());
+        }
+        return sharePostService.search(keyword, sourceLimit).stream()
+            .map(post -> candidate(SearchSource.POST, 0, post))
+            .collect(Collectors.toList());
+    }
+
+    private List<Candidate<SearchSource, Object>> searchUsers(String keyword) {
+        return sortByScore(userService.searchUsers(keyword, sourceLimit).stream()
+            .map(user -> candidate(SearchSource.USER, StringUtils.isNumeric(keyword)
+                ? 1.0
+                : SearchResultMerger.textMatchScore(keyword, user.getUsername()), user))
+            .collect(Collectors.toList()));
+    }
+
+    private List<Candidate<SearchSource, Object>> searchBeverages(String keyword) {
+        LambdaQueryWrapper<Beverage> wrapper = new LambdaQueryWrapper<>();
+        if (StringUtils.isBlank(keyword)) {
+            wrapper.orderByDesc(Beverage::getCreatedAt);
+        } else {
+            wrapper.like(Beverage::getName, keyword)
+                .or()
+                .like(Beverage::getType, keyword);
+        }
+        wrapper.last("limit " + sourceLimit);
+        return sortByScore(beverageMapper.selectList(wrapper).stream()
+            .map(beverage -> candidate(SearchSource.BEVERAGE,
+                Math.max(SearchResultMerger.textMatchScore(keyword, beverage.getName()),
+                    0.5 * SearchResultMerger.textMatchScore(keyword, beverage.getType())),
+                BeverageSummaryVO.builder()
+                    .id(beverage.getId())
+                    .name(beverage.getName())
+                    .type(beverage.getType())
+                    .origin(beverage.getOrigin())
+                    .coverImageId(beverage.getCoverImageId())
+                    .rating(beverage.getRating())
+                    .build()))
+            .collect(Collectors.toList()));
+    }
+
+    private List<Candidate<SearchSource, Object>> searchWiki(String keyword) {
+        return sortByScore(wikiService.searchPages(keyword, sourceLimit).stream()
+            .map(page -> candidate(SearchSource.WIKI,
+                Math.max(SearchResultMerger.textMatchScore(keyword, page.getTitle()),
+                    0.5 * SearchResultMerger.textMatchScore(keyword, page.getSummary())),
+                page))
+            .collect(Collectors.toList()));
+    }
+
+    private static Candidate<SearchSource, Object> candidate(SearchSource source, double score, Object item) {
+        return new Candidate<>(source, score, item);
+    }
+
+    /**
+     * 来源内按原始分数降序（稳定排序，同分保持数据库返回顺序）
+     */
+    private static List<Candidate<SearchSource, Object>> sortByScore(List<Candidate<SearchSource, Object>> candidates) {
+        candidates.sort((a, b) -> Double.compare(b.getRawScore(), a.getRawScore()));
+        return candidates;
+    }
+
+    private static <T> List<T> items(List<Candidate<SearchSource, Object>> candidates, Class<T> type) {
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        return candidates.stream().map(c -> type.cast(c.getItem())).collect(Collectors.toList());
+    }
+
+    private SearchHitVO toHit(Candidate<SearchSource, Object> candidate) {
+        Object item = candidate.getItem();
+        Long id = switch (candidate.getType()) {
+            case POST -> ((SharePostVO) item).getId();
+            case USER -> ((SimpleUserVO) item).getId();
+            case BEVERAGE -> ((BeverageSummaryVO) item).getId();
+            case WIKI -> ((WikiPageVO) item).getId();
+        };
+        return SearchHitVO.builder()
+            .type(candidate.getType())
+            .id(id)
+            .score(candidate.getScore())
+            .data(item)
+            .build();
+    }
+
+    private record SourceResult(List<Candidate<SearchSource, Object>> candidates, long tookMs) {
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.entity.UserFollow;
+import com.example.demo1.entity.UserTimeline;
+import com.example.demo1.entity.UserTimelineState;
+import com.example.demo1.mapper.SharePostMapper;
+import com.example.demo1.mapper.UserFollowMapper;
+import com.example.demo1.mapper.UserTimelineMapper;
+import com.example.demo1.mapper.UserTimelineStateMapper;
+import com.example.demo1.util.KeysetCursor;
+import com.example.demo1.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * 关注动态时间线（写扩散 + 大V读扩散）
+ * 作者发布动态后异步写入每个粉丝的收件箱（user_timeline），读关注流时只按 (发布时间, 动态ID)
+ * 键集分页读取自己的收件箱，与关注人数无关。
+ * 粉丝数超过阈值的作者不做写扩散，读取时再从 share_post 合并其动态。
+ * 新关注时回填被关注者的最近动态，取消关注时清理；收件箱和读时合并的大V动态都只保留最近若干天。
+ * 每个用户首次读取时用关注者的近期动态初始化收件箱，完成后记入 user_timeline_state。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedTimelineService {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private static final Comparator<UserTimeline> NEWEST_FIRST = Comparator
+        .comparing(UserTimeline::getPostCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(UserTimeline::getPostId, Comparator.reverseOrder());
+
+    private final UserTimelineMapper userTimelineMapper;
+    private final UserTimelineStateMapper userTimelineStateMapper;
+    private final UserFollowMapper userFollowMapper;
+    private final SharePostMapper sharePostMapper;
+    @Qualifier("timelineExecutor")
+    private final ExecutorService timelineExecutor;
+
+    @Value("${feed.timeline.fanout-max-followers:2000}")
+    private int fanoutMaxFollowers;
+
+    @Value("${feed.timeline.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${feed.timeline.backfill-size:50}")
+    private int backfillSize;
+
+    @Value("${feed.timeline.bootstrap-size:200}")
+    private int bootstrapSize;
+
+    // 粉丝过多、改为读时合并的作者
+    private final Set<Long> pullAuthors = ConcurrentHashMap.newKeySet();
+
+    // 本进程内已确认收件箱初始化完成的用户
+    private final Set<Long> bootstrappedUsers = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refreshPullAuthors();
+        } catch (Exception e) {
+            log.error("大V作者列表初始化失败", e);
+        }
+    }
+
+    /**
+     * 重新统计需要读时合并的作者
+     * 降级留有余量（粉丝数跌到阈值一半以下），避免在阈值附近来回切换；降级时回填其近期动态
+     */
+    @Scheduled(fixedDelayString = "${feed.timeline.pull-author-refresh-ms:3600000}",
+        initialDelayString = "${feed.timeline.pull-author-refresh-ms:3600000}")
+    public void refreshPullAuthors() {
+        Set<Long> aboveThreshold = authorsWithMoreFollowersThan(fanoutMaxFollowers);
+        Set<Long> aboveHalf = authorsWithMoreFollowersThan(fanoutMaxFollowers / 2);
+        Set<Long> demoted = new HashSet<>();
+        for (Long authorId : pullAuthors) {
+            if (!aboveHalf.contains(authorId)) {
+                demoted.add(authorId);
+            }
+        }
+        pullAuthors.addAll(aboveThreshold);
+        pullAuthors.removeAll(demoted);
+        for (Long authorId : demoted) {
+            timelineExecutor.execute(() -> backfillFollowers(authorId));
+        }
+        log.info("大V作者列表刷新完成: 数量{}, 降级{}", pullAuthors.size(), demoted.size());
+    }
+
+    /**
+     * 动态发布后写扩散到粉丝收件箱，事务提交后异步执行
+     */
+    public void fanOut(SharePost post) {
+        if (post == null || post.getId() == null || post.getUserId() == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> timelineExecutor.execute(() -> {
+            try {
+                doFanOut(post);
+            } catch (Exception e) {
+                log.error("动态写扩散失败: postId={}", post.getId(), e);
+            }
+        }));
+    }
+
+    /**
+     * 新关注后回填被关注者的近期动态，事务提交后异步执行
+     */
+    public void onFollow(Long followerId, Long followeeId) {
+        if (pullAuthors.contains(followeeId)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> timelineExecutor.execute(() -> {
+            try {
+                backfill(followerId, followeeId);
+            } catch (Exception e) {
+                log.error("关注回填失败: followerId={}, followeeId={}", followerId, followeeId, e);
+            }
+        }));
+    }
+
+    /**
+     * 取消关注时清理收件箱中该作者的动态
+     */
+    public void onUnfollow(Long followerId, Long followeeId) {
+        userTimelineMapper.delete(new LambdaQueryWrapper<UserTimeline>()
+            .eq(UserTimeline::getUserId, followerId)
+            .eq(UserTimeline::getAuthorId, followeeId));
+    }
+
+    /**
+     * 读取一页关注流条目（收件箱 + 关注的大V），按发布时间倒序
+     * 多返回一条用于判断是否还有下一页
+     */
+    public List<UserTimeline> read(Long userId, KeysetCursor cursor, int size) {
+        if (cursor == null && !bootstrappedUsers.contains(userId)) {
+            bootstrap(userId);
+        }
+        List<UserTimeline> inbox = userTimelineMapper.selectList(KeysetCursor.apply(
+            new LambdaQueryWrapper<UserTimeline>().eq(UserTimeline::getUserId, userId),
+            UserTimeline::getPostCreatedAt, UserTimeline::getPostId, cursor, size));
+        List<Long> followedPullAuthors = followedPullAuthors(userId);
+        if (followedPullAuthors.isEmpty()) {
+            return inbox;
+        }
+        // 与收件箱使用同一保留期，避免大V的动态比收件箱中的动态翻得更久
+        List<SharePost> pulled = sharePostMapper.selectList(KeysetCursor.apply(
+            new LambdaQueryWrapper<SharePost>()
+                .in(SharePost::getUserId, followedPullAuthors)
+                .ge(SharePost::getCreatedAt, LocalDateTime.now().minusDays(retentionDays))
+                .select(SharePost::getId, SharePost::getUserId, SharePost::getCreatedAt),
+            SharePost::getCreatedAt, SharePost::getId, cursor, size));
+
+        // 作者刚升为大V时，其旧动态可能同时存在于收件箱，按动态ID去重
+        Map<Long, UserTimeline> merged = new LinkedHashMap<>();
+        inbox.forEach(entry -> merged.put(entry.getPostId(), entry));
+        pulled.forEach(post -> merged.putIfAbsent(post.getId(), toEntry(userId, post)));
+        return merged.values().stream()
+            .sorted(NEWEST_FIRST)
+            .limit(size + 1L)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 清理超出保留期的收件箱条目
+     */
+    @Scheduled(cron = "${feed.timeline.trim-cron:0 45 4 * * *}", zone = "Asia/Shanghai")
+    public void trim() {
+        int removed = userTimelineMapper.delete(new LambdaQueryWrapper<UserTimeline>()
+            .lt(UserTimeline::getPostCreatedAt, LocalDateTime.now().minusDays(retentionDays)));
+        log.info("关注时间线清理完成: 删除{}条", removed);
+    }
+
+    private void doFanOut(SharePost post) {
+        Long authorId = post.getUserId();
+        if (pullAuthors.contains(authorId)) {
+            return;
+        }
+        List<Long> followerIds = userFollowMapper.selectList(new LambdaQueryWrapper<UserFollow>()
+                .eq(UserFollow::getFolloweeId, authorId)
+                .select(UserFollow::getFollowerId))
+            .stream()
+            .map(UserFollow::getFollowerId)
+            .collect(Collectors.toList());
+        if (followerIds.size() > fanoutMaxFollowers) {
+            pullAuthors.add(authorId);
+            return;
+        }
+        List<UserTimeline> entries = followerIds.stream()
+            .map(followerId -> toEntry(followerId, post))
+            .collect(Collectors.toList());
+        insertAll(entries);
+    }
+
+    /**
+     * 把作者保留期内最近的动态补进粉丝收件箱，已存在的跳过
+     * 回填是异步的，可能晚于随后的取消关注：写入前确认仍在关注，写入后再确认一次，
+     * 期间已取消关注则补做清理，避免取消关注的清理先于回填执行而留下条目。
+     */
+    private void backfill(Long followerId, Long authorId) {
+        if (!isFollowing(followerId, authorId)) {
+            return;
+        }
+        List<SharePost> posts = sharePostMapper.selectList(new LambdaQueryWrapper<SharePost>()
+            .eq(SharePost::getUserId, authorId)
+            .ge(SharePost::getCreatedAt, LocalDateTime.now().minusDays(retentionDays))
+            .select(SharePost::getId, SharePost::getUserId, SharePost::getCreatedAt)
+            .orderByDesc(SharePost::getCreatedAt)
+            .last("limit " + backfillSize));
+        insertMissing(followerId, posts);
+        if (!posts.isEmpty() && !isFollowing(followerId, authorId)) {
+            onUnfollow(followerId, authorId);
+        }
+    }
+
+    private boolean isFollowing(Long followerId, Long followeeId) {
+        return userFollowMapper.exists(new LambdaQueryWrapper<UserFollow>()
+            .eq(UserFollow::getFollowerId, followerId)
+            .eq(UserFollow::getFolloweeId, followeeId));
+    }
+
+    private void backfillFollowers(Long authorId) {
+        try {
+            List<Long> followerIds = userFollowMapper.selectList(new LambdaQueryWrapper<UserFollow>()
+                    .eq(UserFollow::getFolloweeId, authorId)
+                    .select(UserFollow::getFollowerId))
+                .stream()
+                .map(UserFollow::getFollowerId)
+                .collect(Collectors.toList());
+            for (Long followerId : followerIds) {
+                backfill(followerId, authorId);
+            }
+        } catch (Exception e) {
+            log.error("大V降级回填失败: authorId={}", authorId, e);
+        }
+    }
+
+    /**
+     * 首次读取时用关注者的近期动态初始化收件箱
+     * 不能以收件箱是否为空判断：写扩散或关注回填可能先写入了几条，更早的动态仍需补齐。
+     * 完成后才记入状态表和本地集合，失败的下次读取时重试；重复执行只会跳过已有条目。
+     */
+    private void bootstrap(Long userId) {
+        try {
+            if (!userTimelineStateMapper.exists(new LambdaQueryWrapper<UserTimelineState>()
+                    .eq(UserTimelineState::getUserId, userId))) {
+                backfillFollowees(userId);
+                UserTimelineState state = new UserTimelineState();
+                state.setUserId(userId);
+                try {
+                    userTimelineStateMapper.insert(state);
+                } catch (DuplicateKeyException ignored) {
+                    // 并发读取已完成初始化
+                }
+            }
+            bootstrappedUsers.add(userId);
+        } catch (Exception e) {
+            log.warn("关注时间线初始化失败，下次读取时重试: userId={}", userId, e);
+        }
+    }
+
+    private void backfillFollowees(Long userId) {
+        List<Long> followeeIds = userFollowMapper.selectList(new LambdaQueryWrapper<UserFollow>()
+                .eq(UserFollow::getFollowerId, userId)
+                .select(UserFollow::getFolloweeId))
+            .stream()
+            .map(UserFollow::getFolloweeId)
+            .filter(id -> !pullAuthors.contains(id))
+            .collect(Collectors.toList());
+        if (followeeIds.isEmpty()) {
+            return;
+        }
+        List<SharePost> posts = sharePostMapper.selectList(new LambdaQueryWrapper<SharePost>()
+            .in(SharePost::getUserId, followeeIds)
+            .ge(SharePost::getCreatedAt, LocalDateTime.now().minusDays(retentionDays))
+            .select(SharePost::getId, SharePost::getUserId, SharePost::getCreatedAt)
+            .orderByDesc(SharePost::getCreatedAt)
+            .last("limit " + bootstrapSize));
+        insertMissing(userId, posts);
+    }
+
+    private void insertMissing(Long userId, List<SharePost> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = userTimelineMapper.selectList(new LambdaQueryWrapper<UserTimeline>()
+                .eq(UserTimeline::getUserId, userId)
+                .in(UserTimeline::getPostId, posts.stream().map(SharePost::getId).collect(Collectors.toList()))
+                .select(UserTimeline::getPostId))
+            .stream()
+            .map(UserTimeline::getPostId)
+            .collect(Collectors.toSet());
+        insertAll(posts.stream()
+            .filter(post -> !existing.contains(post.getId()))
+            .map(post -> toEntry(userId, post))
+            .collect(Collectors.toList()));
+    }
+
+    private void insertAll(Collection<UserTimeline> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            Db.saveBatch(entries, INSERT_BATCH_SIZE);
+        } catch (DuplicateKeyException e) {
+            // 与并发的写扩散或回填重叠，逐条重试跳过重复项
+            for (UserTimeline entry : entries) {
+                try {
+                    userTimelineMapper.insert(entry);
+                } catch (DuplicateKeyException ignored) {
+                    // 已存在
+                }
+            }
+        }
+    }
+
+    private List<Long> followedPullAuthors(Long userId) {
+        if (pullAuthors.isEmpty()) {
+            return List.of();
+        }
+        return userFollowMapper.selectList(new LambdaQueryWrapper<UserFollow>()
+                .eq(UserFollow::getFollowerId, userId)
+                .in(UserFollow::getFolloweeId, new ArrayList<>(pullAuthors))
+                .select(UserFollow::getFolloweeId))
+            .stream()
+            .map(UserFollow::getFolloweeId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private Set<Long> authorsWithMoreFollowersThan(int followers) {
+        return userFollowMapper.selectMaps(new QueryWrapper<UserFollow>()
+                .select("followee_id")
+                .groupBy("followee_id")
+                .having("COUNT(*) > {0}", followers))
+            .stream()
+            .map(row -> ((Number) row.values().iterator().next()).longValue())
+            .collect(Collectors.toSet());
+    }
+
+    private static UserTimeline toEntry(Long userId, SharePost post) {
+        UserTimeline entry = new UserTimeline();
+        entry.setUserId(userId);
+        entry.setPostId(post.getId());
+        entry.setAuthorId(post.getUserId());
+        entry.setPostCreatedAt(post.getCreatedAt());
+        return entry;
+    }
+}
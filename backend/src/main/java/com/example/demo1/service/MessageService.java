@@ -168,7 +168,7 @@ public class MessageService {
         if (byPeer.isEmpty()) {
             return new ArrayList<>();
         }
-        Map<Long, User> peerMap = userService.mapByIds(new ArrayList<>(byPeer.keySet()));
+        Map<Long, SimpleUserVO> peerMap = userService.buildSimpleUsers(byPeer.keySet());
         List<ConversationSummaryVO> summaries = new ArrayList<>();
         for (Map.Entry<Long, PrivateMessage> entry : byPeer.entrySet()) {
             Long peerId = entry.getKey();
@@ -177,8 +177,7 @@ public class MessageService {
                 .eq(PrivateMessage::getSenderId, peerId)
                 .eq(PrivateMessage::getReceiverId, userId)
                 .eq(PrivateMessage::getIsRead, false));
-            User peer = peerMap.get(peerId);
-            SimpleUserVO peerVo = userService.buildSimpleUser(peer);
+            SimpleUserVO peerVo = peerMap.get(peerId);
             summaries.add(ConversationSummaryVO.builder()
                 .peer(peerVo)
                 .lastMessage(message.getContent())
@@ -0,0 +1,242 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.example.demo1.common.enums.PostCounter;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.mapper.SharePostMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 动态计数服务（延迟写回）
+ * 点赞、收藏、评论、浏览只在内存中累加增量（每条动态每个计数一个 LongAdder），
+ * 定时合并为 "UPDATE share_post SET like_count = like_count + ?" 写回数据库，
+ * 不再读出整行、修改一个计数后 updateById 覆盖整行（并发下会丢失更新，热门动态的行锁也会成为瓶颈）。
+ * 
+ * 读取动态时通过 applyPending 叠加尚未写回的增量，返回给前端的计数保持准确。
+ * 增量只在写回成功后才扣除，写回失败会在下一轮重试；应用关闭时会再写回一次。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostCounterService {
+
+    private static final PostCounter[] COUNTERS = PostCounter.values();
+
+    // 连续多少轮没有新增量的动态从内存中移除
+    private static final int IDLE_ROUNDS_BEFORE_EVICT = 3;
+
+    private final SharePostMapper sharePostMapper;
+
+    private final ConcurrentHashMap<Long, Deltas> pending = new ConcurrentHashMap<>();
+
+    // 上一轮移出 pending 的条目：移除前拿到引用的写入线程可能还会再累加，下一轮检查一次后丢弃
+    private List<Map.Entry<Long, Deltas>> retired = new ArrayList<>();
+
+    /**
+     * 累加计数增量
+     */
+    public void increment(Long postId, PostCounter counter, long delta) {
+        if (postId == null || delta == 0) {
+            return;
+        }
+        pending.computeIfAbsent(postId, k -> new Deltas()).add(counter, delta);
+    }
+
+    /**
+     * 返回叠加了待写回增量的计数副本（只含ID、计数和发布时间），原实体不变
+     */
+    public SharePost withPending(SharePost post) {
+        SharePost merged = new SharePost();
+        merged.setId(post.getId());
+        merged.setViewCount(post.getViewCount());
+        merged.setUniqueViewCount(post.getUniqueViewCount());
+        merged.setLikeCount(post.getLikeCount());
+        merged.setFavoriteCount(post.getFavoriteCount());
+        merged.setCommentCount(post.getCommentCount());
+        merged.setCreatedAt(post.getCreatedAt());
+        applyPending(merged);
+        return merged;
+    }
+
+    /**
+     * 把尚未写回的增量叠加到动态实体上（只用于读取，叠加后的实体不要再 updateById）
+     */
+    public void applyPending(SharePost post) {
+        if (post == null || post.getId() == null) {
+            return;
+        }
+        Deltas deltas = pending.get(post.getId());
+        if (deltas == null) {
+            return;
+        }
+        post.setViewCount(merge(post.getViewCount(), deltas.unflushed(PostCounter.VIEW)));
+        post.setLikeCount(merge(post.getLikeCount(), deltas.unflushed(PostCounter.LIKE)));
+        post.setFavoriteCount(merge(post.getFavoriteCount(), deltas.unflushed(PostCounter.FAVORITE)));
+        post.setCommentCount(merge(post.getCommentCount(), deltas.unflushed(PostCounter.COMMENT)));
+    }
+
+    /**
+     * 把增量写回数据库
+     * 增量完全相同的动态合并成一条 UPDATE ... WHERE id IN (...)，浏览数 +1 这类最常见的情况只需一条语句
+     */
+    @Scheduled(fixedDelayString = "${post.counter.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        // 上一轮移除的条目如果又被累加过，把增量转回 pending
+        for (Map.Entry<Long, Deltas> entry : retired) {
+            Deltas deltas = entry.getValue();
+            long[] snapshot = deltas.snapshot();
+            long[] increments = deltas.increments(snapshot);
+            for (int i = 0; i < COUNTERS.length; i++) {
+                if (increments[i] != 0) {
+                    increment(entry.getKey(), COUNTERS[i], increments[i]);
+                }
+            }
+            deltas.markFlushed(snapshot);
+        }
+        retired = new ArrayList<>();
+
+        List<Map.Entry<Long, Deltas>> toFlush = new ArrayList<>();
+        Iterator<Map.Entry<Long, Deltas>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Deltas> entry = iterator.next();
+            Deltas deltas = entry.getValue();
+            if (deltas.hasUnflushed()) {
+                deltas.idleRounds = 0;
+                toFlush.add(entry);
+            } else if (++deltas.idleRounds >= IDLE_ROUNDS_BEFORE_EVICT && pending.remove(entry.getKey(), deltas)) {
+                retired.add(entry);
+            }
+        }
+        if (toFlush.isEmpty()) {
+            return;
+        }
+
+        // 按增量分组：key 为各计数的增量，value 为动态ID和对应的快照
+        Map<List<Long>, List<Map.Entry<Long, Deltas>>> groups = new HashMap<>();
+        Map<Deltas, long[]> snapshots = new HashMap<>();
+        for (Map.Entry<Long, Deltas> entry : toFlush) {
+            long[] snapshot = entry.getValue().snapshot();
+            long[] increments = entry.getValue().increments(snapshot);
+            if (Arrays.stream(increments).allMatch(v -> v == 0)) {
+                continue;
+            }
+            snapshots.put(entry.getValue(), snapshot);
+            List<Long> key = new ArrayList<>(COUNTERS.length);
+            for (long increment : increments) {
+                key.add(increment);
+            }
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+
+        int statements = 0;
+        int posts = 0;
+        for (Map.Entry<List<Long>, List<Map.Entry<Long, Deltas>>> group : groups.entrySet()) {
+            List<Long> postIds = group.getValue().stream().map(Map.Entry::getKey).toList();
+            try {
+                LambdaUpdateWrapper<SharePost> wrapper = new LambdaUpdateWrapper<SharePost>()
+                    .in(SharePost::getId, postIds);
+                for (int i = 0; i < COUNTERS.length; i++) {
+                    long increment = group.getKey().get(i);
+                    if (increment != 0) {
+                        String column = COUNTERS[i].getColumn();
+                        wrapper.setSql(column + " = GREATEST(" + column + " + (" + increment + "), 0)");
+                    }
+                }
+                sharePostMapper.update(null, wrapper);
+                for (Map.Entry<Long, Deltas> entry : group.getValue()) {
+                    entry.getValue().markFlushed(snapshots.get(entry.getValue()));
+                }
+                statements++;
+                posts += postIds.size();
+            } catch (Exception e) {
+                log.warn("动态计数写回失败，将在下一轮重试: postIds={}", postIds, e);
+            }
+        }
+        log.debug("动态计数写回: {}条语句, {}条动态", statements, posts);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static Integer merge(Integer value, long delta) {
+        long merged = (value == null ? 0 : value) + delta;
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, merged));
+    }
+
+    /**
+     * 单条动态的计数增量
+     * adders 只增不减，已写回的部分记在 flushed 中，二者之差即为待写回的增量
+     */
+    private static final class Deltas {
+        final LongAdder[] adders = new LongAdder[COUNTERS.length];
+        final long[] flushed = new long[COUNTERS.length];
+        int idleRounds;
+
+        Deltas() {
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+        }
+
+        void add(PostCounter counter, long delta) {
+            adders[counter.ordinal()].add(delta);
+        }
+
+        long unflushed(PostCounter counter) {
+            int i = counter.ordinal();
+            long done;
+            synchronized (flushed) {
+                done = flushed[i];
+            }
+            return adders[i].sum() - done;
+        }
+
+        boolean hasUnflushed() {
+            for (PostCounter counter : COUNTERS) {
+                if (unflushed(counter) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long[] snapshot() {
+            long[] sums = new long[adders.length];
+            for (int i = 0; i < adders.length; i++) {
+                sums[i] = adders[i].sum();
+            }
+            return sums;
+        }
+
+        long[] increments(long[] snapshot) {
+            long[] increments = new long[snapshot.length];
+            synchronized (flushed) {
+                for (int i = 0; i < snapshot.length; i++) {
+                    increments[i] = snapshot[i] - flushed[i];
+                }
+            }
+            return increments;
+        }
+
+        void markFlushed(long[] snapshot) {
+            synchronized (flushed) {
+                System.arraycopy(snapshot, 0, flushed, 0, snapshot.length);
+            }
+        }
+    }
+}
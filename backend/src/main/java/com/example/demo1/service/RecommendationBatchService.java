@@ -0,0 +1,301 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.demo1.common.enums.BatchRunStatus;
+import com.example.demo1.dto.response.RecommendationResult;
+import com.example.demo1.entity.RecommendationBatchRun;
+import com.example.demo1.entity.RecommendationBatchUser;
+import com.example.demo1.entity.UserBehavior;
+import com.example.demo1.mapper.RecommendationBatchRunMapper;
+import com.example.demo1.mapper.RecommendationBatchUserMapper;
+import com.example.demo1.mapper.UserBehaviorMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 推荐离线批处理服务
+ * 每晚为最近活跃的用户跑一遍混合推荐流程，把Top-N结果写入 precomputed_recommendation 表，
+ * 在线推荐优先读取该表，只混入新鲜热门动态。
+ * 
+ * 断点续跑：批次状态记录在 recommendation_batch_run 表，
+ * 每个用户计算完成后在 recommendation_batch_user 表记录一行（结果为空也记录），
+ * 节点中途重启后重新执行同一批次时，会跳过这些已完成的用户。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationBatchService {
+
+    // 批次日期按该时区计算，读取离线结果时必须使用同一时区
+    public static final ZoneId ZONE_ID = ZoneId.of("Asia/Shanghai");
+
+    private final RecommendationService recommendationService;
+    private final UserBehaviorMapper userBehaviorMapper;
+    private final RecommendationBatchRunMapper recommendationBatchRunMapper;
+    private final RecommendationBatchUserMapper recommendationBatchUserMapper;
+
+    @Value("${recommend.batch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${recommend.batch.active-days:7}")
+    private int activeDays;
+
+    @Value("${recommend.batch.top-n:100}")
+    private int topN;
+
+    // 每完成多少个用户把进度写回数据库一次
+    @Value("${recommend.batch.progress-flush-interval:200}")
+    private int progressFlushInterval;
+
+    private ForkJoinPool pool;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger processedUsers = new AtomicInteger();
+    private final AtomicInteger failedUsers = new AtomicInteger();
+    private volatile RecommendationBatchRun currentRun;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 在后台线程中启动指定日期的批次
+     * 
+     * @return 已有批次在运行时返回 false
+     */
+    public boolean startBatch(LocalDate batchDate) {
+        // 在启动线程前占住运行标记，避免两次调用都通过检查后各自启动一个批次
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread worker = new Thread(() -> execute(batchDate), "recommend-batch");
+        worker.setDaemon(true);
+        try {
+            worker.start();
+        } catch (RuntimeException | Error e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * 指定日期批次的状态，还没有运行过时返回 null
+     */
+    public BatchRunStatus getRunStatus(LocalDate batchDate) {
+        RecommendationBatchRun run = recommendationBatchRunMapper.selectOne(
+            new LambdaQueryWrapper<RecommendationBatchRun>()
+                .eq(RecommendationBatchRun::getBatchDate, batchDate)
+        );
+        return run != null ? run.getStatus() : null;
+    }
+
+    /**
+     * 续跑最近一次未完成的批次（节点重启后调用）
+     */
+    public void resumeUnfinished() {
+        RecommendationBatchRun run = recommendationBatchRunMapper.selectOne(
+            new LambdaQueryWrapper<RecommendationBatchRun>()
+                .eq(RecommendationBatchRun::getStatus, BatchRunStatus.RUNNING)
+                .orderByDesc(RecommendationBatchRun::getBatchDate)
+                .last("LIMIT 1")
+        );
+        if (run == null) {
+            return;
+        }
+        // 只续跑今天或昨天的批次，更早的结果已经过期
+        if (run.getBatchDate().isBefore(LocalDate.now(ZONE_ID).minusDays(1))) {
+            run.setStatus(BatchRunStatus.FAILED);
+            run.setFinishedAt(LocalDateTime.now());
+            recommendationBatchRunMapper.updateById(run);
+            return;
+        }
+        log.info("检测到未完成的推荐批次，继续执行: batchDate={}, 已完成{}/{}",
+            run.getBatchDate(), run.getProcessedUsers(), run.getTotalUsers());
+        startBatch(run.getBatchDate());
+    }
+
+    /**
+     * 同步执行指定日期的批次，同一时间只允许一个批次运行
+     */
+    public void runBatch(LocalDate batchDate) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("推荐批次正在运行，跳过本次触发: batchDate={}", batchDate);
+            return;
+        }
+        execute(batchDate);
+    }
+
+    /**
+     * 执行批次，调用方需已占住运行标记，结束后释放
+     */
+    private void execute(LocalDate batchDate) {
+        try {
+            doRunBatch(batchDate);
+        } catch (Exception e) {
+            log.error("推荐批次执行失败: batchDate={}", batchDate, e);
+            RecommendationBatchRun run = currentRun;
+            if (run != null) {
+                run.setStatus(BatchRunStatus.FAILED);
+                run.setFinishedAt(LocalDateTime.now());
+                flushProgress(run);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 当前（或最近一次）批次的进度
+     */
+    public Map<String, Object> getProgress() {
+        RecommendationBatchRun run = running.get() ? currentRun : recommendationBatchRunMapper.selectOne(
+            new LambdaQueryWrapper<RecommendationBatchRun>()
+                .orderByDesc(RecommendationBatchRun::getBatchDate)
+                .last("LIMIT 1")
+        );
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("running", running.get());
+        if (run == null) {
+            return progress;
+        }
+        int processed = running.get() ? processedUsers.get() : Objects.requireNonNullElse(run.getProcessedUsers(), 0);
+        int failed = running.get() ? failedUsers.get() : Objects.requireNonNullElse(run.getFailedUsers(), 0);
+        int total = Objects.requireNonNullElse(run.getTotalUsers(), 0);
+        progress.put("batchDate", run.getBatchDate());
+        progress.put("status", run.getStatus());
+        progress.put("totalUsers", total);
+        progress.put("processedUsers", processed);
+        progress.put("failedUsers", failed);
+        progress.put("percent", total == 0 ? 100.0 : Math.round(processed * 1000.0 / total) / 10.0);
+        progress.put("startedAt", run.getStartedAt());
+        progress.put("finishedAt", run.getFinishedAt());
+        return progress;
+    }
+
+    private void doRunBatch(LocalDate batchDate) throws Exception {
+        RecommendationBatchRun run = recommendationBatchRunMapper.selectOne(
+            new LambdaQueryWrapper<RecommendationBatchRun>()
+                .eq(RecommendationBatchRun::getBatchDate, batchDate)
+        );
+        if (run != null && run.getStatus() == BatchRunStatus.FINISHED) {
+            log.info("推荐批次已完成，无需重复执行: batchDate={}", batchDate);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<Long> activeUserIds = getActiveUserIds();
+        Set<Long> doneUserIds = getFinishedUserIds(batchDate);
+        List<Long> pendingUserIds = activeUserIds.stream()
+            .filter(id -> !doneUserIds.contains(id))
+            .collect(Collectors.toList());
+
+        if (run == null) {
+            run = new RecommendationBatchRun();
+            run.setBatchDate(batchDate);
+            run.setStartedAt(LocalDateTime.now());
+            // 新批次开始时清理更早批次的完成记录，只保留可能续跑的昨天
+            recommendationBatchUserMapper.delete(new LambdaQueryWrapper<RecommendationBatchUser>()
+                .lt(RecommendationBatchUser::getBatchDate, batchDate.minusDays(1)));
+        }
+        run.setStatus(BatchRunStatus.RUNNING);
+        run.setTotalUsers(activeUserIds.size());
+        run.setProcessedUsers(activeUserIds.size() - pendingUserIds.size());
+        run.setFailedUsers(0);
+        run.setFinishedAt(null);
+        if (run.getId() == null) {
+            recommendationBatchRunMapper.insert(run);
+        } else {
+            recommendationBatchRunMapper.updateById(run);
+        }
+
+        processedUsers.set(run.getProcessedUsers());
+        failedUsers.set(0);
+        currentRun = run;
+        log.info("推荐批次开始: batchDate={}, 活跃用户{}, 待计算{}",
+            batchDate, activeUserIds.size(), pendingUserIds.size());
+
+        RecommendationBatchRun progressRun = run;
+        pool.submit(() -> pendingUserIds.parallelStream().forEach(userId -> {
+            try {
+                List<RecommendationResult> results = recommendationService.computeHybridRanking(userId, topN);
+                recommendationService.savePrecomputedRecommendations(userId, batchDate, results);
+            } catch (Exception e) {
+                failedUsers.incrementAndGet();
+                log.warn("用户离线推荐计算失败: userId={}", userId, e);
+            }
+            if (processedUsers.incrementAndGet() % progressFlushInterval == 0) {
+                flushProgress(progressRun);
+            }
+        })).get();
+
+        run.setStatus(BatchRunStatus.FINISHED);
+        run.setFinishedAt(LocalDateTime.now());
+        flushProgress(run);
+        log.info("推荐批次完成: batchDate={}, 用户{}, 失败{}, 耗时{}ms",
+            batchDate, processedUsers.get(), failedUsers.get(), System.currentTimeMillis() - start);
+    }
+
+    private synchronized void flushProgress(RecommendationBatchRun run) {
+        try {
+            run.setProcessedUsers(processedUsers.get());
+            run.setFailedUsers(failedUsers.get());
+            recommendationBatchRunMapper.updateById(run);
+        } catch (Exception e) {
+            log.warn("推荐批次进度保存失败", e);
+        }
+    }
+
+    /**
+     * 最近 activeDays 天内有行为的用户
+     */
+    private List<Long> getActiveUserIds() {
+        return userBehaviorMapper.selectMaps(
+            new QueryWrapper<UserBehavior>()
+                .select("user_id")
+                .ge("created_at", LocalDateTime.now().minusDays(activeDays))
+                .isNotNull("user_id")
+                .groupBy("user_id")
+        ).stream()
+        .map(row -> ((Number) row.get("user_id")).longValue())
+        .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * 本批次已经计算完成的用户（用于断点续跑）
+     */
+    private Set<Long> getFinishedUserIds(LocalDate batchDate) {
+        return recommendationBatchUserMapper.selectList(
+            new LambdaQueryWrapper<RecommendationBatchUser>()
+                .eq(RecommendationBatchUser::getBatchDate, batchDate)
+                .select(RecommendationBatchUser::getUserId)
+        ).stream()
+        .map(RecommendationBatchUser::getUserId)
+        .collect(Collectors.toSet());
+    }
+}
@@ -1,24 +1,44 @@
 package com.example.demo1.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import com.example.demo1.algorithm.ContentBasedRecommender;
 import com.example.demo1.algorithm.CollaborativeFilteringRecommender;
 import com.example.demo1.algorithm.HotScoreCalculator;
-import com.example.demo1.common.enums.TargetType;
+import com.example.demo1.algorithm.SeenPostStore;
+import com.example.demo1.common.enums.RecommendSource;
+import com.example.demo1.common.enums.TimeDimension;
+import com.example.demo1.dto.response.RecommendPageResult;
+import com.example.demo1.dto.response.RecommendationFeed;
 import com.example.demo1.dto.response.RecommendationResult;
 import com.example.demo1.dto.response.SharePostVO;
 import com.example.demo1.entity.PostTag;
+import com.example.demo1.entity.PrecomputedRecommendation;
+import com.example.demo1.entity.RecommendationBatchUser;
 import com.example.demo1.entity.SharePost;
-import com.example.demo1.entity.UserBehavior;
 import com.example.demo1.mapper.PostTagMapper;
+import com.example.demo1.mapper.PrecomputedRecommendationMapper;
+import com.example.demo1.mapper.RecommendationBatchUserMapper;
 import com.example.demo1.mapper.SharePostMapper;
-import com.example.demo1.mapper.UserBehaviorMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -26,21 +46,23 @@ import java.util.stream.Collectors;
  * 实现混合推荐策略：基于内容推荐(40%) + 协同过滤推荐(40%) + 热度排行推荐(20%)
  * 
  * 推荐流程说明：
+ * 0. 近期活跃用户优先读取离线预计算结果（见 RecommendationBatchService），混入新鲜热门动态后直接返回
  * 1. 获取候选动态集合（排除用户已看过的，最近90天）
- * 2. 并行调用三种推荐算法：
+ * 2. 在推荐线程池中并行调用三种推荐算法（共享截止时间，超时的算法不参与合并）：
  *    - ContentBasedRecommender: 基于用户标签和地点偏好匹配
  *    - CollaborativeFilteringRecommender: 基于相似用户的行为推荐
  *    - HotScoreCalculator: 基于热度分数（互动指标+时间衰减）
  * 3. 按权重合并推荐结果
  * 4. 去重并按分数排序，取Top-N
- * 5. 转换为VO返回
+ * 5. 保存为推荐会话，翻页时按游标从会话中读取并转换为VO返回（未登录用户不保存会话，直接按热门排行分页）
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RecommendationService {
 
-    private final UserBehaviorMapper userBehaviorMapper;
+    private final PrecomputedRecommendationMapper precomputedRecommendationMapper;
+    private final RecommendationBatchUserMapper recommendationBatchUserMapper;
     private final PostTagMapper postTagMapper;
     private final SharePostMapper sharePostMapper;
     private final SharePostService sharePostService;
@@ -49,6 +71,18 @@ public class RecommendationService {
     private final ContentBasedRecommender contentBasedRecommender;
     private final CollaborativeFilteringRecommender collaborativeFilteringRecommender;
     private final HotScoreCalculator hotScoreCalculator;
+    @Qualifier("recommendExecutor")
+    private final ExecutorService recommendExecutor;
+    private final RecommendationSessionStore recommendationSessionStore;
+    private final SeenPostStore seenPostStore;
+
+    // 单次推荐的截止时间（毫秒）
+    @Value("${recommend.deadline-ms:800}")
+    private long deadlineMs;
+
+    // 每个推荐会话预先计算的动态数量
+    @Value("${recommend.session.size:100}")
+    private int sessionSize;
 
     // 推荐策略权重
     private static final double CONTENT_BASED_WEIGHT = 0.4;
@@ -58,38 +92,236 @@ public class RecommendationService {
     // 候选动态数量
     private static final int CANDIDATE_POST_LIMIT = 1000;
 
+    // 候选动态按时间倒序分批扫描，最多扫描几批（已看过的较多时避免无限翻找）
+    private static final int CANDIDATE_SCAN_ROUNDS = 5;
+
+    // 离线推荐结果中混入的新鲜热门动态：最多取多少条，每隔几条插入一条
+    private static final int FRESH_HOT_LIMIT = 20;
+    private static final int FRESH_HOT_INTERVAL = 4;
+
+    // 离线推荐结果每批写入的行数
+    private static final int SAVE_BATCH_SIZE = 500;
+
     /**
-     * 获取推荐动态
-     * 混合推荐策略：基于内容推荐(40%) + 协同过滤推荐(40%) + 热度排行推荐(20%)
+     * 获取推荐动态（分页）
+     * 登录用户首次请求时计算一份较长的推荐列表并保存为会话，之后的翻页直接从会话中读取，不再重新计算；
+     * 游标对应的会话已过期时重新计算并从第一页返回（cursorExpired 为 true），避免新列表按旧偏移量读取造成重复或遗漏。
+     * 未登录用户不保存会话，每页直接按热门排行读取。
+     * 
+     * @param userId 用户ID，未登录为 null
+     * @param cursor 上一页返回的游标，为空时按 page 分页
+     * @param page 页码（从1开始），仅在没有游标时使用
+     * @param size 每页数量
      */
-    public List<SharePostVO> getRecommendedPosts(Long userId, int size) {
+    public RecommendPageResult<SharePostVO> getRecommendedPosts(Long userId, String cursor, int page, int size) {
+        RecommendationSessionStore.Cursor parsed = RecommendationSessionStore.decodeCursor(cursor);
+        int offset = parsed != null ? parsed.getOffset() : Math.max(0, (page - 1) * size);
         if (userId == null) {
-            // 未登录用户返回热门动态
-            return sharePostService.getHotPosts(
-                com.example.demo1.common.enums.TimeDimension.WEEK, 1, size, null
-            ).getItems();
+            return anonymousPage(offset, size);
+        }
+
+        // 游标指向的会话仍有效则直接复用；第一页或会话过期时重新计算
+        RecommendationSessionStore.Session session = null;
+        boolean cursorExpired = false;
+        if (parsed != null) {
+            session = recommendationSessionStore.get(userId, parsed.getSessionId());
+            if (session == null) {
+                cursorExpired = true;
+                offset = 0;
+            }
+        } else if (offset > 0) {
+            session = recommendationSessionStore.get(userId, null);
+        }
+        if (session == null) {
+            RecommendationFeed feed = rankRecommendedPosts(userId, Math.max(sessionSize, offset + size));
+            session = recommendationSessionStore.create(userId, feed.getPostIds(), feed.getSources());
+        }
+
+        List<Long> postIds = session.getPostIds();
+        int start = Math.min(offset, postIds.size());
+        int end = Math.min(start + size, postIds.size());
+        List<SharePostVO> items = sharePostService.getPostsByIds(postIds.subList(start, end), userId);
+
+        String nextCursor = end < postIds.size()
+            ? RecommendationSessionStore.encodeCursor(session.getId(), end)
+            : null;
+        RecommendPageResult<SharePostVO> result = new RecommendPageResult<>((long) postIds.size(),
+            offset / Math.max(1, size) + 1, size, items, session.getSources(), nextCursor);
+        result.setCursorExpired(cursorExpired);
+        return result;
+    }
+
+    /**
+     * 未登录用户：热门排行来自内存排行榜，每页按偏移量直接读取，不占用会话
+     */
+    private RecommendPageResult<SharePostVO> anonymousPage(int offset, int size) {
+        // 多取一条用于判断是否还有下一页
+        RecommendationFeed feed = hotFallback(offset + size + 1);
+        List<Long> postIds = feed.getPostIds();
+        int start = Math.min(offset, postIds.size());
+        int end = Math.min(start + size, postIds.size());
+        List<SharePostVO> items = sharePostService.getPostsByIds(postIds.subList(start, end), null);
+
+        String nextCursor = end < postIds.size()
+            ? RecommendationSessionStore.encodeCursor(RecommendationSessionStore.ANONYMOUS_SESSION_ID, end)
+            : null;
+        return new RecommendPageResult<>((long) postIds.size(), offset / Math.max(1, size) + 1, size,
+            items, feed.getSources(), nextCursor);
+    }
+
+    /**
+     * 计算推荐动态排序
+     * 混合推荐策略：基于内容推荐(40%) + 协同过滤推荐(40%) + 热度排行推荐(20%)
+     * 三种算法并行执行，超过截止时间仍未返回的算法不参与本次合并
+     */
+    private RecommendationFeed rankRecommendedPosts(Long userId, int size) {
+        // 0. 优先使用离线预计算结果，只混入新鲜热门动态
+        RecommendationFeed precomputed = readPrecomputed(userId, size);
+        if (precomputed != null) {
+            return precomputed;
         }
 
         // 1. 获取候选动态集合
         List<SharePost> candidatePosts = getCandidatePosts(userId, CANDIDATE_POST_LIMIT);
         if (candidatePosts.isEmpty()) {
-            return sharePostService.getHotPosts(
-                com.example.demo1.common.enums.TimeDimension.WEEK, 1, size, userId
-            ).getItems();
+            return hotFallback(size);
         }
 
-        // 2. 调用三种推荐算法
-        List<RecommendationResult> contentBasedResults = contentBasedRecommender.recommend(userId, candidatePosts, size * 2);
-        List<RecommendationResult> collaborativeResults = collaborativeFilteringRecommender.recommend(userId, candidatePosts, size * 2);
-        List<RecommendationResult> hotResults = hotRankingRecommend(candidatePosts, size * 2);
+        // 2. 并行调用三种推荐算法，共享同一个截止时间
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Future<List<RecommendationResult>> contentFuture = submit(
+            () -> contentBasedRecommender.recommend(userId, candidatePosts, size * 2));
+        Future<List<RecommendationResult>> collaborativeFuture = submit(
+            () -> collaborativeFilteringRecommender.recommend(userId, candidatePosts, size * 2));
+        Future<List<RecommendationResult>> hotFuture = submit(
+            () -> hotRankingRecommend(candidatePosts, size * 2));
+
+        List<RecommendSource> sources = new ArrayList<>();
+        List<RecommendationResult> contentBasedResults =
+            await(contentFuture, deadline, RecommendSource.CONTENT_BASED, sources);
+        List<RecommendationResult> collaborativeResults =
+            await(collaborativeFuture, deadline, RecommendSource.COLLABORATIVE_FILTERING, sources);
+        List<RecommendationResult> hotResults =
+            await(hotFuture, deadline, RecommendSource.HOT_RANKING, sources);
+
+        // 3. 合并、去重并按分数排序，取Top-N
+        List<Long> finalPostIds = mergeAndRank(contentBasedResults, collaborativeResults, hotResults, size).stream()
+            .map(RecommendationResult::getPostId)
+            .collect(Collectors.toList());
 
-        // 3. 合并推荐结果
-        List<RecommendationResult> mergedResults = mergeRecommendations(
-            contentBasedResults, collaborativeResults, hotResults
+        if (finalPostIds.isEmpty()) {
+            return hotFallback(size);
+        }
+        return new RecommendationFeed(finalPostIds, sources);
+    }
+
+    /**
+     * 同步计算混合推荐（离线批处理使用，不受在线截止时间限制）
+     * 
+     * @param userId 用户ID
+     * @param size 返回数量
+     * @return 按分数排序的推荐结果，没有候选动态时为空
+     */
+    public List<RecommendationResult> computeHybridRanking(Long userId, int size) {
+        List<SharePost> candidatePosts = getCandidatePosts(userId, CANDIDATE_POST_LIMIT);
+        if (candidatePosts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return mergeAndRank(
+            contentBasedRecommender.recommend(userId, candidatePosts, size * 2),
+            collaborativeFilteringRecommender.recommend(userId, candidatePosts, size * 2),
+            hotRankingRecommend(candidatePosts, size * 2),
+            size
         );
+    }
 
-        // 4. 去重并按分数排序，取Top-N
-        List<RecommendationResult> finalResults = mergedResults.stream()
+    /**
+     * 覆盖保存用户的离线推荐结果，并在同一事务中记录该用户在本批次已完成（结果为空也记录）
+     */
+    @Transactional
+    public void savePrecomputedRecommendations(Long userId, LocalDate batchDate, List<RecommendationResult> results) {
+        precomputedRecommendationMapper.delete(new LambdaQueryWrapper<PrecomputedRecommendation>()
+            .eq(PrecomputedRecommendation::getUserId, userId));
+        List<PrecomputedRecommendation> records = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            RecommendationResult result = results.get(i);
+            PrecomputedRecommendation record = new PrecomputedRecommendation();
+            record.setUserId(userId);
+            record.setPostId(result.getPostId());
+            record.setScore(result.getScore());
+            record.setRankNo(i);
+            record.setBatchDate(batchDate);
+            records.add(record);
+        }
+        if (!records.isEmpty()) {
+            Db.saveBatch(records, SAVE_BATCH_SIZE);
+        }
+        RecommendationBatchUser finished = new RecommendationBatchUser();
+        finished.setBatchDate(batchDate);
+        finished.setUserId(userId);
+        recommendationBatchUserMapper.insert(finished);
+    }
+
+    /**
+     * 读取用户最近一次（昨天或今天）的离线推荐，并每隔几条插入一条未看过的新鲜热门动态
+     * 
+     * @return 没有可用的离线结果（或全部已看过）时返回 null
+     */
+    private RecommendationFeed readPrecomputed(Long userId, int size) {
+        List<PrecomputedRecommendation> records = precomputedRecommendationMapper.selectList(
+            new LambdaQueryWrapper<PrecomputedRecommendation>()
+                .eq(PrecomputedRecommendation::getUserId, userId)
+                .ge(PrecomputedRecommendation::getBatchDate,
+                    LocalDate.now(RecommendationBatchService.ZONE_ID).minusDays(1))
+                .orderByAsc(PrecomputedRecommendation::getRankNo)
+        );
+        if (records.isEmpty()) {
+            return null;
+        }
+
+        LinkedHashSet<Long> precomputedIds = records.stream()
+            .map(PrecomputedRecommendation::getPostId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        LongPredicate seen = seenPostStore.seenFilter(userId);
+        List<Long> freshHotIds = sharePostService.getHotPostIds(TimeDimension.DAY, FRESH_HOT_LIMIT).stream()
+            .filter(id -> !precomputedIds.contains(id) && !seen.test(id))
+            .collect(Collectors.toList());
+
+        List<Long> blended = new ArrayList<>();
+        Iterator<Long> hotIterator = freshHotIds.iterator();
+        for (Long postId : precomputedIds) {
+            if (blended.size() >= size) {
+                break;
+            }
+            if (blended.size() % FRESH_HOT_INTERVAL == FRESH_HOT_INTERVAL - 1 && hotIterator.hasNext()) {
+                blended.add(hotIterator.next());
+            }
+            if (seen.test(postId) || blended.size() >= size) {
+                continue;
+            }
+            blended.add(postId);
+        }
+        if (blended.isEmpty()) {
+            // 离线结果都已看过，回退到在线计算
+            return null;
+        }
+
+        List<RecommendSource> sources = new ArrayList<>();
+        sources.add(RecommendSource.PRECOMPUTED);
+        if (!freshHotIds.isEmpty()) {
+            sources.add(RecommendSource.HOT_RANKING);
+        }
+        return new RecommendationFeed(blended, sources);
+    }
+
+    /**
+     * 合并三路推荐结果，去重并按分数排序，取Top-N
+     */
+    private List<RecommendationResult> mergeAndRank(List<RecommendationResult> contentBased,
+                                                    List<RecommendationResult> collaborative,
+                                                    List<RecommendationResult> hot,
+                                                    int size) {
+        return mergeRecommendations(contentBased, collaborative, hot).stream()
             .collect(Collectors.toMap(
                 RecommendationResult::getPostId,
                 r -> r,
@@ -100,25 +332,47 @@ public class RecommendationService {
             .sorted(Comparator.comparingDouble(RecommendationResult::getScore).reversed())
             .limit(size)
             .collect(Collectors.toList());
+    }
 
-        if (finalResults.isEmpty()) {
-            return sharePostService.getHotPosts(
-                com.example.demo1.common.enums.TimeDimension.WEEK, 1, size, userId
-            ).getItems();
+    /**
+     * 兜底：返回本周热门动态
+     */
+    private RecommendationFeed hotFallback(int size) {
+        List<Long> postIds = sharePostService.getHotPostIds(TimeDimension.WEEK, size);
+        return new RecommendationFeed(postIds, List.of(RecommendSource.HOT_RANKING));
+    }
+
+    private Future<List<RecommendationResult>> submit(Callable<List<RecommendationResult>> task) {
+        try {
+            return recommendExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("推荐线程池已满，跳过该路推荐");
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
+    }
 
-        // 5. 转换为VO
-        return finalResults.stream()
-            .map(result -> {
-                try {
-                    return sharePostService.getPostById(result.getPostId(), userId, false);
-                } catch (Exception e) {
-                    log.warn("获取推荐动态失败: postId={}", result.getPostId(), e);
-                    return null;
-                }
-            })
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+    /**
+     * 在截止时间内等待某一路推荐结果，超时或失败时返回空列表
+     */
+    private List<RecommendationResult> await(Future<List<RecommendationResult>> future, long deadline,
+                                             RecommendSource source, List<RecommendSource> sources) {
+        try {
+            long remaining = Math.max(0L, deadline - System.nanoTime());
+            List<RecommendationResult> results = future.get(remaining, TimeUnit.NANOSECONDS);
+            if (!results.isEmpty()) {
+                sources.add(source);
+            }
+            return results;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("{}推荐超过截止时间{}ms，本次不参与合并", source.getDescription(), deadlineMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        } catch (ExecutionException e) {
+            log.warn("{}推荐执行失败", source.getDescription(), e.getCause());
+        }
+        return Collections.emptyList();
     }
 
     /**
@@ -142,26 +396,43 @@ public class RecommendationService {
 
     /**
      * 获取候选动态集合
+     * 按时间倒序分批扫描最近90天的动态，用已看动态过滤器在内存中排除已看过的，
+     * 不再把用户全部历史行为拼成 NOT IN 条件。
      */
     private List<SharePost> getCandidatePosts(Long userId, int limit) {
-        // 获取用户已看过的动态
-        Set<Long> viewedPostIds = userBehaviorMapper.selectList(
-            new LambdaQueryWrapper<UserBehavior>()
-                .eq(UserBehavior::getUserId, userId)
-                .eq(UserBehavior::getTargetType, TargetType.POST)
-                .select(UserBehavior::getTargetId)
-        ).stream()
-        .map(UserBehavior::getTargetId)
-        .collect(Collectors.toSet());
-
-        // 获取候选动态（排除已看过的，最近90天）
-        return sharePostMapper.selectList(
-            new LambdaQueryWrapper<SharePost>()
-                .notIn(!viewedPostIds.isEmpty(), SharePost::getId, viewedPostIds)
-                .ge(SharePost::getCreatedAt, LocalDateTime.now().minusDays(90))
-                .orderByDesc(SharePost::getCreatedAt)
-                .last("LIMIT " + limit)
-        );
+        LongPredicate seen = seenPostStore.seenFilter(userId);
+        LocalDateTime since = LocalDateTime.now().minusDays(90);
+        List<SharePost> candidates = new ArrayList<>(limit);
+        SharePost last = null;
+
+        for (int round = 0; round < CANDIDATE_SCAN_ROUNDS && candidates.size() < limit; round++) {
+            LambdaQueryWrapper<SharePost> wrapper = new LambdaQueryWrapper<SharePost>()
+                .ge(SharePost::getCreatedAt, since);
+            if (last != null) {
+                LocalDateTime lastCreatedAt = last.getCreatedAt();
+                Long lastId = last.getId();
+                wrapper.and(w -> w.lt(SharePost::getCreatedAt, lastCreatedAt)
+                    .or(q -> q.eq(SharePost::getCreatedAt, lastCreatedAt).lt(SharePost::getId, lastId)));
+            }
+            wrapper.orderByDesc(SharePost::getCreatedAt)
+                .orderByDesc(SharePost::getId)
+                .last("LIMIT " + limit);
+
+            List<SharePost> batch = sharePostMapper.selectList(wrapper);
+            for (SharePost post : batch) {
+                if (!seen.test(post.getId())) {
+                    candidates.add(post);
+                    if (candidates.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+            if (batch.size() < limit) {
+                break;
+            }
+            last = batch.get(batch.size() - 1);
+        }
+        return candidates;
     }
 
     /**
@@ -247,17 +518,10 @@ public class RecommendationService {
             .collect(Collectors.toList());
 
         // 5. 转换为VO
-        return sortedPosts.stream()
-            .map(entry -> {
-                try {
-                    return sharePostService.getPostById(entry.getKey(), userId, false);
-                } catch (Exception e) {
-                    log.warn("获取相似动态失败: postId={}", entry.getKey(), e);
-                    return null;
-                }
-            })
-            .filter(Objects::nonNull)
+        List<Long> similarPostIds = sortedPosts.stream()
+            .map(Map.Entry::getKey)
             .collect(Collectors.toList());
+        return sharePostService.getPostsByIds(similarPostIds, userId);
     }
 
 }
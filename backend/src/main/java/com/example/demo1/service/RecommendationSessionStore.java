@@ -0,0 +1,132 @@
+package com.example.demo1.service;
+
+import com.example.demo1.common.enums.RecommendSource;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 推荐会话存储
+ * 每个用户保存一份已排好序的推荐动态ID列表（带过期时间），翻页时直接从中读取，不再重新计算。
+ * 按最近访问顺序淘汰，容量有上限。只为登录用户保存会话。
+ */
+@Component
+public class RecommendationSessionStore {
+
+    // 未登录用户的游标使用的固定会话ID（不保存会话，只记录偏移量）
+    public static final String ANONYMOUS_SESSION_ID = "anonymous";
+
+    @Value("${recommend.session.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${recommend.session.max-users:10000}")
+    private int maxUsers;
+
+    private final Map<Long, Session> sessions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Session> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    /**
+     * 获取用户未过期的会话
+     *
+     * @param sessionId 期望的会话ID，为 null 时不校验
+     */
+    public synchronized Session get(Long userId, String sessionId) {
+        if (userId == null) {
+            return null;
+        }
+        Session session = sessions.get(userId);
+        if (session == null) {
+            return null;
+        }
+        if (session.expiresAt < System.currentTimeMillis()) {
+            sessions.remove(userId);
+            return null;
+        }
+        if (sessionId != null && !sessionId.equals(session.id)) {
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * 为登录用户创建新会话，覆盖旧会话
+     */
+    public synchronized Session create(Long userId, List<Long> postIds, List<RecommendSource> sources) {
+        if (userId == null) {
+            throw new IllegalArgumentException("未登录用户不保存推荐会话");
+        }
+        Session session = new Session(
+            UUID.randomUUID().toString().replace("-", ""),
+            List.copyOf(postIds),
+            List.copyOf(sources),
+            System.currentTimeMillis() + ttlSeconds * 1000
+        );
+        sessions.put(userId, session);
+        return session;
+    }
+
+    /**
+     * 生成不透明游标：会话ID + 偏移量
+     */
+    public static String encodeCursor(String sessionId, int offset) {
+        String raw = sessionId + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，格式不正确时返回 null
+     */
+    public static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(':');
+            if (idx <= 0) {
+                return null;
+            }
+            int offset = Integer.parseInt(raw.substring(idx + 1));
+            return offset < 0 ? null : new Cursor(raw.substring(0, idx), offset);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Getter
+    public static class Session {
+        private final String id;
+        private final List<Long> postIds;
+        private final List<RecommendSource> sources;
+        private final long expiresAt;
+
+        Session(String id, List<Long> postIds, List<RecommendSource> sources, long expiresAt) {
+            this.id = id;
+            this.postIds = postIds;
+            this.sources = sources;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Getter
+    public static class Cursor {
+        private final String sessionId;
+        private final int offset;
+
+        Cursor(String sessionId, int offset) {
+            this.sessionId = sessionId;
+            this.offset = offset;
+        }
+    }
+}
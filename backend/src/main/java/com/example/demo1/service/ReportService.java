@@ -3,6 +3,9 @@ package com.example.demo1.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.demo1.algorithm.HotPostLeaderboard;
+import com.example.demo1.algorithm.PostSearchIndex;
+import com.example.demo1.algorithm.UniqueViewStore;
 import com.example.demo1.common.enums.ContentType;
 import com.example.demo1.common.enums.ReportReason;
 import com.example.demo1.common.enums.ReportStatus;
@@ -14,6 +17,7 @@ import com.example.demo1.dto.response.ContentReportVO;
 import com.example.demo1.dto.response.SimpleUserVO;
 import com.example.demo1.entity.*;
 import com.example.demo1.mapper.*;
+import com.example.demo1.util.TransactionUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +45,12 @@ public class ReportService {
     private final SharePostMapper sharePostMapper;
     private final UserMapper userMapper;
     private final ContentModerationService moderationService;
+    private final TagExtractionService tagExtractionService;
+    private final HotPostLeaderboard hotPostLeaderboard;
+    private final UniqueViewStore uniqueViewStore;
+    private final PostSearchIndex postSearchIndex;
+    private final UserSummaryCache userSummaryCache;
+    private final SearchSuggestService searchSuggestService;
     private final ObjectMapper objectMapper;
 
     /**
@@ -298,6 +308,8 @@ public class ReportService {
         wrapper.eq(User::getId, userId)
                 .set(User::getIsActive, false);
         userMapper.update(null, wrapper);
+        userSummaryCache.invalidate(userId);
+        searchSuggestService.onUserRemoved(userId);
         
         log.info("用户 {} 被封禁, 原因: {}", userId, reason);
     }
@@ -390,8 +402,14 @@ public class ReportService {
                 log.info("已屏蔽酒吧评价 #{}", contentId);
                 break;
             case POST:
-                // 可以选择删除或标记
+                // 可以选择删除或标记（先删标签，同步清理内存标签索引）
+                tagExtractionService.deletePostTags(contentId);
                 sharePostMapper.deleteById(contentId);
+                TransactionUtils.afterCommit(() -> {
+                    hotPostLeaderboard.remove(contentId);
+                    uniqueViewStore.remove(contentId);
+                });
+                postSearchIndex.remove(contentId);
                 log.info("已屏蔽动态 #{}", contentId);
                 break;
             default:
@@ -0,0 +1,208 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.demo1.algorithm.PrefixSuggestIndex;
+import com.example.demo1.algorithm.PrefixSuggestIndex.Entry;
+import com.example.demo1.common.enums.SuggestType;
+import com.example.demo1.dto.response.SuggestionVO;
+import com.example.demo1.entity.Bar;
+import com.example.demo1.entity.Beverage;
+import com.example.demo1.entity.User;
+import com.example.demo1.entity.UserFollow;
+import com.example.demo1.mapper.AlcoholMapper;
+import com.example.demo1.mapper.BarMapper;
+import com.example.demo1.mapper.BeverageMapper;
+import com.example.demo1.mapper.UserFollowMapper;
+import com.example.demo1.mapper.UserMapper;
+import com.example.demo1.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索框联想
+ * 酒饮名、酒类名、热门标签、酒吧名、用户名放进内存前缀索引（含汉字拼音首字母），按热度权重排序，
+ * 输入时不再每个按键都发起一次完整搜索。
+ *
+ * 注册、改名、封禁用户和新开酒吧时增量更新；热度权重随定时全量重建刷新。
+ * 权重：酒饮按浏览数与评分人数，酒类按该类酒饮数量，标签按使用次数，酒吧按评价数与评分，用户按粉丝数，
+ * 均取 log(1 + x) 使不同类型大致可比。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchSuggestService {
+
+    public static final int MAX_LIMIT = 20;
+
+    private final BeverageMapper beverageMapper;
+    private final AlcoholMapper alcoholMapper;
+    private final BarMapper barMapper;
+    private final UserMapper userMapper;
+    private final UserFollowMapper userFollowMapper;
+    private final TagExtractionService tagExtractionService;
+
+    // 收录的热门标签数量
+    @Value("${search.suggest.tag-limit:500}")
+    private int tagLimit;
+
+    // 增量条目超过该数量时在内存中合并进主体索引
+    @Value("${search.suggest.compact-threshold:256}")
+    private int compactThreshold;
+
+    private PrefixSuggestIndex index;
+
+    @PostConstruct
+    public void init() {
+        index = new PrefixSuggestIndex(compactThreshold);
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("搜索联想索引初始化失败", e);
+        }
+    }
+
+    /**
+     * 从数据库全量重建，刷新热度权重
+     */
+    @Scheduled(fixedDelayString = "${search.suggest.rebuild-interval-ms:600000}",
+        initialDelayString = "${search.suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long mark = index.mark();
+        List<Entry> entries = new ArrayList<>();
+        loadBeverages(entries);
+        loadAlcohols(entries);
+        loadTags(entries);
+        loadBars(entries);
+        loadUsers(entries);
+        index.rebuild(entries, mark);
+        log.info("搜索联想索引重建完成: 条目数{}, 耗时{}ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 前缀联想
+     */
+    public List<SuggestionVO> suggest(String prefix, int limit) {
+        if (StringUtils.isBlank(prefix)) {
+            return new ArrayList<>();
+        }
+        return index.suggest(prefix, Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+            .map(entry -> new SuggestionVO(entry.getType(), entry.getId(), entry.getText()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 新用户或改名：增量条目不查粉丝数，权重按 0 计，下次全量重建时修正（事务提交后生效）
+     */
+    public void onUserChanged(User user) {
+        if (user == null || user.getId() == null || StringUtils.isBlank(user.getUsername())) {
+            return;
+        }
+        Entry entry = new Entry(SuggestType.USER, user.getId(), user.getUsername(), 0);
+        TransactionUtils.afterCommit(() -> index.upsert(entry));
+    }
+
+    public void onUserRemoved(Long userId) {
+        if (userId != null) {
+            TransactionUtils.afterCommit(() -> index.remove(SuggestType.USER, userId));
+        }
+    }
+
+    /**
+     * 新建酒吧（事务提交后生效）
+     */
+    public void onBarCreated(Bar bar) {
+        if (bar == null || bar.getId() == null || StringUtils.isBlank(bar.getName())) {
+            return;
+        }
+        Entry entry = new Entry(SuggestType.BAR, bar.getId(), bar.getName(), barWeight(bar));
+        TransactionUtils.afterCommit(() -> index.upsert(entry));
+    }
+
+    private void loadBeverages(List<Entry> entries) {
+        beverageMapper.selectList(new LambdaQueryWrapper<Beverage>()
+                .select(Beverage::getId, Beverage::getName, Beverage::getViewCount, Beverage::getRatingCount)
+                .eq(Beverage::getIsActive, true))
+            .forEach(beverage -> add(entries, SuggestType.BEVERAGE, beverage.getId(), beverage.getName(),
+                weight(value(beverage.getViewCount()) + 10L * value(beverage.getRatingCount()))));
+    }
+
+    private void loadAlcohols(List<Entry> entries) {
+        Map<String, Long> beverageCounts = new HashMap<>();
+        beverageMapper.selectMaps(new QueryWrapper<Beverage>()
+                .select("type", "COUNT(*) AS beverage_count")
+                .eq("is_active", true)
+                .groupBy("type"))
+            .forEach(row -> {
+                if (row.get("type") != null) {
+                    beverageCounts.put(row.get("type").toString(), ((Number) row.get("beverage_count")).longValue());
+                }
+            });
+        alcoholMapper.selectList(null)
+            .forEach(alcohol -> add(entries, SuggestType.ALCOHOL, alcohol.getId(), alcohol.getName(),
+                weight(beverageCounts.getOrDefault(alcohol.getName(), 0L))));
+    }
+
+    /**
+     * 标签没有自增ID，用热门榜中的名次作为条目ID
+     */
+    private void loadTags(List<Entry> entries) {
+        List<Map<String, Object>> hotTags = tagExtractionService.getHotTags(tagLimit);
+        for (int i = 0; i < hotTags.size(); i++) {
+            Map<String, Object> tag = hotTags.get(i);
+            add(entries, SuggestType.TAG, i + 1L, (String) tag.get("tag"), weight(((Number) tag.get("count")).longValue()));
+        }
+    }
+
+    private void loadBars(List<Entry> entries) {
+        barMapper.selectList(new LambdaQueryWrapper<Bar>()
+                .select(Bar::getId, Bar::getName, Bar::getReviewCount, Bar::getAvgRating)
+                .eq(Bar::getIsActive, true))
+            .forEach(bar -> add(entries, SuggestType.BAR, bar.getId(), bar.getName(), barWeight(bar)));
+    }
+
+    private void loadUsers(List<Entry> entries) {
+        Map<Long, Long> followerCounts = new HashMap<>();
+        userFollowMapper.selectMaps(new QueryWrapper<UserFollow>()
+                .select("followee_id", "COUNT(*) AS follower_count")
+                .groupBy("followee_id"))
+            .forEach(row -> followerCounts.put(((Number) row.get("followee_id")).longValue(),
+                ((Number) row.get("follower_count")).longValue()));
+        userMapper.selectList(new LambdaQueryWrapper<User>()
+                .select(User::getId, User::getUsername)
+                .eq(User::getIsActive, true))
+            .forEach(user -> add(entries, SuggestType.USER, user.getId(), user.getUsername(),
+                weight(followerCounts.getOrDefault(user.getId(), 0L))));
+    }
+
+    private static void add(List<Entry> entries, SuggestType type, Long id, String text, double weight) {
+        if (id != null && StringUtils.isNotBlank(text)) {
+            entries.add(new Entry(type, id, text.trim(), weight));
+        }
+    }
+
+    private static double barWeight(Bar bar) {
+        double rating = bar.getAvgRating() != null ? bar.getAvgRating() : 0;
+        return weight(value(bar.getReviewCount())) + rating / 5;
+    }
+
+    private static double weight(long popularity) {
+        return Math.log1p(Math.max(0, popularity));
+    }
+
+    private static long value(Integer count) {
+        return count != null ? count : 0;
+    }
+}
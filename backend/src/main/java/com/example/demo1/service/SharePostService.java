@@ -1,12 +1,20 @@
 package com.example.demo1.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.demo1.algorithm.HotPostLeaderboard;
+import com.example.demo1.algorithm.InvertedIndex;
+import com.example.demo1.algorithm.PostSearchIndex;
+import com.example.demo1.algorithm.SeenPostStore;
+import com.example.demo1.algorithm.TextTokenizer;
+import com.example.demo1.algorithm.UniqueViewStore;
 import com.example.demo1.common.enums.BehaviorType;
-import com.example.demo1.common.enums.CollectionTargetType;
+import com.example.demo1.common.enums.PostCounter;
 import com.example.demo1.common.enums.TargetType;
 import com.example.demo1.common.enums.TimeDimension;
 import com.example.demo1.common.exception.BusinessException;
+import com.example.demo1.common.response.CursorPageResult;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.dto.request.SharePostCommentRequest;
 import com.example.demo1.dto.request.SharePostRequest;
@@ -18,24 +26,24 @@ import com.example.demo1.entity.SharePost;
 import com.example.demo1.entity.SharePostComment;
 import com.example.demo1.entity.SharePostImage;
 import com.example.demo1.entity.SharePostLike;
-import com.example.demo1.entity.User;
+import com.example.demo1.entity.UserTimeline;
 import com.example.demo1.mapper.ImageMapper;
 import com.example.demo1.mapper.SharePostCommentMapper;
 import com.example.demo1.mapper.SharePostImageMapper;
 import com.example.demo1.mapper.SharePostLikeMapper;
 import com.example.demo1.mapper.SharePostMapper;
-import com.example.demo1.util.FileUrlResolver;
 import com.example.demo1.util.IpUtils;
+import com.example.demo1.util.KeysetCursor;
+import com.example.demo1.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +55,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SharePostService {
 
+    // 游标分页单页上限
+    private static final int MAX_CURSOR_PAGE_SIZE = 50;
+
     private final SharePostMapper sharePostMapper;
     private final SharePostImageMapper sharePostImageMapper;
     private final ImageMapper imageMapper;
@@ -54,11 +65,17 @@ public class SharePostService {
     private final SharePostCommentMapper sharePostCommentMapper;
     private final CollectionService collectionService;
     private final UserService userService;
-    private final FileUrlResolver fileUrlResolver;
     private final FileStorageService fileStorageService;
     private final TagExtractionService tagExtractionService;
     private final UserBehaviorService userBehaviorService;
     private final ContentModerationService contentModerationService;
+    private final HotPostLeaderboard hotPostLeaderboard;
+    private final PostCounterService postCounterService;
+    private final UniqueViewStore uniqueViewStore;
+    private final SharePostVoAssembler sharePostVoAssembler;
+    private final SeenPostStore seenPostStore;
+    private final FeedTimelineService feedTimelineService;
+    private final PostSearchIndex postSearchIndex;
 
     @Transactional
     public SharePostVO createPost(Long userId, SharePostRequest request, String ipAddress) {
@@ -116,9 +133,11 @@ public class SharePostService {
 
         // 自动提取标签并保存
         tagExtractionService.extractAndSaveTags(post.getId(), content, request.getTags());
+        TransactionUtils.afterCommit(() -> hotPostLeaderboard.update(post));
+        feedTimelineService.fanOut(post);
+        postSearchIndex.index(post);
 
-        User author = userService.getUserById(userId);
-        return toVo(post, author, Collections.emptySet(), Collections.emptySet());
+        return sharePostVoAssembler.assemble(post, userId);
     }
 
     public PageResult<SharePostVO> listPosts(int page, int pageSize, Long currentUserId) {
@@ -128,8 +147,7 @@ public class SharePostService {
     }
 
     public PageResult<SharePostVO> listFollowingPosts(Long userId, int page, int pageSize) {
-        List<User> followees = userService.getFollowees(userId);
-        List<Long> followeeIds = followees.stream().map(User::getId).collect(Collectors.toList());
+        List<Long> followeeIds = userService.getFolloweeIds(userId);
         if (followeeIds.isEmpty()) {
             return new PageResult<>(0L, page, pageSize, new ArrayList<>());
         }
@@ -156,23 +174,90 @@ public class SharePostService {
         return buildPageResult(mpPage, currentUserId);
     }
 
+    /**
+     * 游标分页版本：按 (created_at, id) 键集翻页，不执行 COUNT
+     *
+     * @param cursor 上一页返回的 nextCursor，为空时取第一页
+     */
+    public CursorPageResult<SharePostVO> listPostsByCursor(String cursor, int pageSize, Long currentUserId) {
+        return selectByCursor(new LambdaQueryWrapper<>(), cursor, pageSize, currentUserId);
+    }
+
+    /**
+     * 关注流（游标分页）：读取写扩散的时间线收件箱，与关注人数无关
+     */
+    public CursorPageResult<SharePostVO> listFollowingPostsByCursor(Long userId, String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_CURSOR_PAGE_SIZE));
+        List<UserTimeline> entries = feedTimelineService.read(userId, KeysetCursor.decode(cursor), size);
+        boolean hasMore = entries.size() > size;
+        if (hasMore) {
+            entries = entries.subList(0, size);
+        }
+        UserTimeline last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        String nextCursor = hasMore ? KeysetCursor.encode(last.getPostCreatedAt(), last.getPostId()) : null;
+        List<SharePostVO> items = getPostsByIds(
+            entries.stream().map(UserTimeline::getPostId).collect(Collectors.toList()), userId);
+        return new CursorPageResult<>(size, items, nextCursor, hasMore);
+    }
+
+    public CursorPageResult<SharePostVO> listPostsByCityByCursor(String city, String cursor, int pageSize,
+                                                                 Long currentUserId) {
+        return selectByCursor(new LambdaQueryWrapper<SharePost>()
+                .eq(StringUtils.isNotBlank(city), SharePost::getLocation, city),
+            cursor, pageSize, currentUserId);
+    }
+
+    public CursorPageResult<SharePostVO> listPostsByUserByCursor(Long targetUserId, String cursor, int pageSize,
+                                                                 Long currentUserId) {
+        return selectByCursor(new LambdaQueryWrapper<SharePost>().eq(SharePost::getUserId, targetUserId),
+            cursor, pageSize, currentUserId);
+    }
+
     public SharePostVO getPostById(Long postId, Long currentUserId, boolean increaseView) {
+        return getPostById(postId, currentUserId, increaseView, null);
+    }
+
+    /**
+     * 获取动态详情
+     * 
+     * @param increaseView 是否计为一次浏览
+     * @param clientIp 访客IP，用于统计未登录访客的去重浏览人数
+     */
+    public SharePostVO getPostById(Long postId, Long currentUserId, boolean increaseView, String clientIp) {
         SharePost post = sharePostMapper.selectById(postId);
         if (post == null) {
             throw new BusinessException(404, "动态不存在");
         }
         if (increaseView) {
-            int viewCount = post.getViewCount() == null ? 0 : post.getViewCount();
-            post.setViewCount(viewCount + 1);
-            sharePostMapper.updateById(post);
-            // 记录浏览行为
-            userBehaviorService.recordBehavior(currentUserId, TargetType.POST, postId, BehaviorType.VIEW);
-        }
-        User author = userService.getUserById(post.getUserId());
-        Set<Long> likedIds = resolveLikedIds(currentUserId, Collections.singletonList(post.getId()));
-        Set<Long> favoritedIds = collectionService.findFavoritedIds(currentUserId,
-            Collections.singletonList(post.getId()), CollectionTargetType.POST);
-        return toVo(post, author, likedIds, favoritedIds);
+            postCounterService.increment(postId, PostCounter.VIEW, 1);
+            uniqueViewStore.recordView(postId, currentUserId, clientIp);
+            SharePost live = postCounterService.withPending(post);
+            live.setUniqueViewCount(resolveUniqueViewCount(post));
+            hotPostLeaderboard.update(live);
+            // 记录浏览行为，同一用户重复浏览同一动态只记录一次
+            // 布隆过滤器判为已看可能是误判，也可能只是点赞等其他行为，再精确确认是否已有浏览记录
+            if (!seenPostStore.seenFilter(currentUserId).test(postId)
+                    || !userBehaviorService.hasBehavior(currentUserId, TargetType.POST, postId, BehaviorType.VIEW)) {
+                userBehaviorService.recordBehavior(currentUserId, TargetType.POST, postId, BehaviorType.VIEW);
+            }
+        }
+        return sharePostVoAssembler.assemble(post, currentUserId);
+    }
+
+    /**
+     * 按给定顺序批量获取动态VO，已删除的动态会被跳过
+     */
+    public List<SharePostVO> getPostsByIds(List<Long> postIds, Long currentUserId) {
+        if (postIds == null || postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, SharePost> postMap = sharePostMapper.selectBatchIds(postIds).stream()
+            .collect(Collectors.toMap(SharePost::getId, p -> p));
+        List<SharePost> posts = postIds.stream()
+            .map(postMap::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return sharePostVoAssembler.assemble(posts, currentUserId);
     }
 
     @Transactional
@@ -184,21 +269,18 @@ public class SharePostService {
         SharePostLike existing = sharePostLikeMapper.selectOne(new LambdaQueryWrapper<SharePostLike>()
             .eq(SharePostLike::getPostId, postId)
             .eq(SharePostLike::getUserId, userId));
-        int likeCount = post.getLikeCount() == null ? 0 : post.getLikeCount();
         if (existing != null) {
             sharePostLikeMapper.deleteById(existing.getId());
-            post.setLikeCount(Math.max(0, likeCount - 1));
-            sharePostMapper.updateById(post);
+            incrementAfterCommit(post, PostCounter.LIKE, -1);
             return false;
         }
         SharePostLike like = new SharePostLike();
         like.setPostId(postId);
         like.setUserId(userId);
         sharePostLikeMapper.insert(like);
-        post.setLikeCount(likeCount + 1);
-        sharePostMapper.updateById(post);
         // 记录点赞行为
         userBehaviorService.recordBehavior(userId, TargetType.POST, postId, BehaviorType.LIKE);
+        incrementAfterCommit(post, PostCounter.LIKE, 1);
         return true;
     }
 
@@ -216,6 +298,9 @@ public class SharePostService {
         return favorited;
     }
 
+    /**
+     * 一次性返回动态的全部评论（两层结构），评论很多时请使用分页接口
+     */
     public List<SharePostCommentVO> listComments(Long postId) {
         List<SharePostComment> comments = sharePostCommentMapper.selectList(
             new LambdaQueryWrapper<SharePostComment>()
@@ -224,58 +309,10 @@ public class SharePostService {
         if (comments.isEmpty()) {
             return Collections.emptyList();
         }
-
         Map<Long, SharePostComment> commentMap = comments.stream()
             .collect(Collectors.toMap(SharePostComment::getId, c -> c, (a, b) -> a, LinkedHashMap::new));
-
-        Set<Long> userIds = comments.stream()
-            .map(SharePostComment::getUserId)
-            .collect(Collectors.toSet());
-        Map<Long, User> userMap = userService.mapByIds(new ArrayList<>(userIds));
-
         Map<Long, SharePostCommentVO> voMap = new LinkedHashMap<>();
-
-        // 仅输出两层评论：
-        // - 一级：parentId 为 null
-        // - 二级：统一挂在一级下（parentId=一级ID），并且仅当“回复二级评论”时才带 @（replyToUser）
-        for (SharePostComment comment : comments) {
-            SharePostComment parent = comment.getParentId() != null ? commentMap.get(comment.getParentId()) : null;
-
-            Long outputParentId = null;
-            SimpleUserVO replyToUser = null;
-            if (parent != null) {
-                // 深度为 1：回复一级评论，不展示 @
-                if (parent.getParentId() == null) {
-                    outputParentId = parent.getId();
-                } else {
-                    // 深度 >= 2：回复二级及以下评论，输出为二级评论（挂在一级下），并展示 @ 被回复的用户
-                    SharePostComment root = parent;
-                    while (root.getParentId() != null) {
-                        SharePostComment next = commentMap.get(root.getParentId());
-                        if (next == null || Objects.equals(next.getId(), root.getId())) {
-                            break;
-                        }
-                        root = next;
-                    }
-                    outputParentId = root.getId();
-                    User parentAuthor = userMap.get(parent.getUserId());
-                    if (parentAuthor != null) {
-                        replyToUser = userService.buildSimpleUser(parentAuthor);
-                    }
-                }
-            }
-
-            SharePostCommentVO vo = SharePostCommentVO.builder()
-                .id(comment.getId())
-                .content(comment.getContent())
-                .createdAt(comment.getCreatedAt())
-                .parentId(outputParentId)
-                .author(userService.buildSimpleUser(userMap.get(comment.getUserId())))
-                .replyToUser(replyToUser)
-                .replies(new ArrayList<>())
-                .build();
-            voMap.put(comment.getId(), vo);
-        }
+        toCommentVos(comments, commentMap).forEach(vo -> voMap.put(vo.getId(), vo));
 
         List<SharePostCommentVO> roots = new ArrayList<>();
         for (SharePostCommentVO vo : voMap.values()) {
@@ -293,10 +330,166 @@ public class SharePostService {
                 roots.add(vo);
             }
         }
-
         return roots;
     }
 
+    /**
+     * 分页获取一级评论（按时间正序键集翻页），每条内联最早的若干条回复
+     *
+     * @param cursor 上一页返回的 nextCursor，为空时取第一页
+     * @param replyPreviewSize 每条一级评论内联的回复数
+     */
+    public CursorPageResult<SharePostCommentVO> listRootComments(Long postId, String cursor, int pageSize,
+                                                                  int replyPreviewSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_CURSOR_PAGE_SIZE));
+        int previewSize = Math.max(0, Math.min(replyPreviewSize, MAX_CURSOR_PAGE_SIZE));
+        List<SharePostComment> roots = sharePostCommentMapper.selectList(KeysetCursor.applyAscending(
+            new LambdaQueryWrapper<SharePostComment>()
+                .eq(SharePostComment::getPostId, postId)
+                .isNull(SharePostComment::getParentId),
+            SharePostComment::getCreatedAt, SharePostComment::getId, KeysetCursor.decode(cursor), size));
+        boolean hasMore = roots.size() > size;
+        if (hasMore) {
+            roots = roots.subList(0, size);
+        }
+        if (roots.isEmpty()) {
+            return new CursorPageResult<>(size, Collections.emptyList(), null, false);
+        }
+        List<Long> rootIds = roots.stream().map(SharePostComment::getId).collect(Collectors.toList());
+
+        // 每条一级评论的回复总数
+        Map<Long, Long> replyCounts = new HashMap<>();
+        sharePostCommentMapper.selectMaps(new QueryWrapper<SharePostComment>()
+                .select("root_id", "COUNT(*) AS reply_count")
+                .in("root_id", rootIds)
+                .groupBy("root_id"))
+            .forEach(row -> replyCounts.put(((Number) row.get("root_id")).longValue(),
+                ((Number) row.get("reply_count")).longValue()));
+
+        // 每条一级评论各取前 N+1 条回复（一次查询，按 root_id 分区编号），多出的一条用于判断是否还有更多
+        List<SharePostComment> previewReplies = new ArrayList<>();
+        Map<Long, List<SharePostComment>> repliesByRoot = new HashMap<>();
+        String repliedRootIds = rootIds.stream()
+            .filter(rootId -> replyCounts.getOrDefault(rootId, 0L) > 0L)
+            .map(String::valueOf)
+            .collect(Collectors.joining(","));
+        if (previewSize > 0 && !repliedRootIds.isEmpty()) {
+            sharePostCommentMapper.selectList(new LambdaQueryWrapper<SharePostComment>()
+                    .inSql(SharePostComment::getId, "SELECT id FROM (SELECT id, ROW_NUMBER() OVER ("
+                        + "PARTITION BY root_id ORDER BY created_at, id) AS rn FROM share_post_comment "
+                        + "WHERE root_id IN (" + repliedRootIds + ")) ranked WHERE rn <= " + (previewSize + 1))
+                    .orderByAsc(SharePostComment::getRootId, SharePostComment::getCreatedAt, SharePostComment::getId))
+                .forEach(reply -> repliesByRoot.computeIfAbsent(reply.getRootId(), k -> new ArrayList<>()).add(reply));
+            for (List<SharePostComment> replies : repliesByRoot.values()) {
+                previewReplies.addAll(replies.subList(0, Math.min(replies.size(), previewSize)));
+            }
+        }
+
+        List<SharePostComment> all = new ArrayList<>(roots);
+        all.addAll(previewReplies);
+        Map<Long, SharePostCommentVO> voMap = new LinkedHashMap<>();
+        toCommentVos(all, null).forEach(vo -> voMap.put(vo.getId(), vo));
+
+        List<SharePostCommentVO> items = new ArrayList<>();
+        for (SharePostComment root : roots) {
+            SharePostCommentVO vo = voMap.get(root.getId());
+            List<SharePostComment> replies = repliesByRoot.getOrDefault(root.getId(), Collections.emptyList());
+            for (int i = 0; i < Math.min(replies.size(), previewSize); i++) {
+                vo.safeReplies().add(voMap.get(replies.get(i).getId()));
+            }
+            long replyCount = replyCounts.getOrDefault(root.getId(), 0L);
+            vo.setReplyCount(replyCount);
+            if (replyCount > vo.safeReplies().size()) {
+                // 未内联任何回复时游标为 null，从第一条回复开始加载
+                if (!vo.getReplies().isEmpty()) {
+                    SharePostComment lastShown = replies.get(vo.getReplies().size() - 1);
+                    vo.setRepliesCursor(KeysetCursor.encode(lastShown.getCreatedAt(), lastShown.getId()));
+                }
+            }
+            items.add(vo);
+        }
+        SharePostComment last = roots.get(roots.size() - 1);
+        String nextCursor = hasMore ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new CursorPageResult<>(size, items, nextCursor, hasMore);
+    }
+
+    /**
+     * 分页获取某条一级评论下的回复（按时间正序键集翻页）
+     */
+    public CursorPageResult<SharePostCommentVO> listReplies(Long rootId, String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_CURSOR_PAGE_SIZE));
+        List<SharePostComment> replies = sharePostCommentMapper.selectList(KeysetCursor.applyAscending(
+            new LambdaQueryWrapper<SharePostComment>().eq(SharePostComment::getRootId, rootId),
+            SharePostComment::getCreatedAt, SharePostComment::getId, KeysetCursor.decode(cursor), size));
+        boolean hasMore = replies.size() > size;
+        if (hasMore) {
+            replies = replies.subList(0, size);
+        }
+        SharePostComment last = replies.isEmpty() ? null : replies.get(replies.size() - 1);
+        String nextCursor = hasMore ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new CursorPageResult<>(size, toCommentVos(replies, null), nextCursor, hasMore);
+    }
+
+    /**
+     * 评论转VO：回复统一挂在所属一级评论下（parentId 输出为 rootId），
+     * 回复的是二级评论时带上被回复的用户
+     *
+     * @param known 已加载的评论，用于查找被回复的评论；为 null 时只从 comments 中查找，缺失的再批量查询
+     */
+    private List<SharePostCommentVO> toCommentVos(List<SharePostComment> comments, Map<Long, SharePostComment> known) {
+        Map<Long, SharePostComment> byId = known != null ? known : new HashMap<>();
+        if (known == null) {
+            comments.forEach(c -> byId.put(c.getId(), c));
+            List<Long> missingParentIds = comments.stream()
+                .filter(c -> c.getParentId() != null && !Objects.equals(c.getParentId(), c.getRootId()))
+                .map(SharePostComment::getParentId)
+                .filter(id -> !byId.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+            if (!missingParentIds.isEmpty()) {
+                sharePostCommentMapper.selectList(new LambdaQueryWrapper<SharePostComment>()
+                        .in(SharePostComment::getId, missingParentIds)
+                        .select(SharePostComment::getId, SharePostComment::getUserId,
+                            SharePostComment::getParentId, SharePostComment::getRootId))
+                    .forEach(c -> byId.put(c.getId(), c));
+            }
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        for (SharePostComment comment : comments) {
+            userIds.add(comment.getUserId());
+            SharePostComment parent = comment.getParentId() != null ? byId.get(comment.getParentId()) : null;
+            if (parent != null && parent.getParentId() != null) {
+                userIds.add(parent.getUserId());
+            }
+        }
+        Map<Long, SimpleUserVO> userMap = userService.buildSimpleUsers(userIds);
+
+        List<SharePostCommentVO> result = new ArrayList<>(comments.size());
+        for (SharePostComment comment : comments) {
+            SharePostComment parent = comment.getParentId() != null ? byId.get(comment.getParentId()) : null;
+            Long outputParentId = null;
+            SimpleUserVO replyToUser = null;
+            if (comment.getParentId() != null) {
+                outputParentId = comment.getRootId() != null ? comment.getRootId() : comment.getParentId();
+                // 回复的是二级评论时展示 @
+                if (parent != null && parent.getParentId() != null) {
+                    replyToUser = userMap.get(parent.getUserId());
+                }
+            }
+            result.add(SharePostCommentVO.builder()
+                .id(comment.getId())
+                .content(comment.getContent())
+                .createdAt(comment.getCreatedAt())
+                .parentId(outputParentId)
+                .author(userMap.get(comment.getUserId()))
+                .replyToUser(replyToUser)
+                .replies(new ArrayList<>())
+                .build());
+        }
+        return result;
+    }
+
     /**
      * 创建评论
      * SF-12: 集成内容审核功能
@@ -307,8 +500,9 @@ public class SharePostService {
         if (post == null) {
             throw new BusinessException(404, "动态不存在");
         }
+        SharePostComment parent = null;
         if (request.getParentId() != null) {
-            SharePostComment parent = sharePostCommentMapper.selectById(request.getParentId());
+            parent = sharePostCommentMapper.selectById(request.getParentId());
             if (parent == null || !Objects.equals(parent.getPostId(), postId)) {
                 throw new BusinessException("回复的评论不存在");
             }
@@ -333,21 +527,25 @@ public class SharePostService {
         comment.setPostId(postId);
         comment.setUserId(userId);
         comment.setParentId(request.getParentId());
+        // 回复一级评论时 root 即为父评论，否则沿用父评论的 root
+        if (parent != null) {
+            comment.setRootId(parent.getParentId() == null ? parent.getId() : parent.getRootId());
+        }
         comment.setContent(content);
         comment.setLikeCount(0);
         sharePostCommentMapper.insert(comment);
-        int commentCount = post.getCommentCount() == null ? 0 : post.getCommentCount();
-        post.setCommentCount(commentCount + 1);
-        sharePostMapper.updateById(post);
         // 记录评论行为
         userBehaviorService.recordBehavior(userId, TargetType.POST, postId, BehaviorType.COMMENT);
-        User author = userService.getUserById(userId);
+        incrementAfterCommit(post, PostCounter.COMMENT, 1);
         return SharePostCommentVO.builder()
             .id(comment.getId())
             .content(comment.getContent())
             .createdAt(comment.getCreatedAt())
-            .parentId(comment.getParentId())
-            .author(userService.buildSimpleUser(author))
+            .parentId(comment.getParentId() != null ? comment.getRootId() : null)
+            .author(userService.buildSimpleUser(userId))
+            .replyToUser(parent != null && parent.getParentId() != null
+                ? userService.buildSimpleUser(parent.getUserId())
+                : null)
             .replies(new ArrayList<>())
             .build();
     }
@@ -365,27 +563,22 @@ public class SharePostService {
      * @return 分页结果
      */
     public PageResult<SharePostVO> search(String keyword, int page, int pageSize, String sortBy) {
+        if (StringUtils.isNotBlank(keyword) && postSearchIndex.isReady()
+                && !TextTokenizer.tokenizeForQuery(keyword).isEmpty()) {
+            return searchByIndex(keyword, page, pageSize, sortBy);
+        }
+
         LambdaQueryWrapper<SharePost> wrapper = new LambdaQueryWrapper<>();
         
         if (StringUtils.isNotBlank(keyword)) {
-            // 搜索内容或标签
+            // 索引不可用或关键字只含标点时回退：搜索内容或标签
             wrapper.and(w -> {
                 w.like(SharePost::getContent, keyword)
                     .or()
                     .like(SharePost::getTags, keyword);
             });
         }
-        
-        // 排序
-        if ("relevance".equalsIgnoreCase(sortBy) && StringUtils.isNotBlank(keyword)) {
-            // 按相关度排序：使用MySQL的FIELD函数，内容匹配优先于标签匹配
-            // 注意：MyBatis-Plus不支持直接按字符串值排序，这里先按时间排序
-            // 实际相关度排序可以在应用层实现
-            wrapper.orderByDesc(SharePost::getCreatedAt);
-        } else {
-            // 按时间排序
-            wrapper.orderByDesc(SharePost::getCreatedAt);
-        }
+        wrapper.orderByDesc(SharePost::getCreatedAt);
         
         Page<SharePost> mpPage = sharePostMapper.selectPage(new Page<>(page, pageSize), wrapper);
         List<SharePost> posts = mpPage.getRecords();
@@ -394,14 +587,30 @@ public class SharePostService {
             return new PageResult<>(mpPage.getTotal(), page, pageSize, Collections.emptyList());
         }
         
-        Map<Long, User> userMap = userService.mapByIds(posts.stream().map(SharePost::getUserId).collect(Collectors.toList()));
-        List<SharePostVO> result = posts.stream()
-            .map(post -> toVo(post, userMap.get(post.getUserId()), Collections.emptySet(), Collections.emptySet()))
-            .collect(Collectors.toList());
+        List<SharePostVO> result = sharePostVoAssembler.assemble(posts, null);
         
         return new PageResult<>(mpPage.getTotal(), page, pageSize, result);
     }
 
+    /**
+     * 通过全文索引搜索：命中集合在内存中排序分页，只按ID回表取当前页
+     * relevance 按 BM25 得分排序，其余按发布时间倒序
+     */
+    private PageResult<SharePostVO> searchByIndex(String keyword, int page, int pageSize, String sortBy) {
+        List<InvertedIndex.Hit> hits = postSearchIndex.search(keyword);
+        if (!"relevance".equalsIgnoreCase(sortBy)) {
+            hits.sort((a, b) -> a.getTimestamp() != b.getTimestamp()
+                ? Long.compare(b.getTimestamp(), a.getTimestamp())
+                : Long.compare(b.getDocId(), a.getDocId()));
+        }
+        int from = (int) Math.min((long) Math.max(page - 1, 0) * pageSize, hits.size());
+        int to = Math.min(from + pageSize, hits.size());
+        List<Long> pageIds = hits.subList(from, to).stream()
+            .map(InvertedIndex.Hit::getDocId)
+            .collect(Collectors.toList());
+        return new PageResult<>((long) hits.size(), page, pageSize, getPostsByIds(pageIds, null));
+    }
+
     /**
      * 删除动态
      * 只有动态作者或管理员可以删除
@@ -435,6 +644,11 @@ public class SharePostService {
         
         // 删除动态本身
         sharePostMapper.deleteById(postId);
+        TransactionUtils.afterCommit(() -> {
+            hotPostLeaderboard.remove(postId);
+            uniqueViewStore.remove(postId);
+        });
+        postSearchIndex.remove(postId);
     }
 
     /**
@@ -458,23 +672,33 @@ public class SharePostService {
             throw new BusinessException(403, "无权删除该评论");
         }
         
-        // 先删除子评论（回复）
-        sharePostCommentMapper.delete(new LambdaQueryWrapper<SharePostComment>()
-            .eq(SharePostComment::getParentId, commentId));
+        // 先删除子评论（回复）：一级评论删除整个楼层，二级评论删除直接回复
+        int removedReplies = sharePostCommentMapper.delete(new LambdaQueryWrapper<SharePostComment>()
+            .eq(comment.getParentId() == null, SharePostComment::getRootId, commentId)
+            .eq(comment.getParentId() != null, SharePostComment::getParentId, commentId));
         
         // 删除评论本身
         sharePostCommentMapper.deleteById(commentId);
         
         // 更新动态评论数
         if (post != null) {
-            int commentCount = post.getCommentCount() == null ? 0 : post.getCommentCount();
-            post.setCommentCount(Math.max(0, commentCount - 1));
-            sharePostMapper.updateById(post);
+            incrementAfterCommit(post, PostCounter.COMMENT, -(1 + removedReplies));
         }
     }
 
+    /**
+     * 事务提交后累加计数并刷新热门排行榜，事务回滚时二者都不变
+     */
+    private void incrementAfterCommit(SharePost post, PostCounter counter, long delta) {
+        TransactionUtils.afterCommit(() -> {
+            postCounterService.increment(post.getId(), counter, delta);
+            hotPostLeaderboard.update(postCounterService.withPending(post));
+        });
+    }
+
     /**
      * 获取热门动态排行榜
+     * 直接从内存排行榜分页读取，只查询当前页的动态
      * 
      * @param timeDimension 时间维度（DAY/WEEK/MONTH/ALL）
      * @param page 页码
@@ -483,100 +707,26 @@ public class SharePostService {
      * @return 热门动态分页结果
      */
     public PageResult<SharePostVO> getHotPosts(TimeDimension timeDimension, int page, int pageSize, Long currentUserId) {
-        // 1. 根据时间维度筛选动态
-        LambdaQueryWrapper<SharePost> wrapper = new LambdaQueryWrapper<>();
-        
-        if (timeDimension != TimeDimension.ALL) {
-            LocalDateTime cutoffTime = LocalDateTime.now().minusDays(timeDimension.getDays());
-            wrapper.ge(SharePost::getCreatedAt, cutoffTime);
-        }
-        
-        List<SharePost> posts = sharePostMapper.selectList(wrapper);
-        
-        if (posts.isEmpty()) {
-            return new PageResult<>(0L, page, pageSize, Collections.emptyList());
-        }
-        
-        // 2. 计算每个动态的热度分数
-        LocalDateTime now = LocalDateTime.now();
-        List<PostWithScore> postsWithScores = posts.stream()
-            .map(post -> {
-                double hotScore = calculateHotScore(post, now);
-                return new PostWithScore(post, hotScore);
-            })
-            .sorted(Comparator.comparingDouble(PostWithScore::getScore).reversed())
-            .collect(Collectors.toList());
-        
-        // 3. 手动分页
-        int start = (page - 1) * pageSize;
-        int end = Math.min(start + pageSize, postsWithScores.size());
-        
-        if (start >= postsWithScores.size()) {
-            return new PageResult<>((long) postsWithScores.size(), page, pageSize, Collections.emptyList());
+        long total = hotPostLeaderboard.size(timeDimension);
+        List<Long> postIds = hotPostLeaderboard.page(timeDimension, (page - 1) * pageSize, pageSize);
+        if (postIds.isEmpty()) {
+            return new PageResult<>(total, page, pageSize, Collections.emptyList());
         }
         
-        List<PostWithScore> pagedPosts = postsWithScores.subList(start, end);
-        
-        // 4. 转换为VO
-        List<SharePost> pagedPostEntities = pagedPosts.stream()
-            .map(PostWithScore::getPost)
-            .collect(Collectors.toList());
-        
-        List<Long> userIds = pagedPostEntities.stream().map(SharePost::getUserId).collect(Collectors.toList());
-        Map<Long, User> userMap = userService.mapByIds(userIds);
+        // 按榜单顺序取出当前页的动态
+        List<SharePostVO> items = getPostsByIds(postIds, currentUserId);
         
-        List<Long> postIds = pagedPostEntities.stream().map(SharePost::getId).collect(Collectors.toList());
-        Set<Long> likedIds = resolveLikedIds(currentUserId, postIds);
-        Set<Long> favoritedIds = collectionService.findFavoritedIds(currentUserId, postIds, CollectionTargetType.POST);
-        
-        List<SharePostVO> items = pagedPostEntities.stream()
-            .map(post -> toVo(post, userMap.get(post.getUserId()), likedIds, favoritedIds))
-            .collect(Collectors.toList());
-        
-        return new PageResult<>((long) postsWithScores.size(), page, pageSize, items);
+        return new PageResult<>(total, page, pageSize, items);
     }
     
     /**
-     * 计算动态的热度分数
-     * 热度分 = (浏览量 × 0.1) + (点赞数 × 2) + (收藏数 × 3) + (评论数 × 1.5)
-     * 最终得分 = 热度分 × 时间衰减系数
-     * 时间衰减系数 = 1 / (1 + 小时差 / 24)
+     * 获取热门动态ID（按热度分数降序）
+     * 
+     * @param timeDimension 时间维度
+     * @param limit 返回数量
      */
-    private double calculateHotScore(SharePost post, LocalDateTime now) {
-        // 基础热度分数
-        double viewScore = (post.getViewCount() != null ? post.getViewCount() : 0) * 0.1;
-        double likeScore = (post.getLikeCount() != null ? post.getLikeCount() : 0) * 2.0;
-        double favoriteScore = (post.getFavoriteCount() != null ? post.getFavoriteCount() : 0) * 3.0;
-        double commentScore = (post.getCommentCount() != null ? post.getCommentCount() : 0) * 1.5;
-        
-        double baseScore = viewScore + likeScore + favoriteScore + commentScore;
-        
-        // 时间衰减系数
-        long hoursSinceCreated = Duration.between(post.getCreatedAt(), now).toHours();
-        double timeDecay = 1.0 / (1.0 + hoursSinceCreated / 24.0);
-        
-        return baseScore * timeDecay;
-    }
-    
-    /**
-     * 内部类：动态及其热度分数
-     */
-    private static class PostWithScore {
-        private final SharePost post;
-        private final double score;
-        
-        public PostWithScore(SharePost post, double score) {
-            this.post = post;
-            this.score = score;
-        }
-        
-        public SharePost getPost() {
-            return post;
-        }
-        
-        public double getScore() {
-            return score;
-        }
+    public List<Long> getHotPostIds(TimeDimension timeDimension, int limit) {
+        return hotPostLeaderboard.top(timeDimension, limit);
     }
 
     private PageResult<SharePostVO> buildPageResult(Page<SharePost> mpPage, Long currentUserId) {
@@ -584,81 +734,30 @@ public class SharePostService {
         if (records.isEmpty()) {
             return new PageResult<>(0L, (int) mpPage.getCurrent(), (int) mpPage.getSize(), Collections.emptyList());
         }
-        List<Long> userIds = records.stream().map(SharePost::getUserId).collect(Collectors.toList());
-        Map<Long, User> userMap = userService.mapByIds(userIds);
-        List<Long> postIds = records.stream().map(SharePost::getId).collect(Collectors.toList());
-        Set<Long> likedIds = resolveLikedIds(currentUserId, postIds);
-        Set<Long> favoritedIds = collectionService.findFavoritedIds(currentUserId, postIds, CollectionTargetType.POST);
-        List<SharePostVO> items = records.stream()
-            .map(post -> toVo(post, userMap.get(post.getUserId()), likedIds, favoritedIds))
-            .collect(Collectors.toList());
+        List<SharePostVO> items = sharePostVoAssembler.assemble(records, currentUserId);
         return new PageResult<>(mpPage.getTotal(), (int) mpPage.getCurrent(), (int) mpPage.getSize(), items);
     }
 
-    private Set<Long> resolveLikedIds(Long userId, List<Long> postIds) {
-        if (userId == null || postIds.isEmpty()) {
-            return Collections.emptySet();
-        }
-        return sharePostLikeMapper.selectList(new LambdaQueryWrapper<SharePostLike>()
-                .eq(SharePostLike::getUserId, userId)
-                .in(SharePostLike::getPostId, postIds))
-            .stream()
-            .map(SharePostLike::getPostId)
-            .collect(Collectors.toSet());
-    }
-
-    private SharePostVO toVo(SharePost post, User user, Set<Long> likedIds, Set<Long> favoritedIds) {
-        SimpleUserVO author = userService.buildSimpleUser(user);
-        List<Long> imageIds = getPostImageIds(post.getId());
-        List<String> imageUrls = imageIds.stream()
-            .map(id -> {
-                Image image = imageMapper.selectById(id);
-                return image != null ? fileUrlResolver.resolve(image.getUuid()) : null;
-            })
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
-        List<String> tags = parseTags(post.getTags());
-        return SharePostVO.builder()
-            .id(post.getId())
-            .author(author)
-            .content(post.getContent())
-            .imageUrls(imageUrls)
-            .location(post.getLocation())
-            .tags(tags)
-            .ipAddressMasked(IpUtils.maskIp(post.getIpAddress()))
-            .ipRegion(post.getIpRegion())
-            .viewCount(post.getViewCount())
-            .likeCount(post.getLikeCount())
-            .favoriteCount(post.getFavoriteCount())
-            .commentCount(post.getCommentCount())
-            .liked(likedIds != null && likedIds.contains(post.getId()))
-            .favorited(favoritedIds != null && favoritedIds.contains(post.getId()))
-            .createdAt(post.getCreatedAt())
-            .build();
+    private CursorPageResult<SharePostVO> selectByCursor(LambdaQueryWrapper<SharePost> wrapper, String cursor,
+                                                         int pageSize, Long currentUserId) {
+        int size = Math.max(1, Math.min(pageSize, MAX_CURSOR_PAGE_SIZE));
+        List<SharePost> records = sharePostMapper.selectList(KeysetCursor.apply(wrapper,
+            SharePost::getCreatedAt, SharePost::getId, KeysetCursor.decode(cursor), size));
+        boolean hasMore = records.size() > size;
+        if (hasMore) {
+            records = records.subList(0, size);
+        }
+        SharePost last = records.isEmpty() ? null : records.get(records.size() - 1);
+        String nextCursor = hasMore ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new CursorPageResult<>(size, sharePostVoAssembler.assemble(records, currentUserId), nextCursor, hasMore);
     }
 
-    private List<Long> getPostImageIds(Long postId) {
-        return sharePostImageMapper.selectList(
-                new LambdaQueryWrapper<SharePostImage>()
-                    .eq(SharePostImage::getSharePostId, postId)
-                    .orderByAsc(SharePostImage::getImageOrder))
-            .stream()
-            .map(SharePostImage::getImageId)
-            .collect(Collectors.toList());
-    }
-
-    private List<String> parseTags(String tags) {
-        if (StringUtils.isBlank(tags)) {
-            return Collections.emptyList();
-        }
-        String[] parts = tags.split(",");
-        List<String> result = new ArrayList<>();
-        for (String part : parts) {
-            if (StringUtils.isNotBlank(part)) {
-                result.add(part.trim());
-            }
-        }
-        return result;
+    /**
+     * 去重浏览人数：优先使用内存中的最新估计值
+     */
+    private Integer resolveUniqueViewCount(SharePost post) {
+        Integer estimate = uniqueViewStore.estimate(post.getId());
+        return estimate != null ? estimate : post.getUniqueViewCount();
     }
 
     private String normalizeTags(List<String> tags) {
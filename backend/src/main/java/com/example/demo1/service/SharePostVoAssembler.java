@@ -0,0 +1,176 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.algorithm.UniqueViewStore;
+import com.example.demo1.common.enums.CollectionTargetType;
+import com.example.demo1.dto.response.SharePostVO;
+import com.example.demo1.dto.response.SimpleUserVO;
+import com.example.demo1.entity.Image;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.entity.SharePostImage;
+import com.example.demo1.entity.SharePostLike;
+import com.example.demo1.mapper.ImageMapper;
+import com.example.demo1.mapper.SharePostImageMapper;
+import com.example.demo1.mapper.SharePostLikeMapper;
+import com.example.demo1.util.FileUrlResolver;
+import com.example.demo1.util.IpUtils;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 动态VO批量组装器（DataLoader 风格）
+ * 先收集一页动态涉及的作者ID、动态ID、配图ID，每类数据只发一条 IN 查询，再统一组装 VO。
+ * 作者信息读取用户摘要缓存，只有未命中的作者才查库。
+ * 一页动态至多 5 条查询（作者、配图关系、配图、点赞、收藏），与页大小和图片数量无关。
+ * 动态流、搜索、热门榜和推荐都通过这里组装。
+ */
+@Component
+@RequiredArgsConstructor
+public class SharePostVoAssembler {
+
+    private final SharePostImageMapper sharePostImageMapper;
+    private final ImageMapper imageMapper;
+    private final SharePostLikeMapper sharePostLikeMapper;
+    private final UserService userService;
+    private final CollectionService collectionService;
+    private final FileUrlResolver fileUrlResolver;
+    private final PostCounterService postCounterService;
+    private final UniqueViewStore uniqueViewStore;
+
+    /**
+     * 组装单条动态
+     */
+    public SharePostVO assemble(SharePost post, Long currentUserId) {
+        return assemble(Collections.singletonList(post), currentUserId).get(0);
+    }
+
+    /**
+     * 按传入顺序批量组装动态VO
+     *
+     * @param currentUserId 当前用户ID，用于填充是否已点赞、已收藏，未登录为 null
+     */
+    public List<SharePostVO> assemble(List<SharePost> posts, Long currentUserId) {
+        if (posts == null || posts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Batch batch = new Batch(posts, currentUserId);
+        batch.load();
+        return posts.stream()
+            .map(batch::toVo)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 单次组装的批量加载状态：先收集键，再每类一次查询
+     */
+    private final class Batch {
+        final List<SharePost> posts;
+        final Long currentUserId;
+
+        Map<Long, SimpleUserVO> authors = Collections.emptyMap();
+        Map<Long, List<Long>> postImageIds = Collections.emptyMap();
+        Map<Long, Image> images = Collections.emptyMap();
+        Set<Long> likedIds = Collections.emptySet();
+        Set<Long> favoritedIds = Collections.emptySet();
+
+        Batch(List<SharePost> posts, Long currentUserId) {
+            this.posts = posts;
+            this.currentUserId = currentUserId;
+        }
+
+        void load() {
+            List<Long> postIds = posts.stream().map(SharePost::getId).distinct().collect(Collectors.toList());
+            List<Long> authorIds = posts.stream()
+                .map(SharePost::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+            // 1. 作者（摘要缓存，未命中的批量查库）
+            authors = userService.buildSimpleUsers(authorIds);
+
+            // 2. 动态与图片的关联
+            List<SharePostImage> relations = sharePostImageMapper.selectList(new LambdaQueryWrapper<SharePostImage>()
+                .in(SharePostImage::getSharePostId, postIds)
+                .orderByAsc(SharePostImage::getImageOrder));
+            postImageIds = new HashMap<>();
+            for (SharePostImage relation : relations) {
+                postImageIds.computeIfAbsent(relation.getSharePostId(), k -> new ArrayList<>())
+                    .add(relation.getImageId());
+            }
+
+            // 3. 动态配图
+            Set<Long> imageIds = new LinkedHashSet<>();
+            postImageIds.values().forEach(imageIds::addAll);
+            if (!imageIds.isEmpty()) {
+                images = imageMapper.selectBatchIds(imageIds).stream()
+                    .collect(Collectors.toMap(Image::getId, image -> image));
+            }
+
+            // 4. 当前用户的点赞、收藏状态
+            if (currentUserId != null) {
+                likedIds = sharePostLikeMapper.selectList(new LambdaQueryWrapper<SharePostLike>()
+                        .eq(SharePostLike::getUserId, currentUserId)
+                        .in(SharePostLike::getPostId, postIds))
+                    .stream()
+                    .map(SharePostLike::getPostId)
+                    .collect(Collectors.toSet());
+                favoritedIds = collectionService.findFavoritedIds(currentUserId, postIds, CollectionTargetType.POST);
+            }
+        }
+
+        SharePostVO toVo(SharePost post) {
+            // 叠加尚未写回数据库的计数增量
+            postCounterService.applyPending(post);
+            List<String> imageUrls = postImageIds.getOrDefault(post.getId(), Collections.emptyList()).stream()
+                .map(images::get)
+                .filter(Objects::nonNull)
+                .map(image -> fileUrlResolver.resolve(image.getUuid()))
+                .collect(Collectors.toList());
+            Integer uniqueViewCount = uniqueViewStore.estimate(post.getId());
+            return SharePostVO.builder()
+                .id(post.getId())
+                .author(authors.get(post.getUserId()))
+                .content(post.getContent())
+                .imageUrls(imageUrls)
+                .location(post.getLocation())
+                .tags(parseTags(post.getTags()))
+                .ipAddressMasked(IpUtils.maskIp(post.getIpAddress()))
+                .ipRegion(post.getIpRegion())
+                .viewCount(post.getViewCount())
+                .uniqueViewCount(uniqueViewCount != null ? uniqueViewCount : post.getUniqueViewCount())
+                .likeCount(post.getLikeCount())
+                .favoriteCount(post.getFavoriteCount())
+                .commentCount(post.getCommentCount())
+                .liked(likedIds.contains(post.getId()))
+                .favorited(favoritedIds.contains(post.getId()))
+                .createdAt(post.getCreatedAt())
+                .build();
+        }
+    }
+
+    private static List<String> parseTags(String tags) {
+        if (StringUtils.isBlank(tags)) {
+            return Collections.emptyList();
+        }
+        String[] parts = tags.split(",");
+        List<String> result = new ArrayList<>();
+        for (String part : parts) {
+            if (StringUtils.isNotBlank(part)) {
+                result.add(part.trim());
+            }
+        }
+        return result;
+    }
+}
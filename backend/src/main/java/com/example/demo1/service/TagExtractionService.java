@@ -1,10 +1,15 @@
 package com.example.demo1.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.demo1.algorithm.PostTagIndex;
+import com.example.demo1.algorithm.TrendingTagTracker;
 import com.example.demo1.common.enums.TagCategory;
 import com.example.demo1.common.enums.TagSource;
+import com.example.demo1.common.enums.TrendingWindow;
 import com.example.demo1.entity.PostTag;
 import com.example.demo1.mapper.PostTagMapper;
+import com.example.demo1.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,28 +30,12 @@ import java.util.stream.Collectors;
 public class TagExtractionService {
 
     private final PostTagMapper postTagMapper;
+    private final PostTagIndex postTagIndex;
+    private final TagKeywordService tagKeywordService;
+    private final TrendingTagTracker trendingTagTracker;
 
     // 话题标签正则：#话题名#
     private static final Pattern TOPIC_PATTERN = Pattern.compile("#([^#\\s]{1,20})#");
-    
-    // 饮品相关关键词
-    private static final Set<String> BEVERAGE_KEYWORDS = Set.of(
-        "威士忌", "白兰地", "伏特加", "朗姆酒", "金酒", "龙舌兰", "鸡尾酒",
-        "啤酒", "葡萄酒", "红酒", "白酒", "清酒", "烧酒", "梅酒",
-        "whisky", "whiskey", "brandy", "vodka", "rum", "gin", "tequila",
-        "cocktail", "beer", "wine", "sake"
-    );
-    
-    // 地点相关关键词
-    private static final Set<String> LOCATION_KEYWORDS = Set.of(
-        "酒吧", "bar", "pub", "lounge", "餐厅", "餐吧", "夜店", "club"
-    );
-    
-    // 氛围相关关键词
-    private static final Set<String> ATMOSPHERE_KEYWORDS = Set.of(
-        "浪漫", "安静", "热闹", "优雅", "放松", "激情", "温馨", "私密",
-        "romantic", "quiet", "lively", "elegant", "relaxed", "cozy"
-    );
 
     /**
      * 从内容中提取并保存标签
@@ -78,44 +67,28 @@ public class TagExtractionService {
                 tags.add(postTag);
             }
             
-            // 3. 自动提取关键词标签
-            String lowerContent = content.toLowerCase();
-            
-            // 饮品标签
-            for (String keyword : BEVERAGE_KEYWORDS) {
-                if (lowerContent.contains(keyword.toLowerCase())) {
-                    PostTag postTag = createTag(postId, keyword, TagSource.AUTO, TagCategory.BEVERAGE);
-                    tags.add(postTag);
-                }
-            }
-            
-            // 地点标签
-            for (String keyword : LOCATION_KEYWORDS) {
-                if (lowerContent.contains(keyword.toLowerCase())) {
-                    PostTag postTag = createTag(postId, keyword, TagSource.AUTO, TagCategory.LOCATION);
-                    tags.add(postTag);
-                }
-            }
-            
-            // 氛围标签
-            for (String keyword : ATMOSPHERE_KEYWORDS) {
-                if (lowerContent.contains(keyword.toLowerCase())) {
-                    PostTag postTag = createTag(postId, keyword, TagSource.AUTO, TagCategory.ATMOSPHERE);
-                    tags.add(postTag);
-                }
-            }
+            // 3. 自动提取关键词标签：词典建成的自动机一次扫描找出全部命中的关键词
+            tagKeywordService.match(content).forEach((keyword, category) ->
+                tags.add(createTag(postId, keyword, TagSource.AUTO, category)));
         }
         
         // 保存标签（限制最多10个）
+        List<String> savedTagNames = new ArrayList<>();
         tags.stream()
             .limit(10)
             .forEach(tag -> {
                 try {
                     postTagMapper.insert(tag);
+                    savedTagNames.add(tag.getTagName());
                 } catch (Exception e) {
                     log.warn("保存标签失败: {}", tag.getTagName(), e);
                 }
             });
+        // 标签写入提交后再更新内存索引和热门统计，事务回滚时不留下不存在的标签
+        TransactionUtils.afterCommit(() -> {
+            postTagIndex.addTags(postId, savedTagNames);
+            trendingTagTracker.record(savedTagNames);
+        });
         
         log.debug("为帖子 {} 提取并保存了 {} 个标签", postId, tags.size());
     }
@@ -127,6 +100,7 @@ public class TagExtractionService {
     public void deletePostTags(Long postId) {
         postTagMapper.delete(new LambdaQueryWrapper<PostTag>()
             .eq(PostTag::getPostId, postId));
+        TransactionUtils.afterCommit(() -> postTagIndex.removePost(postId));
     }
 
     /**
@@ -138,26 +112,33 @@ public class TagExtractionService {
     }
 
     /**
-     * 获取热门标签
+     * 获取热门标签（全部时间），在数据库中分组计数
      */
     public List<Map<String, Object>> getHotTags(int limit) {
-        List<PostTag> allTags = postTagMapper.selectList(null);
-        
-        // 统计标签出现次数
-        Map<String, Long> tagCounts = allTags.stream()
-            .collect(Collectors.groupingBy(
-                PostTag::getTagName,
-                Collectors.counting()
-            ));
-        
-        // 按出现次数排序并返回
-        return tagCounts.entrySet().stream()
-            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-            .limit(limit)
-            .map(entry -> {
+        return postTagMapper.selectMaps(new QueryWrapper<PostTag>()
+                .select("tag_name", "COUNT(*) AS tag_count")
+                .groupBy("tag_name")
+                .orderByDesc("tag_count")
+                .last("limit " + limit))
+            .stream()
+            .map(row -> {
                 Map<String, Object> map = new java.util.HashMap<>();
-                map.put("tag", entry.getKey());
-                map.put("count", entry.getValue());
+                map.put("tag", row.get("tag_name"));
+                map.put("count", ((Number) row.get("tag_count")).longValue());
+                return map;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取时间窗口内的趋势标签，来自内存中的滑动窗口统计
+     */
+    public List<Map<String, Object>> getTrendingTags(TrendingWindow window, int limit) {
+        return trendingTagTracker.top(window, limit).stream()
+            .map(item -> {
+                Map<String, Object> map = new java.util.HashMap<>();
+                map.put("tag", item.getItem());
+                map.put("count", (long) item.getCount());
                 return map;
             })
             .collect(Collectors.toList());
@@ -167,12 +148,7 @@ public class TagExtractionService {
      * 按标签搜索帖子
      */
     public List<Long> searchPostIdsByTag(String tag) {
-        return postTagMapper.selectList(new LambdaQueryWrapper<PostTag>()
-                .eq(PostTag::getTagName, tag))
-            .stream()
-            .map(PostTag::getPostId)
-            .distinct()
-            .collect(Collectors.toList());
+        return new ArrayList<>(postTagIndex.getPostIds(tag));
     }
 
     /**
@@ -184,25 +160,8 @@ public class TagExtractionService {
         tag.setTagName(tagName);
         tag.setSource(source);
         // 将代码中的分类映射到数据库支持的分类
-        tag.setTagCategory(mapToDatabaseCategory(category));
+        tag.setTagCategory(category.toDatabaseCategory());
         return tag;
     }
-    
-    /**
-     * 将代码中的分类映射到数据库支持的分类
-     * 数据库只支持: BEVERAGE_TYPE, TASTE, SCENE, LOCATION, OTHER
-     */
-    private TagCategory mapToDatabaseCategory(TagCategory category) {
-        switch (category) {
-            case BEVERAGE:
-                return TagCategory.BEVERAGE_TYPE;
-            case ATMOSPHERE:
-                return TagCategory.SCENE;
-            case TOPIC:
-                return TagCategory.OTHER;
-            default:
-                return category;
-        }
-    }
 }
 
@@ -0,0 +1,196 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.demo1.algorithm.AhoCorasickAutomaton;
+import com.example.demo1.common.enums.TagCategory;
+import com.example.demo1.common.exception.BusinessException;
+import com.example.demo1.dto.request.TagKeywordRequest;
+import com.example.demo1.entity.TagKeyword;
+import com.example.demo1.mapper.TagKeywordMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 自动标签关键词词典
+ * 内置关键词与 tag_keyword 表中的词条合并后建成 Aho–Corasick 自动机，提取标签时对内容只扫描一遍，
+ * 耗时与内容长度成正比，不随词典规模增长。
+ *
+ * 表中启用的词条新增或覆盖内置词的分类，停用的词条屏蔽同名内置词（忽略大小写）。
+ * 管理接口修改后立即重建；其他实例定时比较表的版本（行数、启用数、最后修改时间），变化时重建，无需重启。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TagKeywordService {
+
+    private static final Map<String, TagCategory> BUILT_IN_KEYWORDS = builtInKeywords();
+
+    private final TagKeywordMapper tagKeywordMapper;
+
+    // 表不可用时仍按内置关键词提取
+    private volatile AhoCorasickAutomaton<TagCategory> automaton = AhoCorasickAutomaton.build(BUILT_IN_KEYWORDS);
+
+    // 当前自动机对应的表版本
+    private volatile String loadedVersion;
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("标签关键词词典加载失败，暂用内置关键词", e);
+        }
+    }
+
+    /**
+     * 定时检查词典表是否变化，变化时重建
+     */
+    @Scheduled(fixedDelayString = "${tag.keyword.reload-interval-ms:60000}",
+        initialDelayString = "${tag.keyword.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        try {
+            if (!Objects.equals(version(), loadedVersion)) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("检查标签关键词词典失败", e);
+        }
+    }
+
+    /**
+     * 从内置关键词与词典表重建自动机
+     *
+     * @return 重建后的关键词数量
+     */
+    public synchronized int reload() {
+        // 先取版本再读数据，读取期间的修改会在下次检查时再触发重建
+        String version = version();
+        Map<String, Map.Entry<String, TagCategory>> merged = new LinkedHashMap<>();
+        BUILT_IN_KEYWORDS.forEach((keyword, category) -> merged.put(key(keyword), Map.entry(keyword, category)));
+        for (TagKeyword row : tagKeywordMapper.selectList(new LambdaQueryWrapper<TagKeyword>()
+                .orderByAsc(TagKeyword::getId))) {
+            if (row.getKeyword() == null || row.getKeyword().isBlank()) {
+                continue;
+            }
+            String keyword = row.getKeyword().trim();
+            if (Boolean.TRUE.equals(row.getIsActive())) {
+                TagCategory category = row.getTagCategory() != null ? row.getTagCategory() : TagCategory.OTHER;
+                merged.put(key(keyword), Map.entry(keyword, category));
+            } else {
+                merged.remove(key(keyword));
+            }
+        }
+
+        Map<String, TagCategory> dictionary = new LinkedHashMap<>();
+        merged.values().forEach(entry -> dictionary.put(entry.getKey(), entry.getValue()));
+        long start = System.currentTimeMillis();
+        automaton = AhoCorasickAutomaton.build(dictionary);
+        loadedVersion = version;
+        log.info("标签关键词词典已重建: 关键词数{}, 耗时{}ms", automaton.size(), System.currentTimeMillis() - start);
+        return automaton.size();
+    }
+
+    /**
+     * 内容中命中的关键词及其标签分类，按首次出现的位置排序
+     */
+    public Map<String, TagCategory> match(String content) {
+        return automaton.findDistinct(content);
+    }
+
+    /**
+     * 词典表中的全部词条（不含内置关键词）
+     */
+    public List<TagKeyword> listKeywords() {
+        return tagKeywordMapper.selectList(new LambdaQueryWrapper<TagKeyword>()
+            .orderByDesc(TagKeyword::getUpdatedAt));
+    }
+
+    /**
+     * 新增词条；已存在（忽略大小写）时重新启用并更新分类
+     */
+    public TagKeyword addKeyword(TagKeywordRequest request) {
+        String keyword = request.getKeyword().trim();
+        TagCategory category = request.getTagCategory().toDatabaseCategory();
+        TagKeyword existing = tagKeywordMapper.selectOne(new LambdaQueryWrapper<TagKeyword>()
+            .eq(TagKeyword::getKeyword, keyword));
+        if (existing != null) {
+            existing.setKeyword(keyword);
+            existing.setTagCategory(category);
+            existing.setIsActive(true);
+            tagKeywordMapper.updateById(existing);
+        } else {
+            existing = new TagKeyword();
+            existing.setKeyword(keyword);
+            existing.setTagCategory(category);
+            existing.setIsActive(true);
+            tagKeywordMapper.insert(existing);
+        }
+        reload();
+        return existing;
+    }
+
+    /**
+     * 停用词条；要屏蔽内置关键词，先以同名新增再停用
+     */
+    public void deactivateKeyword(Long id) {
+        TagKeyword keyword = tagKeywordMapper.selectById(id);
+        if (keyword == null) {
+            throw new BusinessException(404, "关键词不存在");
+        }
+        if (Boolean.TRUE.equals(keyword.getIsActive())) {
+            keyword.setIsActive(false);
+            tagKeywordMapper.updateById(keyword);
+            reload();
+        }
+    }
+
+    /**
+     * 词典表版本：行数、启用数与最后修改时间
+     */
+    private String version() {
+        List<Map<String, Object>> rows = tagKeywordMapper.selectMaps(new QueryWrapper<TagKeyword>()
+            .select("COUNT(*) AS keyword_count", "SUM(is_active) AS active_count", "MAX(updated_at) AS last_updated"));
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return "0";
+        }
+        Map<String, Object> row = rows.get(0);
+        return row.get("keyword_count") + "/" + row.get("active_count") + "/" + row.get("last_updated");
+    }
+
+    private static String key(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, TagCategory> builtInKeywords() {
+        Map<String, TagCategory> keywords = new LinkedHashMap<>();
+        // 饮品相关关键词
+        for (String keyword : List.of(
+                "威士忌", "白兰地", "伏特加", "朗姆酒", "金酒", "龙舌兰", "鸡尾酒",
+                "啤酒", "葡萄酒", "红酒", "白酒", "清酒", "烧酒", "梅酒",
+                "whisky", "whiskey", "brandy", "vodka", "rum", "gin", "tequila",
+                "cocktail", "beer", "wine", "sake")) {
+            keywords.put(keyword, TagCategory.BEVERAGE_TYPE);
+        }
+        // 地点相关关键词
+        for (String keyword : List.of("酒吧", "bar", "pub", "lounge", "餐厅", "餐吧", "夜店", "club")) {
+            keywords.put(keyword, TagCategory.LOCATION);
+        }
+        // 氛围相关关键词
+        for (String keyword : List.of(
+                "浪漫", "安静", "热闹", "优雅", "放松", "激情", "温馨", "私密",
+                "romantic", "quiet", "lively", "elegant", "relaxed", "cozy")) {
+            keywords.put(keyword, TagCategory.SCENE);
+        }
+        return keywords;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.demo1.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.demo1.algorithm.SeenPostStore;
+import com.example.demo1.algorithm.UserInteractionMatrix;
 import com.example.demo1.common.enums.BehaviorType;
 import com.example.demo1.common.enums.TargetType;
 import com.example.demo1.entity.UserBehavior;
@@ -19,6 +22,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserBehaviorService {
 
     private final UserBehaviorMapper userBehaviorMapper;
+    private final UserInteractionMatrix userInteractionMatrix;
+    private final SeenPostStore seenPostStore;
 
     /**
      * 记录用户行为
@@ -43,6 +48,12 @@ public class UserBehaviorService {
             behavior.setWeight(behaviorType.getWeight());
             
             userBehaviorMapper.insert(behavior);
+
+            // 同步更新协同过滤使用的内存互动矩阵和已看动态过滤器
+            if (targetType == TargetType.POST) {
+                userInteractionMatrix.record(userId, targetId, behaviorType);
+                seenPostStore.markSeen(userId, targetId);
+            }
             
             log.debug("记录用户行为: userId={}, targetType={}, targetId={}, behaviorType={}, weight={}", 
                 userId, targetType, targetId, behaviorType, behaviorType.getWeight());
@@ -51,5 +62,19 @@ public class UserBehaviorService {
             log.warn("记录用户行为失败", e);
         }
     }
+
+    /**
+     * 用户是否已有某种行为记录（精确查询数据库）
+     */
+    public boolean hasBehavior(Long userId, TargetType targetType, Long targetId, BehaviorType behaviorType) {
+        if (userId == null || targetId == null) {
+            return false;
+        }
+        return userBehaviorMapper.exists(new LambdaQueryWrapper<UserBehavior>()
+            .eq(UserBehavior::getUserId, userId)
+            .eq(UserBehavior::getTargetType, targetType)
+            .eq(UserBehavior::getTargetId, targetId)
+            .eq(UserBehavior::getBehaviorType, behaviorType));
+    }
 }
 
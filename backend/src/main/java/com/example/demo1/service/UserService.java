@@ -29,6 +29,7 @@ import com.example.demo1.mapper.UserBehaviorMapper;
 import com.example.demo1.util.FileUrlResolver;
 import com.example.demo1.util.IpUtils;
 import com.example.demo1.security.UserPrincipal;
+import com.example.demo1.service.UserSummaryCache.UserSummary;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -38,7 +39,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -59,6 +62,9 @@ public class UserService implements UserDetailsService {
     private final ImageMapper imageMapper;
     private final FileUrlResolver fileUrlResolver;
     private final UserBehaviorMapper userBehaviorMapper;
+    private final UserSummaryCache userSummaryCache;
+    private final FeedTimelineService feedTimelineService;
+    private final SearchSuggestService searchSuggestService;
 
     private static final String DEFAULT_AVATAR_TEMPLATE = "https://api.dicebear.com/7.x/thumbs/svg?seed=%s";
 
@@ -116,6 +122,7 @@ public class UserService implements UserDetailsService {
         }
         
         log.info("用户注册成功: userId={}, username={}", savedUser.getId(), savedUser.getUsername());
+        searchSuggestService.onUserChanged(savedUser);
         return savedUser;
     }
 
@@ -140,11 +147,13 @@ public class UserService implements UserDetailsService {
         User current = getRequiredUser(userId);
         LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(User::getId, userId);
+        boolean renamed = false;
         if (StringUtils.isNotBlank(request.getUsername()) && !request.getUsername().equals(current.getUsername())) {
             if (existsByUsername(request.getUsername())) {
                 throw new BusinessException("昵称已被使用");
             }
             updateWrapper.set(User::getUsername, request.getUsername().trim());
+            renamed = true;
         }
         if (StringUtils.isNotBlank(request.getEmail()) && !request.getEmail().equals(current.getEmail())) {
             if (existsByEmail(request.getEmail())) {
@@ -168,6 +177,12 @@ public class UserService implements UserDetailsService {
             updateWrapper.set(User::getBirthday, request.getBirthday());
         }
         userMapper.update(null, updateWrapper);
+        // 昵称、头像、简介都在摘要缓存中
+        userSummaryCache.invalidate(userId);
+        if (renamed) {
+            current.setUsername(request.getUsername().trim());
+            searchSuggestService.onUserChanged(current);
+        }
     }
 
     @Transactional
@@ -245,21 +260,116 @@ public class UserService implements UserDetailsService {
         if (user == null) {
             return null;
         }
-        String avatarUrl = buildAvatarUrl(user);
+        return toSimpleUser(getSummary(user));
+    }
+
+    /**
+     * 按用户ID构建用户简要信息，优先读取摘要缓存
+     */
+    public SimpleUserVO buildSimpleUser(Long userId) {
+        return toSimpleUser(getSummary(userId));
+    }
+
+    /**
+     * 批量构建用户简要信息，不存在的用户不出现在结果中
+     */
+    public Map<Long, SimpleUserVO> buildSimpleUsers(Collection<Long> userIds) {
+        Map<Long, SimpleUserVO> result = new HashMap<>();
+        getSummaries(userIds).forEach((id, summary) -> result.put(id, toSimpleUser(summary)));
+        return result;
+    }
+
+    public SimpleUserVO toSimpleUser(UserSummary summary) {
+        if (summary == null) {
+            return null;
+        }
         return SimpleUserVO.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .avatarUrl(avatarUrl)
-                .bio(user.getBio())
+                .id(summary.getId())
+                .username(summary.getUsername())
+                .avatarUrl(summary.getAvatarUrl())
+                .bio(summary.getBio())
                 .build();
     }
 
     public String buildAvatarUrl(User user) {
-        if (user.getAvatarImageId() != null) {
-            Image image = imageMapper.selectById(user.getAvatarImageId());
-            if (image != null) {
-                return fileUrlResolver.resolve(image.getUuid());
-            }
+        return getSummary(user).getAvatarUrl();
+    }
+
+    /**
+     * 获取用户摘要，用户不存在时返回 null
+     */
+    public UserSummary getSummary(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getSummaries(Collections.singletonList(userId)).get(userId);
+    }
+
+    /**
+     * 批量获取用户摘要
+     * 未命中的用户一次查询 user 表，头像图片再一次查询 image 表，结果写回缓存
+     */
+    public Map<Long, UserSummary> getSummaries(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Long> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, UserSummary> result = new HashMap<>(userSummaryCache.getAll(ids));
+        if (result.size() == ids.size()) {
+            return result;
+        }
+        List<Long> missing = ids.stream()
+                .filter(id -> !result.containsKey(id))
+                .collect(Collectors.toList());
+        List<User> users = userMapper.selectBatchIds(missing);
+        Set<Long> avatarImageIds = users.stream()
+                .map(User::getAvatarImageId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Image> avatarImages = avatarImageIds.isEmpty()
+                ? Collections.emptyMap()
+                : imageMapper.selectBatchIds(avatarImageIds).stream()
+                        .collect(Collectors.toMap(Image::getId, image -> image));
+        for (User user : users) {
+            Image avatarImage = user.getAvatarImageId() != null ? avatarImages.get(user.getAvatarImageId()) : null;
+            UserSummary summary = toSummary(user, avatarImage);
+            userSummaryCache.put(summary);
+            result.put(user.getId(), summary);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getSummaryCacheStats() {
+        return userSummaryCache.stats();
+    }
+
+    /**
+     * 已持有用户实体时只需补查头像
+     */
+    private UserSummary getSummary(User user) {
+        UserSummary cached = userSummaryCache.get(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+        Image avatarImage = user.getAvatarImageId() != null ? imageMapper.selectById(user.getAvatarImageId()) : null;
+        UserSummary summary = toSummary(user, avatarImage);
+        userSummaryCache.put(summary);
+        return summary;
+    }
+
+    private UserSummary toSummary(User user, Image avatarImage) {
+        return new UserSummary(
+                user.getId(),
+                user.getUsername(),
+                buildAvatarUrl(user, avatarImage),
+                user.getBio(),
+                user.getLevel(),
+                !Boolean.FALSE.equals(user.getIsActive()));
+    }
+
+    private String buildAvatarUrl(User user, Image avatarImage) {
+        if (avatarImage != null) {
+            return fileUrlResolver.resolve(avatarImage.getUuid());
         }
         if (StringUtils.isNotBlank(user.getAvatarUrl())) {
             return user.getAvatarUrl();
@@ -281,6 +391,7 @@ public class UserService implements UserDetailsService {
         follow.setFollowerId(followerId);
         follow.setFolloweeId(followeeId);
         userFollowMapper.insert(follow);
+        feedTimelineService.onFollow(followerId, followeeId);
     }
 
     @Transactional
@@ -288,6 +399,7 @@ public class UserService implements UserDetailsService {
         userFollowMapper.delete(new LambdaQueryWrapper<UserFollow>()
                 .eq(UserFollow::getFollowerId, followerId)
                 .eq(UserFollow::getFolloweeId, followeeId));
+        feedTimelineService.onUnfollow(followerId, followeeId);
     }
 
     public List<User> findUsersByIds(List<Long> ids) {
@@ -345,13 +457,30 @@ public class UserService implements UserDetailsService {
         return new PageResult<>(mpPage.getTotal(), page, pageSize, result);
     }
 
+    /**
+     * 关注的用户ID，按关注时间倒序，只查关注关系表
+     */
+    public List<Long> getFolloweeIds(Long followerId) {
+        return userFollowMapper.selectList(new LambdaQueryWrapper<UserFollow>()
+                        .eq(UserFollow::getFollowerId, followerId)
+                        .select(UserFollow::getFolloweeId)
+                        .orderByDesc(UserFollow::getCreatedAt))
+                .stream()
+                .map(UserFollow::getFolloweeId)
+                .collect(Collectors.toList());
+    }
+
     public List<User> getFollowees(Long followerId) {
         List<UserFollow> follows = userFollowMapper.selectList(
                 new LambdaQueryWrapper<UserFollow>()
                         .eq(UserFollow::getFollowerId, followerId)
                         .orderByDesc(UserFollow::getCreatedAt));
-        return follows.stream()
-                .map(f -> getUserById(f.getFolloweeId()))
+        List<Long> followeeIds = follows.stream()
+                .map(UserFollow::getFolloweeId)
+                .collect(Collectors.toList());
+        Map<Long, User> users = mapByIds(followeeIds);
+        return followeeIds.stream()
+                .map(users::get)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
@@ -455,37 +584,25 @@ public class UserService implements UserDetailsService {
 
         // 1. 可能同关注的人：找到关注了相同用户的其他用户
         List<Long> sameFollowUserIds = findUsersWithSameFollows(userId, excludeIds, limit / 2);
+        Map<Long, UserSummary> sameFollowUsers = getSummaries(sameFollowUserIds);
         for (Long recommendedUserId : sameFollowUserIds) {
-            User user = getUserById(recommendedUserId);
+            UserSummary user = sameFollowUsers.get(recommendedUserId);
             if (user != null && !excludeIds.contains(recommendedUserId)) {
-                RecommendedUserVO vo = RecommendedUserVO.builder()
-                        .id(user.getId())
-                        .username(user.getUsername())
-                        .avatarUrl(buildAvatarUrl(user))
-                        .bio(user.getBio())
-                        .reason("可能同关注的人")
-                        .following(followingSet.contains(recommendedUserId))
-                        .build();
-                recommendedMap.put(recommendedUserId, vo);
+                recommendedMap.put(recommendedUserId,
+                        toRecommendedUser(user, "可能同关注的人", followingSet.contains(recommendedUserId)));
                 excludeIds.add(recommendedUserId);
             }
         }
 
         // 2. 常看的贴子的发帖人：从用户浏览记录中提取发帖人
         List<Long> postAuthorIds = findPostAuthorsFromViews(userId, excludeIds, limit - recommendedMap.size());
+        Map<Long, UserSummary> postAuthors = getSummaries(postAuthorIds);
         for (Long authorId : postAuthorIds) {
             if (!recommendedMap.containsKey(authorId)) {
-                User user = getUserById(authorId);
+                UserSummary user = postAuthors.get(authorId);
                 if (user != null && !excludeIds.contains(authorId)) {
-                    RecommendedUserVO vo = RecommendedUserVO.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .avatarUrl(buildAvatarUrl(user))
-                            .bio(user.getBio())
-                            .reason("常看的贴子的发帖人")
-                            .following(followingSet.contains(authorId))
-                            .build();
-                    recommendedMap.put(authorId, vo);
+                    recommendedMap.put(authorId,
+                            toRecommendedUser(user, "常看的贴子的发帖人", followingSet.contains(authorId)));
                 }
             }
         }
@@ -493,6 +610,17 @@ public class UserService implements UserDetailsService {
         return new java.util.ArrayList<>(recommendedMap.values());
     }
 
+    private RecommendedUserVO toRecommendedUser(UserSummary user, String reason, boolean following) {
+        return RecommendedUserVO.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .avatarUrl(user.getAvatarUrl())
+                .bio(user.getBio())
+                .reason(reason)
+                .following(following)
+                .build();
+    }
+
     /**
      * 找到关注了相同用户的其他用户
      */
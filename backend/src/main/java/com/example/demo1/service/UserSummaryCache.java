@@ -0,0 +1,151 @@
+package com.example.demo1.service;
+
+import com.example.demo1.util.TransactionUtils;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户摘要缓存（常驻内存）
+ * 缓存构建 SimpleUserVO 所需的精简字段（ID、昵称、头像地址、简介、等级、是否启用），
+ * 头像地址在写入时已解析好，命中时不再查询 user 表和 image 表。
+ * 按估算的占用字节数限制容量，超出时按最近访问顺序淘汰。
+ * 修改资料、头像、封禁等写操作需显式调用 invalidate。
+ */
+@Component
+public class UserSummaryCache {
+
+    // 每条缓存的固定开销估算（对象头、字段、Map 节点）
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    @Value("${user.summary-cache.max-bytes:8388608}")
+    private long maxBytes;
+
+    private final LinkedHashMap<Long, UserSummary> entries = new LinkedHashMap<>(1024, 0.75f, true);
+
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 获取缓存的用户摘要，未命中返回 null
+     */
+    public synchronized UserSummary get(Long userId) {
+        UserSummary summary = userId == null ? null : entries.get(userId);
+        if (summary != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return summary;
+    }
+
+    /**
+     * 批量获取，只返回命中的部分
+     */
+    public synchronized Map<Long, UserSummary> getAll(Collection<Long> userIds) {
+        Map<Long, UserSummary> result = new HashMap<>();
+        for (Long userId : userIds) {
+            UserSummary summary = userId == null ? null : entries.get(userId);
+            if (summary != null) {
+                result.put(userId, summary);
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+        }
+        return result;
+    }
+
+    public synchronized void put(UserSummary summary) {
+        if (summary == null || summary.getId() == null) {
+            return;
+        }
+        UserSummary previous = entries.put(summary.getId(), summary);
+        if (previous != null) {
+            totalBytes -= previous.estimatedBytes;
+        }
+        totalBytes += summary.estimatedBytes;
+        Iterator<UserSummary> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            UserSummary eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.estimatedBytes;
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 使用户摘要失效
+     * 处于事务中时，提交后再失效一次，避免提交前被并发读取写回旧值
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        remove(userId);
+        TransactionUtils.afterCommit(() -> remove(userId));
+    }
+
+    private synchronized void remove(Long userId) {
+        UserSummary removed = entries.remove(userId);
+        if (removed != null) {
+            totalBytes -= removed.estimatedBytes;
+        }
+    }
+
+    /**
+     * 命中率等统计信息
+     */
+    public synchronized Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("estimatedBytes", totalBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    /**
+     * 用户摘要：不可变，资料变化时整体替换
+     */
+    @Getter
+    public static class UserSummary {
+        private final Long id;
+        private final String username;
+        private final String avatarUrl;
+        private final String bio;
+        private final Integer level;
+        private final boolean active;
+        private final int estimatedBytes;
+
+        public UserSummary(Long id, String username, String avatarUrl, String bio, Integer level, boolean active) {
+            this.id = id;
+            this.username = username;
+            this.avatarUrl = avatarUrl;
+            this.bio = bio;
+            this.level = level;
+            this.active = active;
+            this.estimatedBytes = ENTRY_OVERHEAD_BYTES + 2 * (length(username) + length(avatarUrl) + length(bio));
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
@@ -6,9 +6,11 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.demo1.common.enums.UserRole;
 import com.example.demo1.common.enums.WikiStatus;
 import com.example.demo1.common.exception.BusinessException;
+import com.example.demo1.common.response.CursorPageResult;
 import com.example.demo1.common.response.PageResult;
 import com.example.demo1.dto.request.WikiDiscussionRequest;
 import com.example.demo1.dto.request.WikiPageRequest;
+import com.example.demo1.dto.response.SimpleUserVO;
 import com.example.demo1.dto.response.WikiDiscussionVO;
 import com.example.demo1.dto.response.WikiPageVO;
 import com.example.demo1.dto.response.WikiRevisionVO;
@@ -20,6 +22,7 @@ import com.example.demo1.entity.WikiRevision;
 import com.example.demo1.mapper.WikiDiscussionMapper;
 import com.example.demo1.mapper.WikiPageMapper;
 import com.example.demo1.mapper.WikiRevisionMapper;
+import com.example.demo1.util.KeysetCursor;
 import com.example.demo1.util.SlugUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -85,6 +88,56 @@ public class WikiService {
             mpPage.getRecords().stream().map(pageEntity -> toVo(pageEntity, currentUserId)).toList());
     }
 
+    /**
+     * 游标分页列出Wiki页面：按 (updated_at, id) 键集翻页，不执行 COUNT
+     *
+     * @param cursor 上一页返回的 nextCursor，为空时取第一页
+     */
+    public CursorPageResult<WikiPageVO> listPagesByCursor(String keyword, String cursor, int pageSize,
+                                                          Long currentUserId) {
+        int size = Math.max(1, Math.min(pageSize, 50));
+        LambdaQueryWrapper<WikiPage> wrapper = new LambdaQueryWrapper<>();
+        if (StringUtils.isNotBlank(keyword)) {
+            wrapper.and(w -> w.like(WikiPage::getTitle, keyword)
+                .or()
+                .like(WikiPage::getSummary, keyword));
+        }
+        boolean admin = currentUserId != null
+            && UserRole.ADMIN.equals(userService.getRequiredUser(currentUserId).getRole());
+        if (!admin) {
+            wrapper.eq(WikiPage::getStatus, WikiStatus.PUBLISHED);
+        }
+        List<WikiPage> records = wikiPageMapper.selectList(KeysetCursor.apply(wrapper,
+            WikiPage::getUpdatedAt, WikiPage::getId, KeysetCursor.decode(cursor), size));
+        boolean hasMore = records.size() > size;
+        if (hasMore) {
+            records = records.subList(0, size);
+        }
+        WikiPage last = records.isEmpty() ? null : records.get(records.size() - 1);
+        String nextCursor = hasMore ? KeysetCursor.encode(last.getUpdatedAt(), last.getId()) : null;
+        return new CursorPageResult<>(size,
+            records.stream().map(pageEntity -> toVo(pageEntity, currentUserId)).toList(), nextCursor, hasMore);
+    }
+
+    /**
+     * 综合搜索用：按标题或摘要匹配已发布的页面，不加载正文
+     */
+    public List<WikiPageVO> searchPages(String keyword, int limit) {
+        LambdaQueryWrapper<WikiPage> wrapper = new LambdaQueryWrapper<WikiPage>()
+            .select(WikiPage::getId, WikiPage::getSlug, WikiPage::getTitle, WikiPage::getSummary,
+                WikiPage::getStatus, WikiPage::getLastEditorName, WikiPage::getUpdatedAt)
+            .eq(WikiPage::getStatus, WikiStatus.PUBLISHED);
+        if (StringUtils.isNotBlank(keyword)) {
+            wrapper.and(w -> w.like(WikiPage::getTitle, keyword)
+                .or()
+                .like(WikiPage::getSummary, keyword));
+        }
+        wrapper.orderByDesc(WikiPage::getUpdatedAt).last("limit " + limit);
+        return wikiPageMapper.selectList(wrapper).stream()
+            .map(pageEntity -> toVo(pageEntity, null))
+            .toList();
+    }
+
     /**
      * 获取Wiki页面详情
      * 非管理员用户无法访问未审核的页面
@@ -399,12 +452,12 @@ public class WikiService {
         if (discussions.isEmpty()) {
             return java.util.Collections.emptyList();
         }
-        Map<Long, User> userMap = userService.mapByIds(
+        Map<Long, SimpleUserVO> userMap = userService.buildSimpleUsers(
             discussions.stream().map(WikiDiscussion::getUserId).collect(Collectors.toList()));
         return discussions.stream()
             .map(discussion -> WikiDiscussionVO.builder()
                 .id(discussion.getId())
-                .author(userService.buildSimpleUser(userMap.get(discussion.getUserId())))
+                .author(userMap.get(discussion.getUserId()))
                 .content(discussion.getContent())
                 .createdAt(discussion.getCreatedAt())
                 .build())
@@ -0,0 +1,87 @@
+package com.example.demo1.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.example.demo1.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：上一页最后一条记录的 (时间, ID)
+ * 下一页按 (时间, ID) 排序，只取严格排在游标之后的记录，
+ * 不使用 OFFSET，也不执行 COUNT，翻到多深都只扫描一页的索引范围。
+ */
+public final class KeysetCursor {
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime time, Long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    public static String encode(LocalDateTime time, Long id) {
+        if (time == null || id == null) {
+            return null;
+        }
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，为空表示第一页
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf('|');
+            if (idx <= 0) {
+                throw new BusinessException(400, "分页游标无效");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, idx)), Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(400, "分页游标无效");
+        }
+    }
+
+    /**
+     * 追加游标条件与排序，并多取一条用于判断是否还有下一页
+     */
+    public static <T> LambdaQueryWrapper<T> apply(LambdaQueryWrapper<T> wrapper,
+                                                  SFunction<T, LocalDateTime> timeColumn,
+                                                  SFunction<T, Long> idColumn,
+                                                  KeysetCursor cursor,
+                                                  int limit) {
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(timeColumn, cursor.time)
+                .or(o -> o.eq(timeColumn, cursor.time).lt(idColumn, cursor.id)));
+        }
+        return wrapper.orderByDesc(timeColumn)
+            .orderByDesc(idColumn)
+            .last("limit " + (limit + 1));
+    }
+
+    /**
+     * 正序版本：按 时间 ASC, ID ASC 翻页（如评论从早到晚）
+     */
+    public static <T> LambdaQueryWrapper<T> applyAscending(LambdaQueryWrapper<T> wrapper,
+                                                           SFunction<T, LocalDateTime> timeColumn,
+                                                           SFunction<T, Long> idColumn,
+                                                           KeysetCursor cursor,
+                                                           int limit) {
+        if (cursor != null) {
+            wrapper.and(w -> w.gt(timeColumn, cursor.time)
+                .or(o -> o.eq(timeColumn, cursor.time).gt(idColumn, cursor.id)));
+        }
+        return wrapper.orderByAsc(timeColumn)
+            .orderByAsc(idColumn)
+            .last("limit " + (limit + 1));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo1.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public final class SnapshotFiles {
+
+    private SnapshotFiles() {
+    }
+
+    /**
+     * 写入同目录的临时文件后原子替换目标文件，进程中途退出也不会留下半个快照
+     */
+    public static void writeAtomically(Path path, Writer writer) throws IOException {
+        Path target = path.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            writer.writeTo(out);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo1.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * 当前事务提交后执行，事务回滚则不执行；不在事务中时立即执行
+     * 用于更新内存索引、提交异步任务等不能回滚的操作，避免它们看到或暴露未提交的数据
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickAutomatonTest {
+
+    @Test
+    void testOverlappingMatches() {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        dictionary.put("he", 1);
+        dictionary.put("she", 2);
+        dictionary.put("his", 3);
+        dictionary.put("hers", 4);
+        AhoCorasickAutomaton<Integer> automaton = AhoCorasickAutomaton.build(dictionary);
+
+        List<String> found = automaton.findAll("ushers").stream()
+            .map(m -> m.getKeyword() + "@" + m.getStart())
+            .collect(Collectors.toList());
+        assertEquals(List.of("she@1", "he@2", "hers@2"), found);
+    }
+
+    @Test
+    void testIgnoreCaseAndKeepOriginalKeyword() {
+        Map<String, String> dictionary = new LinkedHashMap<>();
+        dictionary.put("IPA", "BEVERAGE");
+        dictionary.put(" gin ", "BEVERAGE");
+        dictionary.put("ipa", "OTHER");
+        AhoCorasickAutomaton<String> automaton = AhoCorasickAutomaton.build(dictionary);
+
+        assertEquals(2, automaton.size());
+        Map<String, String> found = automaton.findDistinct("Ipa 和 GIN 都不错，再来一杯 ipa");
+        assertEquals(List.of("IPA", "gin"), List.copyOf(found.keySet()));
+        assertEquals("BEVERAGE", found.get("IPA"));
+    }
+
+    @Test
+    void testChineseKeywordsInFirstOccurrenceOrder() {
+        Map<String, String> dictionary = new LinkedHashMap<>();
+        dictionary.put("酒吧", "LOCATION");
+        dictionary.put("威士忌", "BEVERAGE");
+        dictionary.put("安静", "ATMOSPHERE");
+        dictionary.put("吧", "OTHER");
+        AhoCorasickAutomaton<String> automaton = AhoCorasickAutomaton.build(dictionary);
+
+        Map<String, String> found = automaton.findDistinct("在一家安静的酒吧喝了威士忌，酒吧很棒");
+        assertEquals(List.of("安静", "酒吧", "吧", "威士忌"), List.copyOf(found.keySet()));
+    }
+
+    @Test
+    void testEmptyDictionaryAndText() {
+        AhoCorasickAutomaton<String> empty = AhoCorasickAutomaton.build(Map.of("  ", "X"));
+        assertEquals(0, empty.size());
+        assertTrue(empty.findAll("anything").isEmpty());
+
+        AhoCorasickAutomaton<String> automaton = AhoCorasickAutomaton.build(Map.of("rum", "BEVERAGE"));
+        assertTrue(automaton.findDistinct(null).isEmpty());
+        assertTrue(automaton.findDistinct("").isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void testEstimateNeverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(256, 4);
+        for (int i = 0; i < 2000; i++) {
+            sketch.add("tag" + (i % 200), 1);
+        }
+        sketch.add("威士忌", 500);
+        for (int i = 0; i < 200; i++) {
+            assertTrue(sketch.estimate("tag" + i) >= 10);
+        }
+        int estimate = sketch.estimate("威士忌");
+        assertTrue(estimate >= 500);
+        // 误差上界约 total * e / width
+        assertTrue(estimate <= 500 + 2500 * Math.E / 256 * 2);
+        assertEquals(2500, sketch.total());
+    }
+
+    @Test
+    void testSubtractRestoresPreviousCounts() {
+        CountMinSketch window = new CountMinSketch(128, 3);
+        CountMinSketch bucket = new CountMinSketch(128, 3);
+        window.add("gin", 3);
+        bucket.add("gin", 5);
+        bucket.add("rum", 2);
+        window.addAll(bucket);
+        assertTrue(window.estimate("gin") >= 8);
+        window.subtract(bucket);
+        assertEquals(3, window.estimate("gin"));
+        assertEquals(0, window.estimate("rum"));
+        assertEquals(3, window.total());
+    }
+
+    @Test
+    void testShapeMismatchRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new CountMinSketch(128, 3).addAll(new CountMinSketch(64, 3)));
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws Exception {
+        CountMinSketch sketch = new CountMinSketch(512, 4);
+        sketch.add("清酒", 7);
+        sketch.add("sake", 2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+
+        CountMinSketch restored = CountMinSketch.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(sketch.estimate("清酒"), restored.estimate("清酒"));
+        assertEquals(sketch.estimate("sake"), restored.estimate("sake"));
+        assertEquals(9, restored.total());
+    }
+}
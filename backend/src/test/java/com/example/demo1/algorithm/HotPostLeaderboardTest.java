@@ -0,0 +1,72 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.common.enums.TimeDimension;
+import com.example.demo1.entity.SharePost;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotPostLeaderboardTest {
+
+    private final HotPostLeaderboard leaderboard = new HotPostLeaderboard(null, new HotScoreCalculator());
+
+    @Test
+    void testUpdateReordersPosts() {
+        LocalDateTime now = LocalDateTime.now();
+        leaderboard.update(post(1L, 10, now.minusHours(1)));
+        leaderboard.update(post(2L, 5, now.minusHours(1)));
+        assertEquals(Arrays.asList(1L, 2L), leaderboard.top(TimeDimension.DAY, 10));
+
+        leaderboard.update(post(2L, 20, now.minusHours(1)));
+        assertEquals(Arrays.asList(2L, 1L), leaderboard.top(TimeDimension.DAY, 10));
+        assertEquals(2, leaderboard.size(TimeDimension.DAY));
+    }
+
+    @Test
+    void testNewerPostWinsWithSameInteractions() {
+        LocalDateTime now = LocalDateTime.now();
+        leaderboard.update(post(1L, 10, now.minusHours(30)));
+        leaderboard.update(post(2L, 10, now.minusHours(2)));
+        // 半衰期24小时：旧动态的互动数要翻倍以上才能追上
+        leaderboard.update(post(3L, 19, now.minusHours(26)));
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), leaderboard.top(TimeDimension.WEEK, 10));
+    }
+
+    @Test
+    void testTimeWindowAndPaging() {
+        LocalDateTime now = LocalDateTime.now();
+        leaderboard.update(post(1L, 100, now.minusDays(3)));
+        leaderboard.update(post(2L, 3, now.minusHours(3)));
+        leaderboard.update(post(3L, 2, now.minusHours(3)));
+
+        assertEquals(Arrays.asList(2L, 3L), leaderboard.top(TimeDimension.DAY, 10));
+        assertEquals(Collections.singletonList(3L), leaderboard.page(TimeDimension.DAY, 1, 1));
+        assertEquals(3, leaderboard.size(TimeDimension.WEEK));
+        assertTrue(leaderboard.top(TimeDimension.ALL, 10).contains(1L));
+    }
+
+    @Test
+    void testRemove() {
+        LocalDateTime now = LocalDateTime.now();
+        leaderboard.update(post(1L, 1, now));
+        leaderboard.update(post(2L, 2, now));
+
+        leaderboard.remove(2L);
+
+        assertEquals(Collections.singletonList(1L), leaderboard.top(TimeDimension.ALL, 10));
+        assertEquals(1, leaderboard.size(TimeDimension.ALL));
+    }
+
+    private static SharePost post(Long id, int likeCount, LocalDateTime createdAt) {
+        SharePost post = new SharePost();
+        post.setId(id);
+        post.setLikeCount(likeCount);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+}
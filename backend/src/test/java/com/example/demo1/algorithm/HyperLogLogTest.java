@@ -0,0 +1,68 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void testSparseModeIsExact() {
+        HyperLogLog hll = new HyperLogLog();
+        for (long id = 1; id <= 300; id++) {
+            hll.offer(id);
+            hll.offer(id);
+        }
+
+        assertTrue(hll.isSparse());
+        assertEquals(300, hll.cardinality());
+        assertFalse(hll.offer(42L));
+    }
+
+    @Test
+    void testDenseEstimateWithinError() {
+        HyperLogLog hll = new HyperLogLog();
+        int n = 100000;
+        for (long id = 1; id <= n; id++) {
+            hll.offer(id);
+        }
+
+        assertFalse(hll.isSparse());
+        // 标准误差约 1.6%，取 3 倍标准误差作为上界
+        double error = Math.abs(hll.cardinality() - n) / (double) n;
+        assertTrue(error < 0.05, "相对误差 " + error);
+    }
+
+    @Test
+    void testRepeatedValuesDoNotInflateEstimate() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= 2000; id++) {
+                hll.offer(id);
+            }
+        }
+
+        double error = Math.abs(hll.cardinality() - 2000) / 2000.0;
+        assertTrue(error < 0.05, "相对误差 " + error);
+    }
+
+    @Test
+    void testSerializationRoundTrip() {
+        HyperLogLog sparse = new HyperLogLog();
+        HyperLogLog dense = new HyperLogLog();
+        for (long id = 1; id <= 5000; id++) {
+            if (id <= 100) {
+                sparse.offer(id);
+            }
+            dense.offer(id);
+        }
+
+        HyperLogLog restoredSparse = HyperLogLog.fromBytes(sparse.toBytes());
+        HyperLogLog restoredDense = HyperLogLog.fromBytes(dense.toBytes());
+
+        assertEquals(sparse.cardinality(), restoredSparse.cardinality());
+        assertEquals(dense.cardinality(), restoredDense.cardinality());
+        assertFalse(restoredSparse.offer(50L));
+        assertTrue(restoredSparse.offer(101L));
+    }
+}
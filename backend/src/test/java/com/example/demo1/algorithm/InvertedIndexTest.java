@@ -0,0 +1,101 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    @Test
+    void testAndSemanticsAndBm25Ranking() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, "今晚喝了一杯威士忌", 100);
+        index.add(2, "威士忌威士忌，单一麦芽威士忌", 200);
+        index.add(3, "精酿啤酒", 300);
+
+        List<InvertedIndex.Hit> hits = index.search("威士忌");
+
+        assertEquals(List.of(2L, 1L), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        assertTrue(index.search("威士忌 啤酒").isEmpty());
+        assertEquals(List.of(3L), ids(index.search("啤酒")));
+    }
+
+    @Test
+    void testSingleCharacterQueryMatchesUnigram() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, "一杯酒", 100);
+        index.add(2, "一杯茶", 200);
+
+        assertEquals(List.of(1L), ids(index.search("酒")));
+    }
+
+    @Test
+    void testOutOfOrderInsertAndReplace() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(10, "gin tonic", 100);
+        index.add(5, "gin fizz", 50);
+        index.add(7, "gin sour", 70);
+        index.add(10, "rum punch", 100);
+
+        List<Long> gin = ids(index.search("gin"));
+        assertEquals(2, gin.size());
+        assertTrue(gin.containsAll(List.of(5L, 7L)));
+        assertEquals(List.of(10L), ids(index.search("rum")));
+        assertTrue(index.search("tonic").isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRemoveSkipsTombstonesAndCompacts() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 200; id++) {
+            index.add(id, "mojito 薄荷 " + id, id);
+        }
+        for (long id = 1; id <= 100; id++) {
+            index.remove(id);
+        }
+
+        List<InvertedIndex.Hit> hits = index.search("薄荷");
+        assertEquals(100, hits.size());
+        assertTrue(hits.stream().allMatch(h -> h.getDocId() > 100));
+        assertFalse(index.contains(1));
+
+        index.compact();
+        assertEquals(100, index.search("mojito").size());
+        assertEquals(200, index.maxDocId());
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws Exception {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, "鸡尾酒 negroni", 1000);
+        index.add(2, "鸡尾酒 martini", 2000);
+        index.add(3, "红酒", 3000);
+        index.remove(3);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        InvertedIndex loaded = InvertedIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(2, loaded.size());
+        assertEquals(ids(index.search("鸡尾酒")), ids(loaded.search("鸡尾酒")));
+        assertEquals(2000, loaded.search("martini").get(0).getTimestamp());
+
+        // 恢复后的文档仍可被删除
+        loaded.remove(1);
+        loaded.compact();
+        assertEquals(List.of(2L), ids(loaded.search("鸡尾酒")));
+    }
+
+    private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::getDocId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashLshIndexTest {
+
+    @Test
+    void testSimilarUsersCollide() {
+        MinHashLshIndex index = new MinHashLshIndex(20, 3, 42L);
+        index.put(1L, new long[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        // 与用户1的 Jaccard 相似度为 9/11
+        index.put(2L, new long[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 11});
+        // 与用户1完全不相交
+        index.put(3L, new long[]{101, 102, 103, 104, 105, 106, 107, 108, 109, 110});
+
+        Set<Long> candidates = index.candidates(1L);
+        assertTrue(candidates.contains(2L));
+        assertFalse(candidates.contains(3L));
+        assertFalse(candidates.contains(1L));
+    }
+
+    @Test
+    void testIncrementalAddMatchesBulkPut() {
+        MinHashLshIndex bulk = new MinHashLshIndex(10, 2, 7L);
+        MinHashLshIndex streaming = new MinHashLshIndex(10, 2, 7L);
+        long[] postIds = {5, 17, 23, 42, 99};
+
+        bulk.put(1L, postIds);
+        bulk.put(2L, postIds);
+        streaming.put(2L, postIds);
+        for (long postId : postIds) {
+            streaming.add(1L, postId);
+        }
+
+        assertEquals(bulk.candidates(1L), streaming.candidates(1L));
+        assertTrue(streaming.candidates(1L).contains(2L));
+    }
+
+    @Test
+    void testUnknownUserHasNoCandidates() {
+        MinHashLshIndex index = new MinHashLshIndex(4, 2, 1L);
+        index.put(1L, new long[]{1, 2, 3});
+        assertTrue(index.candidates(99L).isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo1.algorithm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 相似用户查找基准：暴力扫描 vs MinHash/LSH 候选 + 余弦精排
+ * 在合成数据上比较 recall@10 和单次查询延迟。
+ *
+ * 运行方式（需先执行 mvn test-compile）：
+ *   java -cp target/classes:target/test-classes com.example.demo1.algorithm.NeighborSearchBenchmark [用户数] [查询数]
+ */
+public class NeighborSearchBenchmark {
+
+    private static final int K = 10;
+
+    public static void main(String[] args) {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Random random = new Random(2024L);
+
+        // 合成数据：用户分属若干兴趣簇，每人从本簇热门动态中采样，并混入少量随机动态
+        int clusterCount = Math.max(1, userCount / 200);
+        int postsPerCluster = 300;
+        Map<Long, UserInteractionMatrix.Row> rows = new HashMap<>();
+        MinHashLshIndex index = new MinHashLshIndex(32, 1, 20240601L);
+        for (long userId = 1; userId <= userCount; userId++) {
+            int cluster = random.nextInt(clusterCount);
+            int interactions = 5 + random.nextInt(40);
+            Map<Long, Float> vector = new HashMap<>();
+            for (int i = 0; i < interactions; i++) {
+                long postId;
+                if (random.nextDouble() < 0.85) {
+                    // 簇内动态呈偏斜分布
+                    int offset = (int) (postsPerCluster * Math.pow(random.nextDouble(), 2));
+                    postId = (long) cluster * postsPerCluster + offset;
+                } else {
+                    postId = random.nextInt(clusterCount * postsPerCluster);
+                }
+                vector.merge(postId, (float) (1 + random.nextInt(3)), Float::sum);
+            }
+            UserInteractionMatrix.Row row = UserInteractionMatrix.Row.of(vector);
+            rows.put(userId, row);
+            index.put(userId, row.postIds);
+        }
+
+        List<Long> queries = new ArrayList<>();
+        for (int i = 0; i < queryCount; i++) {
+            queries.add(1L + random.nextInt(userCount));
+        }
+
+        long bruteNanos = 0;
+        long lshNanos = 0;
+        double recallSum = 0;
+        long candidateSum = 0;
+        for (Long userId : queries) {
+            UserInteractionMatrix.Row target = rows.get(userId);
+
+            long start = System.nanoTime();
+            List<Long> exact = topK(target, userId, rows.keySet(), rows);
+            bruteNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Set<Long> candidates = index.candidates(userId);
+            List<Long> approximate = topK(target, userId, candidates, rows);
+            lshNanos += System.nanoTime() - start;
+
+            candidateSum += candidates.size();
+            if (!exact.isEmpty()) {
+                Set<Long> hits = new HashSet<>(approximate);
+                hits.retainAll(exact);
+                recallSum += (double) hits.size() / exact.size();
+            } else {
+                recallSum += 1.0;
+            }
+        }
+
+        System.out.printf("用户数=%d, 查询数=%d%n", userCount, queryCount);
+        System.out.printf("暴力扫描: 平均 %.3f ms/次%n", bruteNanos / 1e6 / queryCount);
+        System.out.printf("LSH:      平均 %.3f ms/次, 平均候选数 %.1f, recall@%d=%.3f%n",
+            lshNanos / 1e6 / queryCount, (double) candidateSum / queryCount, K, recallSum / queryCount);
+    }
+
+    private static List<Long> topK(UserInteractionMatrix.Row target, Long userId, Set<Long> candidates,
+                                   Map<Long, UserInteractionMatrix.Row> rows) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long candidateId : candidates) {
+            if (candidateId.equals(userId)) {
+                continue;
+            }
+            double similarity = UserInteractionMatrix.cosine(target, rows.get(candidateId));
+            if (similarity > 0) {
+                scores.put(candidateId, similarity);
+            }
+        }
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+            .limit(K)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+}
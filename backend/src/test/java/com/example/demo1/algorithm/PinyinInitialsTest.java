@@ -0,0 +1,30 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PinyinInitialsTest {
+
+    @Test
+    void testCommonNames() {
+        assertEquals("wsj", PinyinInitials.of("威士忌"));
+        assertEquals("lsl", PinyinInitials.of("龙舌兰"));
+        assertEquals("jwj", PinyinInitials.of("鸡尾酒"));
+        assertEquals("zs", PinyinInitials.of("张三"));
+    }
+
+    @Test
+    void testMixedTextKeepsLettersAndDigits() {
+        assertEquals("ipajn", PinyinInitials.of("IPA 精酿"));
+        assertEquals("7hjb", PinyinInitials.of("7号酒吧"));
+    }
+
+    @Test
+    void testUnresolvableOrNoHan() {
+        // "鑫" 为 GB2312 二级汉字，无法按编码区间确定首字母
+        assertNull(PinyinInitials.of("鑫鑫酒吧"));
+        assertNull(PinyinInitials.of("Jack"));
+        assertNull(PinyinInitials.of(null));
+    }
+}
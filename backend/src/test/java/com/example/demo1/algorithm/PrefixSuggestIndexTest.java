@@ -0,0 +1,106 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.algorithm.PrefixSuggestIndex.Entry;
+import com.example.demo1.common.enums.SuggestType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixSuggestIndexTest {
+
+    private static PrefixSuggestIndex sampleIndex() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex(100);
+        index.rebuild(List.of(
+            new Entry(SuggestType.BEVERAGE, 1, "威士忌", 5.0),
+            new Entry(SuggestType.TAG, 2, "威士忌酸", 8.0),
+            new Entry(SuggestType.BAR, 3, "Whisky Bar", 3.0),
+            new Entry(SuggestType.USER, 4, "王小二", 1.0),
+            new Entry(SuggestType.ALCOHOL, 5, "伏特加", 2.0)
+        ), index.mark());
+        return index;
+    }
+
+    @Test
+    void testPrefixMatchOrderedByWeight() {
+        PrefixSuggestIndex index = sampleIndex();
+
+        assertEquals(List.of("威士忌酸", "威士忌"), texts(index.suggest("威士", 10)));
+        assertEquals(List.of("Whisky Bar"), texts(index.suggest("WHISKY b", 10)));
+        assertTrue(index.suggest("朗姆", 10).isEmpty());
+    }
+
+    @Test
+    void testPinyinInitialsMatch() {
+        PrefixSuggestIndex index = sampleIndex();
+
+        assertEquals(List.of("威士忌酸", "威士忌", "Whisky Bar", "王小二"), texts(index.suggest("w", 10)));
+        assertEquals(List.of("威士忌酸", "威士忌"), texts(index.suggest("wsj", 10)));
+        assertEquals(List.of("伏特加"), texts(index.suggest("ftj", 10)));
+        assertEquals(List.of("威士忌酸"), texts(index.suggest("w", 1)));
+    }
+
+    @Test
+    void testIncrementalUpsertAndRemove() {
+        PrefixSuggestIndex index = sampleIndex();
+        index.upsert(new Entry(SuggestType.USER, 4, "王大锤", 9.0));
+        index.remove(SuggestType.TAG, 2);
+        index.upsert(new Entry(SuggestType.BEVERAGE, 6, "威士忌可乐", 0.5));
+
+        assertEquals(List.of("威士忌", "威士忌可乐"), texts(index.suggest("威士忌", 10)));
+        assertEquals(List.of("王大锤"), texts(index.suggest("wd", 10)));
+        assertTrue(index.suggest("王小", 10).isEmpty());
+    }
+
+    @Test
+    void testCompactionKeepsResults() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex(8);
+        for (long id = 1; id <= 50; id++) {
+            index.upsert(new Entry(SuggestType.TAG, id, "tag" + id, id));
+        }
+        index.remove(SuggestType.TAG, 50);
+
+        assertTrue(index.size() >= 40);
+        assertEquals(List.of("tag49", "tag48", "tag47"), texts(index.suggest("tag", 3)));
+        assertEquals(List.of("tag5"), texts(index.suggest("tag5", 1)));
+    }
+
+    @Test
+    void testRebuildKeepsDeltasAfterMark() {
+        PrefixSuggestIndex index = sampleIndex();
+        long mark = index.mark();
+        index.upsert(new Entry(SuggestType.USER, 7, "新用户", 1.0));
+
+        List<Entry> reloaded = new ArrayList<>();
+        reloaded.add(new Entry(SuggestType.BEVERAGE, 1, "威士忌", 5.0));
+        index.rebuild(reloaded, mark);
+
+        assertEquals(List.of("新用户"), texts(index.suggest("xyh", 10)));
+        assertEquals(List.of("威士忌"), texts(index.suggest("威", 10)));
+    }
+
+    @Test
+    void testShortPrefixSkipsEntriesOverriddenByDeltas() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex(1000);
+        List<Entry> entries = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            entries.add(new Entry(SuggestType.TAG, id, "t" + id, id));
+        }
+        index.rebuild(entries, index.mark());
+        // 缓存的前 20 个里有 18 个被删除，剩余结果要从缓存之外按权重补齐
+        for (long id = 13; id <= 30; id++) {
+            index.remove(SuggestType.TAG, id);
+        }
+        index.upsert(new Entry(SuggestType.TAG, 1, "t1", 100.0));
+
+        assertEquals(List.of("t1", "t12", "t11", "t10", "t9"), texts(index.suggest("t", 5)));
+        assertEquals(List.of("t1", "t12", "t11", "t10"), texts(index.suggest("t1", 5)));
+    }
+
+    private static List<String> texts(List<Entry> entries) {
+        return entries.stream().map(Entry::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void testNoFalseNegativesAfterGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(64, 0.01);
+        for (long id = 1; id <= 5000; id++) {
+            filter.put(id);
+        }
+
+        assertTrue(filter.sliceCount() > 1);
+        for (long id = 1; id <= 5000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateWithinBound() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(256, 0.01);
+        for (long id = 1; id <= 10000; id++) {
+            filter.put(id);
+        }
+
+        int falsePositives = 0;
+        int trials = 100000;
+        for (long id = 1_000_000; id < 1_000_000 + trials; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        // 理论上界为 2 * fpp，留一些余量
+        assertTrue(falsePositives < trials * 0.03, "误判数 " + falsePositives);
+    }
+
+    @Test
+    void testPutReportsDuplicates() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(16, 0.01);
+
+        assertTrue(filter.put(42L));
+        assertFalse(filter.put(42L));
+        assertEquals(1, filter.count());
+    }
+
+    @Test
+    void testSerializationRoundTrip() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(32, 0.01);
+        for (long id = 1; id <= 500; id++) {
+            filter.put(id * 7);
+        }
+
+        ScalableBloomFilter restored = ScalableBloomFilter.fromBytes(filter.toBytes());
+
+        assertEquals(filter.count(), restored.count());
+        assertEquals(filter.sliceCount(), restored.sliceCount());
+        for (long id = 1; id <= 500; id++) {
+            assertTrue(restored.mightContain(id * 7));
+        }
+        assertArrayEquals(filter.toBytes(), restored.toBytes());
+    }
+}
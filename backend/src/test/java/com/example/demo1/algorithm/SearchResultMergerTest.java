@@ -0,0 +1,89 @@
+package com.example.demo1.algorithm;
+
+import com.example.demo1.algorithm.SearchResultMerger.Candidate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultMergerTest {
+
+    @Test
+    void testScoresMergedOnSharedScale() {
+        // BM25 分数先映射到 [0, 1]，再与文本匹配度直接比较
+        List<Candidate<String, String>> posts = List.of(
+            new Candidate<>("post", SearchResultMerger.saturate(15.0, 5.0), "p1"),
+            new Candidate<>("post", SearchResultMerger.saturate(2.5, 5.0), "p2"));
+        List<Candidate<String, String>> users = List.of(
+            new Candidate<>("user", 0.75, "u1"), new Candidate<>("user", 0.5, "u2"));
+
+        List<Candidate<String, String>> merged = SearchResultMerger.merge(List.of(posts, users), 10, 10);
+
+        // p1 与 u1 同分，按来源顺序排列
+        assertEquals(List.of("p1", "u1", "u2", "p2"), items(merged));
+        assertEquals(0.75, merged.get(0).getScore(), 1e-9);
+        assertEquals(0.75, merged.get(1).getScore(), 1e-9);
+        assertEquals(1.0 / 3, merged.get(3).getScore(), 1e-9);
+    }
+
+    @Test
+    void testWeakBestHitIsNotInflated() {
+        // 维基只有一条弱匹配（包含），不会因为是该来源的最高分而排到强结果前面
+        List<Candidate<String, String>> posts = List.of(
+            new Candidate<>("post", SearchResultMerger.saturate(20.0, 5.0), "p1"),
+            new Candidate<>("post", SearchResultMerger.saturate(10.0, 5.0), "p2"));
+        List<Candidate<String, String>> wiki = List.of(new Candidate<>("wiki", 0.5, "w1"));
+
+        List<Candidate<String, String>> merged = SearchResultMerger.merge(List.of(wiki, posts), 10, 10);
+
+        assertEquals(List.of("p1", "p2", "w1"), items(merged));
+        assertEquals(0.5, merged.get(2).getScore(), 1e-9);
+    }
+
+    @Test
+    void testSaturate() {
+        assertEquals(0, SearchResultMerger.saturate(0, 5.0), 1e-9);
+        assertEquals(0.5, SearchResultMerger.saturate(5.0, 5.0), 1e-9);
+        assertTrue(SearchResultMerger.saturate(1000.0, 5.0) < 1.0);
+        assertTrue(SearchResultMerger.saturate(8.0, 5.0) > SearchResultMerger.saturate(4.0, 5.0));
+    }
+
+    @Test
+    void testPerTypeQuotaAndLimit() {
+        List<Candidate<String, String>> posts = List.of(
+            new Candidate<>("post", 0.9, "p1"), new Candidate<>("post", 0.8, "p2"),
+            new Candidate<>("post", 0.7, "p3"));
+        List<Candidate<String, String>> wiki = List.of(
+            new Candidate<>("wiki", 0.85, "w1"), new Candidate<>("wiki", 0.2, "w2"));
+
+        List<Candidate<String, String>> merged = SearchResultMerger.merge(List.of(posts, wiki), 2, 3);
+
+        assertEquals(List.of("p1", "w1", "p2"), items(merged));
+    }
+
+    @Test
+    void testZeroScoresFallBackToRank() {
+        List<Candidate<String, String>> beverages = List.of(
+            new Candidate<>("beverage", 0, "b1"), new Candidate<>("beverage", 0, "b2"));
+
+        List<Candidate<String, String>> merged = SearchResultMerger.merge(List.of(beverages), 5, 5);
+
+        assertEquals(1.0, merged.get(0).getScore(), 1e-9);
+        assertEquals(0.5, merged.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void testTextMatchScore() {
+        assertEquals(1.0, SearchResultMerger.textMatchScore("Gin", "gin"), 1e-9);
+        assertEquals(0.75, SearchResultMerger.textMatchScore("威士", "威士忌"), 1e-9);
+        assertEquals(0.5, SearchResultMerger.textMatchScore("士忌", "威士忌"), 1e-9);
+        assertEquals(0, SearchResultMerger.textMatchScore("rum", "gin"), 1e-9);
+        assertEquals(0, SearchResultMerger.textMatchScore("rum", null), 1e-9);
+    }
+
+    private static List<String> items(List<Candidate<String, String>> candidates) {
+        return candidates.stream().map(Candidate::getItem).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowTopKTest {
+
+    private static final long MINUTE = 60_000L;
+
+    // 1 小时窗口：12 个 5 分钟的桶
+    private static SlidingWindowTopK hourWindow(int capacity) {
+        return new SlidingWindowTopK(5 * MINUTE, 12, 1024, 4, capacity);
+    }
+
+    private static List<String> names(List<SlidingWindowTopK.Item> items) {
+        return items.stream().map(SlidingWindowTopK.Item::getItem).collect(Collectors.toList());
+    }
+
+    @Test
+    void testTopOrderedByCount() {
+        SlidingWindowTopK topK = hourWindow(100);
+        long now = 1_000 * MINUTE;
+        topK.add("威士忌", 5, now);
+        topK.add("gin", 2, now);
+        topK.add("清酒", 3, now + MINUTE);
+        topK.add("gin", 2, now + 2 * MINUTE);
+
+        List<SlidingWindowTopK.Item> top = topK.top(2, now + 2 * MINUTE);
+        assertEquals(List.of("威士忌", "gin"), names(top));
+        assertEquals(5, top.get(0).getCount());
+        assertEquals(4, top.get(1).getCount());
+        assertEquals(12, topK.total(now + 2 * MINUTE));
+    }
+
+    @Test
+    void testOldBucketsSlideOut() {
+        SlidingWindowTopK topK = hourWindow(100);
+        long start = 1_000 * MINUTE;
+        topK.add("啤酒", 10, start);
+        topK.add("红酒", 3, start + 30 * MINUTE);
+
+        assertEquals(List.of("啤酒", "红酒"), names(topK.top(10, start + 50 * MINUTE)));
+        // 一小时后第一个桶滑出，啤酒的计数被减掉并从候选中移除
+        List<SlidingWindowTopK.Item> later = topK.top(10, start + 65 * MINUTE);
+        assertEquals(List.of("红酒"), names(later));
+        assertEquals(0, topK.estimate("啤酒", start + 65 * MINUTE));
+        // 很久之后整个窗口清空
+        assertTrue(topK.top(10, start + 10 * 60 * MINUTE).isEmpty());
+        assertEquals(0, topK.total(start + 10 * 60 * MINUTE));
+    }
+
+    @Test
+    void testLateEventsWithinWindowAreCounted() {
+        SlidingWindowTopK topK = hourWindow(100);
+        long now = 1_000 * MINUTE;
+        topK.add("rum", 1, now);
+        topK.add("rum", 2, now - 20 * MINUTE);
+        topK.add("rum", 100, now - 2 * 60 * MINUTE);
+        assertEquals(3, topK.estimate("rum", now));
+    }
+
+    @Test
+    void testCapacityKeepsHeavyHitters() {
+        SlidingWindowTopK topK = hourWindow(3);
+        long now = 1_000 * MINUTE;
+        for (int i = 0; i < 50; i++) {
+            topK.add("rare" + i, 1, now);
+        }
+        topK.add("hot-a", 20, now);
+        topK.add("hot-b", 15, now);
+        topK.add("hot-c", 10, now);
+        assertEquals(List.of("hot-a", "hot-b", "hot-c"), names(topK.top(3, now)));
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws Exception {
+        SlidingWindowTopK topK = hourWindow(100);
+        long now = 1_000 * MINUTE;
+        topK.add("梅酒", 4, now - 40 * MINUTE);
+        topK.add("sake", 6, now);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        topK.writeTo(new DataOutputStream(bytes));
+
+        SlidingWindowTopK restored = SlidingWindowTopK.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertTrue(restored.hasShape(5 * MINUTE, 12, 1024, 4, 100));
+        assertEquals(List.of("sake", "梅酒"), names(restored.top(10, now)));
+        // 恢复后继续滑动
+        assertEquals(List.of("sake"), names(restored.top(10, now + 25 * MINUTE)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseVectorTest {
+
+    @Test
+    void testBuilderSortsAndMergesDuplicates() {
+        SparseVector vector = new SparseVector.Builder()
+            .add(7, 1.0f)
+            .add(2, 0.5f)
+            .add(7, 2.0f)
+            .build();
+
+        assertEquals(2, vector.size());
+        assertEquals(2, vector.idAt(0));
+        assertEquals(7, vector.idAt(1));
+        assertEquals(3.0f, vector.weightAt(1), 1e-6);
+        assertEquals(Math.sqrt(0.25 + 9.0), vector.getNorm(), 1e-6);
+    }
+
+    @Test
+    void testCosineMatchesDefinition() {
+        SparseVector a = new SparseVector.Builder().add(1, 1.0f).add(3, 2.0f).add(5, 3.0f).build();
+        SparseVector b = new SparseVector.Builder().add(3, 4.0f).add(4, 1.0f).add(5, 1.0f).build();
+
+        double expected = (2.0 * 4.0 + 3.0 * 1.0) / (Math.sqrt(14.0) * Math.sqrt(18.0));
+        assertEquals(expected, SparseVector.cosine(a, b), 1e-9);
+        assertEquals(SparseVector.cosine(a, b), SparseVector.cosine(b, a), 1e-12);
+    }
+
+    @Test
+    void testUniformVector() {
+        SparseVector vector = SparseVector.uniform(new int[]{9, 4, 9, 1});
+
+        assertEquals(3, vector.size());
+        assertEquals(1, vector.idAt(0));
+        assertEquals(1.0f / 3, vector.weightAt(2), 1e-6);
+    }
+
+    @Test
+    void testEmptyAndDisjointVectors() {
+        SparseVector a = new SparseVector.Builder().add(1, 1.0f).build();
+        SparseVector b = new SparseVector.Builder().add(2, 1.0f).build();
+
+        assertEquals(0.0, SparseVector.cosine(a, b));
+        assertEquals(0.0, SparseVector.cosine(a, SparseVector.EMPTY));
+        assertTrue(new SparseVector.Builder().build().isEmpty());
+    }
+}
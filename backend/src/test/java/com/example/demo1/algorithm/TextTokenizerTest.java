@@ -0,0 +1,41 @@
+package com.example.demo1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextTokenizerTest {
+
+    @Test
+    void testIndexTokensIncludeBigramsAndUnigrams() {
+        List<String> tokens = TextTokenizer.tokenizeForIndex("威士忌酒");
+
+        assertTrue(tokens.containsAll(List.of("威士", "士忌", "忌酒")));
+        assertTrue(tokens.containsAll(List.of("威", "士", "忌", "酒")));
+        assertEquals(7, tokens.size());
+    }
+
+    @Test
+    void testQueryTokensUseBigramsOnly() {
+        assertEquals(List.of("威士", "士忌"), TextTokenizer.tokenizeForQuery("威士忌"));
+        assertEquals(List.of("酒"), TextTokenizer.tokenizeForQuery("酒"));
+    }
+
+    @Test
+    void testMixedTextNormalizedAndSplit() {
+        List<String> tokens = TextTokenizer.tokenizeForQuery("ＩＰＡ啤酒,Craft Beer!");
+
+        assertEquals(List.of("ipa", "啤酒", "craft", "beer"), tokens);
+    }
+
+    @Test
+    void testOverlongWordSkipped() {
+        String url = "x".repeat(40);
+
+        assertTrue(TextTokenizer.tokenizeForIndex(url + " gin").contains("gin"));
+        assertFalse(TextTokenizer.tokenizeForIndex(url).contains(url));
+        assertTrue(TextTokenizer.tokenizeForQuery(null).isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo1.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的对数-线性延迟直方图（微秒）
+ * 每个 2 的幂区间再均分为 SUB_BUCKETS 个子桶，相对误差不超过 1/SUB_BUCKETS，
+ * 以固定内存记录任意多的样本。
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 覆盖到 2^40 微秒，远超任何请求超时
+    private static final int MAX_EXPONENT = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_EXPONENT + 1) * SUB_BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            long c = other.counts.get(i);
+            if (c > 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    long count() {
+        return totalCount.get();
+    }
+
+    double meanMicros() {
+        long n = totalCount.get();
+        return n == 0 ? 0.0 : (double) totalMicros.get() / n;
+    }
+
+    long maxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * 百分位延迟（返回所在桶的上界）
+     *
+     * @param percentile 0-100
+     */
+    long percentileMicros(double percentile) {
+        long n = totalCount.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBound(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * 按 2 的幂区间汇总的分布，用于打印
+     *
+     * @return 下标 e 对应 [2^e, 2^(e+1)) 微秒的样本数
+     */
+    long[] countsByPowerOfTwo() {
+        long[] result = new long[MAX_EXPONENT + 1];
+        for (int i = 0; i < counts.length(); i++) {
+            result[i / SUB_BUCKETS] += counts.get(i);
+        }
+        return result;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return (MAX_EXPONENT + 1) * SUB_BUCKETS - 1;
+        }
+        int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        int exponent = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (exponent < SUB_BUCKET_BITS) {
+            return index;
+        }
+        long base = 1L << exponent;
+        long step = base >>> SUB_BUCKET_BITS;
+        return base + (sub + 1) * step - 1;
+    }
+}
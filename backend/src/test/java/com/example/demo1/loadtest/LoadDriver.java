@@ -0,0 +1,334 @@
+package com.example.demo1.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 端到端压测驱动
+ * 以固定并发回放混合请求：关注流、个性化推荐（含游标翻页）、热门排行、附近酒吧和搜索，
+ * 结束后输出每个接口的吞吐量、错误数、延迟百分位和延迟分布直方图。
+ * 
+ * 登录用户为 SyntheticDataGenerator 生成的 lt_user_1..N（同一个密码），
+ * 用户选择服从 Zipf 分布，模拟少数重度用户贡献大部分请求。
+ * 
+ * 运行方式（后端已启动并导入合成数据）：
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.demo1.loadtest.LoadDriver \
+ *     -Dexec.args="--base-url http://localhost:8081/api --threads 32 --duration 60"
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String[] KEYWORDS = {
+        "威士忌", "鸡尾酒", "啤酒", "红酒", "金酒", "精酿", "安静", "酒吧", "周末", "朗姆酒", "清酒", "lt_user_1"
+    };
+    private static final String[] TIME_DIMENSIONS = {"DAY", "WEEK", "WEEK", "MONTH", "ALL"};
+    private static final String[] SORT_STRATEGIES = {"COMPREHENSIVE", "COMPREHENSIVE", "DISTANCE_FIRST", "RATING_FIRST"};
+
+    /**
+     * 回放的接口
+     */
+    enum Endpoint {
+        FEED, RECOMMEND, HOT, NEARBY, SEARCH
+    }
+
+    private final Options options;
+    private final HttpClient client;
+    private final String[] cookies;
+    private final ZipfSampler userSampler;
+    private final Map<Endpoint, LatencyHistogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+    private volatile boolean recording;
+    private volatile boolean stopped;
+
+    private LoadDriver(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.cookies = new String[options.users];
+        this.userSampler = new ZipfSampler(options.users, 0.8);
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, new LatencyHistogram());
+            errors.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LoadDriver driver = new LoadDriver(options);
+        driver.login();
+        driver.run();
+        driver.report();
+    }
+
+    private void login() throws Exception {
+        int success = 0;
+        for (int i = 0; i < options.users; i++) {
+            String body = OBJECT_MAPPER.writeValueAsString(Map.of(
+                "username", "lt_user_" + (i + 1),
+                "password", options.password));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl + "/auth/login"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            for (String setCookie : response.headers().allValues("Set-Cookie")) {
+                if (setCookie.startsWith(options.cookieName + "=")) {
+                    cookies[i] = setCookie.substring(0, setCookie.indexOf(';') > 0 ? setCookie.indexOf(';') : setCookie.length());
+                    success++;
+                }
+            }
+        }
+        System.out.printf("登录完成: %d/%d 个用户%n", success, options.users);
+        if (success == 0) {
+            throw new IllegalStateException("没有用户登录成功，请确认已导入合成数据且密码正确");
+        }
+    }
+
+    private void run() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(options.threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < options.threads; t++) {
+            Random random = new Random(options.seed + t);
+            Thread worker = new Thread(() -> {
+                try {
+                    while (!stopped) {
+                        runOnce(random);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        workers.forEach(Thread::start);
+
+        System.out.printf("预热 %ds ...%n", options.warmupSeconds);
+        Thread.sleep(options.warmupSeconds * 1000L);
+        recording = true;
+        long start = System.nanoTime();
+        System.out.printf("压测 %ds（%d 线程）...%n", options.durationSeconds, options.threads);
+        Thread.sleep(options.durationSeconds * 1000L);
+        recording = false;
+        options.elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        stopped = true;
+        done.await();
+    }
+
+    private void runOnce(Random random) {
+        Endpoint endpoint = options.pickEndpoint(random);
+        String cookie = cookies[userSampler.sample(random)];
+        switch (endpoint) {
+            case FEED -> call(endpoint, cookie, "/circle/feed?page=" + page(random) + "&pageSize=10");
+            case RECOMMEND -> {
+                JsonNode data = call(endpoint, cookie, "/recommend/posts?size=10");
+                // 一半的请求继续用游标翻页
+                while (data != null && data.hasNonNull("nextCursor") && random.nextBoolean()) {
+                    data = call(endpoint, cookie, "/recommend/posts?size=10&cursor="
+                        + encode(data.get("nextCursor").asText()));
+                }
+            }
+            case HOT -> call(endpoint, cookie, "/ranking/hot?timeDimension="
+                + TIME_DIMENSIONS[random.nextInt(TIME_DIMENSIONS.length)] + "&page=" + page(random) + "&pageSize=12");
+            case NEARBY -> {
+                SyntheticCity city = SyntheticCity.pick(random);
+                double latitude = city.latitude + random.nextGaussian() * 0.03;
+                double longitude = city.longitude + random.nextGaussian() * 0.03;
+                call(endpoint, null, String.format("/bars/nearby?latitude=%.6f&longitude=%.6f&radiusKm=%d&sortStrategy=%s",
+                    latitude, longitude, 5 + random.nextInt(16), SORT_STRATEGIES[random.nextInt(SORT_STRATEGIES.length)]));
+            }
+            case SEARCH -> call(endpoint, cookie, "/search?keyword="
+                + encode(KEYWORDS[(int) (KEYWORDS.length * Math.pow(random.nextDouble(), 2))]) + "&type=all");
+        }
+    }
+
+    /**
+     * 发送一次 GET 请求并记录延迟
+     *
+     * @return 响应中的 data 节点，失败时返回 null
+     */
+    private JsonNode call(Endpoint endpoint, String cookie, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+            .timeout(Duration.ofSeconds(options.timeoutSeconds))
+            .GET();
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        long start = System.nanoTime();
+        JsonNode data = null;
+        boolean ok = false;
+        try {
+            HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode body = OBJECT_MAPPER.readTree(response.body());
+                ok = body.path("code").asInt() == 200;
+                data = body.get("data");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        } catch (Exception e) {
+            // 超时或连接失败计为错误
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        if (recording) {
+            histograms.get(endpoint).record(micros);
+            if (!ok) {
+                errors.get(endpoint).incrementAndGet();
+            }
+        }
+        return ok ? data : null;
+    }
+
+    private void report() {
+        double elapsed = options.elapsedSeconds;
+        LatencyHistogram overall = new LatencyHistogram();
+        long totalErrors = 0;
+
+        System.out.println();
+        System.out.printf("%-10s %9s %8s %9s %9s %9s %9s %9s %9s %9s%n",
+            "接口", "请求数", "错误", "req/s", "mean(ms)", "p50", "p90", "p99", "p99.9", "max");
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyHistogram histogram = histograms.get(endpoint);
+            long errorCount = errors.get(endpoint).get();
+            overall.add(histogram);
+            totalErrors += errorCount;
+            printRow(endpoint.name(), histogram, errorCount, elapsed);
+        }
+        printRow("TOTAL", overall, totalErrors, elapsed);
+
+        System.out.println();
+        System.out.println("延迟分布（全部接口）:");
+        long[] buckets = overall.countsByPowerOfTwo();
+        long peak = 1;
+        for (long c : buckets) {
+            peak = Math.max(peak, c);
+        }
+        for (int e = 0; e < buckets.length; e++) {
+            if (buckets[e] == 0) {
+                continue;
+            }
+            String range = e == 0 ? "< 16µs" : String.format("%s - %s", formatMicros(1L << e), formatMicros(1L << (e + 1)));
+            int bar = (int) Math.round(50.0 * buckets[e] / peak);
+            System.out.printf("%22s | %-50s %d%n", range, "#".repeat(Math.max(1, bar)), buckets[e]);
+        }
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, long errorCount, double elapsed) {
+        System.out.printf("%-10s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name, histogram.count(), errorCount, histogram.count() / elapsed,
+            histogram.meanMicros() / 1000.0,
+            histogram.percentileMicros(50) / 1000.0,
+            histogram.percentileMicros(90) / 1000.0,
+            histogram.percentileMicros(99) / 1000.0,
+            histogram.percentileMicros(99.9) / 1000.0,
+            histogram.maxMicros() / 1000.0);
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros >= 1_000_000) {
+            return String.format("%.1fs", micros / 1e6);
+        }
+        if (micros >= 1000) {
+            return String.format("%.1fms", micros / 1e3);
+        }
+        return micros + "µs";
+    }
+
+    /**
+     * 页码偏向前几页
+     */
+    private static int page(Random random) {
+        return 1 + (int) (5 * Math.pow(random.nextDouble(), 3));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 命令行参数
+     */
+    static final class Options {
+        String baseUrl = "http://localhost:8081/api";
+        String password = "loadtest123";
+        String cookieName = "AUTH_TOKEN";
+        int users = 200;
+        int threads = 32;
+        int warmupSeconds = 10;
+        int durationSeconds = 60;
+        int timeoutSeconds = 10;
+        long seed = 42L;
+        // 请求配比：FEED, RECOMMEND, HOT, NEARBY, SEARCH
+        int[] mix = {30, 25, 20, 15, 10};
+        double elapsedSeconds;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String key = args[i];
+                String value = args[i + 1];
+                switch (key) {
+                    case "--base-url" -> options.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    case "--password" -> options.password = value;
+                    case "--cookie-name" -> options.cookieName = value;
+                    case "--users" -> options.users = Integer.parseInt(value);
+                    case "--threads" -> options.threads = Integer.parseInt(value);
+                    case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "--duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "--timeout" -> options.timeoutSeconds = Integer.parseInt(value);
+                    case "--seed" -> options.seed = Long.parseLong(value);
+                    case "--mix" -> options.mix = parseMix(value);
+                    default -> throw new IllegalArgumentException("未知参数: " + key);
+                }
+            }
+            return options;
+        }
+
+        /**
+         * 解析形如 "feed=30,recommend=25,hot=20,nearby=15,search=10" 的配比，未列出的接口权重为0
+         */
+        private static int[] parseMix(String value) {
+            int[] mix = new int[Endpoint.values().length];
+            for (String part : value.split(",")) {
+                String[] kv = part.split("=");
+                mix[Endpoint.valueOf(kv[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(kv[1].trim());
+            }
+            return mix;
+        }
+
+        Endpoint pickEndpoint(Random random) {
+            int total = 0;
+            for (int w : mix) {
+                total += w;
+            }
+            int r = random.nextInt(total);
+            for (Endpoint endpoint : Endpoint.values()) {
+                r -= mix[endpoint.ordinal()];
+                if (r < 0) {
+                    return endpoint;
+                }
+            }
+            return Endpoint.HOT;
+        }
+    }
+}
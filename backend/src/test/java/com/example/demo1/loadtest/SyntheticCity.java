@@ -0,0 +1,55 @@
+package com.example.demo1.loadtest;
+
+import java.util.Random;
+
+/**
+ * 合成数据与压测共用的城市（省份、城市、中心坐标、权重）
+ * 权重决定用户、酒吧和动态在各城市间的偏斜分布。
+ */
+enum SyntheticCity {
+    SHANGHAI("上海市", "上海市", 31.2304, 121.4737, 30),
+    BEIJING("北京市", "北京市", 39.9042, 116.4074, 25),
+    SHENZHEN("广东省", "深圳市", 22.5431, 114.0579, 15),
+    HANGZHOU("浙江省", "杭州市", 30.2741, 120.1551, 10),
+    CHENGDU("四川省", "成都市", 30.5728, 104.0668, 10),
+    WUHAN("湖北省", "武汉市", 30.5928, 114.3055, 5),
+    XIAN("陕西省", "西安市", 34.3416, 108.9398, 5);
+
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (SyntheticCity city : values()) {
+            total += city.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    final String province;
+    final String city;
+    final double latitude;
+    final double longitude;
+    final int weight;
+
+    SyntheticCity(String province, String city, double latitude, double longitude, int weight) {
+        this.province = province;
+        this.city = city;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.weight = weight;
+    }
+
+    /**
+     * 按权重随机选择城市
+     */
+    static SyntheticCity pick(Random random) {
+        int r = random.nextInt(TOTAL_WEIGHT);
+        for (SyntheticCity city : values()) {
+            r -= city.weight;
+            if (r < 0) {
+                return city;
+            }
+        }
+        return SHANGHAI;
+    }
+}
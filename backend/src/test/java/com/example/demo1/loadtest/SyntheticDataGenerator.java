@@ -0,0 +1,475 @@
+package com.example.demo1.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 合成数据生成器
+ * 按 data/beverage_platform_schema_only.sql 的表结构生成偏斜分布的压测数据（SQL 文件）：
+ * 用户、关注关系、动态、动态标签、用户行为、带坐标的酒吧、活动和私信。
+ * 
+ * 偏斜分布：
+ * - 关注：被关注者服从 Zipf 分布，少数"大V"拥有大部分粉丝
+ * - 动态：作者服从 Zipf 分布，发布时间越近越密集
+ * - 行为：用户活跃度和动态热度都服从 Zipf 分布，新动态更容易被互动
+ * - 城市：用户、酒吧按 SyntheticCity 权重分布，酒吧集中在城市中心附近
+ * 
+ * 相同的 --seed 和 --now 生成完全相同的文件。
+ * 生成的用户名为 lt_user_1..N，密码统一为 --password，供 LoadDriver 登录。
+ * 
+ * 运行方式：
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.demo1.loadtest.SyntheticDataGenerator \
+ *     -Dexec.args="--seed 42 --users 10000 --out target/synthetic.sql"
+ *   mysql -uroot -p beverage_platform < target/synthetic.sql
+ */
+public class SyntheticDataGenerator {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 每条 INSERT 语句包含的行数
+    private static final int BATCH_ROWS = 500;
+
+    private static final String[] BEVERAGES = {
+        "威士忌", "鸡尾酒", "啤酒", "红酒", "金酒", "朗姆酒", "清酒", "白兰地", "伏特加", "龙舌兰", "梅酒", "白酒"
+    };
+    private static final String[] ATMOSPHERES = {"安静", "热闹", "放松", "温馨", "浪漫", "优雅", "私密", "激情"};
+    private static final String[] TOPICS = {
+        "周末微醺", "下班一杯", "精酿日记", "探店", "调酒师推荐", "一人食", "朋友聚会", "夜生活"
+    };
+    private static final String[] TASTES = {"果香浓郁", "烟熏味很重", "入口顺滑", "回甘明显", "偏甜", "酸度适中", "泥煤味十足"};
+    private static final String[] DISTRICTS = {"中心区", "老城区", "新区", "高新区", "滨江区"};
+    private static final String[] BAR_PREFIXES = {"微醺", "月光", "老友", "夜航", "麦芽", "橡木桶", "霓虹", "角落"};
+    private static final String[] BAR_SUFFIXES = {"酒馆", "Bar", "小酒馆", "Lounge", "精酿屋", "Pub"};
+    private static final String[] MESSAGES = {
+        "周末一起去喝一杯？", "你推荐的那家店真不错", "这款酒哪里能买到？", "下次带我去", "哈哈同感", "收藏了，谢谢分享"
+    };
+    private static final String[] BEHAVIOR_TYPES = {"VIEW", "LIKE", "FAVORITE", "COMMENT", "SHARE"};
+    // 行为类型分布：浏览占绝大多数
+    private static final int[] BEHAVIOR_TYPE_WEIGHTS = {80, 10, 4, 4, 2};
+    private static final int[] BEHAVIOR_DB_WEIGHTS = {1, 3, 5, 4, 2};
+
+    private final Options options;
+    private final LocalDateTime now;
+    private BufferedWriter out;
+
+    private SyntheticDataGenerator(Options options) {
+        this.options = options;
+        this.now = options.now.atTime(12, 0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        long start = System.currentTimeMillis();
+        new SyntheticDataGenerator(options).generate();
+        System.out.printf("已生成 %s（用户%d，seed=%d），耗时 %dms%n",
+            options.out, options.users, options.seed, System.currentTimeMillis() - start);
+    }
+
+    private void generate() throws IOException, NoSuchAlgorithmException {
+        Path path = Paths.get(options.out);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out = writer;
+            out.write("-- 合成压测数据，由 SyntheticDataGenerator 生成\n");
+            out.write(String.format("-- seed=%d, users=%d, now=%s, id-base=%d%n",
+                options.seed, options.users, options.now, options.idBase));
+            out.write("SET NAMES utf8mb4;\nSET FOREIGN_KEY_CHECKS=0;\nSET UNIQUE_CHECKS=0;\n\n");
+
+            SyntheticCity[] userCities = generateUsers();
+            generateFollows();
+            PostMeta posts = generatePostsMeta(userCities);
+            int[][] counters = generateBehaviors(posts);
+            writePosts(posts, counters);
+            writePostTags(posts);
+            long[] barIds = generateBars();
+            generateActivities(barIds);
+            generateMessages();
+
+            out.write("SET UNIQUE_CHECKS=1;\nSET FOREIGN_KEY_CHECKS=1;\n");
+        }
+    }
+
+    private SyntheticCity[] generateUsers() throws IOException, NoSuchAlgorithmException {
+        Random random = new Random(options.seed);
+        // 固定盐值的随机源，保证密码哈希也是确定的
+        SecureRandom saltRandom = SecureRandom.getInstance("SHA1PRNG");
+        saltRandom.setSeed(options.seed);
+        String passwordHash = BCrypt.hashpw(options.password, BCrypt.gensalt(10, saltRandom));
+
+        SyntheticCity[] cities = new SyntheticCity[options.users];
+        String[] genders = {"MALE", "FEMALE", "SECRET"};
+        Inserter inserter = new Inserter("user",
+            "id, username, password, email, role, bio, gender, level, created_at, is_active, message_policy");
+        for (int i = 0; i < options.users; i++) {
+            cities[i] = SyntheticCity.pick(random);
+            long id = userId(i);
+            // 前 2% 的用户是商家，酒吧归属于他们
+            String role = i < sellerCount() ? "SELLER" : "USER";
+            inserter.add(id, "lt_user_" + (i + 1), passwordHash, "lt_user_" + (i + 1) + "@example.com", role,
+                "来自" + cities[i].city + "的酒友", genders[random.nextInt(genders.length)], 1 + random.nextInt(10),
+                time(now.minusDays(options.days + random.nextInt(365))), 1, "ALL");
+        }
+        inserter.finish();
+        return cities;
+    }
+
+    private void generateFollows() throws IOException {
+        Random random = new Random(options.seed + 1);
+        ZipfSampler followee = new ZipfSampler(options.users, 1.1);
+        Inserter inserter = new Inserter("user_follow", "id, follower_id, followee_id, created_at");
+        long id = options.idBase;
+        for (int i = 0; i < options.users; i++) {
+            int followCount = (int) Math.min(options.users - 1, Math.round(Math.exp(random.nextGaussian() + 2.5)));
+            Set<Integer> followees = new HashSet<>();
+            for (int attempt = 0; followees.size() < followCount && attempt < followCount * 3; attempt++) {
+                int target = followee.sample(random);
+                if (target != i) {
+                    followees.add(target);
+                }
+            }
+            for (int target : followees) {
+                inserter.add(id++, userId(i), userId(target), time(now.minusMinutes(random.nextInt(options.days * 1440))));
+            }
+        }
+        inserter.finish();
+    }
+
+    private PostMeta generatePostsMeta(SyntheticCity[] userCities) {
+        Random random = new Random(options.seed + 2);
+        ZipfSampler author = new ZipfSampler(options.users, 0.8);
+        int count = options.users * options.postsPerUser;
+        PostMeta posts = new PostMeta(count);
+        for (int i = 0; i < count; i++) {
+            int authorIndex = author.sample(random);
+            SyntheticCity city = userCities[authorIndex];
+            String beverage = BEVERAGES[(int) (BEVERAGES.length * Math.pow(random.nextDouble(), 2))];
+            String atmosphere = ATMOSPHERES[random.nextInt(ATMOSPHERES.length)];
+            String topic = TOPICS[random.nextInt(TOPICS.length)];
+            String taste = TASTES[random.nextInt(TASTES.length)];
+            boolean atBar = random.nextDouble() < 0.6;
+
+            StringBuilder content = new StringBuilder();
+            content.append(atBar ? "今晚在" + city.city + "的一家酒吧" : "在家").append("喝了")
+                .append(beverage).append("，").append(taste).append("，氛围很").append(atmosphere).append("。");
+            if (random.nextDouble() < 0.5) {
+                content.append("#").append(topic).append("#");
+            }
+            // 越近的时间越密集：发布时间距今的天数服从平方分布
+            long minutesAgo = (long) (options.days * 1440 * Math.pow(random.nextDouble(), 2));
+
+            posts.authors[i] = authorIndex;
+            posts.contents[i] = content.toString();
+            posts.locations[i] = random.nextDouble() < 0.7 ? city.city : null;
+            posts.createdAt[i] = now.minusMinutes(minutesAgo);
+
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put(beverage, "BEVERAGE_TYPE");
+            tags.put(atmosphere, "SCENE");
+            if (atBar) {
+                tags.put("酒吧", "LOCATION");
+            }
+            if (content.indexOf("#") >= 0) {
+                tags.put(topic, "OTHER");
+            }
+            posts.tags.add(tags);
+        }
+        return posts;
+    }
+
+    /**
+     * 生成用户行为并统计每条动态的浏览/点赞/收藏/评论数
+     */
+    private int[][] generateBehaviors(PostMeta posts) throws IOException {
+        Random random = new Random(options.seed + 3);
+        int postCount = posts.authors.length;
+        // 按发布时间从新到旧排列，热度排名靠前的优先是新动态
+        Integer[] byRecency = new Integer[postCount];
+        for (int i = 0; i < postCount; i++) {
+            byRecency[i] = i;
+        }
+        Arrays.sort(byRecency, (a, b) -> posts.createdAt[b].compareTo(posts.createdAt[a]));
+        // 热度排名在新动态中局部打乱，避免热度与时间完全一致
+        for (int i = 0; i < postCount; i++) {
+            int j = Math.min(postCount - 1, i + random.nextInt(50));
+            Integer tmp = byRecency[i];
+            byRecency[i] = byRecency[j];
+            byRecency[j] = tmp;
+        }
+
+        ZipfSampler postPopularity = new ZipfSampler(postCount, 0.9);
+        ZipfSampler userActivity = new ZipfSampler(options.users, 0.7);
+        int[][] counters = new int[4][postCount];
+        long total = (long) options.users * options.behaviorsPerUser;
+
+        Inserter inserter = new Inserter("user_behavior",
+            "id, user_id, target_type, target_id, behavior_type, weight, created_at");
+        for (long id = 0; id < total; id++) {
+            int userIndex = userActivity.sample(random);
+            int post = byRecency[postPopularity.sample(random)];
+            int type = weightedIndex(random, BEHAVIOR_TYPE_WEIGHTS);
+            LocalDateTime postTime = posts.createdAt[post];
+            long windowMinutes = Math.max(1, Duration.between(postTime, now).toMinutes());
+            // 互动集中在发布后不久
+            LocalDateTime at = postTime.plusMinutes((long) (windowMinutes * Math.pow(random.nextDouble(), 3)));
+            inserter.add(options.idBase + id, userId(userIndex), "POST", postId(post), BEHAVIOR_TYPES[type],
+                BEHAVIOR_DB_WEIGHTS[type], time(at));
+            if (type < 4) {
+                counters[type][post]++;
+            }
+        }
+        inserter.finish();
+        return counters;
+    }
+
+    private void writePosts(PostMeta posts, int[][] counters) throws IOException {
+        Inserter inserter = new Inserter("share_post",
+            "id, user_id, content, location, tags, view_count, like_count, favorite_count, comment_count, created_at");
+        for (int i = 0; i < posts.authors.length; i++) {
+            inserter.add(postId(i), userId(posts.authors[i]), posts.contents[i], posts.locations[i],
+                String.join(",", posts.tags.get(i).keySet()),
+                counters[0][i], counters[1][i], counters[2][i], counters[3][i], time(posts.createdAt[i]));
+        }
+        inserter.finish();
+    }
+
+    private void writePostTags(PostMeta posts) throws IOException {
+        Inserter inserter = new Inserter("post_tag", "id, post_id, tag_name, tag_category, source, created_at");
+        long id = options.idBase;
+        for (int i = 0; i < posts.authors.length; i++) {
+            for (Map.Entry<String, String> tag : posts.tags.get(i).entrySet()) {
+                inserter.add(id++, postId(i), tag.getKey(), tag.getValue(), "AUTO", time(posts.createdAt[i]));
+            }
+        }
+        inserter.finish();
+    }
+
+    private long[] generateBars() throws IOException {
+        Random random = new Random(options.seed + 4);
+        int count = Math.max(1, options.users / 20);
+        long[] ids = new long[count];
+        Inserter inserter = new Inserter("bar",
+            "id, name, address, province, city, district, latitude, longitude, opening_time, closing_time, "
+                + "contact_phone, description, main_beverages, owner_id, avg_rating, review_count, created_at, is_active");
+        for (int i = 0; i < count; i++) {
+            SyntheticCity city = SyntheticCity.pick(random);
+            // 酒吧集中在城市中心约 15 公里范围内（正态分布，标准差约 5 公里）
+            double latitude = city.latitude + random.nextGaussian() * 0.045;
+            double longitude = city.longitude + random.nextGaussian() * 0.045;
+            String district = DISTRICTS[random.nextInt(DISTRICTS.length)];
+            String name = BAR_PREFIXES[random.nextInt(BAR_PREFIXES.length)]
+                + BAR_SUFFIXES[random.nextInt(BAR_SUFFIXES.length)] + "·" + (i + 1);
+            int reviewCount = (int) (300 * Math.pow(random.nextDouble(), 3));
+            ids[i] = options.idBase + i;
+            inserter.add(ids[i], name, city.city + district + "酒吧街" + (1 + random.nextInt(200)) + "号",
+                city.province, city.city, district,
+                String.format("%.7f", latitude), String.format("%.7f", longitude),
+                "18:00:00", "02:00:00", String.format("1380000%04d", i % 10000),
+                "主打" + BEVERAGES[random.nextInt(BEVERAGES.length)] + "的" + ATMOSPHERES[random.nextInt(ATMOSPHERES.length)] + "小店",
+                BEVERAGES[random.nextInt(BEVERAGES.length)] + "," + BEVERAGES[random.nextInt(BEVERAGES.length)],
+                userId(random.nextInt(sellerCount())),
+                String.format("%.2f", reviewCount == 0 ? 0.0 : 3.0 + random.nextDouble() * 2.0), reviewCount,
+                time(now.minusDays(random.nextInt(365))), 1);
+        }
+        inserter.finish();
+        return ids;
+    }
+
+    private void generateActivities(long[] barIds) throws IOException {
+        Random random = new Random(options.seed + 5);
+        int count = Math.max(1, options.users / 50);
+        String[] statuses = {"APPROVED", "ONGOING", "FINISHED", "PENDING"};
+        Inserter inserter = new Inserter("activity",
+            "id, organizer_id, activity_time, bar_id, max_participants, remark, review_status, status, created_at, is_active");
+        for (int i = 0; i < count; i++) {
+            String status = statuses[weightedIndex(random, new int[]{50, 10, 30, 10})];
+            LocalDateTime activityTime = "FINISHED".equals(status)
+                ? now.minusHours(1 + random.nextInt(options.days * 24))
+                : now.plusHours(1 + random.nextInt(30 * 24));
+            inserter.add(options.idBase + i, userId(random.nextInt(options.users)), time(activityTime),
+                barIds[random.nextInt(barIds.length)], 4 + random.nextInt(20),
+                "一起来喝" + BEVERAGES[random.nextInt(BEVERAGES.length)],
+                "PENDING".equals(status) ? "PENDING" : "APPROVED", status,
+                time(activityTime.minusDays(1 + random.nextInt(14))), 1);
+        }
+        inserter.finish();
+    }
+
+    private void generateMessages() throws IOException {
+        Random random = new Random(options.seed + 6);
+        ZipfSampler receiver = new ZipfSampler(options.users, 1.0);
+        long count = (long) options.users * 2;
+        Inserter inserter = new Inserter("private_message", "id, sender_id, receiver_id, content, is_read, created_at");
+        for (long i = 0; i < count; i++) {
+            int sender = random.nextInt(options.users);
+            int target = receiver.sample(random);
+            if (target == sender) {
+                target = (target + 1) % options.users;
+            }
+            inserter.add(options.idBase + i, userId(sender), userId(target), MESSAGES[random.nextInt(MESSAGES.length)],
+                random.nextDouble() < 0.7 ? 1 : 0, time(now.minusMinutes(random.nextInt(options.days * 1440))));
+        }
+        inserter.finish();
+    }
+
+    private int sellerCount() {
+        return Math.max(1, options.users / 50);
+    }
+
+    private long userId(int index) {
+        return options.idBase + index;
+    }
+
+    private long postId(int index) {
+        return options.idBase + index;
+    }
+
+    private static int weightedIndex(Random random, int[] weights) {
+        int total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static String time(LocalDateTime time) {
+        return time.format(TIME_FORMAT);
+    }
+
+    /**
+     * 批量写出多行 INSERT 语句
+     */
+    private final class Inserter {
+        private final String header;
+        private int rows;
+        private long total;
+        private final String table;
+
+        Inserter(String table, String columns) {
+            this.table = table;
+            this.header = "INSERT INTO `" + table + "` (" + columns + ") VALUES\n";
+        }
+
+        void add(Object... values) throws IOException {
+            out.write(rows == 0 ? header : ",\n");
+            out.write('(');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                out.write(literal(values[i]));
+            }
+            out.write(')');
+            total++;
+            if (++rows >= BATCH_ROWS) {
+                out.write(";\n");
+                rows = 0;
+            }
+        }
+
+        void finish() throws IOException {
+            if (rows > 0) {
+                out.write(";\n");
+                rows = 0;
+            }
+            out.write("-- " + table + ": " + total + " 行\n\n");
+        }
+
+        private String literal(Object value) {
+            if (value == null) {
+                return "NULL";
+            }
+            if (value instanceof Number) {
+                return value.toString();
+            }
+            return "'" + value.toString().replace("\\", "\\\\").replace("'", "''") + "'";
+        }
+    }
+
+    /**
+     * 动态的元数据（按下标存储，下标 i 对应 ID idBase + i）
+     */
+    private static final class PostMeta {
+        final int[] authors;
+        final String[] contents;
+        final String[] locations;
+        final LocalDateTime[] createdAt;
+        final List<Map<String, String>> tags;
+
+        PostMeta(int count) {
+            authors = new int[count];
+            contents = new String[count];
+            locations = new String[count];
+            createdAt = new LocalDateTime[count];
+            tags = new ArrayList<>(count);
+        }
+    }
+
+    /**
+     * 命令行参数
+     */
+    static final class Options {
+        long seed = 42L;
+        int users = 10000;
+        int postsPerUser = 5;
+        int behaviorsPerUser = 40;
+        int days = 60;
+        long idBase = 100000L;
+        String password = "loadtest123";
+        LocalDate now = LocalDate.now();
+        String out = "target/synthetic.sql";
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String key = args[i];
+                String value = args[i + 1];
+                switch (key) {
+                    case "--seed" -> options.seed = Long.parseLong(value);
+                    case "--users" -> options.users = Integer.parseInt(value);
+                    case "--posts-per-user" -> options.postsPerUser = Integer.parseInt(value);
+                    case "--behaviors-per-user" -> options.behaviorsPerUser = Integer.parseInt(value);
+                    case "--days" -> options.days = Integer.parseInt(value);
+                    case "--id-base" -> options.idBase = Long.parseLong(value);
+                    case "--password" -> options.password = value;
+                    case "--now" -> options.now = LocalDate.parse(value);
+                    case "--out" -> options.out = value;
+                    default -> throw new IllegalArgumentException("未知参数: " + key);
+                }
+            }
+            if (options.users < 2) {
+                throw new IllegalArgumentException("--users 至少为 2");
+            }
+            return options;
+        }
+    }
+}
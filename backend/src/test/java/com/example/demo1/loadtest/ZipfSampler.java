@@ -0,0 +1,34 @@
+package com.example.demo1.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf 分布采样器：返回 [0, n) 的下标，下标越小被选中的概率越高
+ * 概率正比于 1 / (rank + 1)^exponent，预先计算累积分布后二分查找。
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n 必须为正数");
+        }
+        cdf = new double[n];
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int sample(Random random) {
+        int idx = Arrays.binarySearch(cdf, random.nextDouble());
+        int result = idx >= 0 ? idx : -idx - 1;
+        return Math.min(result, cdf.length - 1);
+    }
+}
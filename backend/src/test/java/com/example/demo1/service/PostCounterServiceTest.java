@@ -0,0 +1,204 @@
+package com.example.demo1.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.example.demo1.common.enums.PostCounter;
+import com.example.demo1.entity.SharePost;
+import com.example.demo1.mapper.SharePostMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class PostCounterServiceTest {
+
+    private static final Pattern SET_CLAUSE = Pattern.compile("(\\w+) = GREATEST\\(\\w+ \\+ \\((-?\\d+)\\), 0\\)");
+
+    // 模拟 share_post 表：动态ID -> 列名 -> 计数
+    private final Map<Long, Map<String, Long>> table = new ConcurrentHashMap<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger updates = new AtomicInteger();
+    private volatile Runnable duringUpdate = () -> { };
+
+    private SharePostMapper mapper;
+    private PostCounterService service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), SharePost.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(SharePostMapper.class);
+        when(mapper.update(isNull(), any())).thenAnswer(invocation -> {
+            updates.incrementAndGet();
+            duringUpdate.run();
+            if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("模拟数据库写入失败");
+            }
+            apply(invocation.getArgument(1));
+            return 1;
+        });
+        service = new PostCounterService(mapper);
+    }
+
+    @Test
+    void testFlushGroupsIdenticalIncrements() {
+        service.increment(1L, PostCounter.VIEW, 1);
+        service.increment(2L, PostCounter.VIEW, 1);
+        service.increment(3L, PostCounter.LIKE, 2);
+
+        service.flush();
+
+        assertEquals(2, updates.get());
+        assertEquals(1, count(1L, PostCounter.VIEW));
+        assertEquals(1, count(2L, PostCounter.VIEW));
+        assertEquals(2, count(3L, PostCounter.LIKE));
+        assertEquals(3, service.withPending(post(3L, 0)).getLikeCount());
+    }
+
+    @Test
+    void testIncrementsDuringFlushAreWrittenNextRound() {
+        service.increment(1L, PostCounter.LIKE, 1);
+        duringUpdate = () -> service.increment(1L, PostCounter.LIKE, 1);
+        service.flush();
+        duringUpdate = () -> { };
+
+        assertEquals(1, count(1L, PostCounter.LIKE));
+        // 数据库中已有 1，内存中还剩写回期间新增的 1
+        assertEquals(2, service.withPending(post(1L, 1)).getLikeCount());
+
+        service.flush();
+        assertEquals(2, count(1L, PostCounter.LIKE));
+        assertEquals(2, service.withPending(post(1L, 2)).getLikeCount());
+    }
+
+    @Test
+    void testConcurrentIncrementsAreNotLost() throws Exception {
+        int threads = 4;
+        int perThread = 20000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            long postId = t % 2 + 1;
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    service.increment(postId, PostCounter.VIEW, 1);
+                }
+                done.countDown();
+            }).start();
+        }
+        while (done.getCount() > 0) {
+            service.flush();
+        }
+        service.flush();
+
+        assertEquals(threads * perThread / 2, count(1L, PostCounter.VIEW));
+        assertEquals(threads * perThread / 2, count(2L, PostCounter.VIEW));
+    }
+
+    @Test
+    void testFailedFlushIsRetriedWithoutDoubleCounting() {
+        service.increment(1L, PostCounter.COMMENT, 3);
+        failuresLeft.set(2);
+
+        service.flush();
+        service.flush();
+        assertEquals(0, count(1L, PostCounter.COMMENT));
+        assertEquals(3, service.withPending(post(1L, 0)).getCommentCount());
+
+        service.flush();
+        assertEquals(3, count(1L, PostCounter.COMMENT));
+
+        int before = updates.get();
+        service.flush();
+        assertEquals(before, updates.get());
+        assertEquals(3, count(1L, PostCounter.COMMENT));
+    }
+
+    @Test
+    void testUnflushedDeltasAreNeverEvicted() {
+        service.increment(1L, PostCounter.FAVORITE, 1);
+        failuresLeft.set(5);
+        for (int i = 0; i < 5; i++) {
+            service.flush();
+        }
+        assertEquals(1, service.withPending(post(1L, 0)).getFavoriteCount());
+
+        service.flush();
+        assertEquals(1, count(1L, PostCounter.FAVORITE));
+    }
+
+    @Test
+    void testLateIncrementOnEvictedEntryIsRescued() {
+        service.increment(1L, PostCounter.LIKE, 1);
+        service.flush();
+        Object evicted = pending().get(1L);
+        for (int i = 0; i < 3; i++) {
+            service.flush();
+        }
+        assertFalse(pending().containsKey(1L));
+
+        // 淘汰前已拿到引用的写入线程在淘汰后才累加
+        ReflectionTestUtils.invokeMethod(evicted, "add", PostCounter.LIKE, 1L);
+        service.flush();
+        service.flush();
+
+        assertEquals(2, count(1L, PostCounter.LIKE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Object> pending() {
+        return (Map<Long, Object>) ReflectionTestUtils.getField(service, "pending");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(Object argument) {
+        LambdaUpdateWrapper<SharePost> wrapper = (LambdaUpdateWrapper<SharePost>) argument;
+        // 生成 WHERE 片段时才会把 IN 的参数放入 paramNameValuePairs
+        wrapper.getSqlSegment();
+        List<Long> postIds = new ArrayList<>();
+        for (Object value : wrapper.getParamNameValuePairs().values()) {
+            postIds.add((Long) value);
+        }
+        Matcher matcher = SET_CLAUSE.matcher(wrapper.getSqlSet());
+        while (matcher.find()) {
+            String column = matcher.group(1);
+            long increment = Long.parseLong(matcher.group(2));
+            for (Long postId : postIds) {
+                table.computeIfAbsent(postId, k -> new ConcurrentHashMap<>())
+                    .merge(column, increment, (a, b) -> Math.max(0, a + b));
+            }
+        }
+    }
+
+    private long count(Long postId, PostCounter counter) {
+        return table.getOrDefault(postId, Map.of()).getOrDefault(counter.getColumn(), 0L);
+    }
+
+    private static SharePost post(Long id, int count) {
+        SharePost post = new SharePost();
+        post.setId(id);
+        post.setViewCount(count);
+        post.setLikeCount(count);
+        post.setFavoriteCount(count);
+        post.setCommentCount(count);
+        return post;
+    }
+}
@@ -623,6 +623,28 @@ CREATE TABLE `post_tag` (
 ) ENGINE=InnoDB AUTO_INCREMENT=451 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='动态标签表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `precomputed_recommendation`
+--
+
+DROP TABLE IF EXISTS `precomputed_recommendation`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `precomputed_recommendation` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `post_id` bigint NOT NULL COMMENT '推荐的动态ID',
+  `score` double NOT NULL COMMENT '混合推荐分数',
+  `rank_no` int NOT NULL COMMENT '排名（从0开始）',
+  `batch_date` date NOT NULL COMMENT '批次日期',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP COMMENT '计算时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_user_rank` (`user_id`,`rank_no`) USING BTREE,
+  KEY `idx_batch_date_rank` (`batch_date`,`rank_no`) USING BTREE,
+  CONSTRAINT `precomputed_recommendation_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='离线预计算推荐结果表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `private_message`
 --
@@ -646,6 +668,45 @@ CREATE TABLE `private_message` (
 ) ENGINE=InnoDB AUTO_INCREMENT=17 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='私信表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `recommendation_batch_run`
+--
+
+DROP TABLE IF EXISTS `recommendation_batch_run`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `recommendation_batch_run` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `batch_date` date NOT NULL COMMENT '批次日期',
+  `status` varchar(20) NOT NULL COMMENT '运行状态：RUNNING/FINISHED/FAILED',
+  `total_users` int NOT NULL DEFAULT '0' COMMENT '需要计算的活跃用户数',
+  `processed_users` int NOT NULL DEFAULT '0' COMMENT '已完成的用户数',
+  `failed_users` int NOT NULL DEFAULT '0' COMMENT '计算失败的用户数',
+  `started_at` datetime DEFAULT NULL COMMENT '开始时间',
+  `finished_at` datetime DEFAULT NULL COMMENT '结束时间',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_batch_date` (`batch_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='离线推荐批次运行记录表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `recommendation_batch_user`
+--
+
+DROP TABLE IF EXISTS `recommendation_batch_user`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `recommendation_batch_user` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `batch_date` date NOT NULL COMMENT '批次日期',
+  `user_id` bigint NOT NULL COMMENT '已完成计算的用户ID',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP COMMENT '完成时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_batch_user` (`batch_date`,`user_id`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='离线推荐批次已完成用户表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `share_post`
 --
@@ -662,6 +723,7 @@ CREATE TABLE `share_post` (
   `ip_address` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT NULL,
   `ip_region` varchar(128) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT NULL,
   `view_count` int DEFAULT '0',
+  `unique_view_count` int DEFAULT '0' COMMENT '去重浏览人数（HyperLogLog 估计值）',
   `like_count` int DEFAULT '0',
   `favorite_count` int DEFAULT '0',
   `comment_count` int DEFAULT '0',
@@ -669,6 +731,8 @@ CREATE TABLE `share_post` (
   PRIMARY KEY (`id`) USING BTREE,
   KEY `idx_share_post_user` (`user_id`) USING BTREE,
   KEY `idx_share_post_created_at` (`created_at`) USING BTREE,
+  KEY `idx_share_post_user_created` (`user_id`,`created_at`,`id`) USING BTREE,
+  KEY `idx_share_post_location_created` (`location`,`created_at`,`id`) USING BTREE,
   CONSTRAINT `share_post_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
 ) ENGINE=InnoDB AUTO_INCREMENT=78 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='动态分享表';
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -685,6 +749,7 @@ CREATE TABLE `share_post_comment` (
   `post_id` bigint NOT NULL,
   `user_id` bigint NOT NULL,
   `parent_id` bigint DEFAULT NULL,
+  `root_id` bigint DEFAULT NULL COMMENT '所属一级评论ID，一级评论为空',
   `content` text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL,
   `like_count` int DEFAULT '0',
   `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
@@ -692,6 +757,8 @@ CREATE TABLE `share_post_comment` (
   KEY `user_id` (`user_id`) USING BTREE,
   KEY `idx_post_id` (`post_id`) USING BTREE,
   KEY `idx_parent_id` (`parent_id`) USING BTREE,
+  KEY `idx_comment_post_parent_created` (`post_id`,`parent_id`,`created_at`,`id`) USING BTREE,
+  KEY `idx_comment_root_created` (`root_id`,`created_at`,`id`) USING BTREE,
   CONSTRAINT `share_post_comment_ibfk_1` FOREIGN KEY (`post_id`) REFERENCES `share_post` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
   CONSTRAINT `share_post_comment_ibfk_2` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
   CONSTRAINT `share_post_comment_ibfk_3` FOREIGN KEY (`parent_id`) REFERENCES `share_post_comment` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
@@ -739,6 +806,24 @@ CREATE TABLE `share_post_like` (
 ) ENGINE=InnoDB AUTO_INCREMENT=333 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='动态点赞表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `share_post_view_sketch`
+--
+
+DROP TABLE IF EXISTS `share_post_view_sketch`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `share_post_view_sketch` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `post_id` bigint NOT NULL COMMENT '动态ID',
+  `sketch_data` blob NOT NULL COMMENT '序列化的 HyperLogLog',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_post_id` (`post_id`) USING BTREE,
+  CONSTRAINT `share_post_view_sketch_ibfk_1` FOREIGN KEY (`post_id`) REFERENCES `share_post` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='动态去重浏览人数表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `tag`
 --
@@ -755,6 +840,25 @@ CREATE TABLE `tag` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='标签表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `tag_keyword`
+--
+
+DROP TABLE IF EXISTS `tag_keyword`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `tag_keyword` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `keyword` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '关键词，匹配时忽略大小写',
+  `tag_category` enum('BEVERAGE_TYPE','TASTE','SCENE','LOCATION','OTHER') CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL DEFAULT 'OTHER' COMMENT '命中后生成标签的分类',
+  `is_active` tinyint(1) NOT NULL DEFAULT '1' COMMENT '停用的词条不参与匹配，与内置词同名时可屏蔽内置词',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_tag_keyword` (`keyword`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='自动标签关键词词典';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `user`
 --
@@ -899,6 +1003,42 @@ CREATE TABLE `user_footprint` (
 ) ENGINE=InnoDB AUTO_INCREMENT=127 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='用户足迹表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `user_neighbor`
+--
+
+DROP TABLE IF EXISTS `user_neighbor`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_neighbor` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `neighbor_id` bigint NOT NULL COMMENT '相似用户ID',
+  `similarity` double NOT NULL COMMENT '余弦相似度',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP COMMENT '计算时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_user_neighbor` (`user_id`,`neighbor_id`) USING BTREE,
+  CONSTRAINT `user_neighbor_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='协同过滤相似用户表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `user_neighbor_state`
+--
+
+DROP TABLE IF EXISTS `user_neighbor_state`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_neighbor_state` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最近一次计算相似用户的时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_user_id` (`user_id`) USING BTREE,
+  CONSTRAINT `user_neighbor_state_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='相似用户计算状态（已计算过的用户，含结果为空的）';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `user_preference`
 --
@@ -922,6 +1062,66 @@ CREATE TABLE `user_preference` (
 ) ENGINE=InnoDB AUTO_INCREMENT=163 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='用户偏好表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `user_seen_post_filter`
+--
+
+DROP TABLE IF EXISTS `user_seen_post_filter`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_seen_post_filter` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `filter_data` longblob NOT NULL COMMENT '序列化的可扩容布隆过滤器',
+  `item_count` bigint NOT NULL DEFAULT '0' COMMENT '已写入的动态数',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_user_id` (`user_id`) USING BTREE,
+  CONSTRAINT `user_seen_post_filter_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='用户已看动态布隆过滤器表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `user_timeline`
+--
+
+DROP TABLE IF EXISTS `user_timeline`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_timeline` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT '时间线所属用户',
+  `post_id` bigint NOT NULL COMMENT '动态ID',
+  `author_id` bigint NOT NULL COMMENT '动态作者ID',
+  `post_created_at` timestamp NOT NULL COMMENT '动态发布时间（排序用）',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_timeline_user_post` (`user_id`,`post_id`) USING BTREE,
+  KEY `idx_timeline_user_time` (`user_id`,`post_created_at`,`post_id`) USING BTREE,
+  KEY `idx_timeline_user_author` (`user_id`,`author_id`) USING BTREE,
+  KEY `idx_timeline_post` (`post_id`) USING BTREE,
+  KEY `idx_timeline_post_created_at` (`post_created_at`) USING BTREE,
+  CONSTRAINT `user_timeline_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
+  CONSTRAINT `user_timeline_ibfk_2` FOREIGN KEY (`post_id`) REFERENCES `share_post` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='关注动态时间线收件箱（写扩散）';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `user_timeline_state`
+--
+
+DROP TABLE IF EXISTS `user_timeline_state`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_timeline_state` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP COMMENT '收件箱初始化完成时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_user_id` (`user_id`) USING BTREE,
+  CONSTRAINT `user_timeline_state_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='关注动态时间线状态（收件箱是否已初始化）';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `wiki_discussion`
 --
@@ -979,6 +1179,7 @@ CREATE TABLE `wiki_page` (
   PRIMARY KEY (`id`) USING BTREE,
   UNIQUE KEY `slug` (`slug`) USING BTREE,
   KEY `idx_wiki_title` (`title`) USING BTREE,
+  KEY `idx_wiki_status_updated` (`status`,`updated_at`,`id`) USING BTREE,
   KEY `last_editor_id` (`last_editor_id`) USING BTREE,
   CONSTRAINT `wiki_page_ibfk_1` FOREIGN KEY (`last_editor_id`) REFERENCES `user` (`id`) ON DELETE SET NULL ON UPDATE RESTRICT
 ) ENGINE=InnoDB AUTO_INCREMENT=99 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='维基页面表';
@@ -10,6 +10,15 @@ export const circleApi = {
     })
   },
 
+  // 游标分页获取动态列表，cursor 为空时取第一页
+  listPostsByCursor: (cursor = null, pageSize = 12) => {
+    return request({
+      url: '/circle/posts/cursor',
+      method: 'get',
+      params: { cursor, pageSize }
+    })
+  },
+
   // 获取关注用户的动态列表（分页）
   listFeed: (page = 1, pageSize = 12) => {
     return request({
@@ -19,6 +28,14 @@ export const circleApi = {
     })
   },
 
+  listFeedByCursor: (cursor = null, pageSize = 12) => {
+    return request({
+      url: '/circle/feed/cursor',
+      method: 'get',
+      params: { cursor, pageSize }
+    })
+  },
+
   listUserPosts: (userId, page = 1, pageSize = 10) => {
     return request({
       url: `/circle/users/${userId}/posts`,
@@ -27,6 +44,14 @@ export const circleApi = {
     })
   },
 
+  listUserPostsByCursor: (userId, cursor = null, pageSize = 10) => {
+    return request({
+      url: `/circle/users/${userId}/posts/cursor`,
+      method: 'get',
+      params: { cursor, pageSize }
+    })
+  },
+
   // 发布新动态
   createPost: (data) => {
     return request({
@@ -45,6 +70,14 @@ export const circleApi = {
     })
   },
 
+  listPostsByCityByCursor: (city, cursor = null, pageSize = 12) => {
+    return request({
+      url: '/circle/nearby/cursor',
+      method: 'get',
+      params: { city, cursor, pageSize }
+    })
+  },
+
   // 获取单条动态详情
   getPost: (id) => {
     return request({
@@ -74,6 +107,24 @@ export const circleApi = {
     })
   },
 
+  // 分页获取一级评论，每条内联前 replyPreview 条回复
+  getCommentsByCursor: (id, cursor = null, pageSize = 20, replyPreview = 3) => {
+    return request({
+      url: `/circle/posts/${id}/comments/cursor`,
+      method: 'get',
+      params: { cursor, pageSize, replyPreview }
+    })
+  },
+
+  // 分页获取一级评论下的更多回复
+  getReplies: (commentId, cursor = null, pageSize = 20) => {
+    return request({
+      url: `/circle/comments/${commentId}/replies`,
+      method: 'get',
+      params: { cursor, pageSize }
+    })
+  },
+
   createComment: (id, data) => {
     return request({
       url: `/circle/posts/${id}/comments`,
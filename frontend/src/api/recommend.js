@@ -2,12 +2,12 @@ import request from './request'
 
 // 推荐 API
 export const recommendApi = {
-  // 获取推荐动态
-  getRecommendedPosts: (page = 1, size = 10) => {
+  // 获取推荐动态（传入上一页返回的 nextCursor 继续翻页）
+  getRecommendedPosts: (page = 1, size = 10, cursor = null) => {
     return request({
       url: '/recommend/posts',
       method: 'get',
-      params: { page, size }
+      params: cursor ? { size, cursor } : { page, size }
     })
   },
 
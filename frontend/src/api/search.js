@@ -8,3 +8,12 @@ export const searchAll = (params) => {
   })
 }
 
+
+// 搜索框联想（前缀 / 拼音首字母）
+export const getSuggestions = (q, limit = 8) => {
+  return request({
+    url: '/search/suggest',
+    method: 'get',
+    params: { q, limit }
+  })
+}